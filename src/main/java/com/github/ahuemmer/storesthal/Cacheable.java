@@ -1,5 +1,7 @@
 package com.github.ahuemmer.storesthal;
 
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -40,4 +42,71 @@ public @interface Cacheable {
      * @return The size of the cache denoted by {@link #cacheName()}, see notes above.
      */
     int cacheSize() default 1000;
+
+    /**
+     * The eviction policy of the cache.
+     * {@link CachePolicy#LRU} (the default) evicts the object last recently accessed, as described at
+     * {@link #cacheSize()}. If the cache is to hold a set of frequently used objects, that shouldn't be displaced
+     * by retrieving a lot of other objects once (e. g. a large collection), {@link CachePolicy#TINY_LFU} should be
+     * used instead, which only admits new objects to the cache if they are accessed frequently enough.
+     * As for {@link #cacheSize()}, the policy of the class first encountered is used for the cache denoted by
+     * {@link #cacheName()}.
+     * @return The eviction policy of the cache denoted by {@link #cacheName()}.
+     */
+    CachePolicy policy() default CachePolicy.LRU;
+
+    /**
+     * The time (in seconds) after which a cached object expires since it has been put into the cache.
+     * An expired object is never returned from the cache, instead it will be retrieved by a new HTTP call. This way,
+     * objects can be cached with a bounded staleness, without having to clear the whole cache from time to time.
+     * A value of 0 means that objects never expire, a negative value (the default) means that the default of the
+     * configuration is used (see
+     * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#getDefaultExpireAfterWriteSeconds()}).
+     * As for {@link #cacheSize()}, the setting of the class first encountered is used for the cache denoted by
+     * {@link #cacheName()}.
+     * @return The expiry after write in seconds, see notes above.
+     */
+    long expireAfterWriteSeconds() default -1;
+
+    /**
+     * The time (in seconds) after which a cached object expires since it has been accessed last (i. e. it hasn't been
+     * used for this time).
+     * A value of 0 means that objects never expire, a negative value (the default) means that the default of the
+     * configuration is used (see
+     * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#getDefaultExpireAfterAccessSeconds()}).
+     * As for {@link #cacheSize()}, the setting of the class first encountered is used for the cache denoted by
+     * {@link #cacheName()}.
+     * @return The expiry after access in seconds, see notes above.
+     */
+    long expireAfterAccessSeconds() default -1;
+
+    /**
+     * The time (in seconds) after which a cached object is "stale" since it has been put into the cache.
+     * A stale object is still returned from the cache right away ("stale-while-revalidate"), but it is retrieved anew
+     * in the background (at most once at a time), replacing the stale object in the cache once done. This way, callers
+     * don't have to wait for an HTTP call when a frequently used object becomes outdated. To bound the staleness, it
+     * can be combined with a (longer) {@link #expireAfterWriteSeconds()}.
+     * A value of 0 means that objects are never refreshed, a negative value (the default) means that the default of
+     * the configuration is used (see
+     * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#getDefaultRefreshAfterWriteSeconds()}).
+     * As for {@link #cacheSize()}, the setting of the class first encountered is used for the cache denoted by
+     * {@link #cacheName()}.
+     * @return The refresh after write in seconds, see notes above.
+     */
+    long refreshAfterWriteSeconds() default -1;
+
+    /**
+     * The maximum (estimated) size in bytes of all objects in the cache.
+     * Other than {@link #cacheSize()}, this allows for sizing a cache against a heap budget, if the objects differ a lot
+     * in size. If the size is exceeded, objects are evicted the same way as if the cache size was exceeded (the cache
+     * size still applies as well). The size of an object is estimated when it is put into the cache (see
+     * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#getCacheWeigher()}).
+     * A value of 0 means that the size is not limited, a negative value (the default) means that the default of the
+     * configuration is used (see
+     * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#getDefaultCacheMaxBytes()}).
+     * As for {@link #cacheSize()}, the setting of the class first encountered is used for the cache denoted by
+     * {@link #cacheName()}.
+     * @return The maximum size of the cache in bytes, see notes above.
+     */
+    long maxBytes() default -1;
 }
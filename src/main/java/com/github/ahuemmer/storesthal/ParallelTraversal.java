@@ -0,0 +1,572 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.InFlightRequests;
+import com.github.ahuemmer.storesthal.helpers.Listeners;
+import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
+import com.github.ahuemmer.storesthal.jfr.RetrievalEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel implementation of the object traversal done by {@link Storesthal#getObject(String, Class)} and
+ * {@link Storesthal#getCollection(String, Class, Optional)}, used if
+ * {@link StoresthalConfiguration#isParallelTraversal()} is enabled.
+ * <p>
+ * All relations of an object (and all members of a collection) are fetched concurrently on the traversal executor.
+ * Each URI is "claimed" by its first encounter during a retrieval, which fetches the object and resolves its
+ * relations. Every further encounter (including cyclic back-references to an object still being traversed) just
+ * waits for the instance of the claiming fetch to become available (see {@link #resolutions}) and sets it. This way,
+ * the object identity and cycle wiring are the same as the ones created by the {@code transientObjects} /
+ * {@code invokeLater} mechanism of sequential traversal. As no task ever blocks waiting for another one, cycles
+ * can't exhaust the executor.
+ * <p>
+ * The HTTP calls themselves are made by a {@link Fetcher}, which is based on an executor for blocking calls (see
+ * {@link #executorFetcher(StoresthalClient, Executor)}) or on a non-blocking HTTP client (see {@link ReactiveStoresthal}).
+ * <p>
+ * An instance of this class holds the state of one single retrieval and is not to be re-used.
+ */
+final class ParallelTraversal {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ParallelTraversal.class);
+
+    /**
+     * The fetcher making all HTTP calls.
+     */
+    private final Fetcher fetcher;
+
+    /**
+     * For every URI encountered during this retrieval, a future completing with the object instance as soon as it has
+     * been fetched (which may be before its own relations are resolved). This replaces the intermediate cache of
+     * sequential traversal.
+     */
+    private final Map<URI, CompletableFuture<Object>> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * The number of objects created from the responses of the service during this retrieval.
+     */
+    private final AtomicInteger materializedObjects = new AtomicInteger();
+
+    /**
+     * The number of HTTP requests made during this retrieval.
+     */
+    private final AtomicInteger httpCalls = new AtomicInteger();
+
+    /**
+     * The JFR event of this retrieval, committed by {@link #completed(String, Class, boolean)}. NULL, if not
+     * enabled in a recording when the retrieval started.
+     */
+    private final RetrievalEvent event;
+
+    /**
+     * Create the state for one single retrieval, starting to time it.
+     *
+     * @param fetcher The fetcher making the HTTP calls
+     */
+    ParallelTraversal(Fetcher fetcher) {
+        this.fetcher = fetcher;
+        this.event = RetrievalEvent.beginIfEnabled();
+    }
+
+    /**
+     * Create a fetcher making blocking HTTP calls (see {@link StoresthalClient#fetchObject(String, Class)} and
+     * {@link StoresthalClient#fetchCollection(String, Class, Optional)}) on the given executor.
+     *
+     * @param client   The client to make the HTTP calls with
+     * @param executor The executor to make the HTTP calls on
+     * @return The fetcher
+     */
+    static Fetcher executorFetcher(StoresthalClient client, Executor executor) {
+        return new Fetcher() {
+            @Override
+            public <T> CompletableFuture<EntityModel<T>> fetchObject(String url, Class<T> objectClass) {
+                return supplyAsync(() -> client.fetchObject(url, objectClass), executor);
+            }
+
+            @Override
+            public <T> CompletableFuture<List<EntityModel<T>>> fetchCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+                return supplyAsync(() -> client.fetchCollection(url, objectClass, embeddedCollectionName), executor);
+            }
+
+            @Override
+            public StoresthalConfiguration getConfiguration() {
+                return client.getConfiguration();
+            }
+        };
+    }
+
+    /**
+     * Retrieve an object, resolving its relations in parallel.
+     *
+     * @param url         The URL to retrieve the object from.
+     * @param objectClass The class of the object to be returned.
+     * @param fetcher     The fetcher making the HTTP calls.
+     * @param <T>         The type of the object
+     * @return The object structure retrieved from the URL.
+     * @throws StoresthalException if something goes wrong
+     */
+    static <T> T getObject(String url, Class<T> objectClass, Fetcher fetcher) throws StoresthalException {
+        return join(getObjectAsync(url, objectClass, fetcher));
+    }
+
+    /**
+     * Retrieve an object, resolving its relations in parallel, without blocking the caller.
+     *
+     * @param url         The URL to retrieve the object from.
+     * @param objectClass The class of the object to be returned.
+     * @param fetcher     The fetcher making the HTTP calls.
+     * @param <T>         The type of the object
+     * @return A future completing with the object structure, once all relations have been resolved.
+     */
+    static <T> CompletableFuture<T> getObjectAsync(String url, Class<T> objectClass, Fetcher fetcher) {
+
+        URI uri;
+        try {
+            uri = toUri(url);
+        } catch (StoresthalException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // See StoresthalClient.getObject: The whole retrieval of cacheable objects is coalesced, not the HTTP calls.
+        if (CacheManager.isCached(fetcher.getConfiguration(), objectClass)) {
+            return InFlightRequests.coalesceAsync(uri, objectClass, () -> traverse(url, uri, objectClass, fetcher));
+        }
+
+        return traverse(url, uri, objectClass, fetcher);
+    }
+
+    /**
+     * Perform the retrieval of an object (see {@link #getObjectAsync(String, Class, Fetcher)}).
+     *
+     * @param url         The URL to retrieve the object from.
+     * @param uri         The URI belonging to the URL.
+     * @param objectClass The class of the object to be returned.
+     * @param fetcher     The fetcher making the HTTP calls.
+     * @param <T>         The type of the object
+     * @return A future completing with the object structure, once all relations have been resolved.
+     */
+    private static <T> CompletableFuture<T> traverse(String url, URI uri, Class<T> objectClass, Fetcher fetcher) {
+        ParallelTraversal traversal = new ParallelTraversal(fetcher);
+
+        CompletableFuture<Object> resolution = new CompletableFuture<>();
+        traversal.resolutions.put(uri, resolution);
+        return traversal.load(uri, objectClass, resolution, 0).thenApply(result -> {
+            traversal.completed(url, objectClass, false);
+            return result;
+        });
+    }
+
+    /**
+     * Retrieve a collection of objects, resolving the relations of all collection members in parallel.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param uri                    The URI belonging to the URL.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link Storesthal#getCollection(String, Class, Optional)}) or NULL, if the
+     *                               collection is not embedded.
+     * @param fetcher                The fetcher making the HTTP calls.
+     * @param <T>                    The type of the collection items
+     * @return The collection requested.
+     * @throws StoresthalException if something goes wrong
+     */
+    static <T> ArrayList<T> getCollection(String url, URI uri, Class<T> objectClass, Optional<String> embeddedCollectionName, Fetcher fetcher) throws StoresthalException {
+        return join(getCollectionAsync(url, uri, objectClass, embeddedCollectionName, fetcher));
+    }
+
+    /**
+     * Retrieve a collection of objects, resolving the relations of all collection members in parallel, without
+     * blocking the caller.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param uri                    The URI belonging to the URL.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection or NULL, if the collection is not embedded.
+     * @param fetcher                The fetcher making the HTTP calls.
+     * @param <T>                    The type of the collection items
+     * @return A future completing with the collection, once all relations of its members have been resolved.
+     */
+    static <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, URI uri, Class<T> objectClass, Optional<String> embeddedCollectionName, Fetcher fetcher) {
+        ParallelTraversal traversal = new ParallelTraversal(fetcher);
+
+        logger.debug("Fetching collection from URI \"{}\" in parallel mode...", uri);
+
+        return traversal.fetchCollection(url, objectClass, embeddedCollectionName)
+                .thenCompose(entries -> {
+                    ArrayList<T> result = new ArrayList<>();
+                    List<CompletableFuture<?>> members = new ArrayList<>();
+
+                    for (EntityModel<T> entry : entries) {
+                        result.add(entry.getContent());
+                        members.add(traversal.resolveMember(entry, objectClass));
+                    }
+
+                    return CompletableFuture.allOf(members.toArray(new CompletableFuture[0])).thenApply(v -> {
+                        traversal.completed(url, objectClass, true);
+                        return result;
+                    });
+                });
+    }
+
+    /**
+     * Finish this retrieval, notifying the listeners (see {@link Listeners#retrievalCompleted(Class, boolean, int)})
+     * and recording it as a {@link RetrievalEvent} (if enabled in a JFR recording).
+     *
+     * @param url         The URL requested.
+     * @param objectClass The class of the object (or collection items) retrieved.
+     * @param collection  Whether a collection has been retrieved.
+     */
+    void completed(String url, Class<?> objectClass, boolean collection) {
+        Listeners.retrievalCompleted(objectClass, collection, materializedObjects.get());
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.objectClass = objectClass;
+            event.collection = collection;
+            event.objectCount = materializedObjects.get();
+            event.httpCalls = httpCalls.get();
+            event.commit();
+        }
+    }
+
+    /**
+     * Fetch the members of a collection (without resolving their relations yet). All members are made known to this
+     * traversal, so relations pointing to them will re-use them.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items.
+     * @param embeddedCollectionName The name of the embedded collection or NULL, if the collection is not embedded.
+     * @param <T>                    The type of the collection items
+     * @return A future completing with the collection members.
+     */
+    <T> CompletableFuture<List<EntityModel<T>>> fetchCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+        httpCalls.incrementAndGet();
+        return fetcher.fetchCollection(url, objectClass, embeddedCollectionName).thenApply(entries -> {
+            materializedObjects.addAndGet(entries.size());
+            for (EntityModel<T> entry : entries) {
+                entry.getLink("self").ifPresent(self -> resolutions.putIfAbsent(self.toUri(), CompletableFuture.completedFuture(entry.getContent())));
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * Resolve the relations of a collection member fetched by {@link #fetchCollection(String, Class, Optional)}.
+     *
+     * @param entry       The collection member
+     * @param objectClass The class of the collection items
+     * @param <T>         The type of the collection items
+     * @return A future completing with the collection member, once all its relations have been resolved.
+     */
+    <T> CompletableFuture<T> resolveMember(EntityModel<T> entry, Class<T> objectClass) {
+        T content = entry.getContent();
+        return resolve(content, entry.getLinks(), objectClass, 0).thenApply(v -> {
+            if (CacheManager.isCached(fetcher.getConfiguration(), objectClass) || CacheManager.isCachedByCacheControl(fetcher.getConfiguration(), objectClass)) {
+                entry.getLink("self").ifPresent(self -> CacheManager.putObjectInCache(fetcher.getConfiguration(), self.toUri(), content, null));
+            }
+            return content;
+        });
+    }
+
+    /**
+     * Fetch an object (claimed by the caller) and resolve its relations.
+     *
+     * @param uri         The URI of the object
+     * @param objectClass The class of the object
+     * @param resolution  The future to complete with the object instance as soon as it is available
+     * @param depth       The current depth in the object tree
+     * @param <T>         The type of the object
+     * @return A future completing with the object, once all its relations have been resolved.
+     */
+    private <T> CompletableFuture<T> load(URI uri, Class<T> objectClass, CompletableFuture<Object> resolution, int depth) {
+
+        boolean cached = CacheManager.isCached(fetcher.getConfiguration(), objectClass) || CacheManager.isCachedByCacheControl(fetcher.getConfiguration(), objectClass);
+
+        if (cached) {
+            T resultFromCache = CacheManager.getObjectFromCache(fetcher.getConfiguration(), uri, objectClass, null);
+            if (resultFromCache != null) {
+                resolution.complete(resultFromCache);
+                return CompletableFuture.completedFuture(resultFromCache);
+            }
+        }
+
+        logger.debug("Fetching URI \"{}\" at depth {} in parallel mode...", uri, depth);
+
+        httpCalls.incrementAndGet();
+        CompletableFuture<T> result = fetcher.fetchObject(uri.toString(), objectClass)
+                .thenCompose(model -> {
+                    T content = model.getContent();
+                    materializedObjects.incrementAndGet();
+                    resolution.complete(content);
+                    return resolve(content, model.getLinks(), objectClass, depth).thenApply(v -> {
+                        if (cached) {
+                            CacheManager.putObjectInCache(fetcher.getConfiguration(), uri, content, null);
+                            model.getLink("self").ifPresent(self -> CacheManager.putObjectInCache(fetcher.getConfiguration(), self.toUri(), content, null));
+                        }
+                        return content;
+                    });
+                });
+
+        result.whenComplete((content, e) -> {
+            if (e != null) {
+                resolution.completeExceptionally(e);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Resolve all relations of an object in parallel and set them using the matching setters.
+     *
+     * @param content     The object whose relations are to be resolved
+     * @param links       The links of the object
+     * @param objectClass The class of the object
+     * @param depth       The current depth in the object tree
+     * @return A future completing once all relations (including their own ones) have been resolved and set. If a
+     * relation cannot be resolved, it fails only after the relations already being resolved have completed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CompletableFuture<Void> resolve(Object content, Links links, Class<?> objectClass, int depth) {
+
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        Map<RelationBinding, List<CompletableFuture<Object>>> collectionMembers = new LinkedHashMap<>();
+        StoresthalException error = null;
+
+        for (Link l : links) {
+            if ("self".equals(l.getRel().value())) {
+                resolutions.putIfAbsent(l.toUri(), CompletableFuture.completedFuture(content));
+                continue;
+            }
+
+            RelationBinding binding = ReflectionHelper.getRelationBinding(objectClass, l.getRel().value());
+
+            if (binding == null) {
+                continue;
+            }
+
+            Class type = binding.type();
+
+            if (binding.collection()) {
+                if (binding.elementType() == null) {
+                    error = new StoresthalException("Could not determine the element type of collection relation \"" + l.getRel().value() + "\" (setter " + binding.setterName() + ")!");
+                    break;
+                }
+                collectionMembers.computeIfAbsent(binding, k -> new ArrayList<>()).add(relation(l, binding.elementType(), depth + 1));
+            } else if (type.getComponentType() != null) {
+                error = new StoresthalException("Array relations are not supported (yet?).");
+                break;
+            } else {
+                pending.add(relation(l, type, depth + 1).thenAccept(subObject ->
+                        unchecked(() -> {
+                            Storesthal.invokeSetter(binding.accessor(), content, subObject);
+                            return null;
+                        })));
+            }
+        }
+
+        if (error != null) {
+            // Don't leave the relations already being resolved behind, still writing to the caches and the object:
+            StoresthalException failure = error;
+            collectionMembers.values().forEach(pending::addAll);
+            return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).<Void>handle((v, e) -> {
+                throw new CompletionException(failure);
+            });
+        }
+
+        // The members are added in the order of the links, once all of them are available:
+        for (Map.Entry<RelationBinding, List<CompletableFuture<Object>>> entry : collectionMembers.entrySet()) {
+            List<CompletableFuture<Object>> members = entry.getValue();
+            pending.add(CompletableFuture.allOf(members.toArray(new CompletableFuture[0])).thenAccept(v ->
+                    unchecked(() -> {
+                        Collection coll = Storesthal.createCollection(entry.getKey());
+                        for (CompletableFuture<Object> member : members) {
+                            coll.add(member.join());
+                        }
+                        Storesthal.invokeSetter(entry.getKey().accessor(), content, coll);
+                        return null;
+                    })));
+        }
+
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Get the object a link points to. If the link target has not been encountered during this retrieval yet, it is
+     * claimed and fetched, else the instance of the claiming fetch is used.
+     *
+     * @param l           The link to follow
+     * @param objectClass The expected target object class
+     * @param depth       The depth of the target in the object tree
+     * @return A future completing with the target object.
+     */
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> relation(Link l, Class<?> objectClass, int depth) {
+
+        URI uri;
+        try {
+            uri = toUri(l.getHref());
+        } catch (StoresthalException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Object> resolution = new CompletableFuture<>();
+        CompletableFuture<Object> existing = resolutions.putIfAbsent(uri, resolution);
+
+        if (existing != null) {
+            logger.debug("URI \"{}\" is already known, re-using it.", uri);
+            return existing;
+        }
+
+        return (CompletableFuture<Object>) load(uri, objectClass, resolution, depth);
+    }
+
+    /**
+     * Create an URI from an URL.
+     *
+     * @param url The URL
+     * @return The URI
+     * @throws StoresthalException if the URL is invalid
+     */
+    private static URI toUri(String url) throws StoresthalException {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+    }
+
+    /**
+     * Wait for a future and unwrap the {@link StoresthalException} it possibly failed with.
+     *
+     * @param future The future to wait for
+     * @param <T>    The result type of the future
+     * @return The result of the future
+     * @throws StoresthalException if the future failed
+     */
+    static <T> T join(CompletableFuture<T> future) throws StoresthalException {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Find the {@link StoresthalException} a future failed with.
+     *
+     * @param throwable The exception the future failed with
+     * @return The {@link StoresthalException} causing the failure or a new one wrapping the actual cause.
+     */
+    static StoresthalException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException) && (cause.getCause() != null)) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof StoresthalException storesthalException) {
+            return storesthalException;
+        }
+        return new StoresthalException("Exception during parallel traversal.", cause);
+    }
+
+    /**
+     * Run an operation possibly throwing a {@link StoresthalException} asynchronously.
+     *
+     * @param operation The operation to run
+     * @param executor  The executor to run the operation on
+     * @param <T>       The result type of the operation
+     * @return A future completing with the result of the operation (or exceptionally with a
+     * {@link CompletionException} wrapping the {@link StoresthalException} thrown)
+     */
+    static <T> CompletableFuture<T> supplyAsync(TraversalOperation<T> operation, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> unchecked(operation), executor);
+    }
+
+    /**
+     * Run an operation possibly throwing a {@link StoresthalException} within a future stage, wrapping the exception
+     * into a {@link CompletionException}.
+     *
+     * @param operation The operation to run
+     * @param <T>       The result type of the operation
+     * @return The result of the operation
+     */
+    private static <T> T unchecked(TraversalOperation<T> operation) {
+        try {
+            return operation.run();
+        } catch (StoresthalException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * An operation of the traversal, possibly throwing a {@link StoresthalException}.
+     *
+     * @param <T> The result type of the operation
+     */
+    @FunctionalInterface
+    interface TraversalOperation<T> {
+        T run() throws StoresthalException;
+    }
+
+    /**
+     * Makes the HTTP calls of a traversal. The futures returned must not block the calling thread and complete
+     * exceptionally (preferably with a {@link StoresthalException}), if the call fails.
+     */
+    interface Fetcher {
+
+        /**
+         * Fetch a single HAL object.
+         *
+         * @param url         The URL representing the object.
+         * @param objectClass The destination class of the object.
+         * @param <T>         The expected type of the object.
+         * @return A future completing with the object (together with its links), not yet traversed.
+         */
+        <T> CompletableFuture<EntityModel<T>> fetchObject(String url, Class<T> objectClass);
+
+        /**
+         * Fetch a collection of HAL objects.
+         *
+         * @param url                    The URL to retrieve the collection from.
+         * @param objectClass            The class of the collection items.
+         * @param embeddedCollectionName The name of the embedded collection or NULL, if the collection is not
+         *                               embedded.
+         * @param <T>                    The type of the collection items.
+         * @return A future completing with the collection items, not yet traversed.
+         */
+        <T> CompletableFuture<List<EntityModel<T>>> fetchCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName);
+
+        /**
+         * Get the configuration the objects are cached according to.
+         *
+         * @return The configuration of the client the fetcher belongs to.
+         */
+        StoresthalConfiguration getConfiguration();
+    }
+}
@@ -0,0 +1,518 @@
+package com.github.ahuemmer.storesthal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.EmbeddedCollectionHelper;
+import com.github.ahuemmer.storesthal.helpers.HalTypeRegistry;
+import com.github.ahuemmer.storesthal.helpers.HttpStatistics;
+import com.github.ahuemmer.storesthal.helpers.InFlightRequests;
+import com.github.ahuemmer.storesthal.helpers.NegativeCache;
+import com.github.ahuemmer.storesthal.jfr.FetchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+
+/**
+ * The reactive counterpart of {@link Storesthal}, returning {@link Mono}s for objects and {@link Flux}es for
+ * collections. All HTTP calls are made using a non-blocking {@link WebClient} (see
+ * {@link StoresthalConfiguration#getReactiveHttpTransport()}), so no thread is blocked waiting for a response.
+ * <p>
+ * Relations are resolved as non-blocking inner requests, at most {@link StoresthalConfiguration#getReactiveConcurrency()}
+ * of them at the same time for one retrieval. The resulting object structure (object identity, cyclic relations,
+ * caching) is the same as the one created by {@link Storesthal#getObject(String, Class)}.
+ * <p>
+ * Nothing happens until the {@link Mono} or {@link Flux} returned is subscribed to, and every subscription performs
+ * a retrieval of its own.
+ */
+public class ReactiveStoresthal {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveStoresthal.class);
+
+    private ReactiveStoresthal() {
+    }
+
+    /**
+     * Retrieve an object from an URL. See {@link Storesthal#getObject(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return A {@link Mono} emitting the object structure retrieved from the URL (or failing with a
+     * {@link StoresthalException}, if something goes wrong).
+     */
+    public static <T> Mono<T> getObject(String url, Class<T> objectClass) {
+        return Mono.defer(() -> {
+            logger.info("Reactively getting object of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+            return Mono.fromFuture(ParallelTraversal.getObjectAsync(url, objectClass, createFetcher()));
+        }).onErrorMap(ParallelTraversal::unwrap);
+    }
+
+    /**
+     * Retrieve a <i>collection</i> of objects (JSON-Array) from the given URL. See
+     * {@link Storesthal#getCollection(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the collection from.
+     * @param objectClass The class of the collection items to be returned.
+     * @param <T>         The type of the collection item object (being consistent with the `objectClass`)
+     * @return A {@link Flux} emitting the collection items (see {@link #getCollection(String, Class, Optional)}).
+     */
+    public static <T> Flux<T> getCollection(String url, Class<T> objectClass) {
+        return getCollection(url, objectClass, null);
+    }
+
+    /**
+     * Retrieve a <i>collection</i> of objects (JSON-Array) from the given URL. See
+     * {@link Storesthal#getCollection(String, Class, Optional)} for details.
+     * <p>
+     * The items are emitted in the order of the collection, each one as soon as its relations have been resolved
+     * (and its predecessors have been emitted). Only as many items are resolved at the same time as requested by the
+     * subscriber, but at most {@link StoresthalConfiguration#getReactiveConcurrency()}.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link Storesthal#getCollection(String, Class, Optional)}) or NULL, if the
+     *                               collection is not embedded.
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return A {@link Flux} emitting the collection items (or failing with a {@link StoresthalException}, if no
+     * collection could be retrieved).
+     */
+    public static <T> Flux<T> getCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+        return Flux.defer(() -> {
+            logger.info("Reactively getting object collection of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+
+            ParallelTraversal traversal = new ParallelTraversal(createFetcher());
+
+            return Mono.fromFuture(() -> traversal.fetchCollection(url, objectClass, embeddedCollectionName))
+                    .flatMapMany(Flux::fromIterable)
+                    .flatMapSequential(entry -> Mono.fromFuture(() -> traversal.resolveMember(entry, objectClass)),
+                            Storesthal.getConfiguration().getReactiveConcurrency())
+                    .doOnComplete(() -> traversal.completed(url, objectClass, true));
+        }).onErrorMap(ParallelTraversal::unwrap);
+    }
+
+    /**
+     * Retrieve an Integer (just an Integer, no special object...) from the given URL (without caching).
+     *
+     * @param url The URL to retrieve the integer from.
+     * @return A {@link Mono} emitting the integer retrieved.
+     */
+    public static Mono<Integer> getInteger(String url) {
+        return getPrimitive(Integer.class, url, false, null);
+    }
+
+    /**
+     * Retrieve an Integer (just an Integer, no special object...) from the given URL.
+     *
+     * @param url     The URL to retrieve the integer from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return A {@link Mono} emitting the integer retrieved.
+     */
+    public static Mono<Integer> getInteger(String url, boolean doCache) {
+        return getPrimitive(Integer.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve an Integer (just an Integer, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the integer from.
+     * @param cacheName The name of the cache to used when retrieving the integer.
+     * @return A {@link Mono} emitting the integer retrieved.
+     */
+    public static Mono<Integer> getInteger(String url, String cacheName) {
+        return getPrimitive(Integer.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a Double (just a Double, no special object...) from the given URL (without caching).
+     *
+     * @param url The URL to retrieve the Double from.
+     * @return A {@link Mono} emitting the Double retrieved.
+     */
+    public static Mono<Double> getDouble(String url) {
+        return getPrimitive(Double.class, url, false, null);
+    }
+
+    /**
+     * Retrieve a Double (just a Double, no special object...) from the given URL.
+     *
+     * @param url     The URL to retrieve the Double from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return A {@link Mono} emitting the Double retrieved.
+     */
+    public static Mono<Double> getDouble(String url, boolean doCache) {
+        return getPrimitive(Double.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a Double (just a Double, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Double from.
+     * @param cacheName The name of the cache to used when retrieving the Double.
+     * @return A {@link Mono} emitting the Double retrieved.
+     */
+    public static Mono<Double> getDouble(String url, String cacheName) {
+        return getPrimitive(Double.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a Boolean (just a Boolean, no special object...) from the given URL (without caching).
+     *
+     * @param url The URL to retrieve the Boolean from.
+     * @return A {@link Mono} emitting the Boolean retrieved.
+     */
+    public static Mono<Boolean> getBoolean(String url) {
+        return getPrimitive(Boolean.class, url, false, null);
+    }
+
+    /**
+     * Retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     *
+     * @param url     The URL to retrieve the Boolean from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return A {@link Mono} emitting the Boolean retrieved.
+     */
+    public static Mono<Boolean> getBoolean(String url, boolean doCache) {
+        return getPrimitive(Boolean.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Boolean from.
+     * @param cacheName The name of the cache to used when retrieving the Boolean.
+     * @return A {@link Mono} emitting the Boolean retrieved.
+     */
+    public static Mono<Boolean> getBoolean(String url, String cacheName) {
+        return getPrimitive(Boolean.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a String (just a String, no other object...) from the given URL (without caching).
+     *
+     * @param url The URL to retrieve the String from.
+     * @return A {@link Mono} emitting the String retrieved.
+     */
+    public static Mono<String> getString(String url) {
+        return getPrimitive(String.class, url, false, null);
+    }
+
+    /**
+     * Retrieve a String (just a String, no other object...) from the given URL.
+     *
+     * @param url     The URL to retrieve the String from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return A {@link Mono} emitting the String retrieved.
+     */
+    public static Mono<String> getString(String url, boolean doCache) {
+        return getPrimitive(String.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a String (just a String, no other object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the String from.
+     * @param cacheName The name of the cache to used when retrieving the String.
+     * @return A {@link Mono} emitting the String retrieved.
+     */
+    public static Mono<String> getString(String url, String cacheName) {
+        return getPrimitive(String.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a primitive value (no special object...) from the given URL. This is the reactive counterpart of
+     * {@link com.github.ahuemmer.storesthal.helpers.PrimitiveValueRetriever#getPrimitive(Class, String, boolean, String)}.
+     *
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param url            The URL to retrieve the primitive from.
+     * @param doCache        Whether to cache the results or not.
+     * @param cacheName      The name of the cache to be used or NULL for {@link Storesthal#COMMON_CACHE_NAME}.
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return A {@link Mono} emitting the primitive retrieved (or failing with a {@link StoresthalException}, if it
+     * was not possible to retrieve it).
+     */
+    private static <T> Mono<T> getPrimitive(Class<T> primitiveClass, String url, boolean doCache, String cacheName) {
+        return Mono.defer(() -> {
+            URI uri;
+
+            try {
+                uri = new URI(url);
+            } catch (URISyntaxException e) {
+                return Mono.error(new StoresthalException("Could not create URI from url\"" + url + "\"!", e));
+            }
+
+            String cacheNameToUse = (cacheName != null) ? cacheName : Storesthal.COMMON_CACHE_NAME;
+
+            if (doCache) {
+                T result = CacheManager.getObjectFromCache(uri, primitiveClass, cacheNameToUse);
+                if (result != null) {
+                    return Mono.just(result);
+                }
+            }
+
+            // Primitive values are immutable, so concurrent requests for the same one can always be coalesced:
+            return Mono.fromFuture(InFlightRequests.coalesceAsync(uri, primitiveClass, () -> {
+                        Storesthal.countHttpCall();
+                        return getWebClient().get()
+                                .uri(uri)
+                                .accept(MediaType.ALL)
+                                .retrieve()
+                                .bodyToMono(String.class)
+                                .<T>handle((body, sink) -> {
+                                    try {
+                                        sink.next(readPrimitive(primitiveClass, body));
+                                    } catch (JsonProcessingException e) {
+                                        sink.error(e);
+                                    }
+                                })
+                                .toFuture();
+                    }))
+                    .doOnNext(result -> {
+                        if (doCache) {
+                            CacheManager.putObjectInCache(uri, result, cacheNameToUse);
+                        }
+                    })
+                    .onErrorMap(e -> new StoresthalException("Unable to extract scalar of type \"" + primitiveClass.getName() + "\" from url \"" + url + "\"!", e));
+        });
+    }
+
+    /**
+     * Convert the body of a response to a primitive value.
+     *
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param body           The response body
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return The primitive value
+     * @throws JsonProcessingException if the body can't be converted
+     */
+    private static <T> T readPrimitive(Class<T> primitiveClass, String body) throws JsonProcessingException {
+        if (primitiveClass == String.class) {
+            return primitiveClass.cast(body);
+        }
+        return HalTypeRegistry.getHalObjectMapper().readValue(body, primitiveClass);
+    }
+
+    /**
+     * Get the web client of the current configuration.
+     *
+     * @return The shared web client
+     */
+    private static WebClient getWebClient() {
+        return Storesthal.getConfiguration().getReactiveHttpTransport().getWebClient();
+    }
+
+    /**
+     * Create a fetcher for one single retrieval, limiting the number of its concurrent requests.
+     *
+     * @return A new fetcher
+     */
+    private static ReactiveFetcher createFetcher() {
+        return new ReactiveFetcher(getWebClient(), Storesthal.getConfiguration().getReactiveConcurrency());
+    }
+
+    /**
+     * Fetcher making non-blocking HTTP calls using a {@link WebClient}, at most a given number of them at the same
+     * time. Requests exceeding this limit are queued (not blocked) until a running one has finished.
+     */
+    private static final class ReactiveFetcher implements ParallelTraversal.Fetcher {
+
+        /**
+         * The web client to make the requests with.
+         */
+        private final WebClient webClient;
+
+        /**
+         * The number of requests that may still be started at the moment.
+         */
+        private final AtomicInteger permits;
+
+        /**
+         * The requests waiting for a permit.
+         */
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        private ReactiveFetcher(WebClient webClient, int maxConcurrentRequests) {
+            this.webClient = webClient;
+            this.permits = new AtomicInteger(maxConcurrentRequests);
+        }
+
+        @Override
+        public <T> CompletableFuture<EntityModel<T>> fetchObject(String url, Class<T> objectClass) {
+            URI uri = URI.create(url);
+            String cacheName = CacheManager.getCacheName(objectClass);
+            try {
+                NegativeCache.check(Storesthal.getConfiguration(), cacheName, uri);
+            } catch (StoresthalException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return submit(() -> {
+                Storesthal.countHttpCall();
+                return count(cacheName, uri, objectClass, webClient.get()
+                        .uri(uri)
+                        .accept(HAL_JSON)
+                        .retrieve()
+                        .bodyToMono(HalTypeRegistry.getEntityModelTypeReference(objectClass))
+                        .single()
+                        .doOnError(e -> NegativeCache.record(Storesthal.getConfiguration(), cacheName, uri, e))
+                        .onErrorMap(e -> new StoresthalException("Exception trying to get object from " + url, e)));
+            });
+        }
+
+        @Override
+        public <T> CompletableFuture<List<EntityModel<T>>> fetchCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+            URI uri = URI.create(url);
+            String cacheName = CacheManager.getCacheName(objectClass);
+            try {
+                NegativeCache.check(Storesthal.getConfiguration(), cacheName, uri);
+            } catch (StoresthalException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return submit(() -> {
+                Storesthal.countHttpCall();
+                WebClient.ResponseSpec response = webClient.get()
+                        .uri(uri)
+                        .accept(HAL_JSON)
+                        .retrieve();
+
+                Mono<List<EntityModel<T>>> result;
+
+                if (embeddedCollectionName != null) { // This is intended - NULL would mean "collection is not embedded" here.
+                    result = response.bodyToMono(HalTypeRegistry.getEmbeddedCollectionTypeReference(objectClass))
+                            .handle((helper, sink) -> {
+                                try {
+                                    sink.next(EmbeddedCollectionHelper.getObjects(helper, objectClass, embeddedCollectionName));
+                                } catch (StoresthalException e) {
+                                    sink.error(e);
+                                }
+                            });
+                } else {
+                    result = response.bodyToMono(HalTypeRegistry.getCollectionTypeReference(objectClass))
+                            .map(list -> (List<EntityModel<T>>) list);
+                }
+
+                return count(cacheName, uri, objectClass, result
+                        .defaultIfEmpty(new ArrayList<>())
+                        .doOnError(e -> NegativeCache.record(Storesthal.getConfiguration(), cacheName, uri, e))
+                        .onErrorMap(e -> (e instanceof StoresthalException) ? e : new StoresthalException("Exception trying to get collection from " + url, e)));
+            });
+        }
+
+        @Override
+        public StoresthalConfiguration getConfiguration() {
+            return Storesthal.getConfiguration();
+        }
+
+        /**
+         * Start a request, counting it as in progress until it completes and as a load of the given cache (see
+         * {@link CacheManager#recordLoad(String, URI, Class, long, boolean)}) and recording it as a {@link FetchEvent}
+         * (without the bytes received and, if successful, without the status, which aren't known here).
+         *
+         * @param cacheName   The name of the cache of the objects requested.
+         * @param uri         The URI requested.
+         * @param objectClass The class of the objects requested.
+         * @param request     The request.
+         * @param <R>         The result type of the request
+         * @return A future completing with the result of the request
+         */
+        private static <R> CompletableFuture<R> count(String cacheName, URI uri, Class<?> objectClass, Mono<R> request) {
+            long start = System.nanoTime();
+            FetchEvent event = FetchEvent.beginIfEnabled();
+            HttpStatistics.requestStarted();
+            return request.toFuture().whenComplete((result, failure) -> {
+                HttpStatistics.requestCompleted(0);
+                CacheManager.recordLoad(cacheName, uri, objectClass, System.nanoTime() - start, failure == null);
+                if (event == null) {
+                    return;
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.uri = uri.toString();
+                    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof WebClientResponseException e) {
+                            event.status = e.getStatusCode().value();
+                            break;
+                        }
+                    }
+                    event.commit();
+                }
+            });
+        }
+
+        /**
+         * Start a request as soon as a permit is available.
+         *
+         * @param request The request to start
+         * @param <R>     The result type of the request
+         * @return A future completing with the result of the request
+         */
+        private <R> CompletableFuture<R> submit(Supplier<CompletableFuture<R>> request) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            waiting.add(() -> {
+                CompletableFuture<R> started;
+                try {
+                    started = request.get();
+                } catch (RuntimeException e) {
+                    // The request hasn't even been started, so give back its permit and fail it - instead of failing
+                    // the thread draining the queue (which may be an event loop thread).
+                    permits.incrementAndGet();
+                    drain();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                started.whenComplete((value, e) -> {
+                    permits.incrementAndGet();
+                    drain();
+                    if (e != null) {
+                        result.completeExceptionally(e);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            });
+            drain();
+            return result;
+        }
+
+        /**
+         * Start waiting requests as long as permits are available.
+         */
+        private void drain() {
+            while (!waiting.isEmpty()) {
+                int available = permits.get();
+                if (available == 0) {
+                    return;
+                }
+                if (permits.compareAndSet(available, available - 1)) {
+                    Runnable next = waiting.poll();
+                    if (next == null) {
+                        permits.incrementAndGet();
+                    } else {
+                        next.run();
+                    }
+                }
+            }
+        }
+    }
+}
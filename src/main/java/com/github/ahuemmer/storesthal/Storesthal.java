@@ -1,54 +1,41 @@
 package com.github.ahuemmer.storesthal;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
 import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
 import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
 import com.github.ahuemmer.storesthal.helpers.CacheManager;
-import com.github.ahuemmer.storesthal.helpers.EmbeddedCollectionHelper;
+import com.github.ahuemmer.storesthal.helpers.CacheSnapshot;
+import com.github.ahuemmer.storesthal.helpers.ConditionalRequests;
+import com.github.ahuemmer.storesthal.helpers.CounterMap;
+import com.github.ahuemmer.storesthal.helpers.DiskTier;
+import com.github.ahuemmer.storesthal.helpers.HttpCacheControl;
+import com.github.ahuemmer.storesthal.helpers.HttpStatistics;
+import com.github.ahuemmer.storesthal.helpers.InFlightRequests;
+import com.github.ahuemmer.storesthal.helpers.Listeners;
+import com.github.ahuemmer.storesthal.helpers.NegativeCache;
+import com.github.ahuemmer.storesthal.helpers.OffHeapTier;
 import com.github.ahuemmer.storesthal.helpers.PrimitiveValueRetriever;
 import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
-import org.springframework.hateoas.RepresentationModel;
-import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
-import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import org.springframework.lang.NonNull;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.AbstractMap;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
-
-import static org.apache.commons.lang3.reflect.TypeUtils.parameterize;
-import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 /**
  * The main class of the whole library, encapsulating the core functionality needed. Callers should mainly need just
@@ -62,36 +49,22 @@ public class Storesthal {
      */
     public static final String COMMON_CACHE_NAME = "com.github.ahuemmer.wsobjectstore.cache.common";
 
-    /**
-     * The logger.
-     */
-    private static final Logger logger = LoggerFactory.getLogger(Storesthal.class);
-
-    /**
-     * During a single {@link #getObject(String, Class)} call, transient object references are stored here. Such
-     * transient references may occur, if e. g. a child object encountered (back)refers to the parent object just
-     * being retrieved.
-     */
-    private static final Set<URI> transientObjects = new HashSet<>();
-
-    /**
-     * When handling transient objects (see description at {@link #transientObjects}, setter functions may be marked
-     * down for being called later on, when the object to be set isn't in transient state any more, but "complete".
-     * These setters are stored here.
-     */
-    private static final Map<URI, List<AbstractMap.SimpleEntry<Object, Method>>> invokeLater = new HashMap<>();
-
     /**
      * The total number of HTTP calls made.
      * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
      * {@link #getStatistics()} or {@link #printStatistics()}.
      */
-    private static int httpCalls = 0;
+    private static final LongAdder httpCalls = new LongAdder();
 
     /**
      * The configuration the object store runs with.
      */
-    private static StoresthalConfiguration configuration;
+    private static volatile StoresthalConfiguration configuration;
+
+    /**
+     * The client all static retrieval functions delegate to, using {@link #configuration}.
+     */
+    private static volatile StoresthalClient defaultClient;
 
     /**
      * Depending on the state of {@link #initialized}, init the object store with the default configuration.
@@ -107,11 +80,13 @@ public class Storesthal {
      * @param configuration The configuration to use
      */
     public static void init(final StoresthalConfiguration configuration) {
+        if ((Storesthal.configuration != null) && (Storesthal.configuration != configuration)) {
+            // The previous configuration is not going to be used any more, so release its pooled connections and
+            // traversal threads:
+            Storesthal.configuration.release();
+        }
         Storesthal.configuration = configuration;
-        /**
-         * The cache manager object
-         */
-        CacheManager cacheManager = CacheManager.getInstance(configuration);
+        defaultClient = new StoresthalClient(configuration);
     }
 
     /**
@@ -128,221 +103,72 @@ public class Storesthal {
     }
 
     /**
-     * Return a specialized message converter, supplying {@link org.springframework.hateoas.MediaTypes#HAL_JSON} support.
+     * Get the client all static retrieval functions of the store delegate to. It uses the store configuration (see
+     * {@link #getConfiguration()}) and is replaced by {@link #init(StoresthalConfiguration)}.
      *
-     * @param collection Whether to regard REST response as a collection, therefore using ArrayList as type
-     * @return HAL supporting message converter
+     * @return The default client
      */
-    @SuppressWarnings("rawtypes")
-    private static HttpMessageConverter getHalMessageConverter(boolean collection) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new Jackson2HalModule());
-        MappingJackson2HttpMessageConverter halConverter;
-        if (collection) {
-            halConverter = new TypeConstrainedMappingJackson2HttpMessageConverter(ArrayList.class);
-        } else {
-            halConverter = new TypeConstrainedMappingJackson2HttpMessageConverter(RepresentationModel.class);
-        }
-        halConverter.setSupportedMediaTypes(Collections.singletonList(HAL_JSON));
-        halConverter.setObjectMapper(objectMapper);
-
-        // Possibly useful for Debugging:
-        // objectMapper.enable(INCLUDE_SOURCE_IN_LOCATION);
-        return halConverter;
+    public static StoresthalClient getDefaultClient() {
+        return defaultClient;
     }
 
     /**
-     * Return a HTTP entity accepting HAL+JSON answers only
+     * Create a new (empty) collection to be populated with related objects and set on the object having the relation.
      *
-     * @return HTTP entity accepting HAL+JSON answers only
+     * @param type The parameter type of the collection setter
+     * @return A new collection instance: If the type is an interface or abstract, a {@link LinkedList},
+     * {@link HashSet} or {@link ConcurrentLinkedDeque} is used, else the type itself is instantiated.
+     * @throws StoresthalException if the collection type cannot be instantiated
      */
-    private static HttpEntity<String> getHttpEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Collections.singletonList(HAL_JSON));
-        return new HttpEntity<>(headers);
-    }
-
-    /**
-     * Return a specialized {@link RestTemplate} able to demand and process HAL+JSON data.
-     *
-     * @param collection Whether to regard REST response as a collection
-     * @return A specialized {@link RestTemplate} able to demand and process HAL+JSON data.
-     */
-    private static RestTemplate getRestTemplateWithHalMessageConverter(boolean collection) {
-        RestTemplate restTemplate = new RestTemplate();
-
-        List<HttpMessageConverter<?>> existingConverters = restTemplate.getMessageConverters();
-        List<HttpMessageConverter<?>> newConverters = new ArrayList<>();
-        newConverters.add(getHalMessageConverter(collection));
-        newConverters.addAll(existingConverters);
-        restTemplate.setMessageConverters(newConverters);
-
-        return restTemplate;
-    }
-
-    /**
-     * Handle a collection encountered during object traversal
-     *
-     * @param l                  The link containing the collection
-     * @param m                  The setter method for the collection on the object being populated
-     * @param collections        A map of known collections
-     * @param linksVisited       A set of all links visited up to now
-     * @param intermediateResult The intermediate result object up to now
-     * @param depth              The depth in the object tree at the moment (for recursion handling)
-     * @param <T>                The type of the object having the collection
-     * @throws StoresthalException if something fails and the collection cannot be retrieved or handled
-     */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static <T> void handleCollection(String parentObject, Link l, Method m, Map<String, Collection> collections, int objectCounter, Set<URI> linksVisited, T intermediateResult, int depth) throws StoresthalException {
-        Type[] genericParameterTypes = m.getGenericParameterTypes();
-        ParameterizedType parameterizedType = (ParameterizedType) genericParameterTypes[0];
-        Class realType = (Class) parameterizedType.getActualTypeArguments()[0];
-
-        Class type = m.getParameterTypes()[0];
-
-        String collectionKey = parentObject + ":" + objectCounter + ":" + l.getRel().value();
-        Collection coll = collections.get(collectionKey);
-
-        if (coll == null) {
-            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
-                if (List.class.isAssignableFrom(type)) {
-                    coll = new LinkedList();
-                } else if (Set.class.isAssignableFrom(type)) {
-                    coll = new HashSet();
-                } else if (Queue.class.isAssignableFrom(type)) {
-                    coll = new ConcurrentLinkedDeque();
-                }
-            } else {
-                //TODO: Array...?
-                try {
-                    coll = (Collection) type.getConstructor().newInstance();
-                } catch (NoSuchMethodException | InstantiationException | IllegalAccessException |
-                         InvocationTargetException e) {
-                    throw new StoresthalException("Could not instantiate collection of type \"" + type.getCanonicalName() + "\".", e);
-                }
-            }
-            collections.put(collectionKey, coll);
-        }
-
-        URI uri;
-
-        try {
-            uri = new URI(l.getHref());
-        } catch (URISyntaxException e) {
-            throw new StoresthalException("Could not create URI from URL \"" + l.getHref() + "\"to visited links collection!", e);
-        }
-
-        if (transientObjects.contains(uri)) {
-            Method addMethod;
-            try {
-                addMethod = Objects.requireNonNull(coll).getClass().getMethod("add", Object.class);
-            } catch (NoSuchMethodException e) {
-                throw new StoresthalException("Could not find \"add\" method for collection class " + Objects.requireNonNull(coll).getClass().getCanonicalName());
+    @SuppressWarnings("rawtypes")
+    static Collection createCollection(Class type) throws StoresthalException {
+        Collection coll = null;
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            if (List.class.isAssignableFrom(type)) {
+                coll = new LinkedList();
+            } else if (Set.class.isAssignableFrom(type)) {
+                coll = new HashSet();
+            } else if (Queue.class.isAssignableFrom(type)) {
+                coll = new ConcurrentLinkedDeque();
             }
-
-            markForLaterInvocation(uri, coll, addMethod);
         } else {
-            Object subObject = getObject(l.getHref(), realType, linksVisited, new HashMap<>(), depth + 1);
-            Objects.requireNonNull(coll).add(subObject);
-        }
-
-        try {
-            m.invoke(intermediateResult, coll);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new StoresthalException("Could not invoke method \"" + m.getName() + "(" + coll.getClass().getCanonicalName() + ")\" on instance of \"" + intermediateResult.getClass().getCanonicalName() + "\" class.", e);
-        }
-    }
-
-    /**
-     * Follow a link encountered when parsing an object
-     *
-     * @param l                  The link to follow
-     * @param linksVisited       A set of links that have been visited already
-     * @param objectClass        The expected target object class
-     * @param collections        A map of collections already known
-     * @param intermediateResult The intermediate result object up to now
-     * @param depth              The current depth in the object tree (for reasons of recursion)
-     * @param <U>                Type of the linked object
-     * @throws StoresthalException If the link URL is invalid or an array collection is encountered
-     *                             (array collections are not supported (yet?))
-     */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static <U> void followLink(String parentObject, Link l, Set<URI> linksVisited, Class<U> objectClass, Map<String, Collection> collections, int objectCounter, U intermediateResult, int depth) throws StoresthalException {
-
-        logger.debug("Following link: {}", l.toUri());
-
-        URI uri;
-
-        try {
-            uri = new URI(l.getHref());
-        } catch (URISyntaxException e) {
-            throw new StoresthalException("Could not create URI from URL \"" + l.getHref() + "\"to visited links collection!", e);
-        }
-
-        Method m = ReflectionHelper.searchForSetter(objectClass, l.getRel().value());
-
-        if (m != null) {
-
-            Class type = m.getParameterTypes()[0];
-
-            U subObject;
-
-            if (transientObjects.contains(uri)) {
-                if (Collection.class.isAssignableFrom(type)) {
-                    handleCollection(parentObject, l, m, collections, objectCounter, linksVisited, intermediateResult, depth + 1);
-                } else {
-                    markForLaterInvocation(uri, intermediateResult, m);
-                }
-                return;
-            }
-
-            if (Collection.class.isAssignableFrom(type)) {
-                handleCollection(parentObject, l, m, collections, objectCounter, linksVisited, intermediateResult, depth + 1);
-                return;
-            } else if (type.getComponentType() != null) {
-                throw new StoresthalException("Array relations are not supported (yet?).");
+            //TODO: Array...?
+            try {
+                coll = (Collection) type.getConstructor().newInstance();
+            } catch (NoSuchMethodException | InstantiationException | IllegalAccessException |
+                     InvocationTargetException e) {
+                throw new StoresthalException("Could not instantiate collection of type \"" + type.getCanonicalName() + "\".", e);
             }
-
-            subObject = (U) Storesthal.<U>getObject(l.getHref(), type, linksVisited, new HashMap<>(), depth + 1);
-
-            invokeSetter(m, intermediateResult, subObject);
-
         }
-
-        linksVisited.add(uri);
+        return coll;
     }
 
     /**
-     * Marks a method to be invoked "later", after the first full object traversal.
-     * This is necessary as e. g. a child object may have a relation to its parent object, which is still being
-     * traversed and therefore incomplete. It also avoids endless cycling within the object tree.
-     * See also {@link #transientObjects}.
+     * Create a new (empty) collection to be populated with related objects and set on the object having a
+     * collection relation, using the factory of the relation binding (if any).
      *
-     * @param uri    The URI for the object to be set later on
-     * @param object The object on which the method is to be called
-     * @param method The method (usually a setter) to be called on the given object. It will be given the object
-     *               retrieved via the `link` parameter as one and only parameter.
+     * @param binding The binding of the collection relation
+     * @return A new collection instance (see {@link #createCollection(Class)})
+     * @throws StoresthalException if the collection type cannot be instantiated
      */
-    private static void markForLaterInvocation(URI uri, Object object, Method method) {
-        if (!invokeLater.containsKey(uri)) {
-            invokeLater.put(uri, new LinkedList<>());
-        }
-        invokeLater.get(uri).add(new AbstractMap.SimpleEntry<>(object, method));
+    @SuppressWarnings("rawtypes")
+    static Collection createCollection(RelationBinding binding) throws StoresthalException {
+        return (binding.collectionFactory() != null) ? binding.collectionFactory().get() : createCollection(binding.type());
     }
 
     /**
-     * Invokes a method (setter) on a given object, supplying exactly one parameter (the object to bet set)
+     * Invokes a setter on a given object, supplying exactly one parameter (the object to bet set)
      *
-     * @param m         The setter method
-     * @param applyTo   The object on which the setter method is to be called
+     * @param setter    The accessor of the setter (see {@link ReflectionHelper#createSetter(Method)})
+     * @param applyTo   The object on which the setter is to be called
      * @param parameter The parameter object to be set
-     * @throws StoresthalException on reflection based problems
+     * @throws StoresthalException if the setter fails or doesn't accept the parameter
      */
-    private static void invokeSetter(Method m, Object applyTo, Object parameter) throws StoresthalException {
+    static void invokeSetter(BiConsumer<Object, Object> setter, Object applyTo, Object parameter) throws StoresthalException {
         try {
-            m.invoke(applyTo, parameter);
-        } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
-            throw new StoresthalException("Could not invoke method \"" + m.getName() + " of " + applyTo.getClass().getCanonicalName() + " with instance of \"" + parameter.getClass().getCanonicalName() + "\" class.", e);
+            setter.accept(applyTo, parameter);
+        } catch (RuntimeException e) {
+            throw new StoresthalException("Could not invoke setter of " + applyTo.getClass().getCanonicalName() + " with instance of \"" + ((parameter != null) ? parameter.getClass().getCanonicalName() : null) + "\" class.", e);
         }
     }
 
@@ -369,12 +195,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve an Integer
      */
     public static Integer getInteger(String url, boolean doCache) throws StoresthalException {
-
-        if (doCache) {
-            return PrimitiveValueRetriever.getPrimitive(Integer.class, url, true, Storesthal.COMMON_CACHE_NAME);
-        }
-
-        return PrimitiveValueRetriever.getPrimitive(Integer.class, url, false, null);
+        return defaultClient.getInteger(url, doCache);
     }
 
     /**
@@ -386,7 +207,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve an Integer
      */
     public static Integer getInteger(String url, String cacheName) throws StoresthalException {
-        return PrimitiveValueRetriever.getPrimitive(Integer.class, url, true, cacheName);
+        return defaultClient.getInteger(url, cacheName);
     }
 
     /**
@@ -412,12 +233,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a Double
      */
     public static Double getDouble(String url, boolean doCache) throws StoresthalException {
-
-        if (doCache) {
-            return PrimitiveValueRetriever.getPrimitive(Double.class, url, true, Storesthal.COMMON_CACHE_NAME);
-        }
-
-        return PrimitiveValueRetriever.getPrimitive(Double.class, url, false, null);
+        return defaultClient.getDouble(url, doCache);
     }
 
     /**
@@ -429,7 +245,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a Double
      */
     public static Double getDouble(String url, String cacheName) throws StoresthalException {
-        return PrimitiveValueRetriever.getPrimitive(Double.class, url, true, cacheName);
+        return defaultClient.getDouble(url, cacheName);
     }
 
     /**
@@ -455,12 +271,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a Boolean
      */
     public static Boolean getBoolean(String url, boolean doCache) throws StoresthalException {
-
-        if (doCache) {
-            return PrimitiveValueRetriever.getPrimitive(Boolean.class, url, true, Storesthal.COMMON_CACHE_NAME);
-        }
-
-        return PrimitiveValueRetriever.getPrimitive(Boolean.class, url, false, null);
+        return defaultClient.getBoolean(url, doCache);
     }
 
     /**
@@ -472,7 +283,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a Boolean
      */
     public static Boolean getBoolean(String url, String cacheName) throws StoresthalException {
-        return PrimitiveValueRetriever.getPrimitive(Boolean.class, url, true, cacheName);
+        return defaultClient.getBoolean(url, cacheName);
     }
 
     /**
@@ -498,12 +309,7 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a String
      */
     public static String getString(String url, boolean doCache) throws StoresthalException {
-
-        if (doCache) {
-            return PrimitiveValueRetriever.getPrimitive(String.class, url, true, Storesthal.COMMON_CACHE_NAME);
-        }
-
-        return PrimitiveValueRetriever.getPrimitive(String.class, url, false, null);
+        return defaultClient.getString(url, doCache);
     }
 
     /**
@@ -515,7 +321,271 @@ public class Storesthal {
      * @throws StoresthalException If it was not possible to retrieve a String
      */
     public static String getString(String url, String cacheName) throws StoresthalException {
-        return PrimitiveValueRetriever.getPrimitive(String.class, url, true, cacheName);
+        return defaultClient.getString(url, cacheName);
+    }
+
+    /**
+     * Asynchronously retrieve an Integer (just an Integer, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     * <i>Note: </i> By default, caching is not enabled for this kind of retrieval. If caching is desired, use
+     * one of the overloaded functions.
+     *
+     * @param url The URL to retrieve the integer from.
+     * @return A future completing with the integer retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve an Integer).
+     */
+    public static CompletableFuture<Integer> getIntegerAsync(String url) {
+        return getIntegerAsync(url, false);
+    }
+
+    /**
+     * Asynchronously retrieve an Integer (just an Integer, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url     The URL to retrieve the integer from.
+     * @param doCache Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @return A future completing with the integer retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve an Integer).
+     */
+    public static CompletableFuture<Integer> getIntegerAsync(String url, boolean doCache) {
+        return getIntegerAsync(url, doCache, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve an Integer (just an Integer, no special object...) from the given URL.
+     *
+     * @param url      The URL to retrieve the integer from.
+     * @param doCache  Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @param executor The executor to perform the HTTP call on.
+     * @return A future completing with the integer retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve an Integer).
+     */
+    public static CompletableFuture<Integer> getIntegerAsync(String url, boolean doCache, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getInteger(url, doCache), executor);
+    }
+
+    /**
+     * Asynchronously retrieve an Integer (just an Integer, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url       The URL to retrieve the integer from.
+     * @param cacheName The name of the cache to used when retrieving the integer.
+     * @return A future completing with the integer retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve an Integer).
+     */
+    public static CompletableFuture<Integer> getIntegerAsync(String url, String cacheName) {
+        return getIntegerAsync(url, cacheName, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve an Integer (just an Integer, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the integer from.
+     * @param cacheName The name of the cache to used when retrieving the integer.
+     * @param executor  The executor to perform the HTTP call on.
+     * @return A future completing with the integer retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve an Integer).
+     */
+    public static CompletableFuture<Integer> getIntegerAsync(String url, String cacheName, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getInteger(url, cacheName), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a Double (just a Double, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     * <i>Note: </i> By default, caching is not enabled for this kind of retrieval. If caching is desired, use
+     * one of the overloaded functions.
+     *
+     * @param url The URL to retrieve the Double from.
+     * @return A future completing with the Double retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Double).
+     */
+    public static CompletableFuture<Double> getDoubleAsync(String url) {
+        return getDoubleAsync(url, false);
+    }
+
+    /**
+     * Asynchronously retrieve a Double (just a Double, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url     The URL to retrieve the Double from.
+     * @param doCache Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @return A future completing with the Double retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Double).
+     */
+    public static CompletableFuture<Double> getDoubleAsync(String url, boolean doCache) {
+        return getDoubleAsync(url, doCache, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a Double (just a Double, no special object...) from the given URL.
+     *
+     * @param url      The URL to retrieve the Double from.
+     * @param doCache  Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @param executor The executor to perform the HTTP call on.
+     * @return A future completing with the Double retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Double).
+     */
+    public static CompletableFuture<Double> getDoubleAsync(String url, boolean doCache, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getDouble(url, doCache), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a Double (just a Double, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url       The URL to retrieve the Double from.
+     * @param cacheName The name of the cache to used when retrieving the Double.
+     * @return A future completing with the Double retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Double).
+     */
+    public static CompletableFuture<Double> getDoubleAsync(String url, String cacheName) {
+        return getDoubleAsync(url, cacheName, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a Double (just a Double, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Double from.
+     * @param cacheName The name of the cache to used when retrieving the Double.
+     * @param executor  The executor to perform the HTTP call on.
+     * @return A future completing with the Double retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Double).
+     */
+    public static CompletableFuture<Double> getDoubleAsync(String url, String cacheName, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getDouble(url, cacheName), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a Boolean (just a Boolean, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     * <i>Note: </i> By default, caching is not enabled for this kind of retrieval. If caching is desired, use
+     * one of the overloaded functions.
+     *
+     * @param url The URL to retrieve the Boolean from.
+     * @return A future completing with the Boolean retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Boolean).
+     */
+    public static CompletableFuture<Boolean> getBooleanAsync(String url) {
+        return getBooleanAsync(url, false);
+    }
+
+    /**
+     * Asynchronously retrieve a Boolean (just a Boolean, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url     The URL to retrieve the Boolean from.
+     * @param doCache Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @return A future completing with the Boolean retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Boolean).
+     */
+    public static CompletableFuture<Boolean> getBooleanAsync(String url, boolean doCache) {
+        return getBooleanAsync(url, doCache, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     *
+     * @param url      The URL to retrieve the Boolean from.
+     * @param doCache  Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @param executor The executor to perform the HTTP call on.
+     * @return A future completing with the Boolean retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Boolean).
+     */
+    public static CompletableFuture<Boolean> getBooleanAsync(String url, boolean doCache, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getBoolean(url, doCache), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a Boolean (just a Boolean, no special object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url       The URL to retrieve the Boolean from.
+     * @param cacheName The name of the cache to used when retrieving the Boolean.
+     * @return A future completing with the Boolean retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Boolean).
+     */
+    public static CompletableFuture<Boolean> getBooleanAsync(String url, String cacheName) {
+        return getBooleanAsync(url, cacheName, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Boolean from.
+     * @param cacheName The name of the cache to used when retrieving the Boolean.
+     * @param executor  The executor to perform the HTTP call on.
+     * @return A future completing with the Boolean retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a Boolean).
+     */
+    public static CompletableFuture<Boolean> getBooleanAsync(String url, String cacheName, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getBoolean(url, cacheName), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a String (just a String, no other object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     * <i>Note: </i> By default, caching is not enabled for this kind of retrieval. If caching is desired, use
+     * one of the overloaded functions.
+     *
+     * @param url The URL to retrieve the String from.
+     * @return A future completing with the String retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a String).
+     */
+    public static CompletableFuture<String> getStringAsync(String url) {
+        return getStringAsync(url, false);
+    }
+
+    /**
+     * Asynchronously retrieve a String (just a String, no other object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url     The URL to retrieve the String from.
+     * @param doCache Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @return A future completing with the String retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a String).
+     */
+    public static CompletableFuture<String> getStringAsync(String url, boolean doCache) {
+        return getStringAsync(url, doCache, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a String (just a String, no other object...) from the given URL.
+     *
+     * @param url      The URL to retrieve the String from.
+     * @param doCache  Whether the result should be cached (using {@link #COMMON_CACHE_NAME}).
+     * @param executor The executor to perform the HTTP call on.
+     * @return A future completing with the String retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a String).
+     */
+    public static CompletableFuture<String> getStringAsync(String url, boolean doCache, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getString(url, doCache), executor);
+    }
+
+    /**
+     * Asynchronously retrieve a String (just a String, no other object...) from the given URL, using the executor of the current
+     * configuration (see {@link StoresthalConfiguration#getTraversalExecutor()}).
+     *
+     * @param url       The URL to retrieve the String from.
+     * @param cacheName The name of the cache to used when retrieving the String.
+     * @return A future completing with the String retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a String).
+     */
+    public static CompletableFuture<String> getStringAsync(String url, String cacheName) {
+        return getStringAsync(url, cacheName, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a String (just a String, no other object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the String from.
+     * @param cacheName The name of the cache to used when retrieving the String.
+     * @param executor  The executor to perform the HTTP call on.
+     * @return A future completing with the String retrieved (or exceptionally with a {@link StoresthalException}, if it
+     * was not possible to retrieve a String).
+     */
+    public static CompletableFuture<String> getStringAsync(String url, String cacheName, Executor executor) {
+        return ParallelTraversal.supplyAsync(() -> getString(url, cacheName), executor);
     }
 
     /**
@@ -550,195 +620,15 @@ public class Storesthal {
      * @return The collection requested.
      * @throws StoresthalException if no collection could be retrieved.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <T> ArrayList<T> getCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) throws StoresthalException {
-
-        logger.info("Getting object collection of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
-
-        URI uri;
-
-        try {
-            uri = new URI(url);
-        } catch (URISyntaxException e) {
-            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
-        }
-
-        ArrayList<T> resultFromCache = CacheManager.getObjectFromCache(uri, objectClass, null);
-
-        if (resultFromCache != null) {
-            return resultFromCache;
-        }
-
-        httpCalls += 1;
-
-        logger.debug("Adding URI {} to transient objects...", uri);
-        transientObjects.add(uri);
-
-        ResponseEntity response =
-                getRestTemplateWithHalMessageConverter(true).exchange(url,
-                        HttpMethod.GET, getHttpEntity(), new ParameterizedTypeReference<ArrayList<EntityModel<T>>>() {
-                            @Override
-                            @NonNull
-                            public Type getType() {
-                                Type[] responseWrapperActualTypes = {objectClass};
-                                if (embeddedCollectionName != null) { // This is intended - NULL would mean "collection is not embedded" here.
-                                    return parameterize(EmbeddedCollectionHelper.class, responseWrapperActualTypes);
-                            /*return parameterize(EmbeddedCollectionHelper.class,
-                                parameterize(ArrayList.class,
-                                    parameterize(EntityModel.class, responseWrapperActualTypes)));*/
-                                } else {
-                                    return parameterize(ArrayList.class,
-                                            parameterize(EntityModel.class, responseWrapperActualTypes));
-                                }
-                            }
-                        });
-
-        List<EntityModel<T>> result;
-
-        if (embeddedCollectionName != null) { // This is intended - NULL would mean "collection is not embedded" here.
-            result = EmbeddedCollectionHelper.getObjects(response, objectClass, embeddedCollectionName);
-        } else {
-            result = (ArrayList<EntityModel<T>>) response.getBody();
-        }
-
-        ArrayList<T> realResult = new ArrayList<>();
-
-        Set<URI> linksVisited = new HashSet<>();
-        @SuppressWarnings("rawtypes") Map<String, Collection> collections = new HashMap<>();
-
-        linksVisited.add(uri);
-        int objectCounter = 0;
-        for (EntityModel<T> entry : Objects.requireNonNull(result)) {
-            realResult.add(entry.getContent());
-            for (Link l : entry.getLinks()) {
-                if ("self".equals(l.getRel().value())) {
-                    logger.debug("Self-Link for object: {}", l.toUri());
-                    if (!(l.getRel().value().isBlank())) {
-                        CacheManager.putObjectInCache(l.toUri(), entry.getContent(), null);
-                    }
-                } else {
-                    followLink(url, l, linksVisited, objectClass, collections, objectCounter, entry.getContent(), 0);
-                }
-            }
-            objectCounter++;
-        }
-        CacheManager.putObjectInCache(uri, realResult, null);
-
-        for (URI invokeUri : invokeLater.keySet()) {
-            List<AbstractMap.SimpleEntry<Object, Method>> invocationList = invokeLater.get(invokeUri);
-            for (AbstractMap.SimpleEntry<Object, Method> objectAndMethod : invocationList) {
-                Object cachedObject = CacheManager.getObjectFromCache(invokeUri, objectClass, null);
-                invokeSetter(objectAndMethod.getValue(), objectAndMethod.getKey(), cachedObject);
-            }
-        }
-
-        transientObjects.clear();
-        CacheManager.clearCache(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME, true);
-        invokeLater.clear();
-
-        logger.debug("Removing URI \"{}\" from transient objects...", uri);
-        transientObjects.remove(uri);
-
-        return realResult;
+        return defaultClient.getCollection(url, objectClass, embeddedCollectionName);
     }
 
     /**
-     * Internal representation of {@link #getObject(String, Class)}, used for recursion.
-     *
-     * @param url          The URL representing the object.
-     * @param objectClass  The destination class of the object.
-     * @param linksVisited A set of the links (URLs) visited so far.
-     * @param collections  A map of the collections already known.
-     * @param depth        The current recursion depth.
-     * @param <T>          The expected type of the returned object.
-     * @return The object queried
-     * @throws StoresthalException if the URL is invalid
+     * Count an HTTP call made outside of this class (e. g. by {@link ReactiveStoresthal}) for the statistics.
      */
-    private static <T> T getObject(String url, Class<T> objectClass, Set<URI> linksVisited, @SuppressWarnings("rawtypes") Map<String, Collection> collections, int depth) throws StoresthalException {
-
-        URI uri;
-
-        try {
-            uri = new URI(url);
-        } catch (URISyntaxException e) {
-            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
-        }
-
-        T resultFromCache = CacheManager.getObjectFromCache(uri, objectClass, null);
-
-        if (resultFromCache != null) {
-            return resultFromCache;
-        }
-
-        httpCalls += 1;
-
-        logger.debug("Adding URI \"{}\" to transient objects...", uri);
-        transientObjects.add(uri);
-        ResponseEntity<EntityModel<T>> response =
-                null;
-
-        try {
-            //^^ otherwise, when using the diamond operator a java compiler error (!) will arise!
-            response = getRestTemplateWithHalMessageConverter(false).exchange(url,
-                    HttpMethod.GET, getHttpEntity(), new ParameterizedTypeReference<>() {
-                        @Override
-                        @NonNull
-                        public Type getType() {
-                            Type type = super.getType();
-                            if (type instanceof ParameterizedType) {
-                                Type[] responseWrapperActualTypes = {objectClass};
-                                return parameterize(EntityModel.class,
-                                        responseWrapperActualTypes);
-                            }
-                            return type;
-                        }
-                    });
-        } catch (RestClientException e) {
-            throw new StoresthalException("Exception trying to get object from " + url, e);
-        }
-        T result = Objects.requireNonNull(response.getBody()).getContent();
-
-
-        linksVisited.add(uri);
-        for (Link l : response.getBody().getLinks()) {
-
-            if ("self".equals(l.getRel().value())) {
-                logger.debug("Self-Link for object: {}", l.toUri());
-                if (!(l.getRel().value().isBlank())) {
-                    CacheManager.putObjectInCache(l.toUri(), result, null);
-                }
-            } else {
-                followLink(url, l, linksVisited, objectClass, collections, 0, result, depth);
-            }
-        }
-        CacheManager.putObjectInCache(uri, result, null);
-
-
-        /*
-         * During object retrieval, it might happen, that links to "parent" objects are not followed / populated,
-         * as the parent object itself is just being examined and populated. This function corrects this afterwards,
-         * when the parent object is fully available and in cache.
-         */
-
-        if (depth == 0) {
-
-            for (URI invokeUri : invokeLater.keySet()) {
-                List<AbstractMap.SimpleEntry<Object, Method>> invocationList = invokeLater.get(invokeUri);
-                for (AbstractMap.SimpleEntry<Object, Method> objectAndMethod : invocationList) {
-                    Object cachedObject = CacheManager.getObjectFromCache(invokeUri, objectClass, null);
-                    invokeSetter(objectAndMethod.getValue(), objectAndMethod.getKey(), cachedObject);
-                }
-            }
-
-            transientObjects.clear();
-            CacheManager.clearCache(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME, true);
-            invokeLater.clear();
-        }
-
-        logger.debug("Removing URI \"{}\" from transient objects...", uri);
-        transientObjects.remove(uri);
-
-        return result;
+    static void countHttpCall() {
+        httpCalls.increment();
     }
 
     /**
@@ -765,16 +655,89 @@ public class Storesthal {
      * @throws StoresthalException if something goes wrong
      */
     public static <T> T getObject(String url, Class<T> objectClass) throws StoresthalException {
+        return defaultClient.getObject(url, objectClass);
+    }
 
-        if (Collection.class.isAssignableFrom(objectClass)) {
-            logger.warn("""
-                    You seem to be trying to retrieve a collection of objects using Storesthal.getObject on the first level. This will likely fail.
-                    Please consider using Storesthal.getCollection in that case.
-                    (Handling collections *within* the objects retrieved, therefore on any other but the first level, will work anyway.)""");
-        }
+    /**
+     * Asynchronously retrieve an object from an URL, using the executor of the current configuration (see
+     * {@link StoresthalConfiguration#getTraversalExecutor()}). See {@link #getObject(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return A future completing with the object structure retrieved from the URL (or exceptionally with a
+     * {@link StoresthalException}, if something goes wrong).
+     */
+    public static <T> CompletableFuture<T> getObjectAsync(String url, Class<T> objectClass) {
+        return getObjectAsync(url, objectClass, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve an object from an URL. See {@link #getObject(String, Class)} for details.
+     * <p>
+     * The calling thread is never blocked: All HTTP calls are made on the given executor and the relations of the
+     * object are resolved in parallel (just like with {@link StoresthalConfiguration#isParallelTraversal()} enabled,
+     * regardless of that setting), each asynchronous retrieval having its own traversal state. Several retrievals
+     * may therefore be started and combined at the same time.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param executor    The executor to perform the HTTP calls on.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return A future completing with the object structure retrieved from the URL (or exceptionally with a
+     * {@link StoresthalException}, if something goes wrong).
+     */
+    public static <T> CompletableFuture<T> getObjectAsync(String url, Class<T> objectClass, Executor executor) {
+        return defaultClient.getObjectAsync(url, objectClass, executor);
+    }
+
+    /**
+     * Asynchronously retrieve a <i>collection</i> of objects (JSON-Array) from the given URL, using the executor of
+     * the current configuration. See {@link #getCollection(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the collection from.
+     * @param objectClass The class of the collection items to be returned.
+     * @param <T>         The type of the collection item object (being consistent with the `objectClass`)
+     * @return A future completing with the collection requested (or exceptionally with a {@link StoresthalException},
+     * if no collection could be retrieved).
+     */
+    public static <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, Class<T> objectClass) {
+        return getCollectionAsync(url, objectClass, null, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a <i>collection</i> of objects (JSON-Array) from the given URL, using the executor of
+     * the current configuration. See {@link #getCollection(String, Class, Optional)} for details.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link #getCollection(String, Class, Optional)}).
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return A future completing with the collection requested (or exceptionally with a {@link StoresthalException},
+     * if no collection could be retrieved).
+     */
+    public static <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+        return getCollectionAsync(url, objectClass, embeddedCollectionName, configuration.getTraversalExecutor());
+    }
 
-        logger.info("Getting object of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
-        return getObject(url, objectClass, new HashSet<>(), new HashMap<>(), 0);
+    /**
+     * Asynchronously retrieve a <i>collection</i> of objects (JSON-Array) from the given URL. See
+     * {@link #getCollection(String, Class, Optional)} for details and {@link #getObjectAsync(String, Class, Executor)}
+     * for the way the retrieval is done.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link #getCollection(String, Class, Optional)}) or NULL, if the collection is not
+     *                               embedded.
+     * @param executor               The executor to perform the HTTP calls on.
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return A future completing with the collection requested (or exceptionally with a {@link StoresthalException},
+     * if no collection could be retrieved).
+     */
+    public static <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, Class<T> objectClass, Optional<String> embeddedCollectionName, Executor executor) {
+        return defaultClient.getCollectionAsync(url, objectClass, embeddedCollectionName, executor);
     }
 
     /**
@@ -783,39 +746,96 @@ public class Storesthal {
     public static void printStatistics() {
         System.out.println("Storesthal statistics:");
         System.out.println("-------------------------");
-        System.out.println("- HTTP Calls: " + httpCalls);
+        System.out.println("- HTTP Calls: " + httpCalls.sum());
+        System.out.println("- HTTP requests in flight: " + HttpStatistics.getInFlightRequests());
+        System.out.println("- Bytes received: " + HttpStatistics.getBytesReceived());
+        System.out.println("- Coalesced requests: " + InFlightRequests.getCoalescedRequests());
+        System.out.println("- Not modified responses: " + ConditionalRequests.getNotModifiedResponses());
         System.out.println("- Cache hits:");
-        CacheManager.getCacheHits().keySet().forEach(key -> System.out.println("   - " + key + ": " + CacheManager.getCacheHits().get(key)));
+        CacheManager.getCacheHits().forEach((cacheName, hits) -> System.out.println("   - " + cacheName + ": " + hits));
         System.out.println("- Cache misses:");
-        CacheManager.getCacheMisses().keySet().forEach(key -> System.out.println("   - " + key + ": " + CacheManager.getCacheMisses().get(key)));
+        CacheManager.getCacheMisses().forEach((cacheName, misses) -> System.out.println("   - " + cacheName + ": " + misses));
+        System.out.println("- Hit ratios:");
+        CacheManager.getHitRatios().forEach((policy, ratio) -> System.out.println("   - " + policy + ": " + ratio));
+        System.out.println("- Stale hits:");
+        CacheManager.getStaleHits().forEach((cacheName, staleHits) -> System.out.println("   - " + cacheName + ": " + staleHits));
+        System.out.println("- Evictions:");
+        CacheManager.getEvictions().forEach((cacheName, evictions) -> System.out.println("   - " + cacheName + ": " + evictions));
+        System.out.println("- Loads (failed, total time in ns):");
+        Map<String, Integer> loadFailures = CacheManager.getLoadFailures();
+        Map<String, Long> loadTimeNanos = CacheManager.getLoadTimeNanos();
+        CacheManager.getLoads().forEach((cacheName, loads) -> System.out.println("   - " + cacheName + ": " + loads + " (" + loadFailures.getOrDefault(cacheName, 0) + ", " + loadTimeNanos.getOrDefault(cacheName, 0L) + ")"));
+        System.out.println("- Cache sizes (bytes):");
+        CacheManager.getCacheBytes().forEach((cacheName, bytes) -> System.out.println("   - " + cacheName + ": " + bytes));
+        System.out.println("- Off-heap hits:");
+        CacheManager.getOffHeapHits().forEach((cacheName, hits) -> System.out.println("   - " + cacheName + ": " + hits));
+        System.out.println("- Off-heap size (bytes): " + OffHeapTier.getUsedBytes());
+        System.out.println("- Disk hits:");
+        CacheManager.getDiskHits().forEach((cacheName, hits) -> System.out.println("   - " + cacheName + ": " + hits));
+        System.out.println("- Disk size (bytes): " + DiskTier.getUsedBytes());
+        System.out.println("- Negative hits:");
+        NegativeCache.getNegativeHits().forEach((cacheName, hits) -> System.out.println("   - " + cacheName + ": " + hits));
     }
 
     /**
      * Reset all statistics about HTTP calls, cache hits and cache misses.
      */
     public static void resetStatistics() {
-        httpCalls = 0;
+        httpCalls.reset();
         PrimitiveValueRetriever.resetStatistics();
+        InFlightRequests.resetStatistics();
+        ConditionalRequests.resetStatistics();
+        HttpStatistics.resetStatistics();
         CacheManager.resetStatistics();
     }
 
     /**
-     * Clear all caches, but do not clear the cache statistics.
+     * Register a listener to be notified of cache creations, HTTP requests and completed retrievals, e. g. for
+     * publishing metrics (see {@link com.github.ahuemmer.storesthal.metrics.StoresthalMetrics}). Listeners are shared
+     * by all clients and stay registered when re-initializing the store.
+     *
+     * @param listener The listener to register.
+     */
+    public static void addListener(StoresthalListener listener) {
+        Listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener registered by {@link #addListener(StoresthalListener)}.
+     *
+     * @param listener The listener to unregister.
+     */
+    public static void removeListener(StoresthalListener listener) {
+        Listeners.remove(listener);
+    }
+
+    /**
+     * Clear all caches (including the responses kept for revalidation, see {@link ConditionalRequests}, and their
+     * freshness, see {@link HttpCacheControl}, and the resources known to be missing, see {@link NegativeCache}), but
+     * do not clear the cache statistics.
      */
     public static void clearAllCaches() {
         CacheManager.clearAllCaches(false);
+        ConditionalRequests.clear();
+        HttpCacheControl.clear();
+        NegativeCache.clear();
     }
 
     /**
-     * Clear all caches and possibly their related statistics as well.
+     * Clear all caches (including the responses kept for revalidation, see {@link ConditionalRequests}, and their
+     * freshness, see {@link HttpCacheControl}, and the resources known to be missing, see {@link NegativeCache}) and
+     * possibly their related statistics as well.
      *
      * @param clearStatisticsAsWell Whether to clear all cache hit and miss statistics as well (resetting
      *                              all of them to zero).
      */
     public static void clearAllCaches(boolean clearStatisticsAsWell) {
         CacheManager.clearAllCaches(clearStatisticsAsWell);
+        ConditionalRequests.clear();
+        HttpCacheControl.clear();
+        NegativeCache.clear();
         if (clearStatisticsAsWell) {
-            httpCalls = 0;
+            resetStatistics();
         }
     }
 
@@ -824,14 +844,20 @@ public class Storesthal {
      * ATTN: Only "direct" hits and misses are counted. E. g., if an object is retrieved from cache the sub-object
      * of which is also cached, the sub-object cache hit will not be counted! (Nevertheless the sub-object is correctly
      * retrieved from cache.)
+     * The statistics are counted without locking, so counting them doesn't slow down concurrent retrievals. The map
+     * returned is an immutable snapshot (as are the maps it contains), not being updated afterward.
      *
      * @return The cache statistics map
      */
     public static Map<String, Object> getStatistics() {
         Map<String, Object> result = new HashMap<>();
-        result.put("httpCalls", httpCalls + PrimitiveValueRetriever.getHttpCalls());
+        result.put("httpCalls", CounterMap.saturate(httpCalls.sum() + PrimitiveValueRetriever.getHttpCalls()));
+        result.put("coalescedRequests", InFlightRequests.getCoalescedRequests());
+        result.put("notModifiedResponses", ConditionalRequests.getNotModifiedResponses());
+        result.put("inFlightRequests", HttpStatistics.getInFlightRequests());
+        result.put("bytesReceived", HttpStatistics.getBytesReceived());
         result.putAll(CacheManager.getStatistics());
-        return result;
+        return Map.copyOf(result);
     }
 
     /**
@@ -858,4 +884,28 @@ public class Storesthal {
         CacheManager.clearCache(cacheName, clearStatisticsAsWell);
     }
 
+    /**
+     * Export the contents of all caches to a snapshot file (see {@link CacheSnapshot}), e. g. to warm up the caches
+     * of freshly started instances of an application by {@link #importCaches(Path)}.
+     *
+     * @param file The snapshot file. It is overwritten, if it exists.
+     * @return The number of objects exported.
+     * @throws StoresthalException if the file can't be written.
+     */
+    public static int exportCaches(Path file) throws StoresthalException {
+        return CacheSnapshot.export(file);
+    }
+
+    /**
+     * Import a snapshot file written by {@link #exportCaches(Path)} into the caches. Objects already cached are not
+     * replaced, and at most as many objects as a cache can hold are imported.
+     *
+     * @param file The snapshot file.
+     * @return The number of objects imported.
+     * @throws StoresthalException if the file can't be read or isn't a snapshot file.
+     */
+    public static int importCaches(Path file) throws StoresthalException {
+        return CacheSnapshot.importFrom(getConfiguration(), file);
+    }
+
 }
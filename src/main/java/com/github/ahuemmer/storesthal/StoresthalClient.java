@@ -0,0 +1,785 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.ConditionalRequests;
+import com.github.ahuemmer.storesthal.helpers.EmbeddedCollectionHelper;
+import com.github.ahuemmer.storesthal.helpers.HalTypeRegistry;
+import com.github.ahuemmer.storesthal.helpers.HttpCacheControl;
+import com.github.ahuemmer.storesthal.helpers.InFlightRequests;
+import com.github.ahuemmer.storesthal.helpers.NegativeCache;
+import com.github.ahuemmer.storesthal.helpers.PrimitiveValueRetriever;
+import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
+import com.github.ahuemmer.storesthal.jfr.RelationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+
+/**
+ * A Storesthal client, retrieving objects using its own {@link StoresthalConfiguration} (HTTP transport, traversal
+ * executor, ...). The static functions of {@link Storesthal} delegate to a default client (see
+ * {@link Storesthal#getDefaultClient()}), so using a client directly is only needed, if different configurations are
+ * to be used at the same time.
+ * <p>
+ * A client is thread-safe: Every retrieval keeps its traversal state (transient objects, setters to be invoked
+ * later, ...) to itself (see {@link TraversalContext}), so one client may be used for any number of retrievals at the
+ * same time. The object caches (see {@link Cacheable}) and the statistics (see {@link Storesthal#getStatistics()})
+ * are shared by all clients.
+ */
+public class StoresthalClient {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(StoresthalClient.class);
+
+    /**
+     * Accessor adding an element to a collection, for collection members only available later on (see
+     * {@link TraversalContext#markForLaterInvocation(URI, Object, BiConsumer)}).
+     */
+    @SuppressWarnings("unchecked")
+    private static final BiConsumer<Object, Object> COLLECTION_ADD = (coll, element) -> ((Collection<Object>) coll).add(element);
+
+    /**
+     * The configuration the client runs with.
+     */
+    private final StoresthalConfiguration configuration;
+
+    /**
+     * Create a new client.
+     *
+     * @param configuration The configuration to use (see {@link StoreresthalConfigurationFactory}). The client owns
+     *                      the resources of the configuration, so it should only be used for one client. Call
+     *                      {@link StoresthalConfiguration#release()} once the client isn't needed any more.
+     */
+    public StoresthalClient(StoresthalConfiguration configuration) {
+        this.configuration = configuration;
+        CacheManager.getInstance(configuration);
+    }
+
+    /**
+     * Get the configuration of the client.
+     *
+     * @return The client configuration
+     */
+    public StoresthalConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Return HTTP headers accepting HAL+JSON answers only
+     *
+     * @return HTTP headers accepting HAL+JSON answers only
+     */
+    private static HttpHeaders getHttpHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(HAL_JSON));
+        return headers;
+    }
+
+    /**
+     * Create a URI from the given URL.
+     *
+     * @param url The URL.
+     * @return The URI.
+     * @throws StoresthalException if the URL is invalid.
+     */
+    private static URI toUri(String url) throws StoresthalException {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+    }
+
+    /**
+     * Return the {@link RestTemplate} able to demand and process HAL+JSON data. It is taken from the (shared and
+     * pooling) HTTP transport of the client configuration (see {@link StoresthalConfiguration#getHttpTransport()}).
+     *
+     * @param collection Whether to regard REST response as a collection
+     * @return A specialized {@link RestTemplate} able to demand and process HAL+JSON data.
+     */
+    private RestTemplate getRestTemplateWithHalMessageConverter(boolean collection) {
+        return configuration.getHttpTransport().getHalRestTemplate(collection);
+    }
+
+    /**
+     * Handle a collection encountered during object traversal
+     *
+     * @param context            The state of the current retrieval
+     * @param l                  The link containing the collection
+     * @param binding            The binding of the collection relation on the object being populated
+     * @param collections        A map of known collections
+     * @param linksVisited       A set of all links visited up to now
+     * @param intermediateResult The intermediate result object up to now
+     * @param depth              The depth in the object tree at the moment (for recursion handling)
+     * @param <T>                The type of the object having the collection
+     * @throws StoresthalException if something fails and the collection cannot be retrieved or handled
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> void handleCollection(TraversalContext context, String parentObject, Link l, RelationBinding binding, Map<String, Collection> collections, int objectCounter, Set<URI> linksVisited, T intermediateResult, int depth) throws StoresthalException {
+        Class realType = binding.elementType();
+
+        if (realType == null) {
+            throw new StoresthalException("Could not determine the element type of collection relation \"" + l.getRel().value() + "\" (setter " + binding.setterName() + ")!");
+        }
+
+        Class type = binding.type();
+
+        String collectionKey = parentObject + ":" + objectCounter + ":" + l.getRel().value();
+        Collection coll = collections.get(collectionKey);
+
+        if (coll == null) {
+            coll = Storesthal.createCollection(binding);
+            collections.put(collectionKey, coll);
+        }
+
+        URI uri;
+
+        try {
+            uri = new URI(l.getHref());
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from URL \"" + l.getHref() + "\"to visited links collection!", e);
+        }
+
+        if (context.isTransient(uri)) {
+            context.markForLaterInvocation(uri, Objects.requireNonNull(coll), COLLECTION_ADD);
+        } else {
+            Object subObject = getObject(context, l.getHref(), realType, linksVisited, new HashMap<>(), depth + 1);
+            Objects.requireNonNull(coll).add(subObject);
+        }
+
+        Storesthal.invokeSetter(binding.accessor(), intermediateResult, coll);
+    }
+
+    /**
+     * Follow a link encountered when parsing an object, recording the resolution of the relation as a
+     * {@link RelationEvent} (if enabled in a JFR recording).
+     *
+     * @param context            The state of the current retrieval
+     * @param l                  The link to follow
+     * @param linksVisited       A set of links that have been visited already
+     * @param objectClass        The expected target object class
+     * @param collections        A map of collections already known
+     * @param intermediateResult The intermediate result object up to now
+     * @param depth              The current depth in the object tree (for reasons of recursion)
+     * @param <U>                Type of the linked object
+     * @throws StoresthalException If the link URL is invalid or an array collection is encountered
+     *                             (array collections are not supported (yet?))
+     */
+    @SuppressWarnings("rawtypes")
+    private <U> void followLink(TraversalContext context, String parentObject, Link l, Set<URI> linksVisited, Class<U> objectClass, Map<String, Collection> collections, int objectCounter, U intermediateResult, int depth) throws StoresthalException {
+        RelationEvent event = RelationEvent.beginIfEnabled();
+        if (event == null) {
+            resolveLink(context, parentObject, l, linksVisited, objectClass, collections, objectCounter, intermediateResult, depth);
+            return;
+        }
+        try {
+            resolveLink(context, parentObject, l, linksVisited, objectClass, collections, objectCounter, intermediateResult, depth);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rel = l.getRel().value();
+                event.uri = l.getHref();
+                event.depth = depth;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Actually follow a link encountered when parsing an object (see
+     * {@link #followLink(TraversalContext, String, Link, Set, Class, Map, int, Object, int)}), retrieving the related
+     * object or collection and setting it.
+     *
+     * @param context            The state of the current retrieval
+     * @param l                  The link to follow
+     * @param linksVisited       A set of links that have been visited already
+     * @param objectClass        The expected target object class
+     * @param collections        A map of collections already known
+     * @param intermediateResult The intermediate result object up to now
+     * @param depth              The current depth in the object tree (for reasons of recursion)
+     * @param <U>                Type of the linked object
+     * @throws StoresthalException If the link URL is invalid or an array collection is encountered
+     *                             (array collections are not supported (yet?))
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <U> void resolveLink(TraversalContext context, String parentObject, Link l, Set<URI> linksVisited, Class<U> objectClass, Map<String, Collection> collections, int objectCounter, U intermediateResult, int depth) throws StoresthalException {
+
+        logger.debug("Following link: {}", l.toUri());
+
+        URI uri;
+
+        try {
+            uri = new URI(l.getHref());
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from URL \"" + l.getHref() + "\"to visited links collection!", e);
+        }
+
+        RelationBinding binding = ReflectionHelper.getRelationBinding(objectClass, l.getRel().value());
+
+        if (binding != null) {
+
+            Class type = binding.type();
+
+            U subObject;
+
+            if (context.isTransient(uri)) {
+                if (binding.collection()) {
+                    handleCollection(context, parentObject, l, binding, collections, objectCounter, linksVisited, intermediateResult, depth + 1);
+                } else {
+                    context.markForLaterInvocation(uri, intermediateResult, binding.accessor());
+                }
+                return;
+            }
+
+            if (binding.collection()) {
+                handleCollection(context, parentObject, l, binding, collections, objectCounter, linksVisited, intermediateResult, depth + 1);
+                return;
+            } else if (type.getComponentType() != null) {
+                throw new StoresthalException("Array relations are not supported (yet?).");
+            }
+
+            subObject = (U) getObject(context, l.getHref(), type, linksVisited, new HashMap<>(), depth + 1);
+
+            Storesthal.invokeSetter(binding.accessor(), intermediateResult, subObject);
+
+        }
+
+        linksVisited.add(uri);
+    }
+
+    /**
+     * Retrieve an Integer (just an Integer, no special object...) from the given URL.
+     * See {@link Storesthal#getInteger(String, boolean)} for details.
+     *
+     * @param url     The URL to retrieve the integer from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return The integer retrieved.
+     * @throws StoresthalException If it was not possible to retrieve an Integer
+     */
+    public Integer getInteger(String url, boolean doCache) throws StoresthalException {
+        return getPrimitive(Integer.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve an Integer (just an Integer, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the integer from.
+     * @param cacheName The name of the cache to used when retrieving the integer.
+     * @return The integer retrieved.
+     * @throws StoresthalException If it was not possible to retrieve an Integer
+     */
+    public Integer getInteger(String url, String cacheName) throws StoresthalException {
+        return getPrimitive(Integer.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a Double (just a Double, no special object...) from the given URL.
+     * See {@link Storesthal#getDouble(String, boolean)} for details.
+     *
+     * @param url     The URL to retrieve the Double from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return The Double retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Double
+     */
+    public Double getDouble(String url, boolean doCache) throws StoresthalException {
+        return getPrimitive(Double.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a Double (just a Double, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Double from.
+     * @param cacheName The name of the cache to used when retrieving the Double.
+     * @return The Double retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Double
+     */
+    public Double getDouble(String url, String cacheName) throws StoresthalException {
+        return getPrimitive(Double.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     * See {@link Storesthal#getBoolean(String, boolean)} for details.
+     *
+     * @param url     The URL to retrieve the Boolean from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return The Boolean retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Boolean
+     */
+    public Boolean getBoolean(String url, boolean doCache) throws StoresthalException {
+        return getPrimitive(Boolean.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a Boolean (just a Boolean, no special object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the Boolean from.
+     * @param cacheName The name of the cache to used when retrieving the Boolean.
+     * @return The Boolean retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Boolean
+     */
+    public Boolean getBoolean(String url, String cacheName) throws StoresthalException {
+        return getPrimitive(Boolean.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a String (just a String, no other object...) from the given URL.
+     * See {@link Storesthal#getString(String, boolean)} for details.
+     *
+     * @param url     The URL to retrieve the String from.
+     * @param doCache Whether the result should be cached (using {@link Storesthal#COMMON_CACHE_NAME}).
+     * @return The String retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a String
+     */
+    public String getString(String url, boolean doCache) throws StoresthalException {
+        return getPrimitive(String.class, url, doCache, null);
+    }
+
+    /**
+     * Retrieve a String (just a String, no other object...) from the given URL.
+     *
+     * @param url       The URL to retrieve the String from.
+     * @param cacheName The name of the cache to used when retrieving the String.
+     * @return The String retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a String
+     */
+    public String getString(String url, String cacheName) throws StoresthalException {
+        return getPrimitive(String.class, url, true, cacheName);
+    }
+
+    /**
+     * Retrieve a primitive value using the HTTP transport of the client configuration.
+     *
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param url            The URL to retrieve the primitive from.
+     * @param doCache        Whether to cache the results or not.
+     * @param cacheName      The name of the cache to be used or NULL for {@link Storesthal#COMMON_CACHE_NAME}.
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return The primitive retrieved.
+     * @throws StoresthalException If it was not possible to retrieve the primitive
+     */
+    private <T> T getPrimitive(Class<T> primitiveClass, String url, boolean doCache, String cacheName) throws StoresthalException {
+        return PrimitiveValueRetriever.getPrimitive(configuration, primitiveClass, url, doCache, cacheName);
+    }
+
+    /**
+     * Retrieve a <i>collection</i> of objects (JSON-Array) from the given URL.
+     * See {@link Storesthal#getCollection(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the collection from.
+     * @param objectClass The class of the collection items to be returned.
+     * @param <T>         The type of the collection item object (being consistent with the `objectClass`)
+     * @return The collection requested.
+     * @throws StoresthalException if no collection could be retrieved.
+     */
+    public <T> ArrayList<T> getCollection(String url, Class<T> objectClass) throws StoresthalException {
+        return getCollection(url, objectClass, null);
+    }
+
+    /**
+     * Retrieve a <i>collection</i> of objects (JSON-Array) from the given URL.
+     * See {@link Storesthal#getCollection(String, Class, Optional)} for details.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link Storesthal#getCollection(String, Class, Optional)}) or NULL, if the
+     *                               collection is not embedded.
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return The collection requested.
+     * @throws StoresthalException if no collection could be retrieved.
+     */
+    public <T> ArrayList<T> getCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) throws StoresthalException {
+
+        logger.info("Getting object collection of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+
+        URI uri;
+
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+
+        TraversalContext context = new TraversalContext(configuration);
+
+        ArrayList<T> resultFromCache = context.getObject(uri, objectClass);
+
+        if (resultFromCache != null) {
+            context.completed(url, objectClass, true);
+            return resultFromCache;
+        }
+
+        if (configuration.isParallelTraversal()) {
+            return ParallelTraversal.getCollection(url, uri, objectClass, embeddedCollectionName, ParallelTraversal.executorFetcher(this, configuration.getTraversalExecutor()));
+        }
+
+        context.addTransientObject(uri);
+
+        context.countHttpCall();
+        List<EntityModel<T>> result = fetchCollection(url, objectClass, embeddedCollectionName);
+        context.countMaterializedObjects(Objects.requireNonNull(result).size());
+
+        ArrayList<T> realResult = new ArrayList<>();
+
+        Set<URI> linksVisited = new HashSet<>();
+        @SuppressWarnings("rawtypes") Map<String, Collection> collections = new HashMap<>();
+
+        linksVisited.add(uri);
+        int objectCounter = 0;
+        for (EntityModel<T> entry : Objects.requireNonNull(result)) {
+            realResult.add(entry.getContent());
+            for (Link l : entry.getLinks()) {
+                if ("self".equals(l.getRel().value())) {
+                    logger.debug("Self-Link for object: {}", l.toUri());
+                    if (!(l.getRel().value().isBlank())) {
+                        context.putObject(l.toUri(), entry.getContent());
+                    }
+                } else {
+                    followLink(context, url, l, linksVisited, objectClass, collections, objectCounter, entry.getContent(), 0);
+                }
+            }
+            objectCounter++;
+        }
+        context.putObject(uri, realResult);
+
+        context.invokeMarkedSetters(objectClass);
+
+        context.removeTransientObject(uri);
+
+        context.completed(url, objectClass, true);
+        return realResult;
+    }
+
+    /**
+     * Perform the HTTP call for retrieving a collection of HAL objects.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items.
+     * @param embeddedCollectionName The name of the embedded collection (see
+     *                               {@link #getCollection(String, Class, Optional)}) or NULL, if the collection is not
+     *                               embedded.
+     * @param <T>                    The type of the collection items.
+     * @return The collection items, not yet traversed.
+     * @throws StoresthalException if the collection cannot be retrieved.
+     */
+    <T> List<EntityModel<T>> fetchCollection(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) throws StoresthalException {
+
+        URI uri = toUri(url);
+        String cacheName = CacheManager.getCacheName(objectClass);
+        NegativeCache.check(configuration, cacheName, uri);
+
+        Storesthal.countHttpCall();
+
+        /*
+         * Collections of cacheable objects may be shared, so they can be revalidated by a conditional request (see
+         * ConditionalRequests).
+         */
+        boolean shareable = CacheManager.isCached(configuration, objectClass);
+        List<EntityModel<T>> result;
+
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            if (embeddedCollectionName != null) { // This is intended - NULL would mean "collection is not embedded" here.
+                ParameterizedTypeReference<EmbeddedCollectionHelper<T>> type = HalTypeRegistry.getEmbeddedCollectionTypeReference(objectClass);
+                EmbeddedCollectionHelper<T> body = ConditionalRequests.exchange(configuration, uri, type.getType(), getHttpHeaders(), shareable,
+                        requestEntity -> getRestTemplateWithHalMessageConverter(true).exchange(url, HttpMethod.GET, requestEntity, type));
+                result = EmbeddedCollectionHelper.getObjects(body, objectClass, embeddedCollectionName);
+            } else {
+                ParameterizedTypeReference<ArrayList<EntityModel<T>>> type = HalTypeRegistry.getCollectionTypeReference(objectClass);
+                result = ConditionalRequests.exchange(configuration, uri, type.getType(), getHttpHeaders(), shareable,
+                        requestEntity -> getRestTemplateWithHalMessageConverter(true).exchange(url, HttpMethod.GET, requestEntity, type));
+            }
+            succeeded = true;
+        } catch (RestClientException e) {
+            NegativeCache.record(configuration, cacheName, uri, e);
+            throw new StoresthalException("Exception trying to get collection from " + url, e);
+        } finally {
+            CacheManager.recordLoad(cacheName, uri, objectClass, System.nanoTime() - start, succeeded);
+        }
+
+        if (configuration.isHonoringCacheControl() && (result != null)) {
+            // The collection items are cached individually, so they are as fresh as the collection response.
+            for (EntityModel<T> entry : result) {
+                entry.getLink("self").ifPresent(self -> HttpCacheControl.inherit(uri, self.toUri()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Perform the HTTP call for retrieving a single HAL object.
+     *
+     * @param url         The URL representing the object.
+     * @param objectClass The destination class of the object.
+     * @param <T>         The expected type of the object.
+     * @return The object (together with its links), not yet traversed.
+     * @throws StoresthalException if the object cannot be retrieved.
+     */
+    <T> EntityModel<T> fetchObject(String url, Class<T> objectClass) throws StoresthalException {
+
+        URI uri = toUri(url);
+        String cacheName = CacheManager.getCacheName(objectClass);
+        NegativeCache.check(configuration, cacheName, uri);
+
+        Storesthal.countHttpCall();
+
+        ParameterizedTypeReference<EntityModel<T>> type = HalTypeRegistry.getEntityModelTypeReference(objectClass);
+        EntityModel<T> result;
+
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            // Cacheable objects are shared anyway, so they can be revalidated by a conditional request.
+            result = ConditionalRequests.exchange(configuration, uri, type.getType(), getHttpHeaders(), CacheManager.isCached(configuration, objectClass),
+                    requestEntity -> getRestTemplateWithHalMessageConverter(false).exchange(url, HttpMethod.GET, requestEntity, type));
+            succeeded = true;
+        } catch (RestClientException e) {
+            NegativeCache.record(configuration, cacheName, uri, e);
+            throw new StoresthalException("Exception trying to get object from " + url, e);
+        } finally {
+            CacheManager.recordLoad(cacheName, uri, objectClass, System.nanoTime() - start, succeeded);
+        }
+        return Objects.requireNonNull(result);
+    }
+
+    /**
+     * Internal representation of {@link #getObject(String, Class)}, used for recursion.
+     *
+     * @param context      The state of the current retrieval.
+     * @param url          The URL representing the object.
+     * @param objectClass  The destination class of the object.
+     * @param linksVisited A set of the links (URLs) visited so far.
+     * @param collections  A map of the collections already known.
+     * @param depth        The current recursion depth.
+     * @param <T>          The expected type of the returned object.
+     * @return The object queried
+     * @throws StoresthalException if the URL is invalid
+     */
+    private <T> T getObject(TraversalContext context, String url, Class<T> objectClass, Set<URI> linksVisited, @SuppressWarnings("rawtypes") Map<String, Collection> collections, int depth) throws StoresthalException {
+
+        URI uri;
+
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+
+        T resultFromCache = context.getObject(uri, objectClass);
+
+        if (resultFromCache != null) {
+            return resultFromCache;
+        }
+
+        context.addTransientObject(uri);
+
+        context.countHttpCall();
+        EntityModel<T> response = fetchObject(url, objectClass);
+        T result = response.getContent();
+        context.countMaterializedObjects(1);
+
+
+        linksVisited.add(uri);
+        for (Link l : response.getLinks()) {
+
+            if ("self".equals(l.getRel().value())) {
+                logger.debug("Self-Link for object: {}", l.toUri());
+                if (!(l.getRel().value().isBlank())) {
+                    context.putObject(l.toUri(), result);
+                }
+            } else {
+                followLink(context, url, l, linksVisited, objectClass, collections, 0, result, depth);
+            }
+        }
+        context.putObject(uri, result);
+
+        if (depth == 0) {
+            context.invokeMarkedSetters(objectClass);
+        }
+
+        context.removeTransientObject(uri);
+
+        return result;
+    }
+
+    /**
+     * Retrieve an object from an URL. See {@link Storesthal#getObject(String, Class)} for details.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return The object structure retrieved from the URL.
+     * @throws StoresthalException if something goes wrong
+     */
+    public <T> T getObject(String url, Class<T> objectClass) throws StoresthalException {
+
+        if (Collection.class.isAssignableFrom(objectClass)) {
+            logger.warn("""
+                    You seem to be trying to retrieve a collection of objects using Storesthal.getObject on the first level. This will likely fail.
+                    Please consider using Storesthal.getCollection in that case.
+                    (Handling collections *within* the objects retrieved, therefore on any other but the first level, will work anyway.)""");
+        }
+
+        logger.info("Getting object of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+
+        if (configuration.isParallelTraversal()) {
+            return ParallelTraversal.getObject(url, objectClass, ParallelTraversal.executorFetcher(this, configuration.getTraversalExecutor()));
+        }
+
+        TraversalContext context = new TraversalContext(configuration);
+        T result;
+
+        /*
+         * Objects of cacheable classes are shared anyway, so concurrent retrievals of the same one are coalesced
+         * instead of all of them calling the service before the object gets into the cache. The whole retrieval is
+         * coalesced (not just the HTTP call), so joining callers get the object only after its relations have been
+         * traversed and it has been put into the cache. Relations are never coalesced, as two retrievals waiting for
+         * each other's objects would block forever.
+         */
+        if (CacheManager.isCached(configuration, objectClass)) {
+            result = InFlightRequests.coalesce(toUri(url), objectClass, () -> getObject(context, url, objectClass, new HashSet<>(), new HashMap<>(), 0));
+        } else {
+            result = getObject(context, url, objectClass, new HashSet<>(), new HashMap<>(), 0);
+        }
+
+        context.completed(url, objectClass, false);
+        return result;
+    }
+
+    /**
+     * Retrieve an object from an URL anew, even if it is cached, replacing the cached object (if the object class is
+     * {@link Cacheable}). Relations of the object are resolved as usual, so cached related objects are reused.
+     * This is used for refreshing stale objects in the background (see {@link Cacheable#refreshAfterWriteSeconds()}),
+     * but may be used for forcing a reload of an object as well. The object structure is always traversed
+     * sequentially.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return The object structure retrieved from the URL.
+     * @throws StoresthalException if something goes wrong
+     */
+    public <T> T refreshObject(String url, Class<T> objectClass) throws StoresthalException {
+        logger.info("Refreshing object of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+
+        TraversalContext context = new TraversalContext(configuration);
+        try {
+            context.refresh(new URI(url));
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+        return getObject(context, url, objectClass, new HashSet<>(), new HashMap<>(), 0);
+    }
+
+    /**
+     * Asynchronously retrieve an object from an URL, using the traversal executor of the client configuration (see
+     * {@link StoresthalConfiguration#getTraversalExecutor()}). See {@link Storesthal#getObjectAsync(String, Class, Executor)}
+     * for details.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return A future completing with the object structure retrieved from the URL (or exceptionally with a
+     * {@link StoresthalException}, if something goes wrong).
+     */
+    public <T> CompletableFuture<T> getObjectAsync(String url, Class<T> objectClass) {
+        return getObjectAsync(url, objectClass, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve an object from an URL. See {@link Storesthal#getObjectAsync(String, Class, Executor)}
+     * for details.
+     *
+     * @param url         The URL to retrieve the object from. Must be well-formed and absolute!
+     * @param objectClass The class of the object to be returned.
+     * @param executor    The executor to perform the HTTP calls on.
+     * @param <T>         The type of the object (being consistent with the `objectClass`)
+     * @return A future completing with the object structure retrieved from the URL (or exceptionally with a
+     * {@link StoresthalException}, if something goes wrong).
+     */
+    public <T> CompletableFuture<T> getObjectAsync(String url, Class<T> objectClass, Executor executor) {
+        logger.info("Asynchronously getting object of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+        return ParallelTraversal.getObjectAsync(url, objectClass, ParallelTraversal.executorFetcher(this, executor));
+    }
+
+    /**
+     * Asynchronously retrieve a <i>collection</i> of objects (JSON-Array) from the given URL, using the traversal
+     * executor of the client configuration. See {@link Storesthal#getCollection(String, Class, Optional)} for details.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection or NULL, if the collection is not embedded.
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return A future completing with the collection requested (or exceptionally with a {@link StoresthalException},
+     * if no collection could be retrieved).
+     */
+    public <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, Class<T> objectClass, Optional<String> embeddedCollectionName) {
+        return getCollectionAsync(url, objectClass, embeddedCollectionName, configuration.getTraversalExecutor());
+    }
+
+    /**
+     * Asynchronously retrieve a <i>collection</i> of objects (JSON-Array) from the given URL. See
+     * {@link Storesthal#getCollectionAsync(String, Class, Optional, Executor)} for details.
+     *
+     * @param url                    The URL to retrieve the collection from.
+     * @param objectClass            The class of the collection items to be returned.
+     * @param embeddedCollectionName The name of the embedded collection or NULL, if the collection is not embedded.
+     * @param executor               The executor to perform the HTTP calls on.
+     * @param <T>                    The type of the collection item object (being consistent with the `objectClass`)
+     * @return A future completing with the collection requested (or exceptionally with a {@link StoresthalException},
+     * if no collection could be retrieved).
+     */
+    public <T> CompletableFuture<ArrayList<T>> getCollectionAsync(String url, Class<T> objectClass, Optional<String> embeddedCollectionName, Executor executor) {
+
+        logger.info("Asynchronously getting object collection of class \"{}\" from URL \"{}\".", objectClass.getCanonicalName(), url);
+
+        URI uri;
+
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            return CompletableFuture.failedFuture(new StoresthalException("Could not create URI from url\"" + url + "\"!", e));
+        }
+
+        TraversalContext context = new TraversalContext(configuration);
+        ArrayList<T> resultFromCache = context.getObject(uri, objectClass);
+
+        if (resultFromCache != null) {
+            context.completed(url, objectClass, true);
+            return CompletableFuture.completedFuture(resultFromCache);
+        }
+
+        return ParallelTraversal.getCollectionAsync(url, uri, objectClass, embeddedCollectionName, ParallelTraversal.executorFetcher(this, executor));
+    }
+}
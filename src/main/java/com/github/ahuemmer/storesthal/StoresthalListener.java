@@ -0,0 +1,52 @@
+package com.github.ahuemmer.storesthal;
+
+import java.net.URI;
+
+/**
+ * Notified of the events relevant for monitoring Storesthal (see {@link Storesthal#addListener(StoresthalListener)}),
+ * e. g. for publishing them as metrics. All methods do nothing by default, so implementations only need to override
+ * the ones they are interested in.
+ * <p>
+ * The methods are called by the threads performing the retrievals (or by the threads of the non-blocking HTTP client),
+ * so they should return quickly and must be safe for concurrent use. Exceptions thrown by a listener are logged and
+ * otherwise ignored.
+ */
+public interface StoresthalListener {
+
+    /**
+     * Handle the creation of an object cache. Caches are created on first use, so this is the place for starting to
+     * monitor them (see {@link com.github.ahuemmer.storesthal.helpers.CacheManager#getCachedObjectCount(String)}
+     * and the like).
+     *
+     * @param cacheName The name of the cache created.
+     */
+    default void cacheCreated(String cacheName) {
+    }
+
+    /**
+     * Handle the completion of an HTTP request for an object, a collection or a primitive value.
+     *
+     * @param cacheName   The name of the cache of the objects requested (see
+     *                    {@link com.github.ahuemmer.storesthal.helpers.CacheManager#getCacheName(Class)}).
+     * @param uri         The URI requested.
+     * @param objectClass The class of the objects requested.
+     * @param nanos       The time taken by the request in nanoseconds.
+     * @param bytes       The number of bytes of the response body received (only counted for blocking requests, see
+     *                    {@link com.github.ahuemmer.storesthal.helpers.HttpStatistics}).
+     * @param succeeded   Whether the request succeeded.
+     */
+    default void requestCompleted(String cacheName, URI uri, Class<?> objectClass, long nanos, long bytes, boolean succeeded) {
+    }
+
+    /**
+     * Handle the successful completion of a retrieval by {@link Storesthal#getObject(String, Class)} or
+     * {@link Storesthal#getCollection(String, Class)} (or one of their variants).
+     *
+     * @param objectClass         The class of the object (or collection items) retrieved.
+     * @param collection          Whether a collection has been retrieved.
+     * @param materializedObjects The number of objects created from the responses of the service during the
+     *                            retrieval (objects taken from a cache are not counted).
+     */
+    default void retrievalCompleted(Class<?> objectClass, boolean collection, int materializedObjects) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.Listeners;
+import com.github.ahuemmer.storesthal.jfr.RetrievalEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The state of one single (sequential) retrieval done by {@link StoresthalClient#getObject(String, Class)} or
+ * {@link StoresthalClient#getCollection(String, Class, java.util.Optional)}.
+ * <p>
+ * A new context is created for every retrieval and only used by the thread performing it, so several retrievals may
+ * run at the same time without interfering with each other's cycle wiring. Objects of {@link Cacheable} classes are
+ * still put into the (shared) object caches of {@link CacheManager}, all other objects are only kept in the context
+ * (which replaces the global intermediate cache used before).
+ */
+final class TraversalContext {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(TraversalContext.class);
+
+    /**
+     * Transient object references of this retrieval. Such transient references may occur, if e. g. a child object
+     * encountered (back)refers to the parent object just being retrieved.
+     */
+    private final Set<URI> transientObjects = new HashSet<>();
+
+    /**
+     * When handling transient objects (see description at {@link #transientObjects}, setter functions may be marked
+     * down for being called later on, when the object to be set isn't in transient state any more, but "complete".
+     * These setters are stored here.
+     */
+    private final Map<URI, List<AbstractMap.SimpleEntry<Object, BiConsumer<Object, Object>>>> invokeLater = new HashMap<>();
+
+    /**
+     * The objects of non-cacheable classes retrieved during this retrieval, so that one and the same URI encountered
+     * multiple times results in one and the same object.
+     */
+    private final Map<URI, Object> intermediateObjects = new HashMap<>();
+
+    /**
+     * The URI of an object to be retrieved anew, even if it is cached (see {@link #refresh(URI)}).
+     */
+    private URI uriToRefresh;
+
+    /**
+     * The number of objects created from the responses of the service during this retrieval.
+     */
+    private int materializedObjects;
+
+    /**
+     * The number of HTTP requests made during this retrieval.
+     */
+    private int httpCalls;
+
+    /**
+     * The JFR event of this retrieval, committed by {@link #completed(String, Class, boolean)}. NULL, if not
+     * enabled in a recording when the retrieval started.
+     */
+    private final RetrievalEvent event;
+
+    /**
+     * The configuration of the client performing this retrieval.
+     */
+    private final StoresthalConfiguration configuration;
+
+    /**
+     * Create the state for one single retrieval, starting to time it.
+     *
+     * @param configuration The configuration of the client performing the retrieval.
+     */
+    TraversalContext(StoresthalConfiguration configuration) {
+        this.configuration = configuration;
+        this.event = RetrievalEvent.beginIfEnabled();
+    }
+
+    /**
+     * Make the first lookup of the given URI miss the object caches, so that the object is retrieved anew (and put
+     * into the cache afterward). Used for refreshing stale objects.
+     *
+     * @param uri The URI of the object to be retrieved anew.
+     */
+    void refresh(URI uri) {
+        this.uriToRefresh = uri;
+    }
+
+    /**
+     * Count objects created from a response of the service.
+     *
+     * @param count The number of objects created.
+     */
+    void countMaterializedObjects(int count) {
+        materializedObjects += count;
+    }
+
+    /**
+     * Count an HTTP request made for this retrieval.
+     */
+    void countHttpCall() {
+        httpCalls++;
+    }
+
+    /**
+     * Finish this retrieval, notifying the listeners (see {@link Listeners#retrievalCompleted(Class, boolean, int)})
+     * and recording it as a {@link RetrievalEvent} (if enabled in a JFR recording).
+     *
+     * @param url         The URL requested.
+     * @param objectClass The class of the object (or collection items) retrieved.
+     * @param collection  Whether a collection has been retrieved.
+     */
+    void completed(String url, Class<?> objectClass, boolean collection) {
+        Listeners.retrievalCompleted(objectClass, collection, materializedObjects);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.objectClass = objectClass;
+            event.collection = collection;
+            event.objectCount = materializedObjects;
+            event.httpCalls = httpCalls;
+            event.commit();
+        }
+    }
+
+    /**
+     * Mark an URI as being in transient state (i. e. its object is being retrieved at the moment).
+     *
+     * @param uri The URI of the object being retrieved.
+     */
+    void addTransientObject(URI uri) {
+        logger.debug("Adding URI \"{}\" to transient objects...", uri);
+        transientObjects.add(uri);
+    }
+
+    /**
+     * Remove the transient state of an URI (i. e. its object is complete now).
+     *
+     * @param uri The URI of the object retrieved.
+     */
+    void removeTransientObject(URI uri) {
+        logger.debug("Removing URI \"{}\" from transient objects...", uri);
+        transientObjects.remove(uri);
+    }
+
+    /**
+     * Check whether an URI is in transient state.
+     *
+     * @param uri The URI to check.
+     * @return true, if the object of the URI is being retrieved at the moment.
+     */
+    boolean isTransient(URI uri) {
+        return transientObjects.contains(uri);
+    }
+
+    /**
+     * Get an object already known, either from the object cache of its class (if the class is {@link Cacheable}) or
+     * from the objects retrieved during this retrieval (or from the intermediate cache, if objects of the class are
+     * cached as declared by the response headers, see {@link CacheManager#isCachedByCacheControl(Class)}).
+     *
+     * @param uri         The URI of the object.
+     * @param objectClass The class of the object.
+     * @param <T>         The type of the object.
+     * @return The object or NULL, if it isn't known (yet).
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getObject(URI uri, Class<?> objectClass) {
+        if (uri.equals(uriToRefresh)) {
+            uriToRefresh = null;
+            return null;
+        }
+        if (CacheManager.isCacheable(objectClass)) {
+            return CacheManager.getObjectFromCache(configuration, uri, objectClass, null);
+        }
+        T result = (T) intermediateObjects.get(uri);
+        if ((result == null) && CacheManager.isCachedByCacheControl(configuration, objectClass)) {
+            return CacheManager.getObjectFromCache(configuration, uri, objectClass, null);
+        }
+        return result;
+    }
+
+    /**
+     * Make an object known, putting it into the object cache of its class (if the class is {@link Cacheable}) or
+     * into the objects retrieved during this retrieval (and into the intermediate cache, if objects of the class are
+     * cached as declared by the response headers, see {@link CacheManager#isCachedByCacheControl(Class)}).
+     *
+     * @param uri    The URI of the object.
+     * @param object The object.
+     */
+    void putObject(URI uri, Object object) {
+        if (CacheManager.isCacheable(object.getClass())) {
+            CacheManager.putObjectInCache(configuration, uri, object, null);
+        } else {
+            intermediateObjects.put(uri, object);
+            if (CacheManager.isCachedByCacheControl(configuration, object.getClass())) {
+                CacheManager.putObjectInCache(configuration, uri, object, null);
+            }
+        }
+    }
+
+    /**
+     * Marks a method to be invoked "later", after the first full object traversal.
+     * This is necessary as e. g. a child object may have a relation to its parent object, which is still being
+     * traversed and therefore incomplete. It also avoids endless cycling within the object tree.
+     * See also {@link #transientObjects}.
+     *
+     * @param uri    The URI for the object to be set later on
+     * @param object The object on which the method is to be called
+     * @param setter The accessor of the method (usually a setter) to be called on the given object. It will be given
+     *               the object retrieved via the `link` parameter as one and only parameter.
+     */
+    void markForLaterInvocation(URI uri, Object object, BiConsumer<Object, Object> setter) {
+        invokeLater.computeIfAbsent(uri, key -> new LinkedList<>()).add(new AbstractMap.SimpleEntry<>(object, setter));
+    }
+
+    /**
+     * During object retrieval, it might happen, that links to "parent" objects are not followed / populated,
+     * as the parent object itself is just being examined and populated. This function corrects this afterwards,
+     * when the parent object is fully available.
+     *
+     * @param objectClass The class of the object retrieved.
+     * @throws StoresthalException on reflection based problems
+     */
+    void invokeMarkedSetters(Class<?> objectClass) throws StoresthalException {
+        for (Map.Entry<URI, List<AbstractMap.SimpleEntry<Object, BiConsumer<Object, Object>>>> entry : invokeLater.entrySet()) {
+            for (AbstractMap.SimpleEntry<Object, BiConsumer<Object, Object>> objectAndMethod : entry.getValue()) {
+                URI uri = entry.getKey();
+                Object knownObject = intermediateObjects.containsKey(uri) ? intermediateObjects.get(uri) : getObject(uri, objectClass);
+                Storesthal.invokeSetter(objectAndMethod.getValue(), objectAndMethod.getKey(), knownObject);
+            }
+        }
+        invokeLater.clear();
+    }
+}
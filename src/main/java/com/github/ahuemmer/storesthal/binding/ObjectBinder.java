@@ -0,0 +1,42 @@
+package com.github.ahuemmer.storesthal.binding;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+import com.github.ahuemmer.storesthal.HALRelation;
+import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
+
+/**
+ * Binder of an object class, generated at compile time by the {@code BinderProcessor} (shipped separately, see
+ * there) for every class using {@link HALRelation} or {@link Cacheable}. It provides the relations of the class (as a
+ * switch over the relation names, calling the setters directly) and the name of its cache, so they don't have to be
+ * looked up by reflection. The other cache settings are read from the {@link Cacheable} annotation (once per class).
+ * <p>
+ * The binders generated are registered as services of this interface (in
+ * {@code META-INF/services/com.github.ahuemmer.storesthal.binding.ObjectBinder}) and picked up by Storesthal
+ * automatically. For classes without a binder (and in annotationless mode, see
+ * {@link com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration#isAnnotationless()}), the relations
+ * are looked up by reflection (see {@link ReflectionHelper#getRelationBinding(Class, String)}).
+ */
+public interface ObjectBinder {
+
+    /**
+     * Get the class bound.
+     *
+     * @return The object class
+     */
+    Class<?> getObjectClass();
+
+    /**
+     * Get the binding of a relation, as declared by {@link HALRelation} annotations.
+     *
+     * @param rel The name of the relation
+     * @return The binding or NULL, if the class has no setter for the relation
+     */
+    RelationBinding getRelation(String rel);
+
+    /**
+     * Get the name of the cache the objects of the class are kept in (see {@link Cacheable#cacheName()}).
+     *
+     * @return The cache name or NULL, if the class isn't annotated with {@link Cacheable}
+     */
+    String getCacheName();
+}
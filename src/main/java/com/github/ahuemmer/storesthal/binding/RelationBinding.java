@@ -0,0 +1,25 @@
+package com.github.ahuemmer.storesthal.binding;
+
+import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The binding of a relation to the setter of an object class, either looked up by reflection (see
+ * {@link ReflectionHelper#getRelationBinding(Class, String)}) or generated at compile time (see {@link ObjectBinder}).
+ *
+ * @param setterName        The name of the setter taking the related object (or collection)
+ * @param type              The parameter type of the setter
+ * @param collection        Whether the relation is a collection (i. e. the type is a {@link Collection})
+ * @param elementType       The class of the collection members (or NULL, if the relation isn't a collection or the
+ *                          element type cannot be determined, e. g. for raw collection types)
+ * @param accessor          The accessor invoking the setter (see {@link ReflectionHelper#createSetter(Method)})
+ * @param collectionFactory The factory creating a new (empty) collection of the parameter type (or NULL, if the
+ *                          relation isn't a collection or the collection is to be created by reflection)
+ */
+public record RelationBinding(String setterName, Class<?> type, boolean collection, Class<?> elementType,
+                              BiConsumer<Object, Object> accessor, Supplier<Collection<Object>> collectionFactory) {
+}
@@ -0,0 +1,21 @@
+package com.github.ahuemmer.storesthal.cache;
+
+/**
+ * The policy a {@link ConcurrentObjectCache} uses to decide which entry to evict once its capacity is exceeded.
+ */
+public enum CachePolicy {
+
+    /**
+     * Evict the entry least recently accessed. Simple and predictable, but a single scan over many objects (e. g. a
+     * large collection retrieved once) pushes all other entries out of the cache.
+     */
+    LRU,
+
+    /**
+     * "Window TinyLFU": New entries are kept in a small LRU window first. When leaving it, an entry is only admitted
+     * to the main part of the cache, if it has been accessed more often (recently) than the entry it would displace,
+     * which is estimated by a compact frequency sketch. So entries being accessed only once (like the ones of a scan)
+     * don't displace frequently used entries.
+     */
+    TINY_LFU
+}
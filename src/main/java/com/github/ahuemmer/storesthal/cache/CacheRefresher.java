@@ -0,0 +1,25 @@
+package com.github.ahuemmer.storesthal.cache;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Refreshes stale entries of a {@link ConcurrentObjectCache} (see
+ * {@link ConcurrentObjectCache#ConcurrentObjectCache(String, int, CachePolicy, java.time.Duration, java.time.Duration, java.time.Duration, CacheRefresher)}).
+ *
+ * @param <K> The type of the "key" objects
+ * @param <V> The type of the "value" objects
+ */
+@FunctionalInterface
+public interface CacheRefresher<K, V> {
+
+    /**
+     * Start retrieving a fresh value for a stale entry. This must not block the calling thread (which is a thread
+     * reading the cache), but do the actual work asynchronously.
+     *
+     * @param key        The key of the stale entry
+     * @param staleValue The stale value still being served
+     * @return A future completing with the fresh value (or with NULL or exceptionally, if the stale entry is to be
+     * kept)
+     */
+    CompletableFuture<V> refresh(K key, V staleValue);
+}
@@ -0,0 +1,1108 @@
+package com.github.ahuemmer.storesthal.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe object cache with configurable key and value object types, size and eviction policy (by default
+ * evicting the least recently used entry once its capacity is exceeded).
+ * <p>
+ * Unlike an access-ordered {@link java.util.LinkedHashMap}, a read doesn't change any shared structure: The entries
+ * are kept in a {@link ConcurrentHashMap} (so reads are lock-free) and every read is just recorded in one of several
+ * striped read buffers. The access order is maintained by replaying these buffers (and the buffered writes) in
+ * batches, guarded by a lock which is only ever <i>tried</i> by readers - so a cache hit never waits for another
+ * thread. If a read buffer is full while another thread is doing the maintenance, the read isn't recorded at all,
+ * which only makes the eviction order a little less exact under heavy load.
+ * <p>
+ * The lock is a {@link ReentrantLock} (and no monitor), so virtual threads using the cache are never pinned to their
+ * carrier thread.
+ * <p>
+ * Which entry is evicted depends on the {@link CachePolicy} of the cache: Using {@link CachePolicy#LRU}, it's always
+ * the least recently used one. Using {@link CachePolicy#TINY_LFU}, the entries are split into a small LRU "window"
+ * (1% of the capacity) for new entries and a "main" part, divided into a "probation" and a "protected" (80% of the
+ * main part) segment. An entry accessed again while on probation is promoted to the protected segment. An entry
+ * leaving the window only replaces the least recently used entry on probation, if it has been accessed more often
+ * according to a {@link FrequencySketch} - otherwise the new entry itself is evicted.
+ * <p>
+ * Optionally, entries expire after a fixed time since they have been put into the cache ("expire after write") and/or
+ * since they have been accessed last ("expire after access"). An expired entry is never returned by {@link #get(Object)}
+ * (which only costs a single look at the clock); it is removed when encountered or by {@link #cleanUp()}, which is to
+ * be called periodically (e. g. by a background thread). Single entries may be given an individual time to live
+ * instead of the expiry after write of the cache (see {@link #put(Object, Object, Duration)}).
+ * <p>
+ * Besides the number of entries, the cache may be bounded by their total weight (e. g. their estimated size in bytes),
+ * as determined by a {@link Weigher} when an entry is put into the cache. Entries are evicted (in the same order) as
+ * long as any of both limits is exceeded; an entry heavier than the maximum weight of the whole cache isn't cached at
+ * all. An {@link EvictionListener} may be notified of the entries evicted.
+ * <p>
+ * Entries may also be refreshed ("stale-while-revalidate"): If an entry has been put into the cache longer ago than the
+ * refresh time, it is still returned by {@link #get(Object)}, but a fresh value is retrieved asynchronously by a
+ * {@link CacheRefresher} - at most one refresh per key at a time. Once the fresh value is available, it replaces the
+ * stale one.
+ *
+ * @param <K> The type of the "key" objects
+ * @param <V> The type of the "value" objects
+ */
+public class ConcurrentObjectCache<K, V> {
+
+    /**
+     * The number of reads a single read buffer can hold (must be a power of two).
+     */
+    private static final int READ_BUFFER_SIZE = 16;
+
+    /**
+     * The number of read buffers (a power of two, depending on the number of processors).
+     */
+    private static final int READ_BUFFER_STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    /**
+     * Segment of the new entries.
+     */
+    private static final int WINDOW = 0;
+
+    /**
+     * Segment of the entries admitted to the main part, but not accessed since.
+     */
+    private static final int PROBATION = 1;
+
+    /**
+     * Segment of the entries accessed while on probation.
+     */
+    private static final int PROTECTED = 2;
+
+    /**
+     * The name of this cache - to be able to easily distinguish it from possible other object caches.
+     */
+    private final String cacheName;
+
+    /**
+     * The maximum number of items in the cache
+     */
+    private final int capacity;
+
+    /**
+     * The eviction policy of the cache.
+     */
+    private final CachePolicy policy;
+
+    /**
+     * The access frequencies of the keys, only used by {@link CachePolicy#TINY_LFU}. Guarded by {@link #evictionLock}.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * The maximum number of entries in the window segment ({@link CachePolicy#TINY_LFU} only).
+     */
+    private final int windowCapacity;
+
+    /**
+     * The maximum number of entries in the protected segment ({@link CachePolicy#TINY_LFU} only).
+     */
+    private final int protectedCapacity;
+
+    /**
+     * The time (in nanoseconds) after which an entry expires since it has been put into the cache, 0 for never.
+     */
+    private final long expireAfterWriteNanos;
+
+    /**
+     * The time (in nanoseconds) after which an entry expires since it has been accessed last, 0 for never.
+     */
+    private final long expireAfterAccessNanos;
+
+    /**
+     * Whether an entry with an individual time to live has been put into the cache (see
+     * {@link #put(Object, Object, Duration)}). Once set, all entries get timestamps.
+     */
+    private volatile boolean variableExpiry;
+
+    /**
+     * The time (in nanoseconds) after which an entry is stale and refreshed since it has been put into the cache, 0 for
+     * never.
+     */
+    private final long refreshAfterWriteNanos;
+
+    /**
+     * Retrieves fresh values for stale entries (only used, if {@link #refreshAfterWriteNanos} is set).
+     */
+    private final CacheRefresher<K, V> refresher;
+
+    /**
+     * The clock the expiry and refresh times are measured by (in nanoseconds, like {@link System#nanoTime()}).
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * The maximum total weight of the entries, 0 for unbounded.
+     */
+    private final long maximumWeight;
+
+    /**
+     * Determines the weight of the entries. NULL, if the entries aren't weighed at all.
+     */
+    private final Weigher<? super K, ? super V> weigher;
+
+    /**
+     * The total weight of the entries linked into the access order. Written while holding the eviction lock only.
+     */
+    private volatile long weightedSize;
+
+    /**
+     * Notified of the entries evicted because of the capacity or the maximum weight (may be NULL).
+     */
+    private volatile EvictionListener<? super K, ? super V> evictionListener;
+
+    /**
+     * The keys being refreshed at the moment.
+     */
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of stale values returned by {@link #get(Object)}.
+     */
+    private final LongAdder staleHits = new LongAdder();
+
+    /**
+     * The number of entries evicted because of the capacity or the maximum weight of the cache.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The entries of the cache.
+     */
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+
+    /**
+     * The striped buffers recording reads until they are applied to the access order.
+     */
+    private final ReadBuffer<K, V>[] readBuffers;
+
+    /**
+     * The writes (additions and removals) not yet applied to the access order.
+     */
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The lock guarding the access order (and the eviction).
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * The access order lists of the segments, indexed by {@link Node#segment}: Each one is represented by a sentinel
+     * node, {@code next} of which is the least recently used entry and {@code prev} the most recently used one. Using
+     * {@link CachePolicy#LRU}, all entries are kept in the {@link #WINDOW} segment. Guarded by {@link #evictionLock}.
+     */
+    private final Node<K, V>[] segments;
+
+    /**
+     * The number of entries linked into each segment. Guarded by {@link #evictionLock}.
+     */
+    private final int[] segmentSizes = new int[3];
+
+    /**
+     * Construct a new (LRU) cache with a given name and capacity
+     *
+     * @param cacheName The name of the cache - to be able to easily distinguish it from possible other object caches.
+     * @param capacity  The maximum number of items in the cache
+     */
+    public ConcurrentObjectCache(String cacheName, int capacity) {
+        this(cacheName, capacity, CachePolicy.LRU);
+    }
+
+    /**
+     * Construct a new cache with a given name, capacity and eviction policy
+     *
+     * @param cacheName The name of the cache - to be able to easily distinguish it from possible other object caches.
+     * @param capacity  The maximum number of items in the cache
+     * @param policy    The eviction policy
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentObjectCache(String cacheName, int capacity, CachePolicy policy) {
+        this(cacheName, capacity, policy, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * Construct a new cache with a given name, capacity, eviction policy and expiry
+     *
+     * @param cacheName         The name of the cache - to be able to easily distinguish it from possible other object
+     *                          caches.
+     * @param capacity          The maximum number of items in the cache
+     * @param policy            The eviction policy
+     * @param expireAfterWrite  The time after which an entry expires since it has been put into the cache
+     *                          ({@link Duration#ZERO} for never)
+     * @param expireAfterAccess The time after which an entry expires since it has been accessed last
+     *                          ({@link Duration#ZERO} for never)
+     */
+    public ConcurrentObjectCache(String cacheName, int capacity, CachePolicy policy, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this(cacheName, capacity, policy, expireAfterWrite, expireAfterAccess, Duration.ZERO, null);
+    }
+
+    /**
+     * Construct a new cache with a given name, capacity, eviction policy, expiry and refresh
+     *
+     * @param cacheName         The name of the cache - to be able to easily distinguish it from possible other object
+     *                          caches.
+     * @param capacity          The maximum number of items in the cache
+     * @param policy            The eviction policy
+     * @param expireAfterWrite  The time after which an entry expires since it has been put into the cache
+     *                          ({@link Duration#ZERO} for never)
+     * @param expireAfterAccess The time after which an entry expires since it has been accessed last
+     *                          ({@link Duration#ZERO} for never)
+     * @param refreshAfterWrite The time after which an entry is stale and refreshed since it has been put into the
+     *                          cache ({@link Duration#ZERO} for never). Should be less than expireAfterWrite, as expired
+     *                          entries aren't returned at all.
+     * @param refresher         Retrieves fresh values for stale entries. May be NULL, if refreshAfterWrite is
+     *                          {@link Duration#ZERO}.
+     */
+    public ConcurrentObjectCache(String cacheName, int capacity, CachePolicy policy, Duration expireAfterWrite, Duration expireAfterAccess, Duration refreshAfterWrite, CacheRefresher<K, V> refresher) {
+        this(cacheName, capacity, policy, expireAfterWrite, expireAfterAccess, refreshAfterWrite, refresher, 0, null);
+    }
+
+    /**
+     * Construct a new cache with a given name, capacity, eviction policy, expiry, refresh and weight limit
+     *
+     * @param cacheName         The name of the cache - to be able to easily distinguish it from possible other object
+     *                          caches.
+     * @param capacity          The maximum number of items in the cache
+     * @param policy            The eviction policy
+     * @param expireAfterWrite  The time after which an entry expires since it has been put into the cache
+     *                          ({@link Duration#ZERO} for never)
+     * @param expireAfterAccess The time after which an entry expires since it has been accessed last
+     *                          ({@link Duration#ZERO} for never)
+     * @param refreshAfterWrite The time after which an entry is stale and refreshed since it has been put into the
+     *                          cache ({@link Duration#ZERO} for never). Should be less than expireAfterWrite, as expired
+     *                          entries aren't returned at all.
+     * @param refresher         Retrieves fresh values for stale entries. May be NULL, if refreshAfterWrite is
+     *                          {@link Duration#ZERO}.
+     * @param maximumWeight     The maximum total weight of the entries (0 for unbounded)
+     * @param weigher           Determines the weight of the entries. May be NULL, if the entries are not to be
+     *                          weighed (only allowed, if maximumWeight is 0).
+     */
+    public ConcurrentObjectCache(String cacheName, int capacity, CachePolicy policy, Duration expireAfterWrite, Duration expireAfterAccess, Duration refreshAfterWrite, CacheRefresher<K, V> refresher, long maximumWeight, Weigher<? super K, ? super V> weigher) {
+        this(cacheName, capacity, policy, expireAfterWrite, expireAfterAccess, refreshAfterWrite, refresher, maximumWeight, weigher, System::nanoTime);
+    }
+
+    /**
+     * Construct a new cache with a given name, capacity, eviction policy, expiry, refresh, weight limit and clock
+     *
+     * @param cacheName         The name of the cache - to be able to easily distinguish it from possible other object
+     *                          caches.
+     * @param capacity          The maximum number of items in the cache
+     * @param policy            The eviction policy
+     * @param expireAfterWrite  The time after which an entry expires since it has been put into the cache
+     *                          ({@link Duration#ZERO} for never)
+     * @param expireAfterAccess The time after which an entry expires since it has been accessed last
+     *                          ({@link Duration#ZERO} for never)
+     * @param refreshAfterWrite The time after which an entry is stale and refreshed since it has been put into the
+     *                          cache ({@link Duration#ZERO} for never). Should be less than expireAfterWrite, as expired
+     *                          entries aren't returned at all.
+     * @param refresher         Retrieves fresh values for stale entries. May be NULL, if refreshAfterWrite is
+     *                          {@link Duration#ZERO}.
+     * @param maximumWeight     The maximum total weight of the entries (0 for unbounded)
+     * @param weigher           Determines the weight of the entries. May be NULL, if the entries are not to be
+     *                          weighed (only allowed, if maximumWeight is 0).
+     * @param ticker            The current time in nanoseconds (usually {@link System#nanoTime()}, replaced e. g. for
+     *                          testing the expiry without waiting)
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentObjectCache(String cacheName, int capacity, CachePolicy policy, Duration expireAfterWrite, Duration expireAfterAccess, Duration refreshAfterWrite, CacheRefresher<K, V> refresher, long maximumWeight, Weigher<? super K, ? super V> weigher, LongSupplier ticker) {
+        if ((maximumWeight > 0) && (weigher == null)) {
+            throw new IllegalArgumentException("A weigher is needed for bounding the weight of the cache!");
+        }
+        this.cacheName = cacheName;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+        this.refreshAfterWriteNanos = (refresher != null) ? refreshAfterWrite.toNanos() : 0;
+        this.refresher = refresher;
+        this.ticker = ticker;
+        this.data = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+        this.readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+        for (int i = 0; i < READ_BUFFER_STRIPES; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+        this.segments = new Node[3];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Node<>(null, null, 0, 0, 0);
+            segments[i].prev = segments[i];
+            segments[i].next = segments[i];
+        }
+        if (policy == CachePolicy.TINY_LFU) {
+            this.sketch = new FrequencySketch(capacity);
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.protectedCapacity = (int) ((capacity - windowCapacity) * 0.8);
+        } else {
+            this.sketch = null;
+            this.windowCapacity = capacity;
+            this.protectedCapacity = 0;
+        }
+    }
+
+    /**
+     * Get the name of this cache
+     *
+     * @return The name of this cache
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Get the capacity of this cache
+     *
+     * @return The maximum number of items in the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the eviction policy of this cache
+     *
+     * @return The eviction policy
+     */
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the time after which an entry expires since it has been put into the cache
+     *
+     * @return The expiry after write ({@link Duration#ZERO} for never)
+     */
+    public Duration getExpireAfterWrite() {
+        return Duration.ofNanos(expireAfterWriteNanos);
+    }
+
+    /**
+     * Get the time after which an entry expires since it has been accessed last
+     *
+     * @return The expiry after access ({@link Duration#ZERO} for never)
+     */
+    public Duration getExpireAfterAccess() {
+        return Duration.ofNanos(expireAfterAccessNanos);
+    }
+
+    /**
+     * Get the time after which an entry is stale and refreshed since it has been put into the cache
+     *
+     * @return The refresh after write ({@link Duration#ZERO} for never)
+     */
+    public Duration getRefreshAfterWrite() {
+        return Duration.ofNanos(refreshAfterWriteNanos);
+    }
+
+    /**
+     * Return whether the entries of this cache expire after some time
+     *
+     * @return true, if an expiry after write or after access is set or an entry with an individual time to live has
+     * been put into the cache
+     */
+    public boolean expires() {
+        return (expireAfterWriteNanos > 0) || (expireAfterAccessNanos > 0) || variableExpiry;
+    }
+
+    /**
+     * Return whether the entries of this cache are weighed
+     *
+     * @return true, if a {@link Weigher} is set
+     */
+    public boolean weighs() {
+        return weigher != null;
+    }
+
+    /**
+     * Get the maximum total weight of the entries
+     *
+     * @return The maximum weight or 0, if the weight of the cache is unbounded
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Get the current total weight of the entries (0, if the entries aren't weighed)
+     *
+     * @return The total weight of the entries
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Return whether stale entries of this cache are refreshed
+     *
+     * @return true, if a refresh after write is set
+     */
+    public boolean refreshes() {
+        return refreshAfterWriteNanos > 0;
+    }
+
+    /**
+     * Set the listener to be notified of the entries evicted because of the capacity or the maximum weight of the
+     * cache (but not of the entries removed, replaced or expired), e. g. to keep them in a second level cache.
+     *
+     * @param evictionListener The listener (NULL for none)
+     */
+    public void setEvictionListener(EvictionListener<? super K, ? super V> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Get the number of stale values returned by {@link #get(Object)} (while being refreshed)
+     *
+     * @return The number of stale values served
+     */
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Reset the number of stale values returned to zero
+     */
+    public void resetStaleHits() {
+        staleHits.reset();
+    }
+
+    /**
+     * Get the number of entries evicted because of the capacity or the maximum weight of the cache (expired or
+     * removed entries are not counted).
+     *
+     * @return The number of entries evicted
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Reset the number of entries evicted to zero
+     */
+    public void resetEvictions() {
+        evictions.reset();
+    }
+
+    /**
+     * Get the value cached for a key, marking it as recently used.
+     *
+     * @param key The key
+     * @return The value or NULL, if nothing (or only an expired entry) is cached for the key
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (isTimed()) {
+            long now = ticker.getAsLong();
+            if (isExpired(node, now)) {
+                if (data.remove(key, node)) {
+                    afterWrite(() -> retire(node));
+                }
+                return null;
+            }
+            if (expireAfterAccessNanos > 0) {
+                node.accessTime = now;
+            }
+            if ((refreshAfterWriteNanos > 0) && (now - node.writeTime >= refreshAfterWriteNanos)) {
+                staleHits.increment();
+                refresh(node);
+            }
+        }
+        recordRead(node);
+        return node.value;
+    }
+
+    /**
+     * Put a value into the cache, evicting an entry (according to the {@link CachePolicy}) if the capacity is exceeded.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, isTimed() ? ticker.getAsLong() : 0, 0, weigh(key, value));
+        afterReplace(data.put(key, node), node);
+    }
+
+    /**
+     * Put a value into the cache with an individual time to live, replacing the expiry after write of the cache for
+     * this entry (the expiry after access still applies). Otherwise, the same as {@link #put(Object, Object)}.
+     *
+     * @param key        The key
+     * @param value      The value
+     * @param timeToLive The time after which the entry expires since it has been put into the cache (must be positive)
+     */
+    public void put(K key, V value, Duration timeToLive) {
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            throw new IllegalArgumentException("The time to live must be positive!");
+        }
+        variableExpiry = true;
+        Node<K, V> node = new Node<>(key, value, ticker.getAsLong(), timeToLive.toNanos(), weigh(key, value));
+        afterReplace(data.put(key, node), node);
+    }
+
+    /**
+     * Remove the value cached for a key.
+     *
+     * @param key The key
+     */
+    public void remove(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node != null) {
+            afterWrite(() -> retire(node));
+        }
+    }
+
+    /**
+     * Evict entries (in the order given by the {@link CachePolicy}) until their total weight doesn't exceed the
+     * given one, e. g. to enforce a weight limit spanning several caches.
+     *
+     * @param targetWeight The total weight to shrink the cache to
+     */
+    public void trimToWeight(long targetWeight) {
+        evictionLock.lock();
+        try {
+            maintenance();
+            while (weightedSize > targetWeight) {
+                Node<K, V> victim = nextVictim();
+                if (victim == null) {
+                    return;
+                }
+                evictEntry(victim);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the entries of the cache (e. g. for exporting them), ordered from the most valuable ones (the
+     * ones evicted last according to the {@link CachePolicy}) to the least valuable ones. Expired entries are left out.
+     *
+     * @return The entries along with their remaining time to live
+     */
+    public List<Entry<K, V>> snapshot() {
+        List<Entry<K, V>> result = new ArrayList<>(data.size());
+        evictionLock.lock();
+        try {
+            maintenance();
+            long now = ticker.getAsLong();
+            for (int segment : new int[]{PROTECTED, WINDOW, PROBATION}) {
+                for (Node<K, V> node = segments[segment].prev; node != segments[segment]; node = node.prev) {
+                    if (isTimed() && isExpired(node, now)) {
+                        continue;
+                    }
+                    long expireAfterWrite = (node.timeToLiveNanos > 0) ? node.timeToLiveNanos : expireAfterWriteNanos;
+                    Duration timeToLive = (expireAfterWrite > 0) ? Duration.ofNanos(node.writeTime + expireAfterWrite - now) : null;
+                    result.add(new Entry<>(node.key, node.value, timeToLive));
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Determine the weight of an entry.
+     *
+     * @param key   The key
+     * @param value The value
+     * @return The weight or 0, if the entries aren't weighed
+     */
+    private long weigh(K key, V value) {
+        return (weigher != null) ? Math.max(0, weigher.weigh(key, value)) : 0;
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node<K, V> node : data.values()) {
+                if (data.remove(node.key, node)) {
+                    retire(node);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Start refreshing a stale entry, unless its key is being refreshed already. Once the fresh value is available,
+     * it replaces the stale entry (if that hasn't been replaced or removed in the meantime).
+     *
+     * @param node The stale entry
+     */
+    private void refresh(Node<K, V> node) {
+        K key = node.key;
+        if (!refreshing.add(key)) {
+            return;
+        }
+        CompletableFuture<V> future;
+        try {
+            future = refresher.refresh(key, node.value);
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            throw e;
+        }
+        future.whenComplete((value, error) -> {
+            try {
+                if ((error == null) && (value != null)) {
+                    Node<K, V> fresh = new Node<>(key, value, ticker.getAsLong(), node.timeToLiveNanos, weigh(key, value));
+                    if (data.replace(key, node, fresh)) {
+                        afterReplace(node, fresh);
+                    }
+                }
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Buffer the replacement of an entry (or the addition of a new one) in the access order.
+     *
+     * @param prior The entry replaced or NULL, if there was none
+     * @param node  The new entry
+     */
+    private void afterReplace(Node<K, V> prior, Node<K, V> node) {
+        afterWrite(() -> {
+            if (prior != null) {
+                retire(prior);
+            }
+            if (!node.retired) {
+                if ((maximumWeight > 0) && (node.weight > maximumWeight)) {
+                    // Caching it would evict everything else (and the entry itself as well).
+                    node.retired = true;
+                    data.remove(node.key, node);
+                    return;
+                }
+                if (sketch != null) {
+                    sketch.increment(node.key);
+                }
+                link(node, WINDOW);
+            }
+        });
+    }
+
+    /**
+     * Return whether entries need timestamps, because they expire or are refreshed.
+     *
+     * @return true, if the cache expires or refreshes entries
+     */
+    private boolean isTimed() {
+        return expires() || refreshes();
+    }
+
+    /**
+     * Remove all expired entries from the cache.
+     */
+    public void cleanUp() {
+        if (!expires()) {
+            return;
+        }
+        long now = ticker.getAsLong();
+        for (Node<K, V> node : data.values()) {
+            if (isExpired(node, now) && data.remove(node.key, node)) {
+                writeBuffer.add(() -> retire(node));
+            }
+        }
+        tryMaintenance();
+    }
+
+    /**
+     * Get the number of entries in the cache.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Check whether an entry has expired.
+     *
+     * @param node The entry
+     * @param now  The current time (see {@link #ticker})
+     * @return true, if the entry has expired
+     */
+    private boolean isExpired(Node<K, V> node, long now) {
+        long expireAfterWrite = (node.timeToLiveNanos > 0) ? node.timeToLiveNanos : expireAfterWriteNanos;
+        return ((expireAfterWrite > 0) && (now - node.writeTime >= expireAfterWrite))
+                || ((expireAfterAccessNanos > 0) && (now - node.accessTime >= expireAfterAccessNanos));
+    }
+
+    /**
+     * Record a read of an entry in the read buffer of the current thread, applying the read buffers if it is full.
+     *
+     * @param node The entry read
+     */
+    private void recordRead(Node<K, V> node) {
+        ReadBuffer<K, V> buffer = readBuffers[(int) Thread.currentThread().threadId() & (READ_BUFFER_STRIPES - 1)];
+        if (!buffer.offer(node)) {
+            tryMaintenance();
+        }
+    }
+
+    /**
+     * Buffer a write to be applied to the access order and try to apply it (along with all other buffered reads and
+     * writes) right away.
+     *
+     * @param task The write to be applied
+     */
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        tryMaintenance();
+    }
+
+    /**
+     * Apply the buffered reads and writes and evict entries, unless another thread is doing so at the moment.
+     */
+    private void tryMaintenance() {
+        do {
+            if (!evictionLock.tryLock()) {
+                // The thread holding the lock will check the write buffer again after releasing it.
+                return;
+            }
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    /**
+     * Apply the buffered reads and writes and evict entries exceeding the capacity. Guarded by {@link #evictionLock}.
+     */
+    private void maintenance() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            buffer.drain(this);
+        }
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            task.run();
+        }
+        evict();
+    }
+
+    /**
+     * Evict entries as long as the capacity or the maximum weight is exceeded. Guarded by {@link #evictionLock}.
+     */
+    private void evict() {
+        if (policy == CachePolicy.TINY_LFU) {
+            admitFromWindow();
+        }
+        while ((data.size() > capacity) || ((maximumWeight > 0) && (weightedSize > maximumWeight))) {
+            Node<K, V> victim = nextVictim();
+            if (victim == null) {
+                // Entries not linked yet, their writes will trigger the eviction.
+                return;
+            }
+            evictEntry(victim);
+        }
+    }
+
+    /**
+     * Get the entry to be evicted next: The least recently used one on probation, in the protected segment or in the
+     * window (in this order). Guarded by {@link #evictionLock}.
+     *
+     * @return The entry or NULL, if no entry is linked
+     */
+    private Node<K, V> nextVictim() {
+        Node<K, V> victim = eldest(PROBATION);
+        if (victim == null) {
+            victim = eldest(PROTECTED);
+        }
+        if (victim == null) {
+            victim = eldest(WINDOW);
+        }
+        return victim;
+    }
+
+    /**
+     * Move the entries exceeding the window capacity to the probation segment. If the main part of the cache is full,
+     * such an entry is only admitted if it is accessed more frequently than the least recently used entry on
+     * probation (which is evicted then), otherwise it is evicted itself. Guarded by {@link #evictionLock}.
+     */
+    private void admitFromWindow() {
+        while (segmentSizes[WINDOW] > windowCapacity) {
+            Node<K, V> candidate = eldest(WINDOW);
+            unlink(candidate);
+            if (segmentSizes[PROBATION] + segmentSizes[PROTECTED] < capacity - windowCapacity) {
+                link(candidate, PROBATION);
+                continue;
+            }
+            Node<K, V> victim = eldest(PROBATION);
+            if (victim == null) {
+                victim = eldest(PROTECTED);
+            }
+            if (victim == null || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                if (victim != null) {
+                    evictEntry(victim);
+                }
+                link(candidate, PROBATION);
+            } else {
+                evictEntry(candidate);
+            }
+        }
+    }
+
+    /**
+     * Remove an entry from the cache because of its capacity. Guarded by {@link #evictionLock}.
+     *
+     * @param node The entry
+     */
+    private void evictEntry(Node<K, V> node) {
+        retire(node);
+        EvictionListener<? super K, ? super V> listener = evictionListener;
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+            if (listener != null) {
+                listener.onEviction(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * Get the least recently used entry of a segment. Guarded by {@link #evictionLock}.
+     *
+     * @param segment The segment
+     * @return The entry or NULL, if the segment is empty
+     */
+    private Node<K, V> eldest(int segment) {
+        Node<K, V> eldest = segments[segment].next;
+        return (eldest == segments[segment]) ? null : eldest;
+    }
+
+    /**
+     * Mark an entry as (read) recently used, promoting it to the protected segment if it was on probation. Guarded
+     * by {@link #evictionLock}.
+     *
+     * @param node The entry read
+     */
+    private void onRead(Node<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (!node.isLinked()) {
+            return;
+        }
+        int segment = node.segment;
+        unlink(node);
+        if (segment != PROBATION) {
+            link(node, segment);
+            return;
+        }
+        link(node, PROTECTED);
+        while (segmentSizes[PROTECTED] > protectedCapacity) {
+            Node<K, V> demoted = eldest(PROTECTED);
+            unlink(demoted);
+            link(demoted, PROBATION);
+        }
+    }
+
+    /**
+     * Add an entry to a segment as its most recently used entry. Guarded by {@link #evictionLock}.
+     *
+     * @param node    The entry
+     * @param segment The segment
+     */
+    private void link(Node<K, V> node, int segment) {
+        Node<K, V> sentinel = segments[segment];
+        node.segment = segment;
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+        segmentSizes[segment]++;
+        weightedSize += node.weight;
+    }
+
+    /**
+     * Remove an entry from the access order of its segment. Guarded by {@link #evictionLock}.
+     *
+     * @param node The entry
+     */
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        segmentSizes[node.segment]--;
+        weightedSize -= node.weight;
+    }
+
+    /**
+     * Finally remove an entry (which has been replaced, removed or evicted) from the access order.
+     * Guarded by {@link #evictionLock}.
+     *
+     * @param node The entry
+     */
+    private void retire(Node<K, V> node) {
+        node.retired = true;
+        if (node.isLinked()) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * An entry of the cache, as returned by {@link #snapshot()}.
+     *
+     * @param key        The key
+     * @param value      The value
+     * @param timeToLive The remaining time until the entry expires after write or NULL, if it doesn't
+     * @param <K>        The type of the "key" objects
+     * @param <V>        The type of the "value" objects
+     */
+    public record Entry<K, V>(K key, V value, Duration timeToLive) {
+    }
+
+    /**
+     * A cache entry, being a node of the access order list as well.
+     *
+     * @param <K> The type of the "key" objects
+     * @param <V> The type of the "value" objects
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        /**
+         * The time (see {@link #ticker}) the entry has been put into the cache (only set, if the cache
+         * expires or refreshes entries).
+         */
+        private final long writeTime;
+
+        /**
+         * The time (see {@link #ticker}) the entry has been accessed last (only set, if the cache expires
+         * entries after access).
+         */
+        private volatile long accessTime;
+
+        /**
+         * The individual time to live (in nanoseconds) of the entry, 0 if the expiry after write of the cache applies.
+         */
+        private final long timeToLiveNanos;
+
+        /**
+         * The weight of the entry (see {@link Weigher}), 0 if the cache doesn't weigh its entries.
+         */
+        private final long weight;
+
+        /**
+         * The previous (less recently used) entry. Guarded by the eviction lock.
+         */
+        private Node<K, V> prev;
+
+        /**
+         * The next (more recently used) entry. Guarded by the eviction lock.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Whether the entry has been replaced, removed or evicted. Guarded by the eviction lock.
+         */
+        private boolean retired;
+
+        /**
+         * The segment the entry is linked into. Guarded by the eviction lock.
+         */
+        private int segment;
+
+        private Node(K key, V value, long writeTime, long timeToLiveNanos, long weight) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+            this.accessTime = writeTime;
+            this.timeToLiveNanos = timeToLiveNanos;
+            this.weight = weight;
+        }
+
+        private boolean isLinked() {
+            return next != null;
+        }
+    }
+
+    /**
+     * A bounded buffer recording reads, written by any number of threads without locking and drained by the
+     * thread holding the eviction lock.
+     *
+     * @param <K> The type of the "key" objects
+     * @param <V> The type of the "value" objects
+     */
+    private static final class ReadBuffer<K, V> {
+
+        private static final int MASK = READ_BUFFER_SIZE - 1;
+
+        /**
+         * The number of reads recorded in total.
+         */
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        /**
+         * The number of reads drained in total. Only written while holding the eviction lock.
+         */
+        private volatile long readCounter;
+
+        private final AtomicReferenceArray<Node<K, V>> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+        /**
+         * Record a read. If another thread records a read at the same time, one of them is dropped.
+         *
+         * @param node The entry read
+         * @return false, if the buffer is full and should be drained
+         */
+        private boolean offer(Node<K, V> node) {
+            long writes = writeCounter.get();
+            long pending = writes - readCounter;
+            if (pending >= READ_BUFFER_SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(writes, writes + 1)) {
+                slots.lazySet((int) (writes & MASK), node);
+            }
+            return pending + 1 < READ_BUFFER_SIZE;
+        }
+
+        /**
+         * Apply all reads recorded to the access order of the given cache.
+         *
+         * @param cache The cache the buffer belongs to.
+         */
+        private void drain(ConcurrentObjectCache<K, V> cache) {
+            long reads = readCounter;
+            long writes = writeCounter.get();
+            for (; reads < writes; reads++) {
+                int index = (int) (reads & MASK);
+                Node<K, V> node = slots.get(index);
+                if (node == null) {
+                    // Not published yet by the recording thread, so drain it next time.
+                    break;
+                }
+                slots.lazySet(index, null);
+                cache.onRead(node);
+            }
+            readCounter = reads;
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package com.github.ahuemmer.storesthal.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent store for serialized entries, kept in a memory-mapped file and bounded by the size of that file.
+ * <p>
+ * Like the {@link OffHeapStore}, the file is divided into equally sized segments written one after another, every
+ * segment being a log of records (entries and "tombstones" of removed entries). Whenever writing continues with the
+ * next segment, it gets a new sequence number and all entries still stored in it are dropped - so once the file is full,
+ * the oldest entries are evicted first (segment by segment).
+ * <p>
+ * The index (from the keys to the positions of the entries) is only kept in memory. When the store is opened, it is
+ * rebuilt by reading the segments in the order of their sequence numbers, only reading the record headers (and keys),
+ * so this is quick even for large files. Every record carries the sequence number of its segment and checksums of its
+ * header and of its value, so records being written while the process crashed, as well as records left over from
+ * earlier uses of a segment, are recognized and ignored. A record the value of which turns out to be corrupted when it
+ * is read is dropped as well.
+ * <p>
+ * Entries may carry an expiry time (milliseconds since the epoch, as the store outlives the process). An expired entry
+ * is never returned.
+ * <p>
+ * The file is locked while it is open, so it can't be used by several processes at the same time. All operations are
+ * guarded by a {@link ReentrantLock} (and no monitor), so virtual threads are never pinned to their carrier thread.
+ */
+public class DiskStore implements Closeable {
+
+    /**
+     * The maximum size of a single segment.
+     */
+    static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The minimum number of segments (if the capacity allows for it), so that not too many entries are dropped at
+     * once when a segment is reused.
+     */
+    private static final int MIN_SEGMENTS = 8;
+
+    /**
+     * The minimum size of a segment.
+     */
+    private static final int MIN_SEGMENT_SIZE = 4096;
+
+    /**
+     * Identifies a file written by this class (and the version of its format).
+     */
+    private static final int FILE_MAGIC = 0x53544831;
+
+    /**
+     * The size of the file header: magic, segment size and segment count.
+     */
+    private static final int FILE_HEADER_SIZE = 16;
+
+    /**
+     * Identifies a segment header.
+     */
+    private static final int SEGMENT_MAGIC = 0x5345474d;
+
+    /**
+     * The size of a segment header: magic and sequence number.
+     */
+    private static final int SEGMENT_HEADER_SIZE = 16;
+
+    /**
+     * Identifies a record header.
+     */
+    private static final int RECORD_MAGIC = 0x52454344;
+
+    /**
+     * The size of a record header: magic, sequence number of the segment, key length, value length (-1 for a
+     * tombstone), expiry time, header checksum and value checksum.
+     */
+    private static final int RECORD_HEADER_SIZE = 36;
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The lock on the file, preventing other processes from using it.
+     */
+    private final FileLock fileLock;
+
+    /**
+     * The segments (mapped into memory).
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * The sequence number of every segment (0 for unused).
+     */
+    private final long[] sequences;
+
+    /**
+     * The keys of the entries stored in each segment.
+     */
+    private final List<Set<String>> segmentKeys;
+
+    /**
+     * The position of every entry stored.
+     */
+    private final Map<String, Location> index = new HashMap<>();
+
+    /**
+     * The size of every segment.
+     */
+    private final int segmentSize;
+
+    /**
+     * The lock guarding all operations.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The segment being written.
+     */
+    private int currentSegment;
+
+    /**
+     * The position in the segment being written.
+     */
+    private int position;
+
+    /**
+     * The sequence number of the segment being written.
+     */
+    private long sequence;
+
+    /**
+     * The total size of the entries stored (including their headers).
+     */
+    private long usedBytes;
+
+    /**
+     * Open a store, creating the file if it doesn't exist yet. If the file has been created with another capacity
+     * (or isn't a store file at all), it is overwritten.
+     *
+     * @param file     The file
+     * @param capacity The size of the file in bytes
+     * @throws IOException if the file can't be opened or is in use by another process
+     */
+    public DiskStore(Path file, long capacity) throws IOException {
+        this.segmentSize = (int) Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, capacity / MIN_SEGMENTS));
+        int segmentCount = (int) Math.max(1, capacity / segmentSize);
+        this.segments = new MappedByteBuffer[segmentCount];
+        this.sequences = new long[segmentCount];
+        this.segmentKeys = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segmentKeys.add(new HashSet<>());
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock acquired;
+            try {
+                acquired = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // Locked by this process already.
+                acquired = null;
+            }
+            this.fileLock = acquired;
+            if (fileLock == null) {
+                throw new IOException("The cache file \"" + file + "\" is in use by another process!");
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+            boolean compatible = (header.getInt(0) == FILE_MAGIC) && (header.getInt(4) == segmentSize) && (header.getInt(8) == segmentCount);
+            if (!compatible) {
+                channel.truncate(0);
+            }
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER_SIZE + (long) i * segmentSize, segmentSize);
+            }
+            if (compatible) {
+                recover();
+            } else {
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+                header.putInt(0, FILE_MAGIC);
+                header.putInt(4, segmentSize);
+                header.putInt(8, segmentCount);
+                startSegment(0);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuild the index from the segments.
+     */
+    private void recover() {
+        List<Integer> used = new ArrayList<>();
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].getInt(0) == SEGMENT_MAGIC) {
+                sequences[i] = segments[i].getLong(8);
+                used.add(i);
+            }
+        }
+
+        if (used.isEmpty()) {
+            startSegment(0);
+            return;
+        }
+
+        used.sort(Comparator.comparingLong(i -> sequences[i]));
+        for (int segment : used) {
+            int end = scan(segment);
+            currentSegment = segment;
+            position = end;
+            sequence = sequences[segment];
+        }
+    }
+
+    /**
+     * Apply the valid records of a segment to the index.
+     *
+     * @param segment The segment
+     * @return The position after the last valid record
+     */
+    private int scan(int segment) {
+        ByteBuffer buffer = segments[segment];
+        int offset = SEGMENT_HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+            if ((buffer.getInt(offset) != RECORD_MAGIC) || (buffer.getLong(offset + 4) != sequences[segment])) {
+                break;
+            }
+            int keyLength = buffer.getInt(offset + 12);
+            int valueLength = buffer.getInt(offset + 16);
+            if ((keyLength < 0) || (valueLength < -1) || ((long) offset + RECORD_HEADER_SIZE + keyLength + Math.max(0, valueLength) > segmentSize)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.get(offset + RECORD_HEADER_SIZE, key);
+            if (buffer.getInt(offset + 28) != headerChecksum(buffer, offset, key)) {
+                break;
+            }
+            String keyString = new String(key, StandardCharsets.UTF_8);
+            unindex(keyString);
+            if (valueLength >= 0) {
+                index(keyString, new Location(segment, offset, keyLength, valueLength, buffer.getLong(offset + 20)));
+            }
+            offset += RECORD_HEADER_SIZE + keyLength + Math.max(0, valueLength);
+        }
+        return offset;
+    }
+
+    /**
+     * Store an entry, replacing the entry stored for the same key (if any).
+     *
+     * @param key       The key
+     * @param value     The serialized value
+     * @param expiresAt The time the entry expires (milliseconds since the epoch, 0 for never)
+     * @return true, if the entry has been stored, false if it is too large
+     */
+    public boolean put(String key, byte[] value, long expiresAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            if (SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + keyBytes.length + value.length > segmentSize) {
+                remove(key);
+                return false;
+            }
+            unindex(key);
+            int offset = append(keyBytes, value, expiresAt);
+            index(key, new Location(currentSegment, offset, keyBytes.length, value.length, expiresAt));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read an entry.
+     *
+     * @param key The key
+     * @return The entry or NULL, if no entry (or only an expired or corrupted one) is stored for the key
+     */
+    public Entry get(String key) {
+        lock.lock();
+        try {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            if ((location.expiresAt() > 0) && (location.expiresAt() <= System.currentTimeMillis())) {
+                unindex(key);
+                return null;
+            }
+            ByteBuffer buffer = segments[location.segment()];
+            byte[] value = new byte[location.valueLength()];
+            buffer.get(location.offset() + RECORD_HEADER_SIZE + location.keyLength(), value);
+            if (buffer.getInt(location.offset() + 32) != checksum(value)) {
+                unindex(key);
+                return null;
+            }
+            return new Entry(value, location.expiresAt());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @param key The key
+     */
+    public void remove(String key) {
+        lock.lock();
+        try {
+            if (unindex(key)) {
+                byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                if (SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + keyBytes.length <= segmentSize) {
+                    append(keyBytes, null, 0);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all entries the keys of which match a predicate.
+     *
+     * @param filter The predicate
+     */
+    public void removeIf(Predicate<? super String> filter) {
+        lock.lock();
+        try {
+            for (String key : new ArrayList<>(index.keySet())) {
+                if (filter.test(key)) {
+                    remove(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of entries stored (including expired ones not encountered yet).
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the total size of the entries stored (including their headers).
+     *
+     * @return The size in bytes
+     */
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all changes to the disk. Without this, changes survive a crash of the process (as the operating system
+     * writes them eventually), but not necessarily a crash of the operating system.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush and close the store.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            flush();
+            fileLock.release();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a record to the segment being written, continuing with the next segment if it doesn't fit any more.
+     * Guarded by {@link #lock}.
+     *
+     * @param key       The key
+     * @param value     The value or NULL for a tombstone
+     * @param expiresAt The expiry time of the entry
+     * @return The offset of the record
+     */
+    private int append(byte[] key, byte[] value, long expiresAt) {
+        int valueLength = (value != null) ? value.length : -1;
+        int length = RECORD_HEADER_SIZE + key.length + Math.max(0, valueLength);
+        if (position + length > segmentSize) {
+            startSegment((currentSegment + 1) % segments.length);
+        }
+        ByteBuffer buffer = segments[currentSegment];
+        int offset = position;
+        // The header is written last, so a record is only valid once it has been written completely.
+        buffer.put(offset + RECORD_HEADER_SIZE, key);
+        if (value != null) {
+            buffer.put(offset + RECORD_HEADER_SIZE + key.length, value);
+        }
+        buffer.putLong(offset + 4, sequence);
+        buffer.putInt(offset + 12, key.length);
+        buffer.putInt(offset + 16, valueLength);
+        buffer.putLong(offset + 20, expiresAt);
+        buffer.putInt(offset + 28, headerChecksum(buffer, offset, key));
+        buffer.putInt(offset + 32, (value != null) ? checksum(value) : 0);
+        buffer.putInt(offset, RECORD_MAGIC);
+        position += length;
+        return offset;
+    }
+
+    /**
+     * Start (re-)using a segment, dropping all entries still stored in it. Guarded by {@link #lock}.
+     *
+     * @param segment The segment
+     */
+    private void startSegment(int segment) {
+        Set<String> keys = segmentKeys.get(segment);
+        for (String key : keys) {
+            Location location = index.remove(key);
+            usedBytes -= RECORD_HEADER_SIZE + location.keyLength() + location.valueLength();
+        }
+        keys.clear();
+
+        sequence++;
+        currentSegment = segment;
+        position = SEGMENT_HEADER_SIZE;
+        sequences[segment] = sequence;
+        ByteBuffer buffer = segments[segment];
+        buffer.putInt(SEGMENT_HEADER_SIZE, 0);
+        buffer.putLong(8, sequence);
+        buffer.putInt(0, SEGMENT_MAGIC);
+    }
+
+    /**
+     * Add an entry to the index. Guarded by {@link #lock}.
+     *
+     * @param key      The key
+     * @param location The position of the entry
+     */
+    private void index(String key, Location location) {
+        index.put(key, location);
+        segmentKeys.get(location.segment()).add(key);
+        usedBytes += RECORD_HEADER_SIZE + location.keyLength() + location.valueLength();
+    }
+
+    /**
+     * Remove an entry from the index. Guarded by {@link #lock}.
+     *
+     * @param key The key
+     * @return true, if there was an entry for the key
+     */
+    private boolean unindex(String key) {
+        Location location = index.remove(key);
+        if (location == null) {
+            return false;
+        }
+        segmentKeys.get(location.segment()).remove(key);
+        usedBytes -= RECORD_HEADER_SIZE + location.keyLength() + location.valueLength();
+        return true;
+    }
+
+    /**
+     * Calculate the checksum of a record header (without the checksums themselves) and the key.
+     *
+     * @param buffer The segment
+     * @param offset The offset of the record
+     * @param key    The key
+     * @return The checksum
+     */
+    private static int headerChecksum(ByteBuffer buffer, int offset, byte[] key) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 4, 24));
+        crc.update(key);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Calculate the checksum of a value.
+     *
+     * @param value The value
+     * @return The checksum
+     */
+    private static int checksum(byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * An entry read from the store.
+     *
+     * @param value     The serialized value
+     * @param expiresAt The time the entry expires (milliseconds since the epoch, 0 for never)
+     */
+    public record Entry(byte[] value, long expiresAt) {
+    }
+
+    /**
+     * The position of an entry.
+     *
+     * @param segment     The segment the entry is stored in
+     * @param offset      The offset of the record in the segment
+     * @param keyLength   The length of the key
+     * @param valueLength The length of the value
+     * @param expiresAt   The time the entry expires
+     */
+    private record Location(int segment, int offset, int keyLength, int valueLength, long expiresAt) {
+    }
+}
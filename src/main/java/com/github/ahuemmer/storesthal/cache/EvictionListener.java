@@ -0,0 +1,21 @@
+package com.github.ahuemmer.storesthal.cache;
+
+/**
+ * Notified of the entries a {@link ConcurrentObjectCache} evicts because of its capacity or maximum weight (see
+ * {@link ConcurrentObjectCache#setEvictionListener(EvictionListener)}).
+ *
+ * @param <K> The type of the "key" objects
+ * @param <V> The type of the "value" objects
+ */
+@FunctionalInterface
+public interface EvictionListener<K, V> {
+
+    /**
+     * Handle an evicted entry. This is called by the thread maintaining the cache (while holding its eviction lock),
+     * so it should return quickly and must not access the cache itself.
+     *
+     * @param key   The key of the evicted entry
+     * @param value The value of the evicted entry
+     */
+    void onEviction(K key, V value);
+}
@@ -0,0 +1,136 @@
+package com.github.ahuemmer.storesthal.cache;
+
+/**
+ * A count-min sketch estimating how often (recently) keys have been accessed, used by the
+ * {@link CachePolicy#TINY_LFU} policy of {@link ConcurrentObjectCache}.
+ * <p>
+ * Every key is mapped to four 4-bit counters (so a frequency is at most 15), packed into a table of longs. Once the
+ * number of recorded accesses reaches ten times the cache capacity, all counters are halved, so that the sketch
+ * "forgets" old accesses over time.
+ * <p>
+ * The sketch isn't thread-safe, it is only used while holding the eviction lock of its cache.
+ */
+final class FrequencySketch {
+
+    /**
+     * Seeds for the four hash functions (taken from FNV-1a and CityHash).
+     */
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    /**
+     * Mask for halving all sixteen 4-bit counters of a long at once.
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * The maximum value of a counter.
+     */
+    private static final int MAX_FREQUENCY = 15;
+
+    /**
+     * The counters, sixteen per long.
+     */
+    private final long[] table;
+
+    /**
+     * The number of recorded accesses after which all counters are halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * The number of accesses recorded since the last halving.
+     */
+    private int size;
+
+    /**
+     * Create a new sketch for a cache of the given capacity.
+     *
+     * @param capacity The capacity of the cache.
+     */
+    FrequencySketch(int capacity) {
+        int maximum = Math.max(1, Math.min(capacity, 1 << 24));
+        this.table = new long[Math.max(8, Integer.highestOneBit(maximum - 1) << 1)];
+        this.sampleSize = (int) Math.min(10L * maximum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the estimated access frequency of a key.
+     *
+     * @param key The key.
+     * @return The estimated frequency (0 to 15).
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an access of a key, halving all counters if the sample size has been reached.
+     *
+     * @param key The key.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = offsetOf(hash, i);
+            if (((table[index] >>> offset) & 0xfL) < MAX_FREQUENCY) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && (++size >= sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve all counters ("aging").
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size /= 2;
+    }
+
+    /**
+     * Get the table index of the i-th counter of a key.
+     *
+     * @param hash The (spread) hash of the key.
+     * @param i    The number of the counter (0 to 3).
+     * @return The index in {@link #table}.
+     */
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & (table.length - 1);
+    }
+
+    /**
+     * Get the bit offset of the i-th counter of a key within its long.
+     *
+     * @param hash The (spread) hash of the key.
+     * @param i    The number of the counter (0 to 3).
+     * @return The offset (a multiple of four).
+     */
+    private static int offsetOf(int hash, int i) {
+        return ((hash >>> (i << 3)) & 0xf) << 2;
+    }
+
+    /**
+     * Improve the distribution of a hash code.
+     *
+     * @param hashCode The hash code.
+     * @return The spread hash code.
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
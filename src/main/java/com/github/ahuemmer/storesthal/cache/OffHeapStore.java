@@ -0,0 +1,430 @@
+package com.github.ahuemmer.storesthal.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A store for serialized entries outside of the Java heap, bounded by the total size of the entries in bytes.
+ * <p>
+ * The entries are written one after another into a ring of equally sized direct {@link ByteBuffer}s ("segments",
+ * allocated on first use), so neither the entries themselves nor their memory management put any load on the garbage
+ * collector - only the (small) index from the keys to the positions of the entries is kept on the heap. If an entry
+ * doesn't fit into the current segment any more, writing continues with the next segment, dropping all entries still
+ * stored in it. So once the store is full, the oldest entries are evicted first (segment by segment). An entry larger
+ * than a segment isn't stored at all.
+ * <p>
+ * Large stores are split into up to {@link #MAX_STRIPES} "stripes" by the hash codes of the keys, each of them being
+ * such a ring of segments with its own lock, so that operations on different keys hardly ever wait for each other.
+ * The oldest entries are evicted first per stripe then. All operations are guarded by a {@link ReentrantLock} (and no
+ * monitor), so virtual threads are never pinned to their carrier thread.
+ *
+ * @param <K> The type of the "key" objects
+ */
+public class OffHeapStore<K> {
+
+    /**
+     * The maximum size of a single segment.
+     */
+    static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The minimum number of segments (if the capacity allows for it), so that not too many entries are dropped at
+     * once when a segment is reused.
+     */
+    private static final int MIN_SEGMENTS = 8;
+
+    /**
+     * The maximum number of stripes.
+     */
+    static final int MAX_STRIPES = 16;
+
+    /**
+     * The minimum capacity of a stripe, so that small stores aren't split up.
+     */
+    private static final long MIN_STRIPE_CAPACITY = 16 * 1024 * 1024;
+
+    /**
+     * The stripes, selected by the hash codes of the keys.
+     */
+    private final Stripe<K>[] stripes;
+
+    /**
+     * Create a new store, split into as many stripes as its capacity allows for.
+     *
+     * @param capacity The maximum total size of the entries in bytes (at least 1)
+     */
+    public OffHeapStore(long capacity) {
+        this(capacity, (int) Math.min(MAX_STRIPES, Math.max(1, capacity / MIN_STRIPE_CAPACITY)));
+    }
+
+    /**
+     * Create a new store with a given number of stripes.
+     *
+     * @param capacity    The maximum total size of the entries in bytes (at least 1)
+     * @param stripeCount The number of stripes (at least 1, rounded down to a power of two), sharing the capacity
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapStore(long capacity, int stripeCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of an off-heap store must be positive!");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("An off-heap store needs at least one stripe!");
+        }
+        int count = Integer.highestOneBit((int) Math.min(stripeCount, capacity));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(capacity / count);
+        }
+    }
+
+    /**
+     * Store an entry, replacing the entry stored for the same key (if any).
+     *
+     * @param key  The key
+     * @param data The serialized value
+     * @return true, if the entry has been stored, false if it is too large
+     */
+    public boolean put(K key, byte[] data) {
+        return stripe(key).put(key, data);
+    }
+
+    /**
+     * Read an entry.
+     *
+     * @param key The key
+     * @return The serialized value or NULL, if no entry is stored for the key
+     */
+    public byte[] get(K key) {
+        return stripe(key).get(key);
+    }
+
+    /**
+     * Read an entry and remove it from the store.
+     *
+     * @param key The key
+     * @return The serialized value or NULL, if no entry is stored for the key
+     */
+    public byte[] take(K key) {
+        return stripe(key).take(key);
+    }
+
+    /**
+     * Remove an entry. Its memory is reused as soon as its segment is written again.
+     *
+     * @param key The key
+     */
+    public void remove(K key) {
+        stripe(key).remove(key);
+    }
+
+    /**
+     * Remove all entries the keys of which match a predicate.
+     *
+     * @param filter The predicate
+     */
+    public void removeIf(Predicate<? super K> filter) {
+        for (Stripe<K> stripe : stripes) {
+            stripe.removeIf(filter);
+        }
+    }
+
+    /**
+     * Remove all entries (keeping the segments allocated).
+     */
+    public void clear() {
+        for (Stripe<K> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Get the number of entries stored.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        int result = 0;
+        for (Stripe<K> stripe : stripes) {
+            result += stripe.size();
+        }
+        return result;
+    }
+
+    /**
+     * Get the total size of the entries stored.
+     *
+     * @return The size in bytes
+     */
+    public long getUsedBytes() {
+        long result = 0;
+        for (Stripe<K> stripe : stripes) {
+            result += stripe.getUsedBytes();
+        }
+        return result;
+    }
+
+    /**
+     * Get the stripe an entry is stored in.
+     *
+     * @param key The key of the entry
+     * @return The stripe
+     */
+    private Stripe<K> stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * One ring of segments, guarded by its own lock.
+     *
+     * @param <K> The type of the "key" objects
+     */
+    private static final class Stripe<K> {
+
+        /**
+         * The segments, allocated on first use.
+         */
+        private final ByteBuffer[] segments;
+
+        /**
+         * The keys of the entries stored in each segment.
+         */
+        private final List<Set<K>> segmentKeys;
+
+        /**
+         * The position of every entry stored.
+         */
+        private final Map<K, Location> index = new HashMap<>();
+
+        /**
+         * The size of every segment.
+         */
+        private final int segmentSize;
+
+        /**
+         * The lock guarding all operations.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The segment being written.
+         */
+        private int currentSegment;
+
+        /**
+         * The position in the segment being written.
+         */
+        private int position;
+
+        /**
+         * The total size of the entries stored.
+         */
+        private long usedBytes;
+
+        /**
+         * Create a new stripe.
+         *
+         * @param capacity The maximum total size of the entries in bytes (at least 1)
+         */
+        Stripe(long capacity) {
+            this.segmentSize = (int) Math.max(1, Math.min(MAX_SEGMENT_SIZE, capacity / MIN_SEGMENTS));
+            int segmentCount = (int) Math.max(1, capacity / segmentSize);
+            this.segments = new ByteBuffer[segmentCount];
+            this.segmentKeys = new ArrayList<>(segmentCount);
+            for (int i = 0; i < segmentCount; i++) {
+                segmentKeys.add(new HashSet<>());
+            }
+        }
+
+        /**
+         * Store an entry, replacing the entry stored for the same key (if any).
+         *
+         * @param key  The key
+         * @param data The serialized value
+         * @return true, if the entry has been stored, false if it is too large
+         */
+        boolean put(K key, byte[] data) {
+            lock.lock();
+            try {
+                remove(key);
+                if (data.length > segmentSize) {
+                    return false;
+                }
+                if (position + data.length > segmentSize) {
+                    currentSegment = (currentSegment + 1) % segments.length;
+                    position = 0;
+                    dropSegment(currentSegment);
+                }
+                ByteBuffer segment = segments[currentSegment];
+                if (segment == null) {
+                    segment = ByteBuffer.allocateDirect(segmentSize);
+                    segments[currentSegment] = segment;
+                }
+                segment.put(position, data);
+                index.put(key, new Location(currentSegment, position, data.length));
+                segmentKeys.get(currentSegment).add(key);
+                position += data.length;
+                usedBytes += data.length;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Read an entry.
+         *
+         * @param key The key
+         * @return The serialized value or NULL, if no entry is stored for the key
+         */
+        byte[] get(K key) {
+            lock.lock();
+            try {
+                Location location = index.get(key);
+                if (location == null) {
+                    return null;
+                }
+                byte[] data = new byte[location.length()];
+                segments[location.segment()].get(location.offset(), data);
+                return data;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Read an entry and remove it from the stripe.
+         *
+         * @param key The key
+         * @return The serialized value or NULL, if no entry is stored for the key
+         */
+        byte[] take(K key) {
+            lock.lock();
+            try {
+                byte[] data = get(key);
+                if (data != null) {
+                    remove(key);
+                }
+                return data;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Remove an entry. Its memory is reused as soon as its segment is written again.
+         *
+         * @param key The key
+         */
+        void remove(K key) {
+            lock.lock();
+            try {
+                Location location = index.remove(key);
+                if (location != null) {
+                    segmentKeys.get(location.segment()).remove(key);
+                    usedBytes -= location.length();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Remove all entries the keys of which match a predicate.
+         *
+         * @param filter The predicate
+         */
+        void removeIf(Predicate<? super K> filter) {
+            lock.lock();
+            try {
+                Iterator<Map.Entry<K, Location>> iterator = index.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<K, Location> entry = iterator.next();
+                    if (filter.test(entry.getKey())) {
+                        segmentKeys.get(entry.getValue().segment()).remove(entry.getKey());
+                        usedBytes -= entry.getValue().length();
+                        iterator.remove();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Remove all entries (keeping the segments allocated).
+         */
+        void clear() {
+            lock.lock();
+            try {
+                index.clear();
+                segmentKeys.forEach(Set::clear);
+                currentSegment = 0;
+                position = 0;
+                usedBytes = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Get the number of entries stored.
+         *
+         * @return The number of entries
+         */
+        int size() {
+            lock.lock();
+            try {
+                return index.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Get the total size of the entries stored.
+         *
+         * @return The size in bytes
+         */
+        long getUsedBytes() {
+            lock.lock();
+            try {
+                return usedBytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Drop all entries stored in a segment, before it is written again. Guarded by {@link #lock}.
+         *
+         * @param segment The segment
+         */
+        private void dropSegment(int segment) {
+            Set<K> keys = segmentKeys.get(segment);
+            for (K key : keys) {
+                usedBytes -= index.remove(key).length();
+            }
+            keys.clear();
+        }
+    }
+
+    /**
+     * The position of an entry.
+     *
+     * @param segment The segment the entry is stored in
+     * @param offset  The offset of the entry in the segment
+     * @param length  The length of the entry
+     */
+    private record Location(int segment, int offset, int length) {
+    }
+}
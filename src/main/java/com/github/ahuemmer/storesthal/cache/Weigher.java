@@ -0,0 +1,21 @@
+package com.github.ahuemmer.storesthal.cache;
+
+/**
+ * Determines the weight (e. g. the estimated size in bytes) of a cache entry, so that a {@link ConcurrentObjectCache}
+ * can be bounded by the total weight of its entries instead of (or in addition to) their number.
+ *
+ * @param <K> The type of the "key" objects
+ * @param <V> The type of the "value" objects
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Determine the weight of an entry. It is only determined once, when the entry is put into the cache.
+     *
+     * @param key   The key
+     * @param value The value
+     * @return The weight of the entry (not negative)
+     */
+    long weigh(K key, V value);
+}
@@ -2,6 +2,11 @@ package com.github.ahuemmer.storesthal.configuration;
 
 import com.github.ahuemmer.storesthal.Cacheable;
 import com.github.ahuemmer.storesthal.HALRelation;
+import com.github.ahuemmer.storesthal.cache.Weigher;
+import com.github.ahuemmer.storesthal.helpers.ObjectSizeEstimator;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
 
 /**
  * Factory for {@link StoresthalConfiguration}s. These are not to be modified after creation, therefore this factory
@@ -26,6 +31,132 @@ public class StoreresthalConfigurationFactory {
      */
     private boolean annotationless= StoresthalConfiguration.DEFAULT_ANNOTATIONLESS;
 
+    /**
+     * The maximum number of HTTP connections kept in the connection pool (in total).
+     */
+    private int maxConnectionsTotal= StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_TOTAL;
+
+    /**
+     * The maximum number of HTTP connections kept in the connection pool per host.
+     */
+    private int maxConnectionsPerHost= StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    /**
+     * The time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     */
+    private long connectionKeepAliveSeconds= StoresthalConfiguration.DEFAULT_CONNECTION_KEEP_ALIVE_SECONDS;
+
+    /**
+     * The time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     */
+    private long idleConnectionEvictionSeconds= StoresthalConfiguration.DEFAULT_IDLE_CONNECTION_EVICTION_SECONDS;
+
+    /**
+     * Controls whether relations and collection members are resolved in parallel.
+     * See {@link #setParallelTraversal(boolean)} for details.
+     */
+    private boolean parallelTraversal= StoresthalConfiguration.DEFAULT_PARALLEL_TRAVERSAL;
+
+    /**
+     * The number of (platform) threads used for parallel traversal.
+     */
+    private int traversalParallelism= StoresthalConfiguration.DEFAULT_TRAVERSAL_PARALLELISM;
+
+    /**
+     * Controls whether a virtual thread is started for every fetch during parallel traversal.
+     */
+    private boolean useVirtualThreads= StoresthalConfiguration.DEFAULT_USE_VIRTUAL_THREADS;
+
+    /**
+     * An executor supplied by the user for parallel traversal.
+     */
+    private Executor customTraversalExecutor;
+
+    /**
+     * The maximum number of concurrent requests of one reactive retrieval.
+     */
+    private int reactiveConcurrency= StoresthalConfiguration.DEFAULT_REACTIVE_CONCURRENCY;
+
+    /**
+     * The default time (in seconds) after which a cached object expires since it has been cached, if {@link Cacheable#expireAfterWriteSeconds()} is not given.
+     */
+    private long defaultExpireAfterWriteSeconds= StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_WRITE_SECONDS;
+
+    /**
+     * The default time (in seconds) after which a cached object expires since it has been accessed last, if {@link Cacheable#expireAfterAccessSeconds()} is not given.
+     */
+    private long defaultExpireAfterAccessSeconds= StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_ACCESS_SECONDS;
+
+    /**
+     * The interval (in seconds) in which expired objects are removed from the caches.
+     */
+    private long cacheCleanupIntervalSeconds= StoresthalConfiguration.DEFAULT_CACHE_CLEANUP_INTERVAL_SECONDS;
+
+    /**
+     * The default time (in seconds) after which a cached object is refreshed in the background since it has been cached, if {@link Cacheable#refreshAfterWriteSeconds()} is not given.
+     */
+    private long defaultRefreshAfterWriteSeconds= StoresthalConfiguration.DEFAULT_DEFAULT_REFRESH_AFTER_WRITE_SECONDS;
+
+    /**
+     * Controls whether responses are revalidated using conditional requests (see {@link #setUseConditionalRequests(boolean)}).
+     */
+    private boolean useConditionalRequests= StoresthalConfiguration.DEFAULT_USE_CONDITIONAL_REQUESTS;
+
+    /**
+     * The maximum number of responses kept for revalidation using conditional requests.
+     */
+    private int validatorCacheSize= StoresthalConfiguration.DEFAULT_VALIDATOR_CACHE_SIZE;
+
+    /**
+     * Controls whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers.
+     */
+    private boolean honorCacheControl= StoresthalConfiguration.DEFAULT_HONOR_CACHE_CONTROL;
+
+    /**
+     * Controls whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh.
+     */
+    private boolean applyCacheControlToIntermediateCache= StoresthalConfiguration.DEFAULT_APPLY_CACHE_CONTROL_TO_INTERMEDIATE_CACHE;
+
+    /**
+     * The default maximum (estimated) size in bytes of the objects in a cache, if {@link Cacheable#maxBytes()} is not given.
+     */
+    private long defaultCacheMaxBytes= StoresthalConfiguration.DEFAULT_DEFAULT_CACHE_MAX_BYTES;
+
+    /**
+     * The maximum (estimated) size in bytes of the objects in all caches together.
+     */
+    private long maxCacheBytes= StoresthalConfiguration.DEFAULT_MAX_CACHE_BYTES;
+
+    /**
+     * Determines the size (in bytes) of cached objects for limiting the size of the caches.
+     */
+    private Weigher<Object, Object> cacheWeigher= StoresthalConfiguration.DEFAULT_CACHE_WEIGHER;
+
+    /**
+     * The maximum size (in bytes) of the objects evicted from the caches being kept outside of the Java heap (0 for none).
+     */
+    private long offHeapCacheBytes= StoresthalConfiguration.DEFAULT_OFF_HEAP_CACHE_BYTES;
+
+    /**
+     * The file cached objects are kept in to survive a restart (NULL for none).
+     */
+    private Path diskCacheFile= StoresthalConfiguration.DEFAULT_DISK_CACHE_FILE;
+
+    /**
+     * The size (in bytes) of the disk cache file.
+     */
+    private long diskCacheBytes= StoresthalConfiguration.DEFAULT_DISK_CACHE_BYTES;
+
+    /**
+     * The time (in seconds) resources known to be missing are not requested again.
+     */
+    private long negativeCacheSeconds= StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SECONDS;
+
+    /**
+     * The maximum number of missing resources remembered per cache.
+     */
+    private int negativeCacheSize= StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SIZE;
+
     public static final StoresthalConfiguration DEFAULT_CONFIGURATION=getDefaultConfiguration();
 
     /**
@@ -88,6 +219,478 @@ public class StoreresthalConfigurationFactory {
         return this;
     }
 
+    /**
+     * Get the maximum number of HTTP connections kept in the connection pool (in total).
+     * @return Maximum number of pooled connections
+     */
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    /**
+     * Sets the maximum number of HTTP connections kept in the connection pool (in total). The pool is shared by
+     * all requests made using the resulting configuration.
+     * @param maxConnectionsTotal Maximum number of pooled connections (default: 200)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of HTTP connections kept in the connection pool per host.
+     * @return Maximum number of pooled connections per host
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of HTTP connections kept in the connection pool per host.
+     * @param maxConnectionsPerHost Maximum number of pooled connections per host (default: 20)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        return this;
+    }
+
+    /**
+     * Get the time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     * @return Keep-alive duration in seconds
+     */
+    public long getConnectionKeepAliveSeconds() {
+        return connectionKeepAliveSeconds;
+    }
+
+    /**
+     * Sets the time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise (using the
+     * {@code Keep-Alive} response header).
+     * @param connectionKeepAliveSeconds Keep-alive duration in seconds (default: 60)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setConnectionKeepAliveSeconds(long connectionKeepAliveSeconds) {
+        this.connectionKeepAliveSeconds = connectionKeepAliveSeconds;
+        return this;
+    }
+
+    /**
+     * Get the time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     * @return Idle time in seconds
+     */
+    public long getIdleConnectionEvictionSeconds() {
+        return idleConnectionEvictionSeconds;
+    }
+
+    /**
+     * Sets the time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     * @param idleConnectionEvictionSeconds Idle time in seconds (default: 30)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setIdleConnectionEvictionSeconds(long idleConnectionEvictionSeconds) {
+        this.idleConnectionEvictionSeconds = idleConnectionEvictionSeconds;
+        return this;
+    }
+
+    /**
+     * Return whether relations and collection members are resolved in parallel.
+     * See {@link #setParallelTraversal(boolean)} for details.
+     * @return true, if parallel traversal is enabled
+     */
+    public boolean isParallelTraversal() {
+        return parallelTraversal;
+    }
+
+    /**
+     * Controls whether relations and collection members are resolved in parallel. If enabled, all relations of an
+     * object (and all members of a collection) are fetched concurrently, instead of one after another. Object identity
+     * and the wiring of cyclic relations are the same as with sequential traversal.
+     * @param parallelTraversal Whether to resolve relations in parallel (default: false)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setParallelTraversal(boolean parallelTraversal) {
+        this.parallelTraversal = parallelTraversal;
+        return this;
+    }
+
+    /**
+     * Get the number of (platform) threads used for parallel traversal.
+     * @return The number of traversal threads
+     */
+    public int getTraversalParallelism() {
+        return traversalParallelism;
+    }
+
+    /**
+     * Sets the number of (platform) threads used for parallel traversal. This is ignored, if virtual threads or a
+     * custom executor are used.
+     * @param traversalParallelism The number of traversal threads (default: 16)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setTraversalParallelism(int traversalParallelism) {
+        this.traversalParallelism = traversalParallelism;
+        return this;
+    }
+
+    /**
+     * Return whether a virtual thread is started for every fetch during parallel traversal.
+     * @return true, if virtual threads are used
+     */
+    public boolean isUsingVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * Controls whether a virtual thread is started for every fetch during parallel traversal (instead of using a
+     * bounded pool of platform threads). The number of concurrent requests is then limited by the HTTP connection
+     * pool only (see {@link #setMaxConnectionsPerHost(int)}).
+     * @param useVirtualThreads Whether to use virtual threads (default: false)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
+    /**
+     * Get the executor supplied by the user for parallel traversal.
+     * @return The custom traversal executor or null, if none was supplied
+     */
+    public Executor getCustomTraversalExecutor() {
+        return customTraversalExecutor;
+    }
+
+    /**
+     * Sets an executor to be used for parallel traversal instead of one created by the configuration. Its lifecycle
+     * is up to the caller, Storesthal will never shut it down.
+     * @param customTraversalExecutor The executor to use or null for using an executor owned by the configuration
+     *                                (default: null)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setCustomTraversalExecutor(Executor customTraversalExecutor) {
+        this.customTraversalExecutor = customTraversalExecutor;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of concurrent requests of one reactive retrieval.
+     * @return Maximum number of concurrent reactive requests
+     */
+    public int getReactiveConcurrency() {
+        return reactiveConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests of one reactive retrieval (see
+     * {@link com.github.ahuemmer.storesthal.ReactiveStoresthal}). This applies to the relations resolved as well as
+     * to the members of a collection being resolved at the same time.
+     * @param reactiveConcurrency Maximum number of concurrent reactive requests (default: 32)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setReactiveConcurrency(int reactiveConcurrency) {
+        this.reactiveConcurrency = reactiveConcurrency;
+        return this;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object expires since it has been cached.
+     * @return Default expiry after write in seconds (0: never)
+     */
+    public long getDefaultExpireAfterWriteSeconds() {
+        return defaultExpireAfterWriteSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object expires since it has been cached. This applies to every
+     * object class that has a {@link Cacheable} annotation, but no explicit {@link Cacheable#expireAfterWriteSeconds()} setting.
+     * @param defaultExpireAfterWriteSeconds Default expiry after write in seconds (default: 0, meaning cached objects never expire)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDefaultExpireAfterWriteSeconds(long defaultExpireAfterWriteSeconds) {
+        this.defaultExpireAfterWriteSeconds = defaultExpireAfterWriteSeconds;
+        return this;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object expires since it has been accessed last.
+     * @return Default expiry after access in seconds (0: never)
+     */
+    public long getDefaultExpireAfterAccessSeconds() {
+        return defaultExpireAfterAccessSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object expires since it has been accessed last. This applies to
+     * every object class that has a {@link Cacheable} annotation, but no explicit {@link Cacheable#expireAfterAccessSeconds()} setting.
+     * @param defaultExpireAfterAccessSeconds Default expiry after access in seconds (default: 0, meaning cached objects never expire)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDefaultExpireAfterAccessSeconds(long defaultExpireAfterAccessSeconds) {
+        this.defaultExpireAfterAccessSeconds = defaultExpireAfterAccessSeconds;
+        return this;
+    }
+
+    /**
+     * Get the interval (in seconds) in which expired objects are removed from the caches.
+     * @return Cleanup interval in seconds
+     */
+    public long getCacheCleanupIntervalSeconds() {
+        return cacheCleanupIntervalSeconds;
+    }
+
+    /**
+     * Sets the interval (in seconds) in which expired objects are removed from the caches by a background thread. (Expired
+     * objects are never returned from a cache, so this only controls how long they occupy memory.)
+     * @param cacheCleanupIntervalSeconds Cleanup interval in seconds (default: 60)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setCacheCleanupIntervalSeconds(long cacheCleanupIntervalSeconds) {
+        this.cacheCleanupIntervalSeconds = cacheCleanupIntervalSeconds;
+        return this;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object is refreshed in the background since it has been cached.
+     * @return Default refresh after write in seconds (0: never)
+     */
+    public long getDefaultRefreshAfterWriteSeconds() {
+        return defaultRefreshAfterWriteSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object is refreshed in the background since it has been cached.
+     * This applies to every object class that has a {@link Cacheable} annotation, but no explicit
+     * {@link Cacheable#refreshAfterWriteSeconds()} setting.
+     * @param defaultRefreshAfterWriteSeconds Default refresh after write in seconds (default: 0, meaning cached objects are never refreshed)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDefaultRefreshAfterWriteSeconds(long defaultRefreshAfterWriteSeconds) {
+        this.defaultRefreshAfterWriteSeconds = defaultRefreshAfterWriteSeconds;
+        return this;
+    }
+
+    /**
+     * Return whether responses are revalidated using conditional requests.
+     * @return true, if conditional requests are used
+     */
+    public boolean isUsingConditionalRequests() {
+        return useConditionalRequests;
+    }
+
+    /**
+     * Controls whether responses are revalidated using conditional requests: If a response carried an "ETag" or a
+     * "Last-Modified" header, the next request for the same resource is sent with an "If-None-Match" resp.
+     * "If-Modified-Since" header. If the service answers "304 Not Modified", the object(s) retrieved before are reused
+     * without downloading and parsing them again. This only applies to objects of {@link Cacheable} classes (and
+     * collections of them) as well as to primitive values, as the very same instances are returned again.
+     * @param useConditionalRequests Whether to use conditional requests (default: true)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setUseConditionalRequests(boolean useConditionalRequests) {
+        this.useConditionalRequests = useConditionalRequests;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of responses kept for revalidation using conditional requests.
+     * @return Maximum number of responses kept for revalidation
+     */
+    public int getValidatorCacheSize() {
+        return validatorCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of responses (together with their "ETag" / "Last-Modified" validators) kept for
+     * revalidation using conditional requests (see {@link #setUseConditionalRequests(boolean)}).
+     * @param validatorCacheSize Maximum number of responses kept for revalidation (default: 1000)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setValidatorCacheSize(int validatorCacheSize) {
+        this.validatorCacheSize = validatorCacheSize;
+        return this;
+    }
+
+    /**
+     * Return whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers (see {@link StoreresthalConfigurationFactory#setHonorCacheControl(boolean)}).
+     * @return true, if the response headers control the freshness of cached objects
+     */
+    public boolean isHonoringCacheControl() {
+        return honorCacheControl;
+    }
+
+    /**
+     * Set whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers.
+     * @param honorCacheControl Whether to honor the response headers
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setHonorCacheControl(boolean honorCacheControl) {
+        this.honorCacheControl = honorCacheControl;
+        return this;
+    }
+
+    /**
+     * Return whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh (see {@link StoreresthalConfigurationFactory#setApplyCacheControlToIntermediateCache(boolean)}).
+     * @return true, if the intermediate cache keeps objects declared fresh by the response headers
+     */
+    public boolean isApplyingCacheControlToIntermediateCache() {
+        return applyCacheControlToIntermediateCache;
+    }
+
+    /**
+     * Set whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh. Only effective if the response headers are honored at all.
+     * @param applyCacheControlToIntermediateCache Whether to apply the response headers to the intermediate cache
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setApplyCacheControlToIntermediateCache(boolean applyCacheControlToIntermediateCache) {
+        this.applyCacheControlToIntermediateCache = applyCacheControlToIntermediateCache;
+        return this;
+    }
+
+    /**
+     * Get the default maximum (estimated) size in bytes of the objects in a cache, used if {@link Cacheable#maxBytes()} is not given (0 for unlimited).
+     * @return The default maximum size of a cache in bytes
+     */
+    public long getDefaultCacheMaxBytes() {
+        return defaultCacheMaxBytes;
+    }
+
+    /**
+     * Set the default maximum (estimated) size in bytes of the objects in a cache, used if {@link Cacheable#maxBytes()} is not given (0 for unlimited).
+     * @param defaultCacheMaxBytes The default maximum size of a cache in bytes
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDefaultCacheMaxBytes(long defaultCacheMaxBytes) {
+        this.defaultCacheMaxBytes = defaultCacheMaxBytes;
+        return this;
+    }
+
+    /**
+     * Get the maximum (estimated) size in bytes of the objects in all caches together (0 for unlimited). If it is exceeded, objects are evicted from the largest cache.
+     * @return The maximum size of all caches in bytes
+     */
+    public long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    /**
+     * Set the maximum (estimated) size in bytes of the objects in all caches together (0 for unlimited). If it is exceeded, objects are evicted from the largest cache.
+     * @param maxCacheBytes The maximum size of all caches in bytes
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setMaxCacheBytes(long maxCacheBytes) {
+        this.maxCacheBytes = maxCacheBytes;
+        return this;
+    }
+
+    /**
+     * Get the weigher determining the size (in bytes) of cached objects. It is only used for caches being limited by size (see {@link #getDefaultCacheMaxBytes()} and {@link #getMaxCacheBytes()}).
+     * @return The weigher for cached objects
+     */
+    public Weigher<Object, Object> getCacheWeigher() {
+        return cacheWeigher;
+    }
+
+    /**
+     * Set the weigher determining the size (in bytes) of cached objects, e. g. if the objects know their size better than {@link ObjectSizeEstimator} is able to estimate it. It is only used for caches being limited by size.
+     * @param cacheWeigher The weigher for cached objects
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setCacheWeigher(Weigher<Object, Object> cacheWeigher) {
+        this.cacheWeigher = cacheWeigher;
+        return this;
+    }
+
+    /**
+     * Get the maximum size (in bytes) of the (serialized) objects evicted from the caches being kept outside of the Java heap, see {@link com.github.ahuemmer.storesthal.helpers.OffHeapTier}. 0 means that evicted objects are discarded.
+     * @return The maximum size of the off-heap cache tier in bytes
+     */
+    public long getOffHeapCacheBytes() {
+        return offHeapCacheBytes;
+    }
+
+    /**
+     * Set the maximum size (in bytes) of the (serialized) objects evicted from the caches being kept outside of the Java heap. 0 means that evicted objects are discarded.
+     * @param offHeapCacheBytes The maximum size of the off-heap cache tier in bytes
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setOffHeapCacheBytes(long offHeapCacheBytes) {
+        this.offHeapCacheBytes = offHeapCacheBytes;
+        return this;
+    }
+
+    /**
+     * Get the (memory-mapped) file cached objects are kept in to survive a restart of the application, see {@link com.github.ahuemmer.storesthal.helpers.DiskTier}. NULL means that cached objects are not kept on disk.
+     * @return The disk cache file
+     */
+    public Path getDiskCacheFile() {
+        return diskCacheFile;
+    }
+
+    /**
+     * Set the (memory-mapped) file cached objects are kept in to survive a restart of the application. It must not be used by several processes at the same time. NULL means that cached objects are not kept on disk.
+     * @param diskCacheFile The disk cache file
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDiskCacheFile(Path diskCacheFile) {
+        this.diskCacheFile = diskCacheFile;
+        return this;
+    }
+
+    /**
+     * Get the size (in bytes) of the disk cache file (see {@link #getDiskCacheFile()}). Once it is full, the objects written first are evicted.
+     * @return The size of the disk cache file in bytes
+     */
+    public long getDiskCacheBytes() {
+        return diskCacheBytes;
+    }
+
+    /**
+     * Set the size (in bytes) of the disk cache file (see {@link #getDiskCacheFile()}). Once it is full, the objects written first are evicted.
+     * @param diskCacheBytes The size of the disk cache file in bytes
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setDiskCacheBytes(long diskCacheBytes) {
+        this.diskCacheBytes = diskCacheBytes;
+        return this;
+    }
+
+    /**
+     * Get the time (in seconds) for which resources known to be missing (answered by HTTP 404 "Not Found" or 410 "Gone") are not requested again. Retrieving them fails right away instead. 0 means that missing resources are not remembered at all.
+     * @return The time in seconds missing resources are remembered
+     */
+    public long getNegativeCacheSeconds() {
+        return negativeCacheSeconds;
+    }
+
+    /**
+     * Set the time (in seconds) for which resources known to be missing (answered by HTTP 404 "Not Found" or 410 "Gone") are not requested again. Retrieving them fails right away instead. 0 means that missing resources are not remembered at all.
+     * @param negativeCacheSeconds The time in seconds missing resources are remembered (default: 10)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setNegativeCacheSeconds(long negativeCacheSeconds) {
+        this.negativeCacheSeconds = negativeCacheSeconds;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of resources known to be missing (see {@link #getNegativeCacheSeconds()}) remembered per cache (name), evicting the least recently used ones.
+     * @return The maximum number of missing resources remembered per cache
+     */
+    public int getNegativeCacheSize() {
+        return negativeCacheSize;
+    }
+
+    /**
+     * Set the maximum number of resources known to be missing (see {@link #getNegativeCacheSeconds()}) remembered per cache (name), evicting the least recently used ones.
+     * @param negativeCacheSize The maximum number of missing resources remembered per cache (default: 100)
+     * @return This StoresthalConfiguration factory (fluent interface)
+     */
+    public StoreresthalConfigurationFactory setNegativeCacheSize(int negativeCacheSize) {
+        this.negativeCacheSize = negativeCacheSize;
+        return this;
+    }
+
     /**
      * Returns a customized {@link StoresthalConfiguration} using the parameters applied by the setters.
      * @return Customized configuration instance
@@ -97,6 +700,31 @@ public class StoreresthalConfigurationFactory {
         result.setAnnotationless(this.annotationless);
         result.setDefaultCacheSize(this.defaultCacheSize);
         result.setDisableCaching(this.disableCaching);
+        result.setMaxConnectionsTotal(this.maxConnectionsTotal);
+        result.setMaxConnectionsPerHost(this.maxConnectionsPerHost);
+        result.setConnectionKeepAliveSeconds(this.connectionKeepAliveSeconds);
+        result.setIdleConnectionEvictionSeconds(this.idleConnectionEvictionSeconds);
+        result.setParallelTraversal(this.parallelTraversal);
+        result.setTraversalParallelism(this.traversalParallelism);
+        result.setUseVirtualThreads(this.useVirtualThreads);
+        result.setCustomTraversalExecutor(this.customTraversalExecutor);
+        result.setReactiveConcurrency(this.reactiveConcurrency);
+        result.setDefaultExpireAfterWriteSeconds(this.defaultExpireAfterWriteSeconds);
+        result.setDefaultExpireAfterAccessSeconds(this.defaultExpireAfterAccessSeconds);
+        result.setCacheCleanupIntervalSeconds(this.cacheCleanupIntervalSeconds);
+        result.setDefaultRefreshAfterWriteSeconds(this.defaultRefreshAfterWriteSeconds);
+        result.setUseConditionalRequests(this.useConditionalRequests);
+        result.setValidatorCacheSize(this.validatorCacheSize);
+        result.setHonorCacheControl(this.honorCacheControl);
+        result.setApplyCacheControlToIntermediateCache(this.applyCacheControlToIntermediateCache);
+        result.setDefaultCacheMaxBytes(this.defaultCacheMaxBytes);
+        result.setMaxCacheBytes(this.maxCacheBytes);
+        result.setCacheWeigher(this.cacheWeigher);
+        result.setOffHeapCacheBytes(this.offHeapCacheBytes);
+        result.setDiskCacheFile(this.diskCacheFile);
+        result.setDiskCacheBytes(this.diskCacheBytes);
+        result.setNegativeCacheSeconds(this.negativeCacheSeconds);
+        result.setNegativeCacheSize(this.negativeCacheSize);
         return result;
     }
 
@@ -110,6 +738,30 @@ public class StoreresthalConfigurationFactory {
         result.setAnnotationless(StoresthalConfiguration.DEFAULT_ANNOTATIONLESS);
         result.setDefaultCacheSize(StoresthalConfiguration.DEFAULT_DEFAULT_CACHE_SIZE);
         result.setDisableCaching(StoresthalConfiguration.DEFAULT_CACHING_DISABLED);
+        result.setMaxConnectionsTotal(StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_TOTAL);
+        result.setMaxConnectionsPerHost(StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        result.setConnectionKeepAliveSeconds(StoresthalConfiguration.DEFAULT_CONNECTION_KEEP_ALIVE_SECONDS);
+        result.setIdleConnectionEvictionSeconds(StoresthalConfiguration.DEFAULT_IDLE_CONNECTION_EVICTION_SECONDS);
+        result.setParallelTraversal(StoresthalConfiguration.DEFAULT_PARALLEL_TRAVERSAL);
+        result.setTraversalParallelism(StoresthalConfiguration.DEFAULT_TRAVERSAL_PARALLELISM);
+        result.setUseVirtualThreads(StoresthalConfiguration.DEFAULT_USE_VIRTUAL_THREADS);
+        result.setReactiveConcurrency(StoresthalConfiguration.DEFAULT_REACTIVE_CONCURRENCY);
+        result.setDefaultExpireAfterWriteSeconds(StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_WRITE_SECONDS);
+        result.setDefaultExpireAfterAccessSeconds(StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_ACCESS_SECONDS);
+        result.setCacheCleanupIntervalSeconds(StoresthalConfiguration.DEFAULT_CACHE_CLEANUP_INTERVAL_SECONDS);
+        result.setDefaultRefreshAfterWriteSeconds(StoresthalConfiguration.DEFAULT_DEFAULT_REFRESH_AFTER_WRITE_SECONDS);
+        result.setUseConditionalRequests(StoresthalConfiguration.DEFAULT_USE_CONDITIONAL_REQUESTS);
+        result.setValidatorCacheSize(StoresthalConfiguration.DEFAULT_VALIDATOR_CACHE_SIZE);
+        result.setHonorCacheControl(StoresthalConfiguration.DEFAULT_HONOR_CACHE_CONTROL);
+        result.setApplyCacheControlToIntermediateCache(StoresthalConfiguration.DEFAULT_APPLY_CACHE_CONTROL_TO_INTERMEDIATE_CACHE);
+        result.setDefaultCacheMaxBytes(StoresthalConfiguration.DEFAULT_DEFAULT_CACHE_MAX_BYTES);
+        result.setMaxCacheBytes(StoresthalConfiguration.DEFAULT_MAX_CACHE_BYTES);
+        result.setCacheWeigher(StoresthalConfiguration.DEFAULT_CACHE_WEIGHER);
+        result.setOffHeapCacheBytes(StoresthalConfiguration.DEFAULT_OFF_HEAP_CACHE_BYTES);
+        result.setDiskCacheFile(StoresthalConfiguration.DEFAULT_DISK_CACHE_FILE);
+        result.setDiskCacheBytes(StoresthalConfiguration.DEFAULT_DISK_CACHE_BYTES);
+        result.setNegativeCacheSeconds(StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SECONDS);
+        result.setNegativeCacheSize(StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SIZE);
         return result;
     }
 
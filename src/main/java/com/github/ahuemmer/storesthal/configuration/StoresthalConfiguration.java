@@ -3,6 +3,19 @@ package com.github.ahuemmer.storesthal.configuration;
 import com.github.ahuemmer.storesthal.Cacheable;
 import com.github.ahuemmer.storesthal.HALRelation;
 import com.github.ahuemmer.storesthal.Storesthal;
+import com.github.ahuemmer.storesthal.cache.Weigher;
+import com.github.ahuemmer.storesthal.helpers.HttpTransport;
+import com.github.ahuemmer.storesthal.helpers.ObjectSizeEstimator;
+import com.github.ahuemmer.storesthal.helpers.ReactiveHttpTransport;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class holds the configuration of the runtime behavior of the Storesthal.
@@ -38,6 +51,126 @@ public class StoresthalConfiguration {
      */
     public static final boolean DEFAULT_CACHING_DISABLED=false;
 
+    /**
+     * The default maximum number of HTTP connections kept in the connection pool (in total).
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL=200;
+
+    /**
+     * The default maximum number of HTTP connections kept in the connection pool per host.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST=20;
+
+    /**
+     * The default time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     */
+    public static final long DEFAULT_CONNECTION_KEEP_ALIVE_SECONDS=60;
+
+    /**
+     * The default time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     */
+    public static final long DEFAULT_IDLE_CONNECTION_EVICTION_SECONDS=30;
+
+    /**
+     * Indicates whether relations are resolved in parallel by default.
+     */
+    public static final boolean DEFAULT_PARALLEL_TRAVERSAL=false;
+
+    /**
+     * The default number of (platform) threads used for parallel traversal.
+     */
+    public static final int DEFAULT_TRAVERSAL_PARALLELISM=16;
+
+    /**
+     * Indicates whether virtual threads are used for parallel traversal by default.
+     */
+    public static final boolean DEFAULT_USE_VIRTUAL_THREADS=false;
+
+    /**
+     * The default maximum number of concurrent requests of one reactive retrieval.
+     */
+    public static final int DEFAULT_REACTIVE_CONCURRENCY=32;
+
+    /**
+     * The default for the default time (in seconds) after which a cached object expires since it has been cached (0: never).
+     */
+    public static final long DEFAULT_DEFAULT_EXPIRE_AFTER_WRITE_SECONDS=0;
+
+    /**
+     * The default for the default time (in seconds) after which a cached object expires since it has been accessed last (0: never).
+     */
+    public static final long DEFAULT_DEFAULT_EXPIRE_AFTER_ACCESS_SECONDS=0;
+
+    /**
+     * The default interval (in seconds) in which expired objects are removed from the caches.
+     */
+    public static final long DEFAULT_CACHE_CLEANUP_INTERVAL_SECONDS=60;
+
+    /**
+     * The default for the default time (in seconds) after which a cached object is refreshed in the background since it has been cached (0: never).
+     */
+    public static final long DEFAULT_DEFAULT_REFRESH_AFTER_WRITE_SECONDS=0;
+
+    /**
+     * Indicates whether responses are revalidated using conditional requests by default.
+     */
+    public static final boolean DEFAULT_USE_CONDITIONAL_REQUESTS=true;
+
+    /**
+     * The default maximum number of responses kept for revalidation using conditional requests.
+     */
+    public static final int DEFAULT_VALIDATOR_CACHE_SIZE=1000;
+
+    /**
+     * Per default, the freshness of cached objects is only controlled by the {@link Cacheable} annotation.
+     */
+    public static final boolean DEFAULT_HONOR_CACHE_CONTROL=false;
+
+    /**
+     * Per default, objects of classes not annotated with {@link Cacheable} are never cached beyond a single retrieval.
+     */
+    public static final boolean DEFAULT_APPLY_CACHE_CONTROL_TO_INTERMEDIATE_CACHE=false;
+
+    /**
+     * Per default, the caches are not limited by the (estimated) size of their objects.
+     */
+    public static final long DEFAULT_DEFAULT_CACHE_MAX_BYTES=0;
+
+    /**
+     * Per default, the total (estimated) size of the objects in all caches is not limited.
+     */
+    public static final long DEFAULT_MAX_CACHE_BYTES=0;
+
+    /**
+     * Per default, the size of cached objects is estimated by {@link ObjectSizeEstimator}.
+     */
+    public static final Weigher<Object, Object> DEFAULT_CACHE_WEIGHER=ObjectSizeEstimator.INSTANCE;
+
+    /**
+     * Per default, objects evicted from the caches are not kept off-heap.
+     */
+    public static final long DEFAULT_OFF_HEAP_CACHE_BYTES=0;
+
+    /**
+     * Per default, cached objects are not kept on disk.
+     */
+    public static final Path DEFAULT_DISK_CACHE_FILE=null;
+
+    /**
+     * Per default, the disk cache file (if any) has a size of 256 MiB.
+     */
+    public static final long DEFAULT_DISK_CACHE_BYTES=256L * 1024 * 1024;
+
+    /**
+     * Per default, resources known to be missing (HTTP 404 or 410) are not requested again for 10 seconds.
+     */
+    public static final long DEFAULT_NEGATIVE_CACHE_SECONDS=10;
+
+    /**
+     * Per default, at most 100 missing resources are remembered per cache.
+     */
+    public static final int DEFAULT_NEGATIVE_CACHE_SIZE=100;
+
     /**
      * The parent object name for embedded HATEOAS objects
      */
@@ -60,6 +193,151 @@ public class StoresthalConfiguration {
      */
     private boolean annotationless=DEFAULT_ANNOTATIONLESS;
 
+    /**
+     * The maximum number of HTTP connections kept in the connection pool (in total).
+     */
+    private int maxConnectionsTotal=DEFAULT_MAX_CONNECTIONS_TOTAL;
+
+    /**
+     * The maximum number of HTTP connections kept in the connection pool per host.
+     */
+    private int maxConnectionsPerHost=DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    /**
+     * The time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     */
+    private long connectionKeepAliveSeconds=DEFAULT_CONNECTION_KEEP_ALIVE_SECONDS;
+
+    /**
+     * The time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     */
+    private long idleConnectionEvictionSeconds=DEFAULT_IDLE_CONNECTION_EVICTION_SECONDS;
+
+    /**
+     * Controls whether relations and collection members are resolved in parallel.
+     * See {@link #setParallelTraversal(boolean)} for details.
+     */
+    private boolean parallelTraversal=DEFAULT_PARALLEL_TRAVERSAL;
+
+    /**
+     * The number of (platform) threads used for parallel traversal.
+     */
+    private int traversalParallelism=DEFAULT_TRAVERSAL_PARALLELISM;
+
+    /**
+     * Controls whether a virtual thread is started for every fetch during parallel traversal (instead of using a
+     * bounded pool of platform threads).
+     */
+    private boolean useVirtualThreads=DEFAULT_USE_VIRTUAL_THREADS;
+
+    /**
+     * An executor supplied by the user for parallel traversal. If set, it is used instead of an executor created
+     * (and owned) by this configuration.
+     */
+    private Executor customTraversalExecutor;
+
+    /**
+     * The maximum number of concurrent requests of one reactive retrieval.
+     */
+    private int reactiveConcurrency=DEFAULT_REACTIVE_CONCURRENCY;
+
+    /**
+     * The default time (in seconds) after which a cached object expires since it has been cached, if {@link Cacheable#expireAfterWriteSeconds()} is not given.
+     */
+    private long defaultExpireAfterWriteSeconds=DEFAULT_DEFAULT_EXPIRE_AFTER_WRITE_SECONDS;
+
+    /**
+     * The default time (in seconds) after which a cached object expires since it has been accessed last, if {@link Cacheable#expireAfterAccessSeconds()} is not given.
+     */
+    private long defaultExpireAfterAccessSeconds=DEFAULT_DEFAULT_EXPIRE_AFTER_ACCESS_SECONDS;
+
+    /**
+     * The interval (in seconds) in which expired objects are removed from the caches.
+     */
+    private long cacheCleanupIntervalSeconds=DEFAULT_CACHE_CLEANUP_INTERVAL_SECONDS;
+
+    /**
+     * The default time (in seconds) after which a cached object is refreshed in the background since it has been cached, if {@link Cacheable#refreshAfterWriteSeconds()} is not given.
+     */
+    private long defaultRefreshAfterWriteSeconds=DEFAULT_DEFAULT_REFRESH_AFTER_WRITE_SECONDS;
+
+    /**
+     * Controls whether responses are revalidated using conditional requests (see {@link #setUseConditionalRequests(boolean)}).
+     */
+    private boolean useConditionalRequests=DEFAULT_USE_CONDITIONAL_REQUESTS;
+
+    /**
+     * The maximum number of responses kept for revalidation using conditional requests.
+     */
+    private int validatorCacheSize=DEFAULT_VALIDATOR_CACHE_SIZE;
+
+    /**
+     * Controls whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers.
+     */
+    private boolean honorCacheControl=DEFAULT_HONOR_CACHE_CONTROL;
+
+    /**
+     * Controls whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh.
+     */
+    private boolean applyCacheControlToIntermediateCache=DEFAULT_APPLY_CACHE_CONTROL_TO_INTERMEDIATE_CACHE;
+
+    /**
+     * The default maximum (estimated) size in bytes of the objects in a cache, if {@link Cacheable#maxBytes()} is not given.
+     */
+    private long defaultCacheMaxBytes=DEFAULT_DEFAULT_CACHE_MAX_BYTES;
+
+    /**
+     * The maximum (estimated) size in bytes of the objects in all caches together.
+     */
+    private long maxCacheBytes=DEFAULT_MAX_CACHE_BYTES;
+
+    /**
+     * Determines the size (in bytes) of cached objects for limiting the size of the caches.
+     */
+    private Weigher<Object, Object> cacheWeigher=DEFAULT_CACHE_WEIGHER;
+
+    /**
+     * The maximum size (in bytes) of the objects evicted from the caches being kept outside of the Java heap (0 for none).
+     */
+    private long offHeapCacheBytes=DEFAULT_OFF_HEAP_CACHE_BYTES;
+
+    /**
+     * The file cached objects are kept in to survive a restart (NULL for none).
+     */
+    private Path diskCacheFile=DEFAULT_DISK_CACHE_FILE;
+
+    /**
+     * The size (in bytes) of the disk cache file.
+     */
+    private long diskCacheBytes=DEFAULT_DISK_CACHE_BYTES;
+
+    /**
+     * The time (in seconds) resources known to be missing are not requested again.
+     */
+    private long negativeCacheSeconds=DEFAULT_NEGATIVE_CACHE_SECONDS;
+
+    /**
+     * The maximum number of missing resources remembered per cache.
+     */
+    private int negativeCacheSize=DEFAULT_NEGATIVE_CACHE_SIZE;
+
+    /**
+     * The HTTP transport belonging to this configuration. Created lazily by {@link #getHttpTransport()}.
+     */
+    private HttpTransport httpTransport;
+
+    /**
+     * The reactive HTTP transport belonging to this configuration. Created lazily by
+     * {@link #getReactiveHttpTransport()}.
+     */
+    private ReactiveHttpTransport reactiveHttpTransport;
+
+    /**
+     * The executor for parallel traversal belonging to this configuration. Created lazily by
+     * {@link #getTraversalExecutor()}.
+     */
+    private ExecutorService traversalExecutor;
+
     /**
      * Get the default size of an object cache.
      * @return Default cache size
@@ -113,6 +391,535 @@ public class StoresthalConfiguration {
         this.annotationless = annotationless;
     }
 
+    /**
+     * Get the maximum number of HTTP connections kept in the connection pool (in total).
+     * @return Maximum number of pooled connections
+     */
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    /**
+     * Sets the maximum number of HTTP connections kept in the connection pool (in total).
+     * @param maxConnectionsTotal Maximum number of pooled connections (default: 200)
+     */
+    void setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    /**
+     * Get the maximum number of HTTP connections kept in the connection pool per host.
+     * @return Maximum number of pooled connections per host
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of HTTP connections kept in the connection pool per host.
+     * @param maxConnectionsPerHost Maximum number of pooled connections per host (default: 20)
+     */
+    void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * Get the time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     * @return Keep-alive duration in seconds
+     */
+    public long getConnectionKeepAliveSeconds() {
+        return connectionKeepAliveSeconds;
+    }
+
+    /**
+     * Sets the time (in seconds) an HTTP connection is kept alive, if the server doesn't state otherwise.
+     * @param connectionKeepAliveSeconds Keep-alive duration in seconds (default: 60)
+     */
+    void setConnectionKeepAliveSeconds(long connectionKeepAliveSeconds) {
+        this.connectionKeepAliveSeconds = connectionKeepAliveSeconds;
+    }
+
+    /**
+     * Get the time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     * @return Idle time in seconds
+     */
+    public long getIdleConnectionEvictionSeconds() {
+        return idleConnectionEvictionSeconds;
+    }
+
+    /**
+     * Sets the time (in seconds) after which idle HTTP connections are evicted from the connection pool.
+     * @param idleConnectionEvictionSeconds Idle time in seconds (default: 30)
+     */
+    void setIdleConnectionEvictionSeconds(long idleConnectionEvictionSeconds) {
+        this.idleConnectionEvictionSeconds = idleConnectionEvictionSeconds;
+    }
+
+    /**
+     * Get the HTTP transport (connection pool and pre-configured REST templates) belonging to this configuration.
+     * The transport is created on first access and then shared by every request made using this configuration.
+     * @return The HTTP transport of this configuration
+     */
+    public synchronized HttpTransport getHttpTransport() {
+        if (httpTransport == null) {
+            httpTransport = new HttpTransport(this);
+        }
+        return httpTransport;
+    }
+
+    /**
+     * Close the HTTP transport of this configuration (if it has been created at all), releasing all pooled
+     * connections. A new transport will be created, if the configuration is used again afterward.
+     */
+    public synchronized void closeHttpTransport() {
+        if (httpTransport != null) {
+            try {
+                httpTransport.close();
+            } catch (IOException e) {
+                LoggerFactory.getLogger(StoresthalConfiguration.class).warn("Could not close HTTP transport properly.", e);
+            }
+            httpTransport = null;
+        }
+    }
+
+    /**
+     * Return whether relations and collection members are resolved in parallel.
+     * See {@link #setParallelTraversal(boolean)} for details.
+     * @return true, if parallel traversal is enabled
+     */
+    public boolean isParallelTraversal() {
+        return parallelTraversal;
+    }
+
+    /**
+     * Controls whether relations and collection members are resolved in parallel. If enabled, all relations of an
+     * object (and all members of a collection) are fetched concurrently using the traversal executor (see
+     * {@link #getTraversalExecutor()}), instead of one after another. Object identity and the wiring of cyclic
+     * relations are the same as with sequential traversal.
+     * @param parallelTraversal Whether to resolve relations in parallel (default: false)
+     */
+    void setParallelTraversal(boolean parallelTraversal) {
+        this.parallelTraversal = parallelTraversal;
+    }
+
+    /**
+     * Get the number of (platform) threads used for parallel traversal.
+     * @return The number of traversal threads
+     */
+    public int getTraversalParallelism() {
+        return traversalParallelism;
+    }
+
+    /**
+     * Sets the number of (platform) threads used for parallel traversal. This is ignored, if virtual threads or a
+     * custom executor are used.
+     * @param traversalParallelism The number of traversal threads (default: 16)
+     */
+    void setTraversalParallelism(int traversalParallelism) {
+        this.traversalParallelism = traversalParallelism;
+    }
+
+    /**
+     * Return whether a virtual thread is started for every fetch during parallel traversal.
+     * @return true, if virtual threads are used
+     */
+    public boolean isUsingVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * Controls whether a virtual thread is started for every fetch during parallel traversal (instead of using a
+     * bounded pool of platform threads). The number of concurrent requests is then limited by the HTTP connection
+     * pool only (see {@link #getMaxConnectionsPerHost()}).
+     * @param useVirtualThreads Whether to use virtual threads (default: false)
+     */
+    void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    /**
+     * Get the executor supplied by the user for parallel traversal.
+     * @return The custom traversal executor or null, if none was supplied
+     */
+    public Executor getCustomTraversalExecutor() {
+        return customTraversalExecutor;
+    }
+
+    /**
+     * Sets an executor supplied by the user for parallel traversal. Its lifecycle is up to the user.
+     * @param customTraversalExecutor The executor to use or null for using an executor owned by this configuration
+     *                                (default: null)
+     */
+    void setCustomTraversalExecutor(Executor customTraversalExecutor) {
+        this.customTraversalExecutor = customTraversalExecutor;
+    }
+
+    /**
+     * Get the maximum number of concurrent requests of one reactive retrieval.
+     * @return Maximum number of concurrent reactive requests
+     */
+    public int getReactiveConcurrency() {
+        return reactiveConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests of one reactive retrieval (see
+     * {@link com.github.ahuemmer.storesthal.ReactiveStoresthal}).
+     * @param reactiveConcurrency Maximum number of concurrent reactive requests (default: 32)
+     */
+    void setReactiveConcurrency(int reactiveConcurrency) {
+        this.reactiveConcurrency = reactiveConcurrency;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object expires since it has been cached.
+     * @return Default expiry after write in seconds (0: never)
+     */
+    public long getDefaultExpireAfterWriteSeconds() {
+        return defaultExpireAfterWriteSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object expires since it has been cached. This applies to every
+     * object class that has a {@link Cacheable} annotation, but no explicit {@link Cacheable#expireAfterWriteSeconds()} setting.
+     * @param defaultExpireAfterWriteSeconds Default expiry after write in seconds (default: 0, meaning cached objects never expire)
+     */
+    void setDefaultExpireAfterWriteSeconds(long defaultExpireAfterWriteSeconds) {
+        this.defaultExpireAfterWriteSeconds = defaultExpireAfterWriteSeconds;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object expires since it has been accessed last.
+     * @return Default expiry after access in seconds (0: never)
+     */
+    public long getDefaultExpireAfterAccessSeconds() {
+        return defaultExpireAfterAccessSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object expires since it has been accessed last. This applies to
+     * every object class that has a {@link Cacheable} annotation, but no explicit {@link Cacheable#expireAfterAccessSeconds()} setting.
+     * @param defaultExpireAfterAccessSeconds Default expiry after access in seconds (default: 0, meaning cached objects never expire)
+     */
+    void setDefaultExpireAfterAccessSeconds(long defaultExpireAfterAccessSeconds) {
+        this.defaultExpireAfterAccessSeconds = defaultExpireAfterAccessSeconds;
+    }
+
+    /**
+     * Get the interval (in seconds) in which expired objects are removed from the caches.
+     * @return Cleanup interval in seconds
+     */
+    public long getCacheCleanupIntervalSeconds() {
+        return cacheCleanupIntervalSeconds;
+    }
+
+    /**
+     * Sets the interval (in seconds) in which expired objects are removed from the caches by a background thread. (Expired
+     * objects are never returned from a cache, so this only controls how long they occupy memory.)
+     * @param cacheCleanupIntervalSeconds Cleanup interval in seconds (default: 60)
+     */
+    void setCacheCleanupIntervalSeconds(long cacheCleanupIntervalSeconds) {
+        this.cacheCleanupIntervalSeconds = cacheCleanupIntervalSeconds;
+    }
+
+    /**
+     * Get the default time (in seconds) after which a cached object is refreshed in the background since it has been cached.
+     * @return Default refresh after write in seconds (0: never)
+     */
+    public long getDefaultRefreshAfterWriteSeconds() {
+        return defaultRefreshAfterWriteSeconds;
+    }
+
+    /**
+     * Sets the default time (in seconds) after which a cached object is refreshed in the background since it has been cached.
+     * This applies to every object class that has a {@link Cacheable} annotation, but no explicit
+     * {@link Cacheable#refreshAfterWriteSeconds()} setting.
+     * @param defaultRefreshAfterWriteSeconds Default refresh after write in seconds (default: 0, meaning cached objects are never refreshed)
+     */
+    void setDefaultRefreshAfterWriteSeconds(long defaultRefreshAfterWriteSeconds) {
+        this.defaultRefreshAfterWriteSeconds = defaultRefreshAfterWriteSeconds;
+    }
+
+    /**
+     * Return whether responses are revalidated using conditional requests.
+     * @return true, if conditional requests are used
+     */
+    public boolean isUsingConditionalRequests() {
+        return useConditionalRequests;
+    }
+
+    /**
+     * Controls whether responses are revalidated using conditional requests: If a response carried an "ETag" or a
+     * "Last-Modified" header, the next request for the same resource is sent with an "If-None-Match" resp.
+     * "If-Modified-Since" header. If the service answers "304 Not Modified", the object(s) retrieved before are reused
+     * without downloading and parsing them again. This only applies to objects of {@link Cacheable} classes (and
+     * collections of them) as well as to primitive values, as the very same instances are returned again.
+     * @param useConditionalRequests Whether to use conditional requests (default: true)
+     */
+    void setUseConditionalRequests(boolean useConditionalRequests) {
+        this.useConditionalRequests = useConditionalRequests;
+    }
+
+    /**
+     * Get the maximum number of responses kept for revalidation using conditional requests.
+     * @return Maximum number of responses kept for revalidation
+     */
+    public int getValidatorCacheSize() {
+        return validatorCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of responses (together with their "ETag" / "Last-Modified" validators) kept for
+     * revalidation using conditional requests (see {@link #setUseConditionalRequests(boolean)}).
+     * @param validatorCacheSize Maximum number of responses kept for revalidation (default: 1000)
+     */
+    void setValidatorCacheSize(int validatorCacheSize) {
+        this.validatorCacheSize = validatorCacheSize;
+    }
+
+    /**
+     * Return whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers (see {@link StoreresthalConfigurationFactory#setHonorCacheControl(boolean)}).
+     * @return true, if the response headers control the freshness of cached objects
+     */
+    public boolean isHonoringCacheControl() {
+        return honorCacheControl;
+    }
+
+    /**
+     * Set whether the freshness of cached objects is derived from the "Cache-Control" and "Expires" response headers.
+     * @param honorCacheControl Whether to honor the response headers
+     */
+    void setHonorCacheControl(boolean honorCacheControl) {
+        this.honorCacheControl = honorCacheControl;
+    }
+
+    /**
+     * Return whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh (see {@link StoreresthalConfigurationFactory#setApplyCacheControlToIntermediateCache(boolean)}).
+     * @return true, if the intermediate cache keeps objects declared fresh by the response headers
+     */
+    public boolean isApplyingCacheControlToIntermediateCache() {
+        return applyCacheControlToIntermediateCache;
+    }
+
+    /**
+     * Set whether objects of classes not annotated with {@link Cacheable} are cached (in the intermediate cache), if the response headers declare them fresh. Only effective if the response headers are honored at all.
+     * @param applyCacheControlToIntermediateCache Whether to apply the response headers to the intermediate cache
+     */
+    void setApplyCacheControlToIntermediateCache(boolean applyCacheControlToIntermediateCache) {
+        this.applyCacheControlToIntermediateCache = applyCacheControlToIntermediateCache;
+    }
+
+    /**
+     * Get the default maximum (estimated) size in bytes of the objects in a cache, used if {@link Cacheable#maxBytes()} is not given (0 for unlimited).
+     * @return The default maximum size of a cache in bytes
+     */
+    public long getDefaultCacheMaxBytes() {
+        return defaultCacheMaxBytes;
+    }
+
+    /**
+     * Set the default maximum (estimated) size in bytes of the objects in a cache, used if {@link Cacheable#maxBytes()} is not given (0 for unlimited).
+     * @param defaultCacheMaxBytes The default maximum size of a cache in bytes
+     */
+    void setDefaultCacheMaxBytes(long defaultCacheMaxBytes) {
+        this.defaultCacheMaxBytes = defaultCacheMaxBytes;
+    }
+
+    /**
+     * Get the maximum (estimated) size in bytes of the objects in all caches together (0 for unlimited). If it is exceeded, objects are evicted from the largest cache.
+     * @return The maximum size of all caches in bytes
+     */
+    public long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    /**
+     * Set the maximum (estimated) size in bytes of the objects in all caches together (0 for unlimited). If it is exceeded, objects are evicted from the largest cache.
+     * @param maxCacheBytes The maximum size of all caches in bytes
+     */
+    void setMaxCacheBytes(long maxCacheBytes) {
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Get the weigher determining the size (in bytes) of cached objects. It is only used for caches being limited by size (see {@link #getDefaultCacheMaxBytes()} and {@link #getMaxCacheBytes()}).
+     * @return The weigher for cached objects
+     */
+    public Weigher<Object, Object> getCacheWeigher() {
+        return cacheWeigher;
+    }
+
+    /**
+     * Set the weigher determining the size (in bytes) of cached objects, e. g. if the objects know their size better than {@link ObjectSizeEstimator} is able to estimate it. It is only used for caches being limited by size.
+     * @param cacheWeigher The weigher for cached objects
+     */
+    void setCacheWeigher(Weigher<Object, Object> cacheWeigher) {
+        this.cacheWeigher = cacheWeigher;
+    }
+
+    /**
+     * Get the maximum size (in bytes) of the (serialized) objects evicted from the caches being kept outside of the Java heap, see {@link com.github.ahuemmer.storesthal.helpers.OffHeapTier}. 0 means that evicted objects are discarded.
+     * @return The maximum size of the off-heap cache tier in bytes
+     */
+    public long getOffHeapCacheBytes() {
+        return offHeapCacheBytes;
+    }
+
+    /**
+     * Set the maximum size (in bytes) of the (serialized) objects evicted from the caches being kept outside of the Java heap. 0 means that evicted objects are discarded.
+     * @param offHeapCacheBytes The maximum size of the off-heap cache tier in bytes
+     */
+    void setOffHeapCacheBytes(long offHeapCacheBytes) {
+        this.offHeapCacheBytes = offHeapCacheBytes;
+    }
+
+    /**
+     * Get the (memory-mapped) file cached objects are kept in to survive a restart of the application, see {@link com.github.ahuemmer.storesthal.helpers.DiskTier}. NULL means that cached objects are not kept on disk.
+     * @return The disk cache file
+     */
+    public Path getDiskCacheFile() {
+        return diskCacheFile;
+    }
+
+    /**
+     * Set the (memory-mapped) file cached objects are kept in to survive a restart of the application. It must not be used by several processes at the same time. NULL means that cached objects are not kept on disk.
+     * @param diskCacheFile The disk cache file
+     */
+    void setDiskCacheFile(Path diskCacheFile) {
+        this.diskCacheFile = diskCacheFile;
+    }
+
+    /**
+     * Get the size (in bytes) of the disk cache file (see {@link #getDiskCacheFile()}). Once it is full, the objects written first are evicted.
+     * @return The size of the disk cache file in bytes
+     */
+    public long getDiskCacheBytes() {
+        return diskCacheBytes;
+    }
+
+    /**
+     * Set the size (in bytes) of the disk cache file (see {@link #getDiskCacheFile()}). Once it is full, the objects written first are evicted.
+     * @param diskCacheBytes The size of the disk cache file in bytes
+     */
+    void setDiskCacheBytes(long diskCacheBytes) {
+        this.diskCacheBytes = diskCacheBytes;
+    }
+
+    /**
+     * Get the time (in seconds) for which resources known to be missing (answered by HTTP 404 "Not Found" or 410 "Gone") are not requested again. Retrieving them fails right away instead. 0 means that missing resources are not remembered at all.
+     * @return The time in seconds missing resources are remembered
+     */
+    public long getNegativeCacheSeconds() {
+        return negativeCacheSeconds;
+    }
+
+    /**
+     * Set the time (in seconds) for which resources known to be missing (answered by HTTP 404 "Not Found" or 410 "Gone") are not requested again. Retrieving them fails right away instead. 0 means that missing resources are not remembered at all.
+     * @param negativeCacheSeconds The time in seconds missing resources are remembered (default: 10)
+     */
+    void setNegativeCacheSeconds(long negativeCacheSeconds) {
+        this.negativeCacheSeconds = negativeCacheSeconds;
+    }
+
+    /**
+     * Get the maximum number of resources known to be missing (see {@link #getNegativeCacheSeconds()}) remembered per cache (name), evicting the least recently used ones.
+     * @return The maximum number of missing resources remembered per cache
+     */
+    public int getNegativeCacheSize() {
+        return negativeCacheSize;
+    }
+
+    /**
+     * Set the maximum number of resources known to be missing (see {@link #getNegativeCacheSeconds()}) remembered per cache (name), evicting the least recently used ones.
+     * @param negativeCacheSize The maximum number of missing resources remembered per cache (default: 100)
+     */
+    void setNegativeCacheSize(int negativeCacheSize) {
+        this.negativeCacheSize = negativeCacheSize;
+    }
+
+    /**
+     * Get the executor used for parallel traversal. This is either the custom executor (if one was supplied), or an
+     * executor belonging to this configuration, which is created on first access: Either a virtual-thread-per-task
+     * executor or a fixed pool of {@link #getTraversalParallelism()} daemon threads.
+     * @return The traversal executor of this configuration
+     */
+    public synchronized Executor getTraversalExecutor() {
+        if (customTraversalExecutor != null) {
+            return customTraversalExecutor;
+        }
+        if (traversalExecutor == null) {
+            if (useVirtualThreads) {
+                traversalExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storesthal-traversal-", 0).factory());
+            } else {
+                traversalExecutor = Executors.newFixedThreadPool(traversalParallelism, new TraversalThreadFactory());
+            }
+        }
+        return traversalExecutor;
+    }
+
+    /**
+     * Shut down the traversal executor of this configuration (if it has been created at all). A custom executor
+     * (see {@link #getCustomTraversalExecutor()}) is left untouched. A new executor will be created, if the
+     * configuration is used again afterward.
+     */
+    public synchronized void shutdownTraversalExecutor() {
+        if (traversalExecutor != null) {
+            traversalExecutor.shutdown();
+            traversalExecutor = null;
+        }
+    }
+
+    /**
+     * Get the reactive HTTP transport (connection pool and web client) belonging to this configuration.
+     * The transport is created on first access and then shared by every reactive request made using this
+     * configuration.
+     * @return The reactive HTTP transport of this configuration
+     */
+    public synchronized ReactiveHttpTransport getReactiveHttpTransport() {
+        if (reactiveHttpTransport == null) {
+            reactiveHttpTransport = new ReactiveHttpTransport(this);
+        }
+        return reactiveHttpTransport;
+    }
+
+    /**
+     * Close the reactive HTTP transport of this configuration (if it has been created at all). A new transport will
+     * be created, if the configuration is used again afterward.
+     */
+    public synchronized void closeReactiveHttpTransport() {
+        if (reactiveHttpTransport != null) {
+            reactiveHttpTransport.close();
+            reactiveHttpTransport = null;
+        }
+    }
+
+    /**
+     * Release all resources held by this configuration, which are the HTTP transports (see
+     * {@link #closeHttpTransport()} and {@link #closeReactiveHttpTransport()}) and the traversal executor (see
+     * {@link #shutdownTraversalExecutor()}).
+     */
+    public void release() {
+        closeHttpTransport();
+        closeReactiveHttpTransport();
+        shutdownTraversalExecutor();
+    }
+
+    /**
+     * Thread factory for the (platform) traversal threads. The threads are daemon threads, so they don't keep the JVM
+     * alive.
+     */
+    private static class TraversalThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "storesthal-traversal-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     public static String jsonProperty="_embedded";
 
 }
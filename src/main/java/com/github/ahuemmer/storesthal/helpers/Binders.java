@@ -0,0 +1,81 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.binding.ObjectBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static registry of the {@link ObjectBinder}s generated at compile time, which are loaded as services from the class
+ * loaders of the object classes (once per class loader).
+ */
+public class Binders {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(Binders.class);
+
+    /**
+     * The binders available per class loader, by object class.
+     */
+    private static final Map<ClassLoader, Map<Class<?>, ObjectBinder>> bindersByLoader = new ConcurrentHashMap<>();
+
+    /**
+     * The binders by object class (empty, if there is none for a class).
+     */
+    private static final ClassValue<Optional<ObjectBinder>> binders = new ClassValue<>() {
+        @Override
+        protected Optional<ObjectBinder> computeValue(Class<?> type) {
+            ClassLoader loader = type.getClassLoader();
+            if (loader == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(bindersByLoader.computeIfAbsent(loader, Binders::load).get(type));
+        }
+    };
+
+    private Binders() {
+    }
+
+    /**
+     * Get the binder generated for an object class.
+     *
+     * @param objectClass The object class
+     * @return The binder or NULL, if there is none
+     */
+    public static ObjectBinder get(Class<?> objectClass) {
+        return binders.get(objectClass).orElse(null);
+    }
+
+    /**
+     * Load the binders visible to a class loader.
+     *
+     * @param loader The class loader
+     * @return The binders by object class
+     */
+    private static Map<Class<?>, ObjectBinder> load(ClassLoader loader) {
+        Map<Class<?>, ObjectBinder> result = new HashMap<>();
+        Iterator<ObjectBinder> iterator = ServiceLoader.load(ObjectBinder.class, loader).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                ObjectBinder binder = iterator.next();
+                result.putIfAbsent(binder.getObjectClass(), binder);
+            } catch (ServiceConfigurationError | LinkageError e) {
+                logger.warn("Could not load binder, using reflection for its class instead: {}", e.toString());
+            }
+        }
+        logger.debug("{} binder(s) found for class loader {}.", result.size(), loader);
+        return Map.copyOf(result);
+    }
+}
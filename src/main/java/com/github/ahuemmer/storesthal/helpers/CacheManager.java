@@ -1,42 +1,138 @@
 package com.github.ahuemmer.storesthal.helpers;
 
 import com.github.ahuemmer.storesthal.Cacheable;
-import com.github.ahuemmer.storesthal.LRUCache;
 import com.github.ahuemmer.storesthal.Storesthal;
+import com.github.ahuemmer.storesthal.StoresthalException;
+import com.github.ahuemmer.storesthal.binding.ObjectBinder;
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import com.github.ahuemmer.storesthal.cache.Weigher;
 import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.jfr.CacheLookupEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Static manager of all object caches of Storesthal.
+ * <p>
+ * The cache manager may be used by several threads at the same time (e. g. during parallel traversal, see
+ * {@link StoresthalConfiguration#isParallelTraversal()}), so the cache map and the statistics are concurrent maps and
+ * the caches themselves are {@link ConcurrentObjectCache}s, which don't need any external synchronization.
+ * <p>
+ * As soon as a cache with expiring objects is created, a background (daemon) thread is started, removing expired
+ * objects from all caches every {@link StoresthalConfiguration#getCacheCleanupIntervalSeconds()} seconds.
+ * Stale objects of caches refreshing their objects (see {@link Cacheable#refreshAfterWriteSeconds()}) are retrieved
+ * anew by virtual threads, using the default client of {@link Storesthal}.
+ * <p>
+ * If the response an object has been retrieved with declared its freshness (see {@link HttpCacheControl}), the object
+ * is cached for exactly that time (or not at all), regardless of the expiry of its cache.
+ * <p>
+ * Optionally, objects evicted from the caches are kept outside of the Java heap (see {@link OffHeapTier}) and moved
+ * back into their cache, once they are requested again. The cached objects may also be kept on disk (see
+ * {@link DiskTier}), so they survive a restart of the application.
+ */
 @SuppressWarnings("rawtypes")
 public class CacheManager {
 
-    private static CacheManager instance;
-
-    private static StoresthalConfiguration configuration;
-
     /**
-     * All configured object caches are stored in this map, the key is the cache name (see {@link LRUCache#getCacheName()}
+     * All configured object caches are stored in this map, the key is the cache name (see {@link ConcurrentObjectCache#getCacheName()}
      * and {@link Cacheable#cacheName()}).
      */
-    private static Map<String, LRUCache<URI, Object>> caches;
+    private static final Map<String, ConcurrentObjectCache<URI, Object>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * The cache name, {@link Cacheable} annotation (if any) and cacheability by object class, so they are looked up
+     * only once per class instead of on every cache access.
+     */
+    private static final ClassValue<CacheDeclaration> cacheDeclarations = new ClassValue<>() {
+        @Override
+        protected CacheDeclaration computeValue(Class<?> cls) {
+            String cacheName = getCacheName(cls);
+            logger.debug("Cache for object class \"{}\" is named \"{}\".", cls.getCanonicalName(), cacheName);
+            ObjectBinder binder = Binders.get(cls);
+            boolean cacheable = (binder != null) ? (binder.getCacheName() != null) : (cls.getDeclaredAnnotation(Cacheable.class) != null);
+            return new CacheDeclaration(cacheName, cls.getDeclaredAnnotation(Cacheable.class), cacheable);
+        }
+    };
 
     /**
      * A map containing the number of cache misses by cache (name) for statistics creation.
      * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
      * {@link #getStatistics()}.
      */
-    private static final Map<String, Integer> cacheMisses = new HashMap<>();
+    private static final CounterMap cacheMisses = new CounterMap();
 
     /**
      * A map containing the number of cache hits by cache (name) for statistics creation.
      * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
      * {@link #getStatistics()}.
      */
-    private static final Map<String, Integer> cacheHits = new HashMap<>();
+    private static final CounterMap cacheHits = new CounterMap();
+
+    /**
+     * A map containing the number of objects moved back from the off-heap tier (see {@link OffHeapTier}) by cache
+     * (name) for statistics creation. These are counted as cache hits as well.
+     * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
+     * {@link #getStatistics()}.
+     */
+    private static final CounterMap offHeapHits = new CounterMap();
+
+    /**
+     * A map containing the number of objects read from disk (see {@link DiskTier}) by cache (name) for statistics
+     * creation. These are counted as cache hits as well.
+     * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
+     * {@link #getStatistics()}.
+     */
+    private static final CounterMap diskHits = new CounterMap();
+
+    /**
+     * The number of objects (or collections) loaded from the service, i. e. HTTP requests performed because of a
+     * cache miss, by cache (name) for statistics creation. Failed loads are counted as well.
+     * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
+     * {@link #getStatistics()}.
+     */
+    private static final CounterMap loads = new CounterMap();
+
+    /**
+     * The number of loads (see {@link #loads}) which have failed by cache (name) for statistics creation.
+     * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
+     * {@link #getStatistics()}.
+     */
+    private static final CounterMap loadFailures = new CounterMap();
+
+    /**
+     * The total time (in nanoseconds) spent loading objects (see {@link #loads}) by cache (name) for statistics
+     * creation.
+     * Can be re-zeroed by {@link #resetStatistics()} or {@link #clearAllCaches(boolean)} and retrieved by
+     * {@link #getStatistics()}.
+     */
+    private static final CounterMap loadTimeNanos = new CounterMap();
+
+    /**
+     * The executor removing expired objects from the caches periodically. Created by {@link #scheduleCleanup()}.
+     */
+    private static ScheduledExecutorService cleanupExecutor;
+
+    /**
+     * The executor refreshing stale objects in the background (one virtual thread per refresh). Created by
+     * {@link #getRefreshExecutor()}.
+     */
+    private static ExecutorService refreshExecutor;
 
 
     /**
@@ -46,21 +142,37 @@ public class CacheManager {
 
     private CacheManager(){}
 
-    @SuppressWarnings("InstantiationOfUtilityClass")
+    /**
+     * Get the (single) cache manager. The caches are shared by all clients, the configuration of a client is passed
+     * to the methods depending on it instead of being kept here.
+     *
+     * @param configuration The configuration of the client asking (not used any more).
+     * @return The cache manager.
+     */
     public static CacheManager getInstance(StoresthalConfiguration configuration) {
-        if (instance == null) {
-            instance = new CacheManager();
-            CacheManager.configuration = configuration;
-            caches = new HashMap<>();
-            clearAllCaches(true);
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Try to retrieve an object from the associated cache, using the configuration of the default client (see
+     * {@link #getObjectFromCache(StoresthalConfiguration, URI, Class, String)}).
+     *
+     * @param uri         The object's URI
+     * @param objectClass The class of the object
+     * @param cacheName   The name of the cache to get the object from. Use NULL here for automatic cache name detection
+     *                    (default).
+     * @param <T>         The class of the object to retrieve.
+     * @return The cached object instance or NULL, if the cache didn't contain an object for the given URI.
+     */
+    public static <T> T getObjectFromCache(URI uri, Class objectClass, String cacheName) {
+        return getObjectFromCache(Storesthal.getConfiguration(), uri, objectClass, cacheName);
     }
 
     /**
      * Try to retrieve an object from the associated cache (or the common cache, if the {@link com.github.ahuemmer.storesthal.Cacheable} annotation does
      * not state an explicit cache name).
      *
+     * @param configuration The configuration of the client asking.
      * @param uri         The object's URI
      * @param objectClass The class of the object
      * @param cacheName   The name of the cache to get the object from. Use NULL here for automatic cache name detection
@@ -69,11 +181,11 @@ public class CacheManager {
      * @return The cached object instance or NULL, if the cache didn't contain an object for the given URI.
      */
     @SuppressWarnings("unchecked")
-    public static <T> T getObjectFromCache(URI uri, Class objectClass, String cacheName) {
+    public static <T> T getObjectFromCache(StoresthalConfiguration configuration, URI uri, Class objectClass, String cacheName) {
 
-        logger.debug("Trying to get object with URI " + uri + " from cache...");
+        logger.debug("Trying to get object with URI {} from cache...", uri);
 
-        LRUCache<URI, Object> cache;
+        ConcurrentObjectCache<URI, Object> cache;
         if (cacheName == null) {
             cache = getCache(objectClass);
         }
@@ -81,27 +193,61 @@ public class CacheManager {
             cache = getCache(cacheName, null);
         }
 
-        if (configuration.isCachingDisabled() && !(cache.getCacheName().equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME))) {
+        String name = cache.getCacheName();
+        boolean intermediate = name.equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME);
+
+        if (configuration.isCachingDisabled() && !intermediate) {
             logger.debug("Caching is disabled!");
             return null;
         }
 
         T result = (T) cache.get(uri);
+        String tier = "heap";
+
+        if ((result == null) && !intermediate) {
+            result = (T) OffHeapTier.restore(name, uri);
+            if (result != null) {
+                tier = "offHeap";
+                logger.debug("Moving object with URI {} back from off-heap into cache \"{}\".", uri, name);
+                cache.put(uri, result);
+                offHeapHits.increment(name);
+            }
+        }
+
+        if ((result == null) && !intermediate) {
+            DiskTier.Restored restored = DiskTier.read(configuration, name, uri);
+            if (restored != null) {
+                tier = "disk";
+                logger.debug("Read object with URI {} of cache \"{}\" from disk.", uri, name);
+                result = (T) restored.object();
+                if (restored.timeToLive() != null) {
+                    boolean expiring = cache.expires();
+                    cache.put(uri, result, restored.timeToLive());
+                    if (!expiring) {
+                        scheduleCleanup();
+                    }
+                } else {
+                    cache.put(uri, result);
+                }
+                diskHits.increment(name);
+            }
+        }
 
         if (result != null) {
-            cacheHits.putIfAbsent(cache.getCacheName(), 0);
-            cacheHits.put(cache.getCacheName(), cacheHits.get(cache.getCacheName()) + 1);
-            logger.debug("Cache hit for URI " + uri + " in cache \"" + cache.getCacheName() + "\"!");
+            cacheHits.increment(name);
+            logger.debug("Cache hit for URI {} in cache \"{}\"!", uri, name);
         } else {
-            cacheMisses.putIfAbsent(cache.getCacheName(), 0);
-            cacheMisses.put(cache.getCacheName(), cacheMisses.get(cache.getCacheName()) + 1);
-            logger.debug("Cache miss for URI " + uri + " in cache \"" + cache.getCacheName() + "\"!");
+            cacheMisses.increment(name);
+            logger.debug("Cache miss for URI {} in cache \"{}\"!", uri, name);
         }
+
+        CacheLookupEvent.commitIfEnabled(name, uri, (result != null) ? tier : null);
         return result;
     }
 
     /**
-     * Find the cache an object belongs into and put it there.
+     * Find the cache an object belongs into and put it there, using the configuration of the default client (see
+     * {@link #putObjectInCache(StoresthalConfiguration, URI, Object, String)}).
      *
      * @param uri    The uri of the object
      * @param object The object to be cached
@@ -109,8 +255,21 @@ public class CacheManager {
      *                  (default).
      */
     public static void putObjectInCache(URI uri, Object object, String cacheName) {
+        putObjectInCache(Storesthal.getConfiguration(), uri, object, cacheName);
+    }
 
-        LRUCache<URI, Object> cache;
+    /**
+     * Find the cache an object belongs into and put it there.
+     *
+     * @param configuration The configuration of the client putting the object.
+     * @param uri    The uri of the object
+     * @param object The object to be cached
+     * @param cacheName The name of the cache to put the object in. Use NULL here for automatic cache name detection
+     *                  (default).
+     */
+    public static void putObjectInCache(StoresthalConfiguration configuration, URI uri, Object object, String cacheName) {
+
+        ConcurrentObjectCache<URI, Object> cache;
         if (cacheName == null) {
             cache = getCache(object.getClass());
         }
@@ -122,49 +281,412 @@ public class CacheManager {
             return;
         }
 
-        logger.debug("Putting one object of class \"" + object + "\" into cache named \"" + cache.getCacheName() + "\" for URI " + uri.toString());
+        // A fresh object supersedes the one possibly kept off-heap.
+        OffHeapTier.remove(cache.getCacheName(), uri);
+
+        Duration timeToLive = HttpCacheControl.getTimeToLive(uri);
+
+        if (timeToLive != null) {
+            if (timeToLive.isZero() || timeToLive.isNegative()) {
+                logger.debug("Object with URI {} must not be cached according to the response headers.", uri);
+                cache.remove(uri);
+                DiskTier.remove(cache.getCacheName(), uri);
+                return;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Putting one object of class \"{}\" into cache named \"{}\" for URI {}, fresh for {}", object, cache.getCacheName(), uri, timeToLive);
+            }
+            boolean expiring = cache.expires();
+            cache.put(uri, object, timeToLive);
+            if (!expiring) {
+                scheduleCleanup();
+            }
+            if (!cache.getCacheName().equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME)) {
+                DiskTier.write(configuration, cache.getCacheName(), uri, object, timeToLive);
+            }
+            enforceMaxCacheBytes(configuration);
+            return;
+        }
+
+        if (cache.getCacheName().equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME)) {
+            // Objects of classes not annotated are only kept beyond a single retrieval, if declared fresh (see isCachedByCacheControl).
+            return;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Putting one object of class \"{}\" into cache named \"{}\" for URI {}", object, cache.getCacheName(), uri);
+        }
 
         cache.put(uri, object);
 
-        logger.debug("\"" + cache.getCacheName() + "\" cache size is now: " + cache.size());
+        if (logger.isDebugEnabled()) {
+            logger.debug("\"{}\" cache size is now: {}", cache.getCacheName(), cache.size());
+        }
+
+        DiskTier.write(configuration, cache.getCacheName(), uri, object, getDiskTimeToLive(cache));
 
+        enforceMaxCacheBytes(configuration);
     }
 
     /**
-     * Get the cache for a specific object class.
+     * Get the time an object may be kept on disk: The expiry after write of its cache or - as it isn't known, when
+     * the object will be accessed - its expiry after access.
+     *
+     * @param cache The cache of the object.
+     * @return The time to live or NULL, if the objects of the cache don't expire.
+     */
+    private static Duration getDiskTimeToLive(ConcurrentObjectCache<URI, Object> cache) {
+        if (!cache.getExpireAfterWrite().isZero()) {
+            return cache.getExpireAfterWrite();
+        }
+        if (!cache.getExpireAfterAccess().isZero()) {
+            return cache.getExpireAfterAccess();
+        }
+        return null;
+    }
+
+    /**
+     * Evict objects from the largest caches, as long as the total (estimated) size of the objects in all caches
+     * (including the response bodies kept for revalidation, see {@link ConditionalRequests}) exceeds
+     * {@link StoresthalConfiguration#getMaxCacheBytes()}.
+     *
+     * @param configuration The configuration to take the limit from.
+     */
+    static void enforceMaxCacheBytes(StoresthalConfiguration configuration) {
+        long maxCacheBytes = configuration.getMaxCacheBytes();
+        if (maxCacheBytes <= 0) {
+            return;
+        }
+
+        long totalBytes = getTotalCacheWeight();
+
+        while (totalBytes > maxCacheBytes) {
+            ConcurrentObjectCache<?, ?> largest = ConditionalRequests.getValidatorCache();
+            for (ConcurrentObjectCache<URI, Object> cache : caches.values()) {
+                if ((largest == null) || (cache.getWeightedSize() > largest.getWeightedSize())) {
+                    largest = cache;
+                }
+            }
+            if ((largest == null) || (largest.getWeightedSize() == 0)) {
+                return;
+            }
+            logger.debug("Total cache size of {} bytes exceeds {} bytes, evicting objects from cache \"{}\".", totalBytes, maxCacheBytes, largest.getCacheName());
+            largest.trimToWeight(Math.max(0, largest.getWeightedSize() - (totalBytes - maxCacheBytes)));
+            long newTotalBytes = getTotalCacheWeight();
+            if (newTotalBytes >= totalBytes) {
+                return;
+            }
+            totalBytes = newTotalBytes;
+        }
+    }
+
+    /**
+     * Get the total (estimated) size of the objects in all caches weighing their objects (including the response
+     * bodies kept for revalidation).
+     *
+     * @return The total size in bytes.
+     */
+    private static long getTotalCacheWeight() {
+        ConcurrentObjectCache<?, ?> validators = ConditionalRequests.getValidatorCache();
+        long total = (validators != null) ? validators.getWeightedSize() : 0;
+        for (ConcurrentObjectCache<URI, Object> cache : caches.values()) {
+            total += cache.getWeightedSize();
+        }
+        return total;
+    }
+
+    /**
+     * Return whether objects of the given class are kept in a "real" object cache by the default client (see
+     * {@link #isCached(StoresthalConfiguration, Class)}).
      *
      * @param cls The object class
-     * @return The {@link LRUCache} for this object class. If there was no such cache yet, it will be created.
+     * @return true, if objects of the class are cached beyond a single retrieval
      */
-    private static LRUCache<URI, Object> getCache(Class cls) {
+    public static boolean isCached(Class cls) {
+        return isCached(Storesthal.getConfiguration(), cls);
+    }
+
+    /**
+     * Return whether objects of the given class are kept in a "real" object cache (and not only in the intermediate
+     * cache), meaning the class is annotated with {@link Cacheable} and caching isn't disabled.
+     *
+     * @param configuration The configuration of the client asking.
+     * @param cls           The object class
+     * @return true, if objects of the class are cached beyond a single retrieval
+     */
+    public static boolean isCached(StoresthalConfiguration configuration, Class cls) {
+        //noinspection unchecked
+        return !configuration.isCachingDisabled() && isCacheable(cls);
+    }
+
+    /**
+     * Return whether a class is annotated with {@link Cacheable}, asking its binder (if any, see
+     * {@link ObjectBinder}) instead of looking up the annotation. The result is determined only once per class.
+     *
+     * @param cls The object class
+     * @return true, if the class is annotated with {@link Cacheable}
+     */
+    public static boolean isCacheable(Class<?> cls) {
+        return cacheDeclarations.get(cls).cacheable();
+    }
+
+    /**
+     * Return whether objects of the given class - not being annotated with {@link Cacheable} - are kept in the
+     * intermediate cache beyond a single retrieval, if their responses declare them fresh (see
+     * {@link StoresthalConfiguration#isApplyingCacheControlToIntermediateCache()}).
+     *
+     * @param cls The object class
+     * @return true, if objects of the class are cached as long as declared fresh by the response headers
+     */
+    public static boolean isCachedByCacheControl(Class cls) {
+        return isCachedByCacheControl(Storesthal.getConfiguration(), cls);
+    }
+
+    /**
+     * Return whether objects of the given class - not being annotated with {@link Cacheable} - are kept in the
+     * intermediate cache beyond a single retrieval by a client (see
+     * {@link #isCachedByCacheControl(Class)}).
+     *
+     * @param configuration The configuration of the client asking.
+     * @param cls           The object class
+     * @return true, if objects of the class are cached as long as declared fresh by the response headers
+     */
+    public static boolean isCachedByCacheControl(StoresthalConfiguration configuration, Class cls) {
+        //noinspection unchecked
+        return !configuration.isCachingDisabled() && configuration.isHonoringCacheControl()
+                && configuration.isApplyingCacheControlToIntermediateCache() && !isCacheable(cls);
+    }
+
+    /**
+     * Get the name of the cache objects of a specific class are kept in.
+     *
+     * @param cls The object class
+     * @return The cache name (see {@link Cacheable#cacheName()}) or {@link StoresthalConfiguration#INTERMEDIATE_CACHE_NAME},
+     * if the class isn't annotated with {@link Cacheable}.
+     */
+    public static String getCacheName(Class cls) {
+        ObjectBinder binder = Binders.get(cls);
+        if (binder != null) {
+            return (binder.getCacheName() != null) ? binder.getCacheName() : StoresthalConfiguration.INTERMEDIATE_CACHE_NAME;
+        }
         //noinspection unchecked
         Cacheable annotation = (Cacheable) cls.getDeclaredAnnotation(Cacheable.class);
+        return (annotation != null) ? annotation.cacheName() : StoresthalConfiguration.INTERMEDIATE_CACHE_NAME;
+    }
+
+    /**
+     * Get the cache for a specific object class.
+     *
+     * @param cls The object class
+     * @return The {@link ConcurrentObjectCache} for this object class. If there was no such cache yet, it will be created.
+     */
+    private static ConcurrentObjectCache<URI, Object> getCache(Class cls) {
+        CacheDeclaration declaration = cacheDeclarations.get(cls);
+
+        // Looking up an existing cache doesn't allocate anything, so cache hits don't either.
+        ConcurrentObjectCache<URI, Object> existing = caches.get(declaration.cacheName());
+        if (existing != null) {
+            return existing;
+        }
+
+        String cacheName = declaration.cacheName();
+        Cacheable annotation = declaration.annotation();
+        StoresthalConfiguration currentConfiguration = Storesthal.getConfiguration();
+
+        int cacheSize = (annotation != null) ? annotation.cacheSize() : currentConfiguration.getDefaultCacheSize();
+
+        CachePolicy policy = (annotation != null) ? annotation.policy() : CachePolicy.LRU;
+
+        long expireAfterWriteSeconds = ((annotation != null) && (annotation.expireAfterWriteSeconds() >= 0)) ? annotation.expireAfterWriteSeconds() : currentConfiguration.getDefaultExpireAfterWriteSeconds();
 
-        String cacheName = (annotation != null) ? annotation.cacheName() : StoresthalConfiguration.INTERMEDIATE_CACHE_NAME;
+        long expireAfterAccessSeconds = ((annotation != null) && (annotation.expireAfterAccessSeconds() >= 0)) ? annotation.expireAfterAccessSeconds() : currentConfiguration.getDefaultExpireAfterAccessSeconds();
 
-        logger.debug("Cache for object class \"" + cls.getCanonicalName() + "\" is named \"" + cacheName + "\".");
+        long refreshAfterWriteSeconds = ((annotation != null) && (annotation.refreshAfterWriteSeconds() >= 0)) ? annotation.refreshAfterWriteSeconds() : currentConfiguration.getDefaultRefreshAfterWriteSeconds();
 
-        int cacheSize = (annotation != null) ? annotation.cacheSize() : configuration.getDefaultCacheSize();
+        long maxBytes = ((annotation != null) && (annotation.maxBytes() >= 0)) ? annotation.maxBytes() : currentConfiguration.getDefaultCacheMaxBytes();
 
-        return getCache(cacheName, cacheSize);
+        if (annotation == null) {
+            // The intermediate cache only lives during a single retrieval, so its objects never expire.
+            expireAfterWriteSeconds = 0;
+            expireAfterAccessSeconds = 0;
+            refreshAfterWriteSeconds = 0;
+        }
+
+        return getCache(cacheName, cacheSize, policy, expireAfterWriteSeconds, expireAfterAccessSeconds, refreshAfterWriteSeconds, maxBytes);
+    }
+
+    /**
+     * Get the cache with the specified name.
+     *
+     * @param cacheName The name of the cache
+     * @param cacheSize The size of the cache, if it has to be created. Use NULL for the default cache size.
+     * @return The {@link ConcurrentObjectCache} having the given name. If there was no such cache yet, it will be created.
+     */
+    private static ConcurrentObjectCache<URI, Object> getCache(String cacheName, Integer cacheSize) {
+        StoresthalConfiguration currentConfiguration = Storesthal.getConfiguration();
+        return getCache(cacheName, cacheSize, CachePolicy.LRU, currentConfiguration.getDefaultExpireAfterWriteSeconds(), currentConfiguration.getDefaultExpireAfterAccessSeconds(), currentConfiguration.getDefaultRefreshAfterWriteSeconds(), currentConfiguration.getDefaultCacheMaxBytes());
     }
 
     /**
      * Get the cache with the specified name.
      *
      * @param cacheName The name of the cache
-     * @return The {@link LRUCache} having the given name. If there was no such cache yet, it will be created.
+     * @param cacheSize The size of the cache, if it has to be created. Use NULL for the default cache size.
+     * @param policy    The eviction policy of the cache, if it has to be created.
+     * @param expireAfterWriteSeconds  The expiry after write (in seconds, 0 for never) of the cache, if it has to be
+     *                                 created.
+     * @param expireAfterAccessSeconds The expiry after access (in seconds, 0 for never) of the cache, if it has to be
+     *                                 created.
+     * @param refreshAfterWriteSeconds The refresh after write (in seconds, 0 for never) of the cache, if it has to be
+     *                                 created.
+     * @param maxBytes                 The maximum (estimated) size of the objects in the cache (in bytes, 0 for
+     *                                 unlimited), if it has to be created.
+     * @return The {@link ConcurrentObjectCache} having the given name. If there was no such cache yet, it will be created.
      */
-    private static LRUCache<URI, Object> getCache(String cacheName, Integer cacheSize) {
+    static ConcurrentObjectCache<URI, Object> getCache(String cacheName, Integer cacheSize, CachePolicy policy, long expireAfterWriteSeconds, long expireAfterAccessSeconds, long refreshAfterWriteSeconds, long maxBytes) {
 
-        int newCacheSize = Storesthal.getConfiguration().getDefaultCacheSize();
+        ConcurrentObjectCache<URI, Object> existing = caches.get(cacheName);
+        if (existing != null) {
+            return existing;
+        }
+
+        StoresthalConfiguration currentConfiguration = Storesthal.getConfiguration();
+
+        int newCacheSize = currentConfiguration.getDefaultCacheSize();
 
         if (cacheSize != null) {
             newCacheSize = cacheSize;
         }
 
-        caches.putIfAbsent(cacheName, new LRUCache<>(cacheName, newCacheSize));
-        return caches.get(cacheName);
+        final int capacity = newCacheSize;
+
+        // Objects are only weighed (which takes some time), if their size is limited somehow.
+        Weigher<Object, Object> weigher = ((maxBytes > 0) || (currentConfiguration.getMaxCacheBytes() > 0)) ? currentConfiguration.getCacheWeigher() : null;
+
+        boolean[] created = new boolean[1];
+        ConcurrentObjectCache<URI, Object> result = caches.computeIfAbsent(cacheName, name -> {
+            created[0] = true;
+            ConcurrentObjectCache<URI, Object> cache = new ConcurrentObjectCache<>(name, capacity, policy, Duration.ofSeconds(expireAfterWriteSeconds), Duration.ofSeconds(expireAfterAccessSeconds), Duration.ofSeconds(refreshAfterWriteSeconds), (uri, staleObject) -> refresh(name, uri, staleObject), maxBytes, weigher);
+            if (cache.expires()) {
+                scheduleCleanup();
+            }
+            if (OffHeapTier.isEnabled(currentConfiguration) && !name.equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME)) {
+                cache.setEvictionListener((uri, object) -> {
+                    // The off-heap tier doesn't know about expiry, so expiring objects are simply discarded.
+                    if (!cache.expires()) {
+                        OffHeapTier.spill(currentConfiguration, name, uri, object);
+                    }
+                });
+            }
+            return cache;
+        });
+
+        // The listeners are notified outside the map, as they may well access the cache themselves.
+        if (created[0]) {
+            Listeners.cacheCreated(cacheName);
+        }
+        return result;
+    }
+
+    /**
+     * Get all object caches (besides the intermediate cache) by name, e. g. for exporting them (see
+     * {@link CacheSnapshot}).
+     *
+     * @return The caches by name.
+     */
+    static Map<String, ConcurrentObjectCache<URI, Object>> getCaches() {
+        Map<String, ConcurrentObjectCache<URI, Object>> result = new HashMap<>(caches);
+        result.remove(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME);
+        return result;
+    }
+
+    /**
+     * Put an object imported (see {@link CacheSnapshot}) into a cache, unless the cache contains an object for its URI
+     * already.
+     *
+     * @param cache      The cache.
+     * @param uri        The URI of the object.
+     * @param object     The object.
+     * @param timeToLive The remaining time the object may be cached or NULL, if it doesn't expire.
+     * @return true, if the object has been put into the cache.
+     */
+    static boolean importObject(ConcurrentObjectCache<URI, Object> cache, URI uri, Object object, Duration timeToLive) {
+        if (cache.get(uri) != null) {
+            return false;
+        }
+        if (timeToLive != null) {
+            boolean expiring = cache.expires();
+            cache.put(uri, object, timeToLive);
+            if (!expiring) {
+                scheduleCleanup();
+            }
+        } else {
+            cache.put(uri, object);
+        }
+        return true;
+    }
+
+    /**
+     * Start the background thread removing expired objects from the caches (see {@link #cleanUpExpiredObjects()}),
+     * if it isn't running yet.
+     */
+    private static synchronized void scheduleCleanup() {
+        if (cleanupExecutor != null) {
+            return;
+        }
+        long interval = Storesthal.getConfiguration().getCacheCleanupIntervalSeconds();
+        cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storesthal-cache-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleanupExecutor.scheduleWithFixedDelay(CacheManager::cleanUpExpiredObjects, interval, interval, TimeUnit.SECONDS);
+        logger.debug("Removing expired objects from the caches every " + interval + " seconds.");
+    }
+
+    /**
+     * Retrieve a stale object anew in the background (see {@link Cacheable#refreshAfterWriteSeconds()}).
+     *
+     * @param cacheName   The name of the cache the object is stored in.
+     * @param uri         The URI of the object.
+     * @param staleObject The stale object.
+     * @return A future completing with the fresh object.
+     */
+    private static CompletableFuture<Object> refresh(String cacheName, URI uri, Object staleObject) {
+        return CompletableFuture.supplyAsync(() -> {
+            logger.debug("Refreshing stale object with URI " + uri + " in cache \"" + cacheName + "\"...");
+            try {
+                if (PrimitiveValueRetriever.isPrimitive(staleObject.getClass())) {
+                    return PrimitiveValueRetriever.refreshPrimitive(staleObject.getClass(), uri.toString(), cacheName);
+                }
+                return Storesthal.getDefaultClient().refreshObject(uri.toString(), staleObject.getClass());
+            } catch (StoresthalException e) {
+                logger.warn("Could not refresh stale object with URI " + uri + ", keeping it.", e);
+                throw new CompletionException(e);
+            }
+        }, getRefreshExecutor());
+    }
+
+    /**
+     * Get the executor refreshing stale objects, creating it on first access.
+     *
+     * @return The refresh executor.
+     */
+    private static synchronized ExecutorService getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storesthal-cache-refresh-", 0).factory());
+        }
+        return refreshExecutor;
+    }
+
+    /**
+     * Remove all expired objects from all caches. This is done periodically in the background, so there's usually
+     * no need to call this function directly.
+     */
+    public static void cleanUpExpiredObjects() {
+        for (ConcurrentObjectCache<URI, Object> cache : caches.values()) {
+            cache.cleanUp();
+        }
     }
 
     /**
@@ -177,12 +699,26 @@ public class CacheManager {
      *                              both of them to zero).
      */
     public static void clearCache(String cacheName, boolean clearStatisticsAsWell) {
-        if (caches.containsKey(cacheName)) {
-            caches.get(cacheName).clear();
+        ConcurrentObjectCache<URI, Object> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clear();
         }
+        OffHeapTier.clear(cacheName);
+        DiskTier.clear(cacheName);
+        NegativeCache.clear(cacheName);
         if (clearStatisticsAsWell) {
-            cacheHits.put(cacheName, 0);
-            cacheMisses.put(cacheName, 0);
+            cacheHits.reset(cacheName);
+            cacheMisses.reset(cacheName);
+            offHeapHits.remove(cacheName);
+            diskHits.remove(cacheName);
+            loads.remove(cacheName);
+            loadFailures.remove(cacheName);
+            loadTimeNanos.remove(cacheName);
+            NegativeCache.resetStatistics(cacheName);
+            if (cache != null) {
+                cache.resetStaleHits();
+                cache.resetEvictions();
+            }
         }
     }
 
@@ -194,10 +730,63 @@ public class CacheManager {
      * empty or doesn't exist (yet).
      */
     public static int getCachedObjectCount(String cacheName) {
-        if (caches.get(cacheName) == null) {
+        ConcurrentObjectCache<URI, Object> cache = caches.get(cacheName);
+        if (cache == null) {
             return 0;
         }
-        return caches.get(cacheName).size();
+        return cache.size();
+    }
+
+    /**
+     * Get the number of cache hits of a specific cache.
+     *
+     * @param cacheName The name of the cache (see {@link Cacheable#cacheName()}).
+     * @return The number of cache hits since the last statistics reset.
+     */
+    public static long getCacheHitCount(String cacheName) {
+        return cacheHits.get(cacheName);
+    }
+
+    /**
+     * Get the number of cache misses of a specific cache.
+     *
+     * @param cacheName The name of the cache (see {@link Cacheable#cacheName()}).
+     * @return The number of cache misses since the last statistics reset.
+     */
+    public static long getCacheMissCount(String cacheName) {
+        return cacheMisses.get(cacheName);
+    }
+
+    /**
+     * Get the number of objects evicted from a specific cache.
+     *
+     * @param cacheName The name of the cache (see {@link Cacheable#cacheName()}).
+     * @return The number of objects evicted since the last statistics reset (0, if the cache doesn't exist).
+     */
+    public static long getEvictionCount(String cacheName) {
+        ConcurrentObjectCache<URI, Object> cache = caches.get(cacheName);
+        return (cache != null) ? cache.getEvictions() : 0;
+    }
+
+    /**
+     * Get the current (estimated) size in bytes of the objects in a specific cache.
+     *
+     * @param cacheName The name of the cache (see {@link Cacheable#cacheName()}).
+     * @return The size of the objects in bytes (0, if the cache doesn't exist or doesn't weigh its objects, see
+     * {@link #getCacheBytes()}).
+     */
+    public static long getCachedByteCount(String cacheName) {
+        ConcurrentObjectCache<URI, Object> cache = caches.get(cacheName);
+        return ((cache != null) && cache.weighs()) ? cache.getWeightedSize() : 0;
+    }
+
+    /**
+     * Get the names of all caches existing at the moment.
+     *
+     * @return An immutable snapshot of the cache names.
+     */
+    public static Set<String> getCacheNames() {
+        return Set.copyOf(caches.keySet());
     }
 
     /**
@@ -221,7 +810,82 @@ public class CacheManager {
      * @return The cache statistics map
      */
     public static Map<String, Object> getStatistics() {
-        return Map.of("cacheHits", cacheHits, "cacheMisses", cacheMisses);
+        return Map.ofEntries(
+                Map.entry("cacheHits", getCacheHits()),
+                Map.entry("cacheMisses", getCacheMisses()),
+                Map.entry("hitRatios", getHitRatios()),
+                Map.entry("staleHits", getStaleHits()),
+                Map.entry("evictions", getEvictions()),
+                Map.entry("loads", getLoads()),
+                Map.entry("loadFailures", getLoadFailures()),
+                Map.entry("loadTimeNanos", getLoadTimeNanos()),
+                Map.entry("cacheBytes", getCacheBytes()),
+                Map.entry("offHeapHits", getOffHeapHits()),
+                Map.entry("offHeapBytes", OffHeapTier.getUsedBytes()),
+                Map.entry("diskHits", getDiskHits()),
+                Map.entry("diskBytes", DiskTier.getUsedBytes()),
+                Map.entry("negativeHits", NegativeCache.getNegativeHits()));
+    }
+
+    /**
+     * Get the current (estimated) size in bytes of the objects in each cache (name). Only caches being limited by
+     * size (see {@link Cacheable#maxBytes()} and {@link StoresthalConfiguration#getMaxCacheBytes()}) weigh their
+     * objects, all other caches are left out.
+     *
+     * @return The size of the objects per cache in bytes.
+     */
+    public static Map<String, Long> getCacheBytes() {
+        Map<String, Long> result = new HashMap<>();
+        caches.forEach((name, cache) -> {
+            if (cache.weighs()) {
+                result.put(name, cache.getWeightedSize());
+            }
+        });
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Get the number of stale objects returned (while being refreshed, see {@link Cacheable#refreshAfterWriteSeconds()})
+     * by cache (name). Caches which haven't returned any stale objects are left out.
+     *
+     * @return The number of stale objects returned per cache.
+     */
+    public static Map<String, Integer> getStaleHits() {
+        Map<String, Integer> result = new HashMap<>();
+        caches.forEach((name, cache) -> {
+            long staleHits = cache.getStaleHits();
+            if (staleHits > 0) {
+                result.put(name, CounterMap.saturate(staleHits));
+            }
+        });
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Get the ratio of cache hits to all cache accesses (hits and misses) per eviction policy, summing up all caches
+     * using the policy. Policies not used by any accessed cache are left out.
+     *
+     * @return The hit ratio (between 0 and 1) per policy.
+     */
+    public static Map<CachePolicy, Double> getHitRatios() {
+        Map<CachePolicy, long[]> counts = new EnumMap<>(CachePolicy.class);
+        for (Map.Entry<String, ConcurrentObjectCache<URI, Object>> entry : caches.entrySet()) {
+            if (entry.getKey().equals(StoresthalConfiguration.INTERMEDIATE_CACHE_NAME)) {
+                continue;
+            }
+            long[] hitsAndMisses = counts.computeIfAbsent(entry.getValue().getPolicy(), policy -> new long[2]);
+            hitsAndMisses[0] += cacheHits.get(entry.getKey());
+            hitsAndMisses[1] += cacheMisses.get(entry.getKey());
+        }
+
+        Map<CachePolicy, Double> result = new EnumMap<>(CachePolicy.class);
+        counts.forEach((policy, hitsAndMisses) -> {
+            long accesses = hitsAndMisses[0] + hitsAndMisses[1];
+            if (accesses > 0) {
+                result.put(policy, (double) hitsAndMisses[0] / accesses);
+            }
+        });
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -230,14 +894,134 @@ public class CacheManager {
     public static void resetStatistics() {
         cacheHits.clear();
         cacheMisses.clear();
+        offHeapHits.clear();
+        diskHits.clear();
+        loads.clear();
+        loadFailures.clear();
+        loadTimeNanos.clear();
+        NegativeCache.resetStatistics();
+        caches.values().forEach(cache -> {
+            cache.resetStaleHits();
+            cache.resetEvictions();
+        });
     }
 
-    public static Map<String, Integer> getCacheHits() {
-        return cacheHits;
+    /**
+     * Count an object (or collection) loaded from the service and notify the listeners of the request (see
+     * {@link Listeners#requestCompleted(String, URI, Class, long, long, boolean)}). The bytes received by the current
+     * thread (see {@link HttpStatistics#takeBytesReceived()}) are attributed to the request.
+     *
+     * @param cacheName   The name of the cache of the object (see {@link #getCacheName(Class)}).
+     * @param uri         The URI of the object.
+     * @param objectClass The class of the object (or of the collection items).
+     * @param nanos       The time the load took in nanoseconds.
+     * @param succeeded   Whether the object has been loaded successfully.
+     */
+    public static void recordLoad(String cacheName, URI uri, Class<?> objectClass, long nanos, boolean succeeded) {
+        loads.increment(cacheName);
+        loadTimeNanos.add(cacheName, nanos);
+        if (!succeeded) {
+            loadFailures.increment(cacheName);
+        }
+        Listeners.requestCompleted(cacheName, uri, objectClass, nanos, HttpStatistics.takeBytesReceived(), succeeded);
     }
 
+    /**
+     * Get the number of objects evicted (because of the cache size or maximum size in bytes) by cache (name). Caches
+     * which haven't evicted any objects are left out.
+     *
+     * @return The number of objects evicted per cache.
+     */
+    public static Map<String, Integer> getEvictions() {
+        Map<String, Integer> result = new HashMap<>();
+        caches.forEach((name, cache) -> {
+            long evictions = cache.getEvictions();
+            if (evictions > 0) {
+                result.put(name, CounterMap.saturate(evictions));
+            }
+        });
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Get the number of cache hits by cache (name).
+     *
+     * @return An immutable snapshot of the number of cache hits per cache.
+     */
+    public static Map<String, Integer> getCacheHits() {
+        return cacheHits.snapshot();
+    }
 
+    /**
+     * Get the number of cache misses by cache (name).
+     *
+     * @return An immutable snapshot of the number of cache misses per cache.
+     */
     public static Map<String, Integer> getCacheMisses() {
-        return cacheMisses;
+        return cacheMisses.snapshot();
+    }
+
+    /**
+     * Get the number of objects moved back from the off-heap tier by cache (name).
+     *
+     * @return An immutable snapshot of the number of off-heap hits per cache.
+     */
+    public static Map<String, Integer> getOffHeapHits() {
+        return offHeapHits.snapshot();
+    }
+
+    /**
+     * Get the number of objects read from disk by cache (name).
+     *
+     * @return An immutable snapshot of the number of disk hits per cache.
+     */
+    public static Map<String, Integer> getDiskHits() {
+        return diskHits.snapshot();
+    }
+
+    /**
+     * Get the number of objects (or collections) loaded from the service by cache (name), see
+     * {@link #recordLoad(String, URI, Class, long, boolean)}.
+     *
+     * @return An immutable snapshot of the number of loads per cache.
+     */
+    public static Map<String, Integer> getLoads() {
+        return loads.snapshot();
+    }
+
+    /**
+     * Get the number of failed loads by cache (name).
+     *
+     * @return An immutable snapshot of the number of failed loads per cache.
+     */
+    public static Map<String, Integer> getLoadFailures() {
+        return loadFailures.snapshot();
+    }
+
+    /**
+     * Get the total time spent loading objects by cache (name).
+     *
+     * @return An immutable snapshot of the load time in nanoseconds per cache.
+     */
+    public static Map<String, Long> getLoadTimeNanos() {
+        return loadTimeNanos.longSnapshot();
+    }
+
+    /**
+     * The cache an object class is declared to be kept in.
+     *
+     * @param cacheName  The name of the cache.
+     * @param annotation The {@link Cacheable} annotation of the class or NULL, if it isn't annotated (and its objects
+     *                   are kept in the intermediate cache).
+     * @param cacheable  Whether the class is cacheable, see {@link #isCacheable(Class)}.
+     */
+    private record CacheDeclaration(String cacheName, Cacheable annotation, boolean cacheable) {
+    }
+
+    /**
+     * Holder of the single cache manager, created on first access (thread-safe by the class initialization).
+     */
+    private static final class Holder {
+        private static final CacheManager INSTANCE = new CacheManager();
     }
 }
@@ -0,0 +1,316 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.StoresthalException;
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Static export and import of the contents of all object caches (and of the responses kept for revalidation, see
+ * {@link ConditionalRequests}) to and from a (compressed, binary) snapshot file, so that a freshly started application
+ * can be "warmed up" with the working set of an application running for a while.
+ * <p>
+ * For every cache, the snapshot contains its settings (so that it can be created the same way, if it doesn't exist
+ * yet) and its objects along with their URIs and the time they expire (if they do). The objects are written from the
+ * least to the most valuable one (according to the {@link CachePolicy} of the cache), so importing them restores the
+ * eviction order as well. Only objects implementing {@link java.io.Serializable} are exported (see
+ * {@link SerializationHelper}), and only the responses kept for revalidation which are primitive values (see
+ * {@link PrimitiveValueRetriever}), as HAL representations are not serializable.
+ * <p>
+ * As snapshots are meant to be copied between instances, importing one is restricted the same way as reading objects
+ * from disk: Only the classes of cached objects are deserialized (see {@link SerializationHelper}), and the response
+ * types of the revalidated responses are only resolved, if they are primitive classes.
+ * <p>
+ * The snapshot is read as a stream, while the objects are deserialized and put into their caches in parallel (by
+ * virtual threads), cache by cache. At most as many objects as a cache can hold are imported (the most valuable ones),
+ * and objects already cached are not replaced.
+ */
+public class CacheSnapshot {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    /**
+     * Identifies a snapshot file (and the version of its format).
+     */
+    private static final int MAGIC = 0x53545331;
+
+    /**
+     * Marks the start of a cache section.
+     */
+    private static final byte CACHE_SECTION = 1;
+
+    /**
+     * Marks the start of the validator section.
+     */
+    private static final byte VALIDATOR_SECTION = 2;
+
+    /**
+     * Marks the end of the snapshot.
+     */
+    private static final byte END = 0;
+
+    /**
+     * The number of objects deserialized by a single task when importing.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * Export all caches to a snapshot file (overwriting it, if it exists).
+     *
+     * @param file The snapshot file.
+     * @return The number of objects exported.
+     * @throws StoresthalException if the file can't be written.
+     */
+    public static int export(Path file) throws StoresthalException {
+        int exported = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+
+            for (Map.Entry<String, ConcurrentObjectCache<URI, Object>> cacheEntry : CacheManager.getCaches().entrySet()) {
+                ConcurrentObjectCache<URI, Object> cache = cacheEntry.getValue();
+                List<ConcurrentObjectCache.Entry<URI, Object>> entries = cache.snapshot();
+                Collections.reverse(entries);
+
+                List<byte[]> values = new ArrayList<>(entries.size());
+                List<ConcurrentObjectCache.Entry<URI, Object>> serializable = new ArrayList<>(entries.size());
+                for (ConcurrentObjectCache.Entry<URI, Object> entry : entries) {
+                    byte[] value = SerializationHelper.serialize(entry.value());
+                    if (value != null) {
+                        values.add(value);
+                        serializable.add(entry);
+                    }
+                }
+
+                out.writeByte(CACHE_SECTION);
+                out.writeUTF(cacheEntry.getKey());
+                out.writeInt(cache.getCapacity());
+                out.writeUTF(cache.getPolicy().name());
+                out.writeLong(cache.getExpireAfterWrite().toSeconds());
+                out.writeLong(cache.getExpireAfterAccess().toSeconds());
+                out.writeLong(cache.getRefreshAfterWrite().toSeconds());
+                out.writeLong(cache.getMaximumWeight());
+                out.writeInt(serializable.size());
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < serializable.size(); i++) {
+                    ConcurrentObjectCache.Entry<URI, Object> entry = serializable.get(i);
+                    out.writeUTF(entry.key().toString());
+                    out.writeLong((entry.timeToLive() != null) ? now + entry.timeToLive().toMillis() : 0);
+                    out.writeInt(values.get(i).length);
+                    out.write(values.get(i));
+                }
+                exported += serializable.size();
+            }
+
+            List<ConditionalRequests.Validator> validators = new ArrayList<>();
+            List<byte[]> bodies = new ArrayList<>();
+            for (ConditionalRequests.Validator validator : ConditionalRequests.getValidators()) {
+                if (!PrimitiveValueRetriever.isPrimitive(validator.responseType())) {
+                    continue;
+                }
+                byte[] body = SerializationHelper.serialize(validator.body());
+                if (body != null) {
+                    validators.add(validator);
+                    bodies.add(body);
+                }
+            }
+            out.writeByte(VALIDATOR_SECTION);
+            out.writeInt(validators.size());
+            for (int i = validators.size() - 1; i >= 0; i--) {
+                ConditionalRequests.Validator validator = validators.get(i);
+                out.writeUTF(validator.uri().toString());
+                out.writeUTF(validator.responseType().getName());
+                out.writeBoolean(validator.eTag() != null);
+                if (validator.eTag() != null) {
+                    out.writeUTF(validator.eTag());
+                }
+                out.writeLong(validator.lastModified());
+                out.writeInt(bodies.get(i).length);
+                out.write(bodies.get(i));
+            }
+
+            out.writeByte(END);
+        } catch (IOException e) {
+            throw new StoresthalException("Could not export the caches to \"" + file + "\"!", e);
+        }
+        logger.debug("Exported " + exported + " objects to \"" + file + "\".");
+        return exported;
+    }
+
+    /**
+     * Import a snapshot file into the caches (see above).
+     *
+     * @param configuration The configuration to create caches by.
+     * @param file          The snapshot file.
+     * @return The number of objects imported.
+     * @throws StoresthalException if the file can't be read or isn't a snapshot file.
+     */
+    public static int importFrom(StoresthalConfiguration configuration, Path file) throws StoresthalException {
+        AtomicInteger imported = new AtomicInteger();
+        List<CompletableFuture<Void>> caches = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new StoresthalException("\"" + file + "\" is not a cache snapshot!");
+            }
+
+            byte section;
+            while ((section = in.readByte()) != END) {
+                if (section == CACHE_SECTION) {
+                    caches.add(importCache(in, executor, imported));
+                } else if (section == VALIDATOR_SECTION) {
+                    importValidators(configuration, in);
+                } else {
+                    throw new StoresthalException("\"" + file + "\" is corrupted!");
+                }
+            }
+
+            CompletableFuture.allOf(caches.toArray(new CompletableFuture[0])).join();
+        } catch (IOException | CompletionException e) {
+            throw new StoresthalException("Could not import the caches from \"" + file + "\"!", e);
+        } catch (IllegalArgumentException e) {
+            throw new StoresthalException("\"" + file + "\" is corrupted!", e);
+        }
+
+        logger.debug("Imported " + imported.get() + " objects from \"" + file + "\".");
+        return imported.get();
+    }
+
+    /**
+     * Read the objects of a cache, putting them into the cache in batches - one after another, but in parallel to the
+     * other caches.
+     *
+     * @param in       The snapshot, positioned after the section marker.
+     * @param executor The executor to put the objects into the cache by.
+     * @param imported The number of objects imported so far.
+     * @return A future completing when all objects have been put into the cache.
+     * @throws IOException if the snapshot can't be read.
+     */
+    private static CompletableFuture<Void> importCache(DataInputStream in, ExecutorService executor, AtomicInteger imported) throws IOException {
+        String cacheName = in.readUTF();
+        int capacity = in.readInt();
+        CachePolicy policy = CachePolicy.valueOf(in.readUTF());
+        long expireAfterWriteSeconds = in.readLong();
+        long expireAfterAccessSeconds = in.readLong();
+        long refreshAfterWriteSeconds = in.readLong();
+        long maxBytes = in.readLong();
+        int count = in.readInt();
+
+        // Created the same way as on export, unless the cache exists already.
+        ConcurrentObjectCache<URI, Object> cache = CacheManager.getCache(cacheName, capacity, policy, expireAfterWriteSeconds, expireAfterAccessSeconds, refreshAfterWriteSeconds, maxBytes);
+
+        // The least valuable objects come first, so these are skipped if the cache is smaller now.
+        int skip = Math.max(0, count - cache.getCapacity());
+
+        CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        List<Serialized> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            URI uri = URI.create(in.readUTF());
+            long expiresAt = in.readLong();
+            byte[] value = in.readNBytes(in.readInt());
+            if (i < skip) {
+                continue;
+            }
+            batch.add(new Serialized(uri, expiresAt, value));
+            if (batch.size() == BATCH_SIZE) {
+                List<Serialized> objects = batch;
+                tail = tail.thenRunAsync(() -> importObjects(cache, objects, imported), executor);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        List<Serialized> objects = batch;
+        return tail.thenRunAsync(() -> importObjects(cache, objects, imported), executor);
+    }
+
+    /**
+     * Deserialize objects and put them into their cache.
+     *
+     * @param cache    The cache.
+     * @param objects  The serialized objects.
+     * @param imported The number of objects imported so far.
+     */
+    private static void importObjects(ConcurrentObjectCache<URI, Object> cache, List<Serialized> objects, AtomicInteger imported) {
+        long now = System.currentTimeMillis();
+        for (Serialized serialized : objects) {
+            if ((serialized.expiresAt() > 0) && (serialized.expiresAt() <= now)) {
+                continue;
+            }
+            Object object = SerializationHelper.deserialize(serialized.value());
+            if (object == null) {
+                continue;
+            }
+            Duration timeToLive = (serialized.expiresAt() > 0) ? Duration.ofMillis(serialized.expiresAt() - now) : null;
+            if (CacheManager.importObject(cache, serialized.uri(), object, timeToLive)) {
+                imported.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Read the responses kept for revalidation.
+     *
+     * @param configuration The configuration to create the store of the responses by.
+     * @param in            The snapshot, positioned after the section marker.
+     * @throws IOException if the snapshot can't be read.
+     */
+    private static void importValidators(StoresthalConfiguration configuration, DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            URI uri = URI.create(in.readUTF());
+            String responseTypeName = in.readUTF();
+            String eTag = in.readBoolean() ? in.readUTF() : null;
+            long lastModified = in.readLong();
+            byte[] body = in.readNBytes(in.readInt());
+
+            // Only the primitive classes are resolved, the snapshot must not make us load any other class.
+            Class<?> responseType = PrimitiveValueRetriever.getPrimitiveClass(responseTypeName);
+            if (responseType == null) {
+                logger.warn("Response type \"{}\" isn't supported, skipping validator of \"{}\".", responseTypeName, uri);
+                continue;
+            }
+            Object deserialized = SerializationHelper.deserialize(body);
+            if (responseType.isInstance(deserialized)) {
+                ConditionalRequests.putValidator(configuration, new ConditionalRequests.Validator(uri, responseType, eTag, lastModified, deserialized));
+            }
+        }
+    }
+
+    /**
+     * An object read from the snapshot, not deserialized yet.
+     *
+     * @param uri       The URI of the object.
+     * @param expiresAt The time the object expires (milliseconds since the epoch, 0 for never).
+     * @param value     The serialized object.
+     */
+    private record Serialized(URI uri, long expiresAt, byte[] value) {
+    }
+}
@@ -0,0 +1,289 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import com.github.ahuemmer.storesthal.cache.Weigher;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Static store of the validators ("ETag" and "Last-Modified" headers) of the responses received, used to revalidate
+ * them by conditional requests ("If-None-Match" and "If-Modified-Since" headers) instead of downloading and parsing
+ * them again: If the service answers "304 Not Modified", the response body kept along with the validators is reused
+ * as it is.
+ * <p>
+ * Reusing a response body means returning the very same object instances again, so only responses which may be shared
+ * between retrievals are to be revalidated this way: Objects of {@link com.github.ahuemmer.storesthal.Cacheable}
+ * classes (and collections of them) as well as primitive values. If the response headers are to be honored (see
+ * {@link StoresthalConfiguration#isHonoringCacheControl()}), responses declared "no-store" or "private" aren't kept
+ * either. The store holds at most {@link StoresthalConfiguration#getValidatorCacheSize()} responses, evicting the
+ * least recently used ones. If the total size of the caches is limited (see
+ * {@link StoresthalConfiguration#getMaxCacheBytes()}), the response bodies kept count toward that limit as well and
+ * are evicted along with the objects of the object caches (see {@link CacheManager}).
+ */
+public class ConditionalRequests {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalRequests.class);
+
+    /**
+     * The name of the cache keeping the validated responses.
+     */
+    public static final String VALIDATOR_CACHE_NAME = "com.github.ahuemmer.storesthal.cache.validators";
+
+    /**
+     * The responses carrying validators by URI and response type. Created by {@link #getValidatedResponses(StoresthalConfiguration)}.
+     */
+    private static volatile ConcurrentObjectCache<RequestKey, ValidatedResponse> validatedResponses;
+
+    /**
+     * The number of "304 Not Modified" answers received, for statistics creation.
+     * Can be re-zeroed by {@link #resetStatistics()}.
+     */
+    private static final LongAdder notModifiedResponses = new LongAdder();
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Perform a GET request, revalidating the response received for the same URI and response type before (if it
+     * carried validators) instead of retrieving it anew. If the response headers are to be honored (see
+     * {@link StoresthalConfiguration#isHonoringCacheControl()}), the freshness they declare is recorded by
+     * {@link HttpCacheControl}.
+     *
+     * @param configuration The configuration of the caller.
+     * @param uri           The URI requested.
+     * @param responseType  The type the response body is converted to.
+     * @param headers       The request headers. The conditional headers are added to them, if applicable.
+     * @param shareable     Whether the response body may be shared between retrievals (see above). If not, the request
+     *                      is performed unconditionally.
+     * @param exchange      Performs the actual request with the given request entity.
+     * @param <T>           The type of the response body.
+     * @return The response body - either the one received or the one reused because it hasn't been modified.
+     * @throws RestClientException if the request fails.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T exchange(StoresthalConfiguration configuration, URI uri, Type responseType, HttpHeaders headers, boolean shareable, Exchange<T> exchange) throws RestClientException {
+
+        if (!shareable || !configuration.isUsingConditionalRequests()) {
+            ResponseEntity<T> response = exchange.exchange(new HttpEntity<>(headers));
+            recordFreshness(configuration, uri, response);
+            return response.getBody();
+        }
+
+        ConcurrentObjectCache<RequestKey, ValidatedResponse> responses = getValidatedResponses(configuration);
+        RequestKey key = new RequestKey(uri, responseType);
+        ValidatedResponse known = responses.get(key);
+
+        if (known != null) {
+            if (known.eTag() != null) {
+                headers.setIfNoneMatch(known.eTag());
+            }
+            if (known.lastModified() >= 0) {
+                headers.setIfModifiedSince(known.lastModified());
+            }
+        }
+
+        ResponseEntity<T> response = exchange.exchange(new HttpEntity<>(headers));
+        recordFreshness(configuration, uri, response);
+
+        if ((known != null) && (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value())) {
+            logger.debug("\"{}\" has not been modified, reusing the response received before.", uri);
+            notModifiedResponses.increment();
+            return (T) known.body();
+        }
+
+        T body = response.getBody();
+        String eTag = response.getHeaders().getETag();
+        long lastModified = response.getHeaders().getLastModified();
+
+        if (configuration.isHonoringCacheControl() && !HttpCacheControl.isStorable(response.getHeaders())) {
+            // Replaying the body on a later "304 Not Modified" would mean storing it after all.
+            if (known != null) {
+                responses.remove(key);
+            }
+        } else if ((body != null) && ((eTag != null) || (lastModified >= 0))) {
+            responses.put(key, new ValidatedResponse(eTag, lastModified, body));
+            CacheManager.enforceMaxCacheBytes(configuration);
+        } else if (known != null) {
+            responses.remove(key);
+        }
+
+        return body;
+    }
+
+    /**
+     * Record the freshness of a response (see {@link HttpCacheControl}), if the response headers are to be honored.
+     *
+     * @param configuration The configuration of the caller.
+     * @param uri           The URI requested.
+     * @param response      The response.
+     */
+    private static void recordFreshness(StoresthalConfiguration configuration, URI uri, ResponseEntity<?> response) {
+        if (configuration.isHonoringCacheControl()) {
+            HttpCacheControl.record(configuration, uri, response.getHeaders());
+        }
+    }
+
+    /**
+     * Get the store of the responses carrying validators, creating it on first access. The response bodies are
+     * weighed, if the total size of the caches is limited.
+     *
+     * @param configuration The configuration to take the store size from.
+     * @return The store of the responses.
+     */
+    private static ConcurrentObjectCache<RequestKey, ValidatedResponse> getValidatedResponses(StoresthalConfiguration configuration) {
+        ConcurrentObjectCache<RequestKey, ValidatedResponse> result = validatedResponses;
+        if (result == null) {
+            synchronized (ConditionalRequests.class) {
+                result = validatedResponses;
+                if (result == null) {
+                    Weigher<RequestKey, ValidatedResponse> weigher = null;
+                    if (configuration.getMaxCacheBytes() > 0) {
+                        Weigher<Object, Object> cacheWeigher = configuration.getCacheWeigher();
+                        weigher = (key, response) -> cacheWeigher.weigh(key.uri(), response.body());
+                    }
+                    result = new ConcurrentObjectCache<>(VALIDATOR_CACHE_NAME, configuration.getValidatorCacheSize(), CachePolicy.LRU,
+                            Duration.ZERO, Duration.ZERO, Duration.ZERO, null, 0, weigher);
+                    validatedResponses = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the store of the responses carrying validators, so that its weight can be limited along with the object
+     * caches (see {@link CacheManager}).
+     *
+     * @return The store of the responses or NULL, if it hasn't been created yet.
+     */
+    static ConcurrentObjectCache<?, ?> getValidatorCache() {
+        return validatedResponses;
+    }
+
+    /**
+     * Get the responses kept for revalidation, the response type of which is a plain class (e. g. primitive values),
+     * so they can be exported (see {@link CacheSnapshot}).
+     *
+     * @return The responses along with their validators.
+     */
+    static List<Validator> getValidators() {
+        ConcurrentObjectCache<RequestKey, ValidatedResponse> responses = validatedResponses;
+        List<Validator> result = new ArrayList<>();
+        if (responses == null) {
+            return result;
+        }
+        for (ConcurrentObjectCache.Entry<RequestKey, ValidatedResponse> entry : responses.snapshot()) {
+            if (entry.key().responseType() instanceof Class<?> responseType) {
+                ValidatedResponse response = entry.value();
+                result.add(new Validator(entry.key().uri(), responseType, response.eTag(), response.lastModified(), response.body()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keep a response for revalidation (e. g. when importing it, see {@link CacheSnapshot}).
+     *
+     * @param configuration The configuration to take the store size from.
+     * @param validator     The response along with its validators.
+     */
+    static void putValidator(StoresthalConfiguration configuration, Validator validator) {
+        getValidatedResponses(configuration).put(new RequestKey(validator.uri(), validator.responseType()),
+                new ValidatedResponse(validator.eTag(), validator.lastModified(), validator.body()));
+        CacheManager.enforceMaxCacheBytes(configuration);
+    }
+
+    /**
+     * Forget all responses kept for revalidation, so that the next requests are performed unconditionally.
+     */
+    public static void clear() {
+        ConcurrentObjectCache<RequestKey, ValidatedResponse> responses = validatedResponses;
+        if (responses != null) {
+            responses.clear();
+        }
+    }
+
+    /**
+     * Get the number of "304 Not Modified" answers received (meaning the response received before was reused).
+     *
+     * @return The number of responses not modified.
+     */
+    public static int getNotModifiedResponses() {
+        return CounterMap.saturate(notModifiedResponses.sum());
+    }
+
+    /**
+     * Reset the number of "304 Not Modified" answers received to zero.
+     */
+    public static void resetStatistics() {
+        notModifiedResponses.reset();
+    }
+
+    /**
+     * Performs the actual GET request for {@link #exchange(StoresthalConfiguration, URI, Type, HttpHeaders, boolean, Exchange)}.
+     *
+     * @param <T> The type of the response body.
+     */
+    @FunctionalInterface
+    public interface Exchange<T> {
+
+        /**
+         * Perform the request.
+         *
+         * @param requestEntity The request entity (carrying the request headers).
+         * @return The response.
+         * @throws RestClientException if the request fails.
+         */
+        ResponseEntity<T> exchange(HttpEntity<Void> requestEntity) throws RestClientException;
+    }
+
+    /**
+     * A response kept for revalidation, the response type of which is a plain class.
+     *
+     * @param uri          The URI requested.
+     * @param responseType The type of the response body.
+     * @param eTag         The "ETag" header of the response or NULL, if there was none.
+     * @param lastModified The "Last-Modified" header of the response (in milliseconds since the epoch) or -1, if there
+     *                     was none.
+     * @param body         The response body.
+     */
+    record Validator(URI uri, Class<?> responseType, String eTag, long lastModified, Object body) {
+    }
+
+    /**
+     * Key of a response: The URI requested and the type the response body is converted to.
+     *
+     * @param uri          The URI requested.
+     * @param responseType The type of the response body.
+     */
+    private record RequestKey(URI uri, Type responseType) {
+    }
+
+    /**
+     * A response body together with its validators.
+     *
+     * @param eTag         The "ETag" header of the response or NULL, if there was none.
+     * @param lastModified The "Last-Modified" header of the response (in milliseconds since the epoch) or -1, if there
+     *                     was none.
+     * @param body         The response body.
+     */
+    private record ValidatedResponse(String eTag, long lastModified, Object body) {
+    }
+}
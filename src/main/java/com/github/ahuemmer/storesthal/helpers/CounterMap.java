@@ -0,0 +1,126 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics counters by name (e. g. by cache name), used for counting cache hits, misses etc.
+ * <p>
+ * Every counter is a {@link LongAdder}, so concurrent threads counting the same event don't contend for a single
+ * memory location, and counting an event doesn't allocate anything once the counter exists. Reading the counters
+ * is rather expensive in turn, as it sums up their stripes - so they are read as a whole, as an immutable snapshot.
+ */
+public class CounterMap {
+
+    /**
+     * The counters by name.
+     */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Increment a counter by one, creating it if necessary.
+     *
+     * @param name The name of the counter.
+     */
+    public void increment(String name) {
+        getCounter(name).increment();
+    }
+
+    /**
+     * Add a value to a counter, creating it if necessary.
+     *
+     * @param name  The name of the counter.
+     * @param value The value to add.
+     */
+    public void add(String name, long value) {
+        getCounter(name).add(value);
+    }
+
+    /**
+     * Get the current value of a counter.
+     *
+     * @param name The name of the counter.
+     * @return The value (0, if the counter doesn't exist).
+     */
+    public long get(String name) {
+        LongAdder counter = counters.get(name);
+        return (counter != null) ? counter.sum() : 0;
+    }
+
+    /**
+     * Reset a counter to zero, keeping it in the snapshots (creating it if necessary).
+     *
+     * @param name The name of the counter.
+     */
+    public void reset(String name) {
+        getCounter(name).reset();
+    }
+
+    /**
+     * Remove a counter, so that it isn't contained in the snapshots any more (until it is counted again).
+     *
+     * @param name The name of the counter.
+     */
+    public void remove(String name) {
+        counters.remove(name);
+    }
+
+    /**
+     * Remove all counters.
+     */
+    public void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Get an immutable snapshot of the current values of all counters (e. g. numbers of events). Values exceeding
+     * the range of an integer are reported as {@link Integer#MAX_VALUE}.
+     *
+     * @return The values by counter name.
+     */
+    public Map<String, Integer> snapshot() {
+        Map<String, Integer> result = new HashMap<>();
+        counters.forEach((name, counter) -> result.put(name, saturate(counter.sum())));
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Narrow a (non-negative) count to an integer for the statistics reported as integers, saturating at
+     * {@link Integer#MAX_VALUE} instead of overflowing.
+     *
+     * @param count The count.
+     * @return The count as integer.
+     */
+    public static int saturate(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get an immutable snapshot of the current values of all counters, not narrowing them to integers (e. g. for
+     * sums of durations or sizes).
+     *
+     * @return The values by counter name.
+     */
+    public Map<String, Long> longSnapshot() {
+        Map<String, Long> result = new HashMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Get a counter, creating it if necessary.
+     *
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    private LongAdder getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            // Only lock (a bin of) the map when creating a counter, not on every increment.
+            counter = counters.computeIfAbsent(name, key -> new LongAdder());
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.cache.DiskStore;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Static persistent second level of the object caches, keeping the cached objects in a memory-mapped file (see
+ * {@link StoresthalConfiguration#getDiskCacheFile()}), so that a restarted application doesn't have to retrieve all
+ * of them anew.
+ * <p>
+ * Every object put into a cache managed by {@link CacheManager} is written to the {@link DiskStore} as well (using
+ * Java serialization, so only objects implementing {@link Serializable} are kept), along with the time it expires (if
+ * its cache expires objects or its response declared its freshness, see {@link HttpCacheControl}). If an object
+ * isn't found in its cache (e. g. after a restart or after having been evicted), it is read from the file and put
+ * back into its cache. Note, that the object read is a copy of the one written (as are the objects it refers to).
+ * <p>
+ * The file is opened on first access and closed (after writing all changes to the disk) on shutdown of the JVM.
+ */
+public class DiskTier {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DiskTier.class);
+
+    /**
+     * The store of the serialized objects. Opened by {@link #getStore(StoresthalConfiguration)}.
+     */
+    private static volatile DiskStore store;
+
+    /**
+     * Whether opening the store has failed (so that it isn't tried again and again).
+     */
+    private static volatile boolean unavailable;
+
+    /**
+     * Whether the shutdown hook closing the store has been registered.
+     */
+    private static boolean shutdownHookRegistered;
+
+    private DiskTier() {
+    }
+
+    /**
+     * Return whether the disk tier is enabled by a configuration.
+     *
+     * @param configuration The configuration.
+     * @return true, if cached objects are to be kept on disk.
+     */
+    public static boolean isEnabled(StoresthalConfiguration configuration) {
+        return (configuration.getDiskCacheFile() != null) && (configuration.getDiskCacheBytes() > 0);
+    }
+
+    /**
+     * Keep an object put into a cache on disk, if it is serializable.
+     *
+     * @param configuration The configuration to take the file from.
+     * @param cacheName     The name of the cache.
+     * @param uri           The URI of the object.
+     * @param object        The object.
+     * @param timeToLive    The time the object may be cached or NULL, if it doesn't expire.
+     */
+    public static void write(StoresthalConfiguration configuration, String cacheName, URI uri, Object object, Duration timeToLive) {
+        DiskStore current = getStore(configuration);
+        if (current == null) {
+            return;
+        }
+        byte[] data = SerializationHelper.serialize(object);
+        if (data == null) {
+            current.remove(key(cacheName, uri));
+            return;
+        }
+        long expiresAt = (timeToLive != null) ? System.currentTimeMillis() + timeToLive.toMillis() : 0;
+        if (current.put(key(cacheName, uri), data, expiresAt)) {
+            logger.debug("Wrote object with URI " + uri + " of cache \"" + cacheName + "\" to disk.");
+        }
+    }
+
+    /**
+     * Read an object of a cache from disk.
+     *
+     * @param configuration The configuration to take the file from.
+     * @param cacheName     The name of the cache.
+     * @param uri           The URI of the object.
+     * @return The (deserialized) object and its remaining time to live or NULL, if it isn't kept on disk (or expired).
+     */
+    public static Restored read(StoresthalConfiguration configuration, String cacheName, URI uri) {
+        DiskStore current = getStore(configuration);
+        if (current == null) {
+            return null;
+        }
+        DiskStore.Entry entry = current.get(key(cacheName, uri));
+        if (entry == null) {
+            return null;
+        }
+        Object object = SerializationHelper.deserialize(entry.value());
+        if (object == null) {
+            current.remove(key(cacheName, uri));
+            return null;
+        }
+        Duration timeToLive = (entry.expiresAt() > 0) ? Duration.ofMillis(Math.max(1, entry.expiresAt() - System.currentTimeMillis())) : null;
+        return new Restored(object, timeToLive);
+    }
+
+    /**
+     * Forget an object kept on disk.
+     *
+     * @param cacheName The name of the cache.
+     * @param uri       The URI of the object.
+     */
+    public static void remove(String cacheName, URI uri) {
+        DiskStore current = store;
+        if (current != null) {
+            current.remove(key(cacheName, uri));
+        }
+    }
+
+    /**
+     * Forget all objects of a cache kept on disk.
+     *
+     * @param cacheName The name of the cache.
+     */
+    public static void clear(String cacheName) {
+        DiskStore current = store;
+        if (current != null) {
+            String prefix = key(cacheName, null);
+            current.removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * Get the number of objects kept on disk.
+     *
+     * @return The number of objects.
+     */
+    public static int getObjectCount() {
+        DiskStore current = store;
+        return (current != null) ? current.size() : 0;
+    }
+
+    /**
+     * Get the total size of the (serialized) objects kept on disk.
+     *
+     * @return The size in bytes.
+     */
+    public static long getUsedBytes() {
+        DiskStore current = store;
+        return (current != null) ? current.getUsedBytes() : 0;
+    }
+
+    /**
+     * Close the file (writing all changes to the disk). It is opened again on next access - possibly another file, if
+     * the configuration has changed meanwhile.
+     */
+    public static synchronized void close() {
+        DiskStore current = store;
+        store = null;
+        unavailable = false;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("Could not close the disk cache.", e);
+            }
+        }
+    }
+
+    /**
+     * Get the key of an object in the store.
+     *
+     * @param cacheName The name of the cache.
+     * @param uri       The URI of the object (NULL for the common prefix of all objects of the cache).
+     * @return The key.
+     */
+    private static String key(String cacheName, URI uri) {
+        return cacheName + "\n" + ((uri != null) ? uri.toString() : "");
+    }
+
+    /**
+     * Get the store, opening it on first access.
+     *
+     * @param configuration The configuration to take the file from.
+     * @return The store or NULL, if the disk tier is disabled or the file can't be opened.
+     */
+    private static DiskStore getStore(StoresthalConfiguration configuration) {
+        DiskStore result = store;
+        if ((result != null) || unavailable || !isEnabled(configuration)) {
+            return result;
+        }
+        synchronized (DiskTier.class) {
+            if ((store == null) && !unavailable) {
+                try {
+                    store = new DiskStore(configuration.getDiskCacheFile(), configuration.getDiskCacheBytes());
+                    logger.debug("Opened disk cache \"" + configuration.getDiskCacheFile() + "\" containing " + store.size() + " objects.");
+                    if (!shutdownHookRegistered) {
+                        Runtime.getRuntime().addShutdownHook(new Thread(DiskTier::close, "storesthal-disk-cache-shutdown"));
+                        shutdownHookRegistered = true;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not open disk cache \"" + configuration.getDiskCacheFile() + "\", objects are not kept on disk.", e);
+                    unavailable = true;
+                }
+            }
+            return store;
+        }
+    }
+
+    /**
+     * An object read from disk.
+     *
+     * @param object     The object.
+     * @param timeToLive The remaining time the object may be cached or NULL, if it doesn't expire.
+     */
+    public record Restored(Object object, Duration timeToLive) {
+    }
+}
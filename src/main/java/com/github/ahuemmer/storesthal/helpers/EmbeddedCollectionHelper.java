@@ -1,14 +1,11 @@
 package com.github.ahuemmer.storesthal.helpers;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.ahuemmer.storesthal.StoresthalException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
 import org.springframework.http.ResponseEntity;
 
 import java.io.IOException;
@@ -24,7 +21,8 @@ import static com.github.ahuemmer.storesthal.configuration.StoresthalConfigurati
  * under an {@code _embedded} object, as it is a good practice in HATEOAS). The crucial point that makes it tricky is,
  * that the object name of the array object containing the collection (which is a JSON child object of the
  * {@code _embedded} node), is not known to Storesthal at compile time. Therefore, we're working with
- * {@link com.fasterxml.jackson.databind.JsonNode}s and {@link com.fasterxml.jackson.databind.JavaType} here.
+ * {@link com.fasterxml.jackson.databind.JsonNode}s and {@link com.fasterxml.jackson.databind.JavaType} here (the latter
+ * being resolved only once per object class by {@link HalTypeRegistry}).
  *
  * @param <T>
  */
@@ -63,8 +61,21 @@ public class EmbeddedCollectionHelper<T> {
      * @throws StoresthalException
      */
     public static <T> List<EntityModel<T>> getObjects(ResponseEntity response, Class<T> objectClass, Optional<String> fieldName) throws StoresthalException {
+        return getObjects((EmbeddedCollectionHelper<T>) response.getBody(), objectClass, fieldName);
+    }
 
-        EmbeddedCollectionHelper<T> helper = (EmbeddedCollectionHelper<T>) response.getBody();
+    /**
+     * Extract the actual collection from an already deserialized response (see
+     * {@link #getObjects(ResponseEntity, Class, Optional)} for details).
+     *
+     * @param helper      The response body
+     * @param objectClass The final class of the objects contained within the collection.
+     * @param fieldName   The name of the field as child of {@code _embedded} in the JSON structure.
+     * @param <T>         The type of the objects in the collections (meaning the type of {@code objectClass}).
+     * @return A list containing the collection objects as instances of {@code EntityModel<T>}.
+     * @throws StoresthalException if the field given is not an array or can't be read
+     */
+    public static <T> List<EntityModel<T>> getObjects(EmbeddedCollectionHelper<T> helper, Class<T> objectClass, Optional<String> fieldName) throws StoresthalException {
 
         String fieldNameFound = null;
 
@@ -99,13 +110,7 @@ public class EmbeddedCollectionHelper<T> {
             return new ArrayList<>();
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new Jackson2HalModule());
-
-        JavaType type = objectMapper.getTypeFactory().constructParametricType(EntityModel.class, objectClass);
-        JavaType listType = objectMapper.getTypeFactory().constructParametricType(ArrayList.class, type);
-
-        var reader = objectMapper.readerFor(listType);
+        var reader = HalTypeRegistry.getEntityModelListReader(objectClass);
 
         try {
             return reader.readValue(helper.getObjectCollection().get(fieldNameFound));
@@ -0,0 +1,183 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+
+import java.util.ArrayList;
+
+import static org.apache.commons.lang3.reflect.TypeUtils.parameterize;
+
+/**
+ * Static helper class holding the one and only HAL-aware {@link ObjectMapper} of Storesthal, together with a registry
+ * of the types and readers derived from it for every object class retrieved.
+ * <p>
+ * Jackson caches its (de)serializers per {@link ObjectMapper}, so using one fully configured mapper for all requests
+ * means, that only the first deserialization of a specific class has to introspect it. Likewise, the
+ * {@code EntityModel<T>} types (and the readers for them) are resolved only once per object class and then taken from
+ * the registry.
+ */
+public class HalTypeRegistry {
+
+    /**
+     * The shared object mapper, having the {@link Jackson2HalModule} registered.
+     */
+    private static final ObjectMapper halObjectMapper = createHalObjectMapper();
+
+    /**
+     * The types and readers resolved for every object class encountered up to now.
+     */
+    private static final ClassValue<HalTypes> halTypes = new ClassValue<>() {
+        @Override
+        protected HalTypes computeValue(Class<?> type) {
+            return new HalTypes(type);
+        }
+    };
+
+    private HalTypeRegistry() {
+    }
+
+    /**
+     * Create the HAL-aware object mapper.
+     *
+     * @return A new object mapper having the {@link Jackson2HalModule} registered
+     */
+    private static ObjectMapper createHalObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new Jackson2HalModule());
+
+        // Possibly useful for Debugging:
+        // objectMapper.enable(INCLUDE_SOURCE_IN_LOCATION);
+        return objectMapper;
+    }
+
+    /**
+     * Get the shared HAL-aware object mapper.
+     * Please don't re-configure it, as it is used for all HAL requests made by Storesthal.
+     *
+     * @return The shared object mapper
+     */
+    public static ObjectMapper getHalObjectMapper() {
+        return halObjectMapper;
+    }
+
+    /**
+     * Get the type reference for a single HAL object ({@code EntityModel<T>}) of the given class.
+     *
+     * @param objectClass The class of the object
+     * @param <T>         The type of the object
+     * @return The type reference for {@code EntityModel<T>}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParameterizedTypeReference<EntityModel<T>> getEntityModelTypeReference(Class<T> objectClass) {
+        return (ParameterizedTypeReference<EntityModel<T>>) halTypes.get(objectClass).entityModelTypeReference;
+    }
+
+    /**
+     * Get the type reference for a collection of HAL objects ({@code ArrayList<EntityModel<T>>}) of the given class.
+     *
+     * @param objectClass The class of the collection items
+     * @param <T>         The type of the collection items
+     * @return The type reference for {@code ArrayList<EntityModel<T>>}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParameterizedTypeReference<ArrayList<EntityModel<T>>> getCollectionTypeReference(Class<T> objectClass) {
+        return (ParameterizedTypeReference<ArrayList<EntityModel<T>>>) halTypes.get(objectClass).collectionTypeReference;
+    }
+
+    /**
+     * Get the type reference for an embedded collection ({@code EmbeddedCollectionHelper<T>}) of HAL objects of the
+     * given class.
+     *
+     * @param objectClass The class of the collection items
+     * @param <T>         The type of the collection items
+     * @return The type reference for {@code EmbeddedCollectionHelper<T>}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParameterizedTypeReference<EmbeddedCollectionHelper<T>> getEmbeddedCollectionTypeReference(Class<T> objectClass) {
+        return (ParameterizedTypeReference<EmbeddedCollectionHelper<T>>) halTypes.get(objectClass).embeddedCollectionTypeReference;
+    }
+
+    /**
+     * Get the (Jackson) type of a single HAL object ({@code EntityModel<T>}) of the given class.
+     *
+     * @param objectClass The class of the object
+     * @return The type {@code EntityModel<T>}
+     */
+    public static JavaType getEntityModelType(Class<?> objectClass) {
+        return halTypes.get(objectClass).entityModelType;
+    }
+
+    /**
+     * Get the (Jackson) type of a list of HAL objects ({@code ArrayList<EntityModel<T>>}) of the given class.
+     *
+     * @param objectClass The class of the list items
+     * @return The type {@code ArrayList<EntityModel<T>>}
+     */
+    public static JavaType getEntityModelListType(Class<?> objectClass) {
+        return halTypes.get(objectClass).entityModelListType;
+    }
+
+    /**
+     * Get the reader for a single HAL object ({@code EntityModel<T>}) of the given class.
+     *
+     * @param objectClass The class of the object
+     * @return The reader for {@code EntityModel<T>}
+     */
+    public static ObjectReader getEntityModelReader(Class<?> objectClass) {
+        return halTypes.get(objectClass).entityModelReader;
+    }
+
+    /**
+     * Get the reader for a list of HAL objects ({@code ArrayList<EntityModel<T>>}) of the given class.
+     *
+     * @param objectClass The class of the list items
+     * @return The reader for {@code ArrayList<EntityModel<T>>}
+     */
+    public static ObjectReader getEntityModelListReader(Class<?> objectClass) {
+        return halTypes.get(objectClass).entityModelListReader;
+    }
+
+    /**
+     * The types and readers belonging to one object class. Instances are immutable and created only once per class
+     * (see {@link #halTypes}).
+     */
+    private static final class HalTypes {
+
+        private final JavaType entityModelType;
+
+        private final JavaType entityModelListType;
+
+        private final ObjectReader entityModelReader;
+
+        private final ObjectReader entityModelListReader;
+
+        private final ParameterizedTypeReference<?> entityModelTypeReference;
+
+        private final ParameterizedTypeReference<?> collectionTypeReference;
+
+        private final ParameterizedTypeReference<?> embeddedCollectionTypeReference;
+
+        private HalTypes(Class<?> objectClass) {
+            TypeFactory typeFactory = halObjectMapper.getTypeFactory();
+
+            entityModelType = typeFactory.constructParametricType(EntityModel.class, objectClass);
+            entityModelListType = typeFactory.constructParametricType(ArrayList.class, entityModelType);
+
+            entityModelReader = halObjectMapper.readerFor(entityModelType);
+            entityModelListReader = halObjectMapper.readerFor(entityModelListType);
+
+            // The message converters need "real" parameterized types here (not Jackson types), so they can match them
+            // against the types they support:
+            entityModelTypeReference = ParameterizedTypeReference.forType(parameterize(EntityModel.class, objectClass));
+            collectionTypeReference = ParameterizedTypeReference.forType(parameterize(ArrayList.class,
+                    parameterize(EntityModel.class, objectClass)));
+            embeddedCollectionTypeReference = ParameterizedTypeReference.forType(parameterize(EmbeddedCollectionHelper.class,
+                    objectClass));
+        }
+    }
+}
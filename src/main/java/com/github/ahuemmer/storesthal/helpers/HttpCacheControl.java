@@ -0,0 +1,248 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Static store of the freshness of the responses received, as declared by their "Cache-Control" and "Expires" headers
+ * (see {@link StoresthalConfiguration#isHonoringCacheControl()}).
+ * <p>
+ * The freshness is recorded by URI when a response is received and applied by {@link CacheManager} as soon as the
+ * object retrieved from the URI is put into its cache (which may happen a bit later, after its relations have been
+ * resolved). As Storesthal's caches are shared by all callers, they are considered a "shared" cache: Responses
+ * declared "no-store" or "private" are not stored at all. Responses declared "no-cache" may be stored, but have to be
+ * revalidated before each reuse, so they are stale right away (like "max-age=0"): They aren't served from the object
+ * caches, but kept for revalidation by conditional requests (see {@link ConditionalRequests}). "max-age" (reduced by
+ * the "Age" header) takes precedence over "Expires". If a response doesn't declare its freshness, the settings of the
+ * cache apply (see {@link com.github.ahuemmer.storesthal.Cacheable}) - even if an earlier response from the same URI
+ * did.
+ */
+public class HttpCacheControl {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(HttpCacheControl.class);
+
+    /**
+     * The name of the cache keeping the freshness of the responses.
+     */
+    public static final String FRESHNESS_CACHE_NAME = "com.github.ahuemmer.storesthal.cache.freshness";
+
+    /**
+     * The point in time (see {@link System#nanoTime()}) until which the response received from an URI is fresh.
+     * Created by {@link #getDeadlines(StoresthalConfiguration)}.
+     */
+    private static volatile ConcurrentObjectCache<URI, Long> deadlines;
+
+    private HttpCacheControl() {
+    }
+
+    /**
+     * Record the freshness of a response, if it is declared by its headers, or forget the freshness recorded for an
+     * earlier response from the same URI otherwise.
+     *
+     * @param configuration The configuration of the caller.
+     * @param uri           The URI requested.
+     * @param headers       The response headers.
+     */
+    public static void record(StoresthalConfiguration configuration, URI uri, HttpHeaders headers) {
+        Duration timeToLive = getTimeToLive(headers);
+        if (timeToLive != null) {
+            logger.debug("Response from \"{}\" is fresh for {}.", uri, timeToLive);
+            getDeadlines(configuration).put(uri, System.nanoTime() + timeToLive.toNanos());
+        } else {
+            ConcurrentObjectCache<URI, Long> known = deadlines;
+            if (known != null) {
+                known.remove(uri);
+            }
+        }
+    }
+
+    /**
+     * Let an object inherit the freshness of the response it has been retrieved with (e. g. the members of a
+     * collection).
+     *
+     * @param responseUri The URI of the response.
+     * @param objectUri   The URI of the object.
+     */
+    public static void inherit(URI responseUri, URI objectUri) {
+        ConcurrentObjectCache<URI, Long> known = deadlines;
+        if ((known == null) || responseUri.equals(objectUri)) {
+            return;
+        }
+        Long deadline = known.get(responseUri);
+        if (deadline != null) {
+            known.put(objectUri, deadline);
+        } else {
+            known.remove(objectUri);
+        }
+    }
+
+    /**
+     * Get the remaining time for which the object retrieved from an URI may be cached.
+     *
+     * @param uri The URI of the object.
+     * @return The remaining time to live - zero or negative, if the object must not be cached (any more) - or NULL,
+     * if the response didn't declare its freshness.
+     */
+    public static Duration getTimeToLive(URI uri) {
+        ConcurrentObjectCache<URI, Long> known = deadlines;
+        if (known == null) {
+            return null;
+        }
+        Long deadline = known.get(uri);
+        if (deadline == null) {
+            return null;
+        }
+        return Duration.ofNanos(deadline - System.nanoTime());
+    }
+
+    /**
+     * Determine the time for which a response is fresh from its headers.
+     *
+     * @param headers The response headers.
+     * @return The time the response is fresh - zero, if it must not be cached at all or has to be revalidated before
+     * each reuse - or NULL, if the headers don't declare its freshness.
+     */
+    public static Duration getTimeToLive(HttpHeaders headers) {
+        Long maxAge = null;
+        boolean noCache = false;
+
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String normalized = directive.trim().toLowerCase(Locale.ROOT);
+                if (normalized.equals("no-store") || normalized.startsWith("private")) {
+                    return Duration.ZERO;
+                }
+                if (normalized.startsWith("no-cache")) {
+                    noCache = true;
+                }
+                if (normalized.startsWith("max-age=")) {
+                    maxAge = parseSeconds(normalized.substring("max-age=".length()));
+                    if (maxAge == null) {
+                        return Duration.ZERO;
+                    }
+                }
+            }
+        }
+
+        if (noCache) {
+            // Stored, but stale right away (see above).
+            return Duration.ZERO;
+        }
+
+        long age = getAge(headers);
+
+        if (maxAge != null) {
+            return Duration.ofSeconds(Math.max(0, maxAge - age));
+        }
+
+        if (headers.containsKey(HttpHeaders.EXPIRES)) {
+            // An invalid date (like "0") means "already expired".
+            long expires = headers.getExpires();
+            if (expires < 0) {
+                return Duration.ZERO;
+            }
+            long date;
+            try {
+                date = headers.getDate();
+            } catch (IllegalArgumentException e) {
+                date = -1;
+            }
+            if (date < 0) {
+                date = System.currentTimeMillis();
+            }
+            return Duration.ofMillis(Math.max(0, expires - date - age * 1000));
+        }
+
+        return null;
+    }
+
+    /**
+     * Return whether a response may be stored at all (e. g. for revalidating it later, see {@link ConditionalRequests}):
+     * Responses declared "no-store" or "private" must not be kept by a shared cache.
+     *
+     * @param headers The response headers.
+     * @return false, if the response must not be stored.
+     */
+    public static boolean isStorable(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String normalized = directive.trim().toLowerCase(Locale.ROOT);
+                if (normalized.equals("no-store") || normalized.startsWith("private")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the value of the "Age" header of a response.
+     *
+     * @param headers The response headers.
+     * @return The age of the response in seconds (0, if unknown).
+     */
+    private static long getAge(HttpHeaders headers) {
+        String age = headers.getFirst(HttpHeaders.AGE);
+        if (age == null) {
+            return 0;
+        }
+        Long seconds = parseSeconds(age.trim());
+        return (seconds != null) ? seconds : 0;
+    }
+
+    /**
+     * Parse a number of seconds (a "delta-seconds" value, possibly quoted).
+     *
+     * @param value The value to parse.
+     * @return The number of seconds or NULL, if the value is invalid.
+     */
+    private static Long parseSeconds(String value) {
+        String unquoted = (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) ? value.substring(1, value.length() - 1) : value;
+        try {
+            long seconds = Long.parseLong(unquoted);
+            return (seconds >= 0) ? seconds : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the store of the response freshness, creating it on first access.
+     *
+     * @param configuration The configuration to take the store size from.
+     * @return The store of the response freshness.
+     */
+    private static ConcurrentObjectCache<URI, Long> getDeadlines(StoresthalConfiguration configuration) {
+        ConcurrentObjectCache<URI, Long> result = deadlines;
+        if (result == null) {
+            synchronized (HttpCacheControl.class) {
+                result = deadlines;
+                if (result == null) {
+                    result = new ConcurrentObjectCache<>(FRESHNESS_CACHE_NAME, configuration.getDefaultCacheSize());
+                    deadlines = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forget the freshness of all responses received.
+     */
+    public static void clear() {
+        ConcurrentObjectCache<URI, Long> known = deadlines;
+        if (known != null) {
+            known.clear();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.jfr.FetchEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Static statistics of the HTTP transport: The number of requests in progress and the number of bytes received.
+ * <p>
+ * Requests made by the blocking transport (see {@link HttpTransport}) are counted by an interceptor of its
+ * {@link org.springframework.web.client.RestTemplate}s, which is in progress until the response has been read (and
+ * closed) and counts the bytes of the response bodies actually read. Requests made by the reactive transport (see
+ * {@link ReactiveHttpTransport}) are counted as in progress by the reactive retrieval itself, their bytes are not
+ * counted.
+ * <p>
+ * Every request of the blocking transport is recorded as a {@link FetchEvent} as well, if enabled in a JFR recording.
+ */
+public class HttpStatistics {
+
+    /**
+     * The number of requests in progress (incremented on start, decremented on completion).
+     */
+    private static final LongAdder inFlightRequests = new LongAdder();
+
+    /**
+     * The number of bytes of the response bodies received. Can be re-zeroed by {@link #resetStatistics()}.
+     */
+    private static final LongAdder bytesReceived = new LongAdder();
+
+    /**
+     * The number of bytes of the response bodies received by each thread and not taken by
+     * {@link #takeBytesReceived()} yet.
+     */
+    private static final ThreadLocal<long[]> threadBytesReceived = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * The interceptor counting the requests of the blocking transport.
+     */
+    private static final ClientHttpRequestInterceptor INTERCEPTOR = new CountingInterceptor();
+
+    private HttpStatistics() {
+    }
+
+    /**
+     * Get the interceptor counting the requests of a {@link org.springframework.web.client.RestTemplate}.
+     *
+     * @return The (shared) interceptor.
+     */
+    public static ClientHttpRequestInterceptor getInterceptor() {
+        return INTERCEPTOR;
+    }
+
+    /**
+     * Count a request as started.
+     */
+    public static void requestStarted() {
+        inFlightRequests.increment();
+    }
+
+    /**
+     * Count a request as completed (whether successfully or not).
+     *
+     * @param bytes The number of bytes received.
+     */
+    public static void requestCompleted(long bytes) {
+        inFlightRequests.decrement();
+        if (bytes > 0) {
+            bytesReceived.add(bytes);
+            threadBytesReceived.get()[0] += bytes;
+        }
+    }
+
+    /**
+     * Get the number of bytes of the response bodies received by the current thread since the last call, so that
+     * they can be attributed to the object requested (see
+     * {@link CacheManager#recordLoad(String, java.net.URI, Class, long, boolean)}).
+     *
+     * @return The number of bytes received.
+     */
+    public static long takeBytesReceived() {
+        long[] bytes = threadBytesReceived.get();
+        long result = bytes[0];
+        bytes[0] = 0;
+        return result;
+    }
+
+    /**
+     * Get the number of requests in progress at the moment.
+     *
+     * @return The number of requests in progress.
+     */
+    public static int getInFlightRequests() {
+        return CounterMap.saturate(inFlightRequests.sum());
+    }
+
+    /**
+     * Get the number of bytes of the response bodies received.
+     *
+     * @return The number of bytes received since the last statistics reset.
+     */
+    public static long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Re-zero the statistics. The number of requests in progress is not affected, as it isn't a sum.
+     */
+    public static void resetStatistics() {
+        bytesReceived.reset();
+    }
+
+    /**
+     * Interceptor counting a request as in progress until its response is closed.
+     */
+    private static final class CountingInterceptor implements ClientHttpRequestInterceptor {
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+            FetchEvent event = FetchEvent.beginIfEnabled();
+            requestStarted();
+            try {
+                return new CountingResponse(execution.execute(request, body), request, event);
+            } catch (IOException | RuntimeException e) {
+                requestCompleted(0);
+                if (event != null) {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.uri = String.valueOf(request.getURI());
+                        event.commit();
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Response counting the bytes of its body read and completing its request when being closed.
+     */
+    private static final class CountingResponse implements ClientHttpResponse {
+
+        /**
+         * The actual response.
+         */
+        private final ClientHttpResponse delegate;
+
+        /**
+         * The request the response belongs to.
+         */
+        private final HttpRequest request;
+
+        /**
+         * The JFR event of the request, committed when the response is closed. NULL, if not enabled in a recording
+         * when the request started.
+         */
+        private final FetchEvent event;
+
+        /**
+         * The body of the response, counting the bytes read. Created on first access.
+         */
+        private CountingInputStream body;
+
+        /**
+         * Whether the response has been closed.
+         */
+        private boolean closed;
+
+        private CountingResponse(ClientHttpResponse delegate, HttpRequest request, FetchEvent event) {
+            this.delegate = delegate;
+            this.request = request;
+            this.event = event;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long bytes = (body != null) ? body.count : 0;
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.uri = String.valueOf(request.getURI());
+                    event.bytes = bytes;
+                    try {
+                        event.status = delegate.getStatusCode().value();
+                    } catch (IOException e) {
+                        // The status stays unknown.
+                    }
+                    event.commit();
+                }
+            }
+            try {
+                delegate.close();
+            } finally {
+                requestCompleted(bytes);
+            }
+        }
+    }
+
+    /**
+     * Input stream counting the bytes read.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * The number of bytes read so far.
+         */
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                count += result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long result = super.skip(n);
+            count += result;
+            return result;
+        }
+    }
+}
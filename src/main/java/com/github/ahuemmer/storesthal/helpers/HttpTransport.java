@@ -0,0 +1,207 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+
+/**
+ * The HTTP transport used by Storesthal for every request it makes. There is (at most) one transport per
+ * {@link StoresthalConfiguration} (see {@link StoresthalConfiguration#getHttpTransport()}), living as long as the
+ * configuration does.
+ * <p>
+ * The transport is based on a pooled Apache HttpClient, so TCP (and TLS) connections are kept alive and re-used
+ * across requests instead of being opened anew for every object retrieved. The pool limits (total and per host),
+ * the keep-alive duration and the eviction of idle connections can be adjusted using
+ * {@link com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory}.
+ * <p>
+ * The {@link RestTemplate}s (and their message converters) handed out by this class are created only once, too, as
+ * they are thread-safe and rather expensive to set up.
+ * <p>
+ * All requests are counted by {@link HttpStatistics}.
+ */
+public class HttpTransport implements Closeable {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(HttpTransport.class);
+
+    /**
+     * The connection pool all requests are served from.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The (pooling) HTTP client all requests are executed with.
+     */
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * {@link RestTemplate} for retrieving single HAL objects.
+     */
+    private final RestTemplate halObjectRestTemplate;
+
+    /**
+     * {@link RestTemplate} for retrieving HAL collections.
+     */
+    private final RestTemplate halCollectionRestTemplate;
+
+    /**
+     * {@link RestTemplate} for retrieving "primitive" (non-HAL) values.
+     */
+    private final RestTemplate primitiveRestTemplate;
+
+    /**
+     * Create a new transport using the connection settings of the given configuration.
+     *
+     * @param configuration The configuration to take the connection pool settings from.
+     */
+    public HttpTransport(StoresthalConfiguration configuration) {
+
+        logger.debug("Creating HTTP transport (max. {} connections in total, max. {} per host).",
+                configuration.getMaxConnectionsTotal(), configuration.getMaxConnectionsPerHost());
+
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(configuration.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(configuration.getMaxConnectionsPerHost())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionKeepAlive(TimeValue.ofSeconds(configuration.getConnectionKeepAliveSeconds()))
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(configuration.getIdleConnectionEvictionSeconds()))
+                .build();
+
+        ClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+        halObjectRestTemplate = createHalRestTemplate(requestFactory, false);
+        halCollectionRestTemplate = createHalRestTemplate(requestFactory, true);
+        primitiveRestTemplate = createPrimitiveRestTemplate(requestFactory);
+    }
+
+    /**
+     * Return a specialized message converter, supplying {@link org.springframework.hateoas.MediaTypes#HAL_JSON} support.
+     * All HAL converters share the object mapper of {@link HalTypeRegistry}.
+     *
+     * @param collection Whether to regard REST response as a collection, therefore using ArrayList as type
+     * @return HAL supporting message converter
+     */
+    @SuppressWarnings("rawtypes")
+    private static HttpMessageConverter getHalMessageConverter(boolean collection) {
+        MappingJackson2HttpMessageConverter halConverter;
+        if (collection) {
+            halConverter = new TypeConstrainedMappingJackson2HttpMessageConverter(ArrayList.class);
+        } else {
+            halConverter = new TypeConstrainedMappingJackson2HttpMessageConverter(RepresentationModel.class);
+        }
+        halConverter.setSupportedMediaTypes(Collections.singletonList(HAL_JSON));
+        halConverter.setObjectMapper(HalTypeRegistry.getHalObjectMapper());
+        return halConverter;
+    }
+
+    /**
+     * Create a specialized {@link RestTemplate} able to demand and process HAL+JSON data.
+     *
+     * @param requestFactory The (pooling) request factory to use
+     * @param collection     Whether to regard REST response as a collection
+     * @return A specialized {@link RestTemplate} able to demand and process HAL+JSON data.
+     */
+    private static RestTemplate createHalRestTemplate(ClientHttpRequestFactory requestFactory, boolean collection) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(HttpStatistics.getInterceptor());
+
+        List<HttpMessageConverter<?>> existingConverters = restTemplate.getMessageConverters();
+        List<HttpMessageConverter<?>> newConverters = new ArrayList<>();
+        newConverters.add(getHalMessageConverter(collection));
+        newConverters.addAll(existingConverters);
+        restTemplate.setMessageConverters(newConverters);
+
+        return restTemplate;
+    }
+
+    /**
+     * Create a {@link RestTemplate} for retrieving primitive values, accepting any content type.
+     *
+     * @param requestFactory The (pooling) request factory to use
+     * @return A {@link RestTemplate} for primitive value retrieval
+     */
+    private static RestTemplate createPrimitiveRestTemplate(ClientHttpRequestFactory requestFactory) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(HttpStatistics.getInterceptor());
+
+        List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+        converter.setSupportedMediaTypes(Collections.singletonList(MediaType.ALL));
+        messageConverters.add(converter);
+        restTemplate.setMessageConverters(messageConverters);
+
+        return restTemplate;
+    }
+
+    /**
+     * Get the {@link RestTemplate} able to demand and process HAL+JSON data.
+     *
+     * @param collection Whether to regard REST response as a collection
+     * @return The shared {@link RestTemplate} for HAL objects resp. HAL collections
+     */
+    public RestTemplate getHalRestTemplate(boolean collection) {
+        return collection ? halCollectionRestTemplate : halObjectRestTemplate;
+    }
+
+    /**
+     * Get the {@link RestTemplate} for retrieving primitive (non-HAL) values.
+     *
+     * @return The shared {@link RestTemplate} for primitive values
+     */
+    public RestTemplate getPrimitiveRestTemplate() {
+        return primitiveRestTemplate;
+    }
+
+    /**
+     * Get the connection pool of this transport (e. g. for monitoring purposes).
+     *
+     * @return The connection pool
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * Close the transport, shutting down the connection pool and all connections kept alive.
+     * The transport must not be used afterward.
+     *
+     * @throws IOException if the underlying HTTP client cannot be closed properly
+     */
+    @Override
+    public void close() throws IOException {
+        logger.debug("Closing HTTP transport.");
+        httpClient.close();
+    }
+}
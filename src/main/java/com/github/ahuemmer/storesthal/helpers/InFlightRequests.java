@@ -0,0 +1,188 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.StoresthalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Static registry of the requests currently in progress, used to coalesce concurrent requests for the same resource
+ * ("single flight"): The first caller asking for a URI (and target class) performs the request, all callers asking
+ * for the same URI and class while this request is in progress wait for (and get) the very same result instead of
+ * issuing requests of their own.
+ * <p>
+ * This closes the gap between a cache miss and the cache being populated, in which many threads asking for the same
+ * {@link com.github.ahuemmer.storesthal.Cacheable} object would otherwise all call the service. For objects, a
+ * "request" is the whole retrieval (including the traversal of all relations and putting the object into the cache),
+ * as the result is shared with the callers waiting for it. As soon as the request has finished, it is removed from
+ * the registry, so later callers will go to the cache (or perform a new request).
+ */
+public class InFlightRequests {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(InFlightRequests.class);
+
+    /**
+     * The requests currently in progress by URI and target class.
+     */
+    private static final Map<RequestKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests which were served by a request already in progress, for statistics creation.
+     * Can be re-zeroed by {@link #resetStatistics()}.
+     */
+    private static final LongAdder coalescedRequests = new LongAdder();
+
+    private InFlightRequests() {
+    }
+
+    /**
+     * Perform a (blocking) request, unless the same request is already in progress. In that case, wait for the
+     * request in progress and return its result.
+     *
+     * @param uri         The URI to be requested.
+     * @param targetClass The class the result is converted to.
+     * @param request     The request to be performed, if none is in progress.
+     * @param <T>         The type of the result.
+     * @return The result of the request (possibly shared with other callers).
+     * @throws StoresthalException if the request (whether performed by this or by another caller) fails.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T coalesce(URI uri, Class<?> targetClass, Request<T> request) throws StoresthalException {
+
+        RequestKey key = new RequestKey(uri, targetClass);
+        CompletableFuture<Object> ownRequest = new CompletableFuture<>();
+        CompletableFuture<Object> requestInProgress = inFlight.putIfAbsent(key, ownRequest);
+
+        if (requestInProgress != null) {
+            logger.debug("Waiting for request to \"{}\" already in progress.", uri);
+            coalescedRequests.increment();
+            return (T) await(requestInProgress, uri);
+        }
+
+        try {
+            T result = request.perform();
+            ownRequest.complete(result);
+            return result;
+        } catch (StoresthalException | RuntimeException e) {
+            ownRequest.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownRequest);
+        }
+    }
+
+    /**
+     * Start an asynchronous request, unless the same request is already in progress. In that case, the future of the
+     * request in progress is returned.
+     *
+     * @param uri         The URI to be requested.
+     * @param targetClass The class the result is converted to.
+     * @param request     Supplier starting the request to be performed, if none is in progress.
+     * @param <T>         The type of the result.
+     * @return A future completing with the result of the request (possibly shared with other callers).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<T> coalesceAsync(URI uri, Class<?> targetClass, Supplier<CompletableFuture<T>> request) {
+
+        RequestKey key = new RequestKey(uri, targetClass);
+        CompletableFuture<Object> ownRequest = new CompletableFuture<>();
+        CompletableFuture<Object> requestInProgress = inFlight.putIfAbsent(key, ownRequest);
+
+        if (requestInProgress != null) {
+            logger.debug("Joining request to \"{}\" already in progress.", uri);
+            coalescedRequests.increment();
+            return (CompletableFuture<T>) requestInProgress.copy();
+        }
+
+        try {
+            request.get().whenComplete((result, e) -> {
+                inFlight.remove(key, ownRequest);
+                if (e != null) {
+                    ownRequest.completeExceptionally(e);
+                } else {
+                    ownRequest.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, ownRequest);
+            ownRequest.completeExceptionally(e);
+        }
+
+        return (CompletableFuture<T>) ownRequest.copy();
+    }
+
+    /**
+     * Wait for a request in progress.
+     *
+     * @param requestInProgress The future of the request in progress.
+     * @param uri               The URI requested (for error messages).
+     * @return The result of the request.
+     * @throws StoresthalException if the request failed or waiting was interrupted.
+     */
+    private static Object await(CompletableFuture<Object> requestInProgress, URI uri) throws StoresthalException {
+        try {
+            return requestInProgress.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoresthalException("Interrupted while waiting for request to \"" + uri + "\".", e);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof StoresthalException storesthalException) {
+                throw storesthalException;
+            }
+            throw new StoresthalException("Exception trying to get object from " + uri, e.getCause());
+        }
+    }
+
+    /**
+     * Get the number of requests which were served by a request already in progress.
+     *
+     * @return The number of coalesced requests since the last statistics reset.
+     */
+    public static int getCoalescedRequests() {
+        return CounterMap.saturate(coalescedRequests.sum());
+    }
+
+    /**
+     * Re-zero the statistics.
+     */
+    public static void resetStatistics() {
+        coalescedRequests.reset();
+    }
+
+    /**
+     * A (blocking) request to be performed.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface Request<T> {
+
+        /**
+         * Perform the request.
+         *
+         * @return The result of the request.
+         * @throws StoresthalException if the request fails.
+         */
+        T perform() throws StoresthalException;
+    }
+
+    /**
+     * Key of a request in progress.
+     *
+     * @param uri         The URI requested.
+     * @param targetClass The class the result is converted to.
+     */
+    private record RequestKey(URI uri, Class<?> targetClass) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.StoresthalListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Static registry of the {@link StoresthalListener}s, passing the events on to all of them.
+ * <p>
+ * Listeners are registered rarely, but notified all the time, so they are kept in a copy-on-write list and nothing is
+ * done at all as long as there are no listeners.
+ */
+public class Listeners {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(Listeners.class);
+
+    /**
+     * The listeners registered.
+     */
+    private static final List<StoresthalListener> listeners = new CopyOnWriteArrayList<>();
+
+    private Listeners() {
+    }
+
+    /**
+     * Register a listener.
+     *
+     * @param listener The listener to register.
+     */
+    public static void add(StoresthalListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener.
+     *
+     * @param listener The listener to unregister.
+     */
+    public static void remove(StoresthalListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Pass the creation of a cache on to all listeners (see {@link StoresthalListener#cacheCreated(String)}).
+     *
+     * @param cacheName The name of the cache created.
+     */
+    public static void cacheCreated(String cacheName) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (StoresthalListener listener : listeners) {
+            try {
+                listener.cacheCreated(cacheName);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} failed to handle the creation of cache \"{}\".", listener, cacheName, e);
+            }
+        }
+    }
+
+    /**
+     * Pass the completion of a request on to all listeners (see
+     * {@link StoresthalListener#requestCompleted(String, URI, Class, long, long, boolean)}).
+     *
+     * @param cacheName   The name of the cache of the objects requested.
+     * @param uri         The URI requested.
+     * @param objectClass The class of the objects requested.
+     * @param nanos       The time taken by the request in nanoseconds.
+     * @param bytes       The number of bytes of the response body received.
+     * @param succeeded   Whether the request succeeded.
+     */
+    public static void requestCompleted(String cacheName, URI uri, Class<?> objectClass, long nanos, long bytes, boolean succeeded) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (StoresthalListener listener : listeners) {
+            try {
+                listener.requestCompleted(cacheName, uri, objectClass, nanos, bytes, succeeded);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} failed to handle the completion of the request for \"{}\".", listener, uri, e);
+            }
+        }
+    }
+
+    /**
+     * Pass the completion of a retrieval on to all listeners (see
+     * {@link StoresthalListener#retrievalCompleted(Class, boolean, int)}).
+     *
+     * @param objectClass         The class of the object (or collection items) retrieved.
+     * @param collection          Whether a collection has been retrieved.
+     * @param materializedObjects The number of objects created from the responses during the retrieval.
+     */
+    public static void retrievalCompleted(Class<?> objectClass, boolean collection, int materializedObjects) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (StoresthalListener listener : listeners) {
+            try {
+                listener.retrievalCompleted(objectClass, collection, materializedObjects);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} failed to handle the completion of a retrieval of \"{}\".", listener, objectClass.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.StoresthalException;
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static store of the resources known to be missing, i. e. answered by "404 Not Found" or "410 Gone" (see
+ * {@link StoresthalConfiguration#getNegativeCacheSeconds()}).
+ * <p>
+ * Without it, a relation pointing to a missing resource would be requested (and fail) again on every retrieval of an
+ * object structure containing it, as only objects retrieved successfully are cached. Instead, retrieving a resource
+ * known to be missing fails right away, without calling the service, until the time it is remembered has passed.
+ * Other failures (like server errors or timeouts) are considered transient and are not remembered.
+ * <p>
+ * The missing resources are kept per cache name of the objects requested (see
+ * {@link CacheManager#getCacheName(Class)}), at most {@link StoresthalConfiguration#getNegativeCacheSize()} of them
+ * for each cache, evicting the least recently used ones.
+ */
+public class NegativeCache {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(NegativeCache.class);
+
+    /**
+     * The prefix of the names of the caches keeping the missing resources (followed by the name of the object cache).
+     */
+    public static final String NEGATIVE_CACHE_NAME_PREFIX = "com.github.ahuemmer.storesthal.cache.missing.";
+
+    /**
+     * The HTTP status received for the missing resources by URI, per cache name.
+     */
+    private static final Map<String, ConcurrentObjectCache<URI, Integer>> missingResources = new ConcurrentHashMap<>();
+
+    /**
+     * The number of retrievals failed right away because the resource was known to be missing, per cache name.
+     * Can be re-zeroed by {@link #resetStatistics()}.
+     */
+    private static final CounterMap negativeHits = new CounterMap();
+
+    private NegativeCache() {
+    }
+
+    /**
+     * Return whether missing resources are remembered according to a configuration.
+     *
+     * @param configuration The configuration.
+     * @return true, if missing resources are remembered.
+     */
+    public static boolean isEnabled(StoresthalConfiguration configuration) {
+        return !configuration.isCachingDisabled() && (configuration.getNegativeCacheSeconds() > 0) && (configuration.getNegativeCacheSize() > 0);
+    }
+
+    /**
+     * Make sure, a resource isn't known to be missing before requesting it.
+     *
+     * @param configuration The configuration of the caller.
+     * @param cacheName     The cache name of the object requested.
+     * @param uri           The URI of the resource.
+     * @throws StoresthalException if the resource is known to be missing.
+     */
+    public static void check(StoresthalConfiguration configuration, String cacheName, URI uri) throws StoresthalException {
+        if (!isEnabled(configuration)) {
+            return;
+        }
+        ConcurrentObjectCache<URI, Integer> missing = missingResources.get(cacheName);
+        if (missing == null) {
+            return;
+        }
+        Integer status = missing.get(uri);
+        if (status != null) {
+            logger.debug("\"{}\" is known to be missing (HTTP {}), not requesting it again.", uri, status);
+            negativeHits.increment(cacheName);
+            throw new StoresthalException("Resource " + uri + " is known to be missing (HTTP " + status + ")!");
+        }
+    }
+
+    /**
+     * Remember a resource as missing, if the request for it has failed because it doesn't exist.
+     *
+     * @param configuration The configuration of the caller.
+     * @param cacheName     The cache name of the object requested.
+     * @param uri           The URI of the resource.
+     * @param failure       The failure of the request (either a {@link HttpStatusCodeException} or a
+     *                      {@link WebClientResponseException} for a missing resource - anything else is ignored).
+     */
+    public static void record(StoresthalConfiguration configuration, String cacheName, URI uri, Throwable failure) {
+        if (!isEnabled(configuration)) {
+            return;
+        }
+        int status = getStatus(failure);
+        if ((status == HttpStatus.NOT_FOUND.value()) || (status == HttpStatus.GONE.value())) {
+            logger.debug("\"{}\" is missing (HTTP {}), remembering it for {} seconds.", uri, status, configuration.getNegativeCacheSeconds());
+            missingResources.computeIfAbsent(cacheName, name -> new ConcurrentObjectCache<>(NEGATIVE_CACHE_NAME_PREFIX + name, configuration.getNegativeCacheSize(),
+                    CachePolicy.LRU, Duration.ofSeconds(configuration.getNegativeCacheSeconds()), Duration.ZERO)).put(uri, status);
+        }
+    }
+
+    /**
+     * Get the HTTP status of a failed request.
+     *
+     * @param failure The failure of the request.
+     * @return The HTTP status or -1, if the request didn't fail because of the status received.
+     */
+    private static int getStatus(Throwable failure) {
+        if (failure instanceof HttpStatusCodeException e) {
+            return e.getStatusCode().value();
+        }
+        if (failure instanceof WebClientResponseException e) {
+            return e.getStatusCode().value();
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of resources currently known to be missing for a cache.
+     *
+     * @param cacheName The cache name of the objects requested.
+     * @return The number of missing resources.
+     */
+    public static int getMissingCount(String cacheName) {
+        ConcurrentObjectCache<URI, Integer> missing = missingResources.get(cacheName);
+        return (missing != null) ? missing.size() : 0;
+    }
+
+    /**
+     * Forget the resources known to be missing for a cache.
+     *
+     * @param cacheName The cache name of the objects requested.
+     */
+    public static void clear(String cacheName) {
+        ConcurrentObjectCache<URI, Integer> missing = missingResources.get(cacheName);
+        if (missing != null) {
+            missing.clear();
+        }
+    }
+
+    /**
+     * Forget all resources known to be missing.
+     */
+    public static void clear() {
+        missingResources.values().forEach(ConcurrentObjectCache::clear);
+    }
+
+    /**
+     * Get the number of retrievals failed right away because the resource was known to be missing, per cache name.
+     *
+     * @return An immutable snapshot of the number of negative cache hits per cache.
+     */
+    public static Map<String, Integer> getNegativeHits() {
+        return negativeHits.snapshot();
+    }
+
+    /**
+     * Reset the number of negative cache hits.
+     */
+    public static void resetStatistics() {
+        negativeHits.clear();
+    }
+
+    /**
+     * Reset the number of negative cache hits of a cache.
+     *
+     * @param cacheName The cache name of the objects requested.
+     */
+    public static void resetStatistics(String cacheName) {
+        negativeHits.remove(cacheName);
+    }
+}
@@ -0,0 +1,237 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+import com.github.ahuemmer.storesthal.cache.Weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Weigher} estimating the retained size (in bytes) of a cached object, i. e. the size of the object itself and
+ * of all objects reachable from it - assuming a 64 bit JVM using compressed references.
+ * <p>
+ * The estimate is meant for bounding the caches against a heap budget, so it is rather cheap than exact: The object
+ * graph is walked by reflection (the field layout of every class is determined only once), stopping at objects of
+ * other {@link Cacheable} classes (which are cached - and weighed - on their own), at classes and enum constants
+ * (which are shared anyway) and after {@link #MAX_OBJECTS} objects. Collections, maps and strings are estimated by
+ * their contents instead of their (JDK internal) fields.
+ */
+public final class ObjectSizeEstimator implements Weigher<Object, Object> {
+
+    /**
+     * The shared instance (the estimator is stateless).
+     */
+    public static final ObjectSizeEstimator INSTANCE = new ObjectSizeEstimator();
+
+    /**
+     * The maximum number of objects visited per estimation.
+     */
+    static final int MAX_OBJECTS = 10_000;
+
+    /**
+     * The size of an object header.
+     */
+    private static final int OBJECT_HEADER = 12;
+
+    /**
+     * The size of an array header (including the length).
+     */
+    private static final int ARRAY_HEADER = 16;
+
+    /**
+     * The size of a (compressed) reference.
+     */
+    private static final int REFERENCE = 4;
+
+    /**
+     * The estimated size of the internal node of a collection or map entry (e. g. a {@code HashMap.Node}).
+     */
+    private static final int ENTRY_OVERHEAD = 32;
+
+    /**
+     * The shallow size and the reference fields of every class encountered.
+     */
+    private static final ClassValue<Layout> layouts = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    @Override
+    public long weigh(Object key, Object value) {
+        return estimate(value);
+    }
+
+    /**
+     * Estimate the retained size of an object (see above).
+     *
+     * @param root The object
+     * @return The estimated size in bytes
+     */
+    public static long estimate(Object root) {
+        if (root == null) {
+            return 0;
+        }
+
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        visited.add(root);
+        long size = 0;
+
+        while (!pending.isEmpty() && visited.size() <= MAX_OBJECTS) {
+            Object current = pending.pop();
+            Class<?> type = current.getClass();
+
+            if (current instanceof String string) {
+                size += align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + string.length());
+                continue;
+            }
+
+            if (type.isArray()) {
+                int length = Array.getLength(current);
+                Class<?> componentType = type.getComponentType();
+                size += align(ARRAY_HEADER + (long) length * sizeOf(componentType));
+                if (!componentType.isPrimitive()) {
+                    for (int i = 0; i < length; i++) {
+                        follow(Array.get(current, i), root, visited, pending);
+                    }
+                }
+                continue;
+            }
+
+            if (current instanceof Collection<?> collection) {
+                size += align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+                for (Object element : collection) {
+                    follow(element, root, visited, pending);
+                }
+                continue;
+            }
+
+            if (current instanceof Map<?, ?> map) {
+                size += align(OBJECT_HEADER + 20) + align(ARRAY_HEADER + (long) map.size() * REFERENCE) + (long) map.size() * ENTRY_OVERHEAD;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    follow(entry.getKey(), root, visited, pending);
+                    follow(entry.getValue(), root, visited, pending);
+                }
+                continue;
+            }
+
+            Layout layout = layouts.get(type);
+            size += layout.shallowSize();
+            for (Field field : layout.references()) {
+                try {
+                    follow(field.get(current), root, visited, pending);
+                } catch (IllegalAccessException e) {
+                    // Not accessible after all, the field only counts as a reference then.
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Schedule an object referenced for being visited, unless it is to be skipped (see above).
+     *
+     * @param object  The object referenced
+     * @param root    The object being estimated
+     * @param visited The objects visited so far
+     * @param pending The objects still to be visited
+     */
+    private static void follow(Object object, Object root, Set<Object> visited, Deque<Object> pending) {
+        if ((object == null) || (object instanceof Class<?>) || (object instanceof Enum<?>)) {
+            return;
+        }
+        if ((object != root) && (object.getClass().getDeclaredAnnotation(Cacheable.class) != null)) {
+            return;
+        }
+        if (visited.add(object)) {
+            pending.push(object);
+        }
+    }
+
+    /**
+     * Get the size of a field or array element of the given type.
+     *
+     * @param type The type
+     * @return The size in bytes
+     */
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    /**
+     * Align a size to the object alignment (8 bytes).
+     *
+     * @param size The size
+     * @return The aligned size
+     */
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * The shallow size of the instances of a class and their (accessible) reference fields.
+     *
+     * @param shallowSize The shallow size of an instance
+     * @param references  The reference fields to follow
+     */
+    private record Layout(long shallowSize, Field[] references) {
+
+        /**
+         * Determine the layout of a class.
+         *
+         * @param type The class
+         * @return The layout
+         */
+        private static Layout of(Class<?> type) {
+            long size = OBJECT_HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    size += sizeOf(field.getType());
+                    if (!field.getType().isPrimitive()) {
+                        try {
+                            field.setAccessible(true);
+                            references.add(field);
+                        } catch (InaccessibleObjectException | SecurityException e) {
+                            // E. g. JDK internals: Only the reference itself is counted.
+                        }
+                    }
+                }
+            }
+            return new Layout(align(size), references.toArray(new Field[0]));
+        }
+    }
+}
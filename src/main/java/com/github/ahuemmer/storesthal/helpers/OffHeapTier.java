@@ -0,0 +1,238 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.cache.OffHeapStore;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Static second level of the object caches, keeping the objects evicted from them outside of the Java heap (see
+ * {@link StoresthalConfiguration#getOffHeapCacheBytes()}).
+ * <p>
+ * Frequently used ("hot") objects stay in the caches managed by {@link CacheManager}. Objects evicted from them
+ * ("cold" ones) are serialized (using Java serialization, so only objects implementing {@link Serializable} are kept)
+ * into an {@link OffHeapStore} shared by all caches. If an object is requested again, it is deserialized and moves
+ * back to its cache. Note, that the deserialized object is a copy of the evicted one (as are the objects it refers to).
+ * <p>
+ * Serializing the objects takes its time, so it isn't done by the thread evicting them (which holds the eviction lock
+ * of the cache meanwhile): Evicted objects are queued and serialized by a background thread. Until then, they are
+ * still found (and moved back to their cache) as they are.
+ * <p>
+ * Objects of caches expiring their objects are never moved off the heap, as the store doesn't know about expiry.
+ */
+public class OffHeapTier {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapTier.class);
+
+    /**
+     * The store of the serialized objects. Created by {@link #getStore(StoresthalConfiguration)}.
+     */
+    private static volatile OffHeapStore<Key> store;
+
+    /**
+     * The objects evicted, but not serialized into the {@link #store} yet.
+     */
+    private static final Map<Key, Object> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The background thread serializing the evicted objects. Created by {@link #getSpillExecutor()}.
+     */
+    private static ExecutorService spillExecutor;
+
+    private OffHeapTier() {
+    }
+
+    /**
+     * Return whether the off-heap tier is enabled by a configuration.
+     *
+     * @param configuration The configuration.
+     * @return true, if objects evicted from the caches are to be kept off the heap.
+     */
+    public static boolean isEnabled(StoresthalConfiguration configuration) {
+        return configuration.getOffHeapCacheBytes() > 0;
+    }
+
+    /**
+     * Keep an object evicted from a cache off the heap, if it is serializable. The object is only queued here and
+     * serialized in the background.
+     *
+     * @param configuration The configuration to take the size of the store from.
+     * @param cacheName     The name of the cache the object has been evicted from.
+     * @param uri           The URI of the object.
+     * @param object        The object.
+     */
+    public static void spill(StoresthalConfiguration configuration, String cacheName, URI uri, Object object) {
+        Key key = new Key(cacheName, uri);
+        pending.put(key, object);
+        getSpillExecutor().execute(() -> write(configuration, key, object));
+    }
+
+    /**
+     * Serialize a queued object into the off-heap store, unless it has been restored, removed or replaced in the
+     * meantime.
+     *
+     * @param configuration The configuration to take the size of the store from.
+     * @param key           The key of the object.
+     * @param object        The object.
+     */
+    private static void write(StoresthalConfiguration configuration, Key key, Object object) {
+        if (pending.get(key) != object) {
+            return;
+        }
+        byte[] data = SerializationHelper.serialize(object);
+        if (data == null) {
+            pending.remove(key, object);
+            return;
+        }
+        OffHeapStore<Key> current = getStore(configuration);
+        boolean stored = current.put(key, data);
+        if (!pending.remove(key, object)) {
+            // Restored, removed or replaced while being serialized.
+            current.remove(key);
+        } else if (stored) {
+            logger.debug("Moved object with URI {} evicted from cache \"{}\" off-heap.", key.uri(), key.cacheName());
+        }
+    }
+
+    /**
+     * Wait until all objects evicted so far have been moved off the heap (or discarded, if they aren't serializable).
+     */
+    public static void flush() {
+        try {
+            getSpillExecutor().submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Could not move evicted objects off-heap.", e);
+        }
+    }
+
+    /**
+     * Take an object kept off the heap for a cache, removing it from the off-heap store.
+     *
+     * @param cacheName The name of the cache the object has been evicted from.
+     * @param uri       The URI of the object.
+     * @return The (deserialized) object or NULL, if it isn't kept off-heap.
+     */
+    public static Object restore(String cacheName, URI uri) {
+        Key key = new Key(cacheName, uri);
+        Object queued = pending.remove(key);
+        if (queued != null) {
+            return queued;
+        }
+        OffHeapStore<Key> current = store;
+        if (current == null) {
+            return null;
+        }
+        byte[] data = current.take(key);
+        if (data == null) {
+            return null;
+        }
+        return SerializationHelper.deserialize(data);
+    }
+
+    /**
+     * Forget an object kept off the heap (e. g. because a fresh one has been put into its cache).
+     *
+     * @param cacheName The name of the cache.
+     * @param uri       The URI of the object.
+     */
+    public static void remove(String cacheName, URI uri) {
+        Key key = new Key(cacheName, uri);
+        pending.remove(key);
+        OffHeapStore<Key> current = store;
+        if (current != null) {
+            current.remove(key);
+        }
+    }
+
+    /**
+     * Forget all objects kept off the heap for a cache.
+     *
+     * @param cacheName The name of the cache.
+     */
+    public static void clear(String cacheName) {
+        pending.keySet().removeIf(key -> key.cacheName().equals(cacheName));
+        OffHeapStore<Key> current = store;
+        if (current != null) {
+            current.removeIf(key -> key.cacheName().equals(cacheName));
+        }
+    }
+
+    /**
+     * Get the number of objects kept off the heap.
+     *
+     * @return The number of objects.
+     */
+    public static int getObjectCount() {
+        OffHeapStore<Key> current = store;
+        return (current != null) ? current.size() : 0;
+    }
+
+    /**
+     * Get the total size of the (serialized) objects kept off the heap.
+     *
+     * @return The size in bytes.
+     */
+    public static long getUsedBytes() {
+        OffHeapStore<Key> current = store;
+        return (current != null) ? current.getUsedBytes() : 0;
+    }
+
+    /**
+     * Get the off-heap store, creating it on first access.
+     *
+     * @param configuration The configuration to take the size of the store from.
+     * @return The off-heap store.
+     */
+    private static OffHeapStore<Key> getStore(StoresthalConfiguration configuration) {
+        OffHeapStore<Key> result = store;
+        if (result == null) {
+            synchronized (OffHeapTier.class) {
+                result = store;
+                if (result == null) {
+                    result = new OffHeapStore<>(configuration.getOffHeapCacheBytes());
+                    store = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the background thread serializing the evicted objects, creating it on first access.
+     *
+     * @return The executor.
+     */
+    private static synchronized ExecutorService getSpillExecutor() {
+        if (spillExecutor == null) {
+            spillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "storesthal-off-heap-spill");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return spillExecutor;
+    }
+
+    /**
+     * The key of an object kept off the heap.
+     *
+     * @param cacheName The name of the cache the object has been evicted from.
+     * @param uri       The URI of the object.
+     */
+    private record Key(String cacheName, URI uri) {
+    }
+}
@@ -2,23 +2,29 @@ package com.github.ahuemmer.storesthal.helpers;
 
 import com.github.ahuemmer.storesthal.Storesthal;
 import com.github.ahuemmer.storesthal.StoresthalException;
-import org.springframework.http.HttpEntity;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PrimitiveValueRetriever {
 
-    private static int httpCalls = 0;
+    private static final LongAdder httpCalls = new LongAdder();
+
+    /**
+     * The primitive classes supported by their names.
+     */
+    private static final Map<String, Class<?>> PRIMITIVE_CLASSES = Map.of(
+            Integer.class.getName(), Integer.class, Double.class.getName(), Double.class,
+            Boolean.class.getName(), Boolean.class, String.class.getName(), String.class);
 
     private PrimitiveValueRetriever() {
     }
@@ -35,6 +41,23 @@ public class PrimitiveValueRetriever {
      * @throws com.github.ahuemmer.storesthal.StoresthalException If it was not possible to retrieve a Primitive
      */
     public static <T> T getPrimitive(Class<T> primitiveClass, String url, boolean doCache, String cacheName) throws StoresthalException {
+        return getPrimitive(Storesthal.getConfiguration(), primitiveClass, url, doCache, cacheName);
+    }
+
+    /**
+     * Retrieve a primitive value (no special object...) from the given URL, using the HTTP transport of the given
+     * configuration.
+     *
+     * @param configuration  The configuration to take the HTTP transport from.
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param url            The URL to retrieve the primitive from.
+     * @param doCache        Whether to cache the results or not. See cacheName parameter for details.
+     * @param cacheName      The name of the cache to used when retrieving the primitive or NULL, if no cache is to be used.
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return The primitive retrieved.
+     * @throws com.github.ahuemmer.storesthal.StoresthalException If it was not possible to retrieve a Primitive
+     */
+    public static <T> T getPrimitive(StoresthalConfiguration configuration, Class<T> primitiveClass, String url, boolean doCache, String cacheName) throws StoresthalException {
 
         URI uri;
 
@@ -51,46 +74,112 @@ public class PrimitiveValueRetriever {
             if (cacheName != null) {
                 cacheNameToUse = cacheName;
             }
-            result = CacheManager.getObjectFromCache(uri, primitiveClass, cacheNameToUse);
+            result = CacheManager.getObjectFromCache(configuration, uri, primitiveClass, cacheNameToUse);
             if (result != null) {
                 return result;
             }
         }
 
-        RestTemplate restTemplate = new RestTemplate();
+        // Primitive values are immutable, so concurrent requests for the same one can always be coalesced:
+        String loadCacheName = cacheNameToUse;
+        result = InFlightRequests.coalesce(uri, primitiveClass, () -> requestPrimitive(configuration, primitiveClass, uri, url, loadCacheName));
+
+        if (doCache) {
+            CacheManager.putObjectInCache(configuration, uri, result, cacheNameToUse);
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieve a cached primitive value anew (bypassing the cache) and put it into the cache. Used for refreshing
+     * stale values (see {@link com.github.ahuemmer.storesthal.Cacheable#refreshAfterWriteSeconds()}).
+     *
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param url            The URL to retrieve the primitive from.
+     * @param cacheName      The name of the cache the primitive is stored in.
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return The primitive retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Primitive
+     */
+    public static <T> T refreshPrimitive(Class<T> primitiveClass, String url, String cacheName) throws StoresthalException {
+        URI uri;
+
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new StoresthalException("Could not create URI from url\"" + url + "\"!", e);
+        }
+
+        StoresthalConfiguration configuration = Storesthal.getConfiguration();
+        T result = InFlightRequests.coalesce(uri, primitiveClass, () -> requestPrimitive(configuration, primitiveClass, uri, url, cacheName));
+        CacheManager.putObjectInCache(configuration, uri, result, cacheName);
+        return result;
+    }
+
+    /**
+     * Return whether objects of the given class are retrieved as primitive values (and not as HAL objects).
+     *
+     * @param cls The class to check.
+     * @return true, if the class is one of the primitive classes supported.
+     */
+    public static boolean isPrimitive(Class<?> cls) {
+        return (cls == Integer.class) || (cls == Double.class) || (cls == Boolean.class) || (cls == String.class);
+    }
+
+    /**
+     * Get one of the primitive classes supported by its name, without loading any other class (e. g. for resolving
+     * the response types read from a snapshot, see {@link CacheSnapshot}).
+     *
+     * @param name The (fully qualified) class name.
+     * @return The primitive class or NULL, if the name doesn't denote one of the primitive classes supported.
+     */
+    static Class<?> getPrimitiveClass(String name) {
+        return PRIMITIVE_CLASSES.get(name);
+    }
+
+    /**
+     * Perform the HTTP call for retrieving a primitive value.
+     *
+     * @param configuration  The configuration to take the HTTP transport from.
+     * @param primitiveClass The primitive class to be retrieved.
+     * @param uri            The URI to retrieve the primitive from.
+     * @param url            The URL to retrieve the primitive from (as given by the caller, for error messages).
+     * @param cacheName      The name of the cache the primitive is (or would be) stored in, for statistics creation.
+     * @param <T>            The type of the primitive class to be retrieved.
+     * @return The primitive retrieved.
+     * @throws StoresthalException If it was not possible to retrieve a Primitive
+     */
+    private static <T> T requestPrimitive(StoresthalConfiguration configuration, Class<T> primitiveClass, URI uri, String url, String cacheName) throws StoresthalException {
+        RestTemplate restTemplate = configuration.getHttpTransport().getPrimitiveRestTemplate();
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(Collections.singletonList(MediaType.ALL));
-        List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.setSupportedMediaTypes(Collections.singletonList(MediaType.ALL));
-        messageConverters.add(converter);
-        restTemplate.setMessageConverters(messageConverters);
-
-        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
         // TODO: Das hier funktioniert noch nicht richtig, es wird kein Integer zurückgegeben, sondern eine Fehlermeldung.
         //       (Siehe Test in FiBu)
 
+        long start = System.nanoTime();
+        boolean succeeded = false;
         try {
-            httpCalls += 1;
-            result = restTemplate.exchange(uri, HttpMethod.GET, requestEntity, primitiveClass).getBody();
+            httpCalls.increment();
+            // Primitive values are immutable, so they can always be revalidated by a conditional request.
+            T result = ConditionalRequests.exchange(configuration, uri, primitiveClass, headers, true,
+                    requestEntity -> restTemplate.exchange(uri, HttpMethod.GET, requestEntity, primitiveClass));
+            succeeded = true;
+            return result;
         } catch (RestClientException e) {
             throw new StoresthalException("Unable to extract scalar of type \"" + primitiveClass.getName() + "\" from url \"" + url + "\"!", e);
+        } finally {
+            CacheManager.recordLoad(cacheName, uri, primitiveClass, System.nanoTime() - start, succeeded);
         }
-
-        if (doCache) {
-            CacheManager.putObjectInCache(uri, result, cacheNameToUse);
-        }
-
-        return result;
     }
 
     public static void resetStatistics() {
-        httpCalls = 0;
+        httpCalls.reset();
     }
 
     public static int getHttpCalls() {
-        return httpCalls;
+        return CounterMap.saturate(httpCalls.sum());
     }
 
 }
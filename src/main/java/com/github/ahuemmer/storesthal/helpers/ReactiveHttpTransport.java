@@ -0,0 +1,94 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+
+/**
+ * The non-blocking HTTP transport used by {@link com.github.ahuemmer.storesthal.ReactiveStoresthal}. Like
+ * {@link HttpTransport}, there is (at most) one reactive transport per {@link StoresthalConfiguration} (see
+ * {@link StoresthalConfiguration#getReactiveHttpTransport()}), living as long as the configuration does.
+ * <p>
+ * The transport is based on a Reactor Netty connection pool and a {@link WebClient} decoding HAL content using the
+ * shared object mapper of {@link HalTypeRegistry}. Reactor Netty keeps one pool per remote host, so the pool size is
+ * taken from {@link StoresthalConfiguration#getMaxConnectionsPerHost()}.
+ */
+public class ReactiveHttpTransport implements Closeable {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveHttpTransport.class);
+
+    /**
+     * The connection pool all requests are served from.
+     */
+    private final ConnectionProvider connectionProvider;
+
+    /**
+     * The web client all requests are made with.
+     */
+    private final WebClient webClient;
+
+    /**
+     * Create a new reactive transport using the connection settings of the given configuration.
+     *
+     * @param configuration The configuration to take the connection pool settings from.
+     */
+    public ReactiveHttpTransport(StoresthalConfiguration configuration) {
+
+        logger.debug("Creating reactive HTTP transport (max. {} connections per host).", configuration.getMaxConnectionsPerHost());
+
+        connectionProvider = ConnectionProvider.builder("storesthal")
+                .maxConnections(configuration.getMaxConnectionsPerHost())
+                .maxIdleTime(Duration.ofSeconds(configuration.getIdleConnectionEvictionSeconds()))
+                .evictInBackground(Duration.ofSeconds(configuration.getIdleConnectionEvictionSeconds()))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider).keepAlive(true);
+
+        ExchangeStrategies exchangeStrategies = ExchangeStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(HalTypeRegistry.getHalObjectMapper(), HAL_JSON, MediaType.APPLICATION_JSON));
+                    // Just like the blocking transport, don't limit the size of responses:
+                    configurer.defaultCodecs().maxInMemorySize(-1);
+                })
+                .build();
+
+        webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(exchangeStrategies)
+                .build();
+    }
+
+    /**
+     * Get the {@link WebClient} of this transport.
+     *
+     * @return The shared {@link WebClient}
+     */
+    public WebClient getWebClient() {
+        return webClient;
+    }
+
+    /**
+     * Close the transport, disposing the connection pool and all connections kept alive.
+     * The transport must not be used afterward.
+     */
+    @Override
+    public void close() {
+        logger.debug("Closing reactive HTTP transport.");
+        connectionProvider.dispose();
+    }
+}
@@ -2,15 +2,29 @@ package com.github.ahuemmer.storesthal.helpers;
 
 import com.github.ahuemmer.storesthal.HALRelation;
 import com.github.ahuemmer.storesthal.Storesthal;
+import com.github.ahuemmer.storesthal.binding.ObjectBinder;
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
 import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashSet;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * Static helper class bundling some reflection related methods.
@@ -23,61 +37,6 @@ public class ReflectionHelper {
      */
     private static final Logger logger = LoggerFactory.getLogger(ReflectionHelper.class);
 
-    /**
-     * Get all methods of a class having a specific annotation
-     * @param objectClass The class to search for the annotation
-     * @return All methods of the object class having the annotation specified (if any)
-     */
-    @SuppressWarnings("rawtypes")
-    private static Set<Method> getMethodsAnnotatedWith(Class objectClass) {
-
-        Set<Method> result = new HashSet<>();
-
-        for (Method m: objectClass.getMethods()) {
-            for (Annotation a: m.getAnnotationsByType((Class<? extends Annotation>) HALRelation.class)) {
-                result.add(m);
-            }
-        }
-
-        return result;
-
-    }
-
-    /**
-     * Get all fields of a class having a specific annotation
-     * @param objectClass The class to search for the annotation
-     * @return All fields of the object class having the annotation specified (if any)
-     */
-    private static Set<Field> getFieldsAnnotatedWith(Class objectClass) {
-
-        Set<Field> result = new HashSet<>();
-
-        for (Field f: objectClass.getDeclaredFields()) {
-            for (Annotation a: f.getAnnotationsByType((Class<? extends Annotation>) HALRelation.class)) {
-                result.add(f);
-            }
-        }
-
-        return result;
-
-    }
-
-    /**
-     * Look up a setter method of a specific class
-     * @param objectClass The class to search for the setter
-     * @param methodName The setter method name to be searched for
-     * @return The first matching method encountered (if any) or null.
-     * TODO: Consider searching for method parameter as well for reasons of type safety!
-     */
-    private static Method searchForSetterByMethodName(Class objectClass, String methodName) {
-        for (Method m: objectClass.getMethods()) {
-            if (m.getName().equals(methodName) && (m.getParameterCount() == 1)) {
-                return m;
-            }
-        }
-        return null;
-    }
-
     /**
      * Return the input string with the first character being converted to lower case
      * @param input The input string
@@ -136,59 +95,287 @@ public class ReflectionHelper {
      * @return A matching setter method or `null` if none was found.
      */
     public static Method searchForSetter(Class objectClass, String rel) {
+        return relationTables.get(objectClass).getSetter(rel, Storesthal.getConfiguration().isAnnotationless());
+    }
+
+    /**
+     * Get the binding of a relation of a specific object class, i. e. its setter (searched as described at
+     * {@link #searchForSetter(Class, String)}) along with the type to set.
+     * <p>
+     * The relations of a class are looked up once and kept in an immutable table (per class, see
+     * {@link RelationTable}), so this is a single hash lookup for all but the first object of a class. The bindings
+     * (including their accessors, see {@link #createSetter(Method)}) are created on first use of a relation.
+     * <p>
+     * If a binder has been generated for the class at compile time (see {@link ObjectBinder}), it is used instead
+     * (unless in annotationless mode), so no reflection is involved at all. Relations unknown to the binder are still
+     * looked up by reflection, so that they are treated just the same way.
+     *
+     * @param objectClass The class of the object where the setter is to be searched for.
+     * @param rel         The name of the relation
+     * @return The binding of the relation or `null` if no setter was found.
+     */
+    public static RelationBinding getRelationBinding(Class<?> objectClass, String rel) {
+        boolean annotationless = Storesthal.getConfiguration().isAnnotationless();
+        if (!annotationless) {
+            ObjectBinder binder = Binders.get(objectClass);
+            if (binder != null) {
+                RelationBinding binding = binder.getRelation(rel);
+                if (binding != null) {
+                    return binding;
+                }
+            }
+        }
+        return relationTables.get(objectClass).get(rel, annotationless);
+    }
 
-        ReflectionHelper.logger.debug("Searching setter for relation \""+rel+"\" for object class \""+objectClass.getCanonicalName()+"\"");
+    /**
+     * Create the binding of a setter by reflection.
+     *
+     * @param setter The setter (having exactly one parameter)
+     * @return The binding (creating its collections by reflection, see {@link RelationBinding#collectionFactory()})
+     */
+    private static RelationBinding createBinding(Method setter) {
+        Class<?> type = setter.getParameterTypes()[0];
+        boolean collection = Collection.class.isAssignableFrom(type);
+        Class<?> elementType = null;
+        if (collection && (setter.getGenericParameterTypes()[0] instanceof ParameterizedType parameterizedType)
+                && (parameterizedType.getActualTypeArguments()[0] instanceof Class<?> cls)) {
+            elementType = cls;
+        }
+        return new RelationBinding(setter.getName(), type, collection, elementType, createSetter(setter), null);
+    }
 
-        if (Storesthal.getConfiguration().isAnnotationless()) {
-            String methodName = "set"+ ReflectionHelper.ucFirst(rel);
-            Method m = searchForSetterByMethodName(objectClass, methodName);
-            if (m==null) {
-                ReflectionHelper.logger.warn("No setter found for relation \""+rel+"\" in class \""+objectClass.getCanonicalName()+"\"!");
+    /**
+     * Create an accessor invoking a setter (or any other method taking exactly one parameter), to be used instead of
+     * {@link Method#invoke(Object, Object...)} when populating lots of objects.
+     * <p>
+     * If possible, the accessor is generated by the {@link LambdaMetafactory}, so it calls the setter directly (and
+     * can be inlined by the JIT compiler), just like a method reference would. If the setter's class can't be
+     * accessed this way (e. g. because it is located in a module not opened to Storesthal), a {@link MethodHandle}
+     * is used, and if even that is not possible, the accessor falls back to reflection.
+     * <p>
+     * Exceptions thrown by the setter are passed through if unchecked, else wrapped in an
+     * {@link UndeclaredThrowableException}. Invoking the accessor with an object or parameter of the wrong type
+     * causes a {@link ClassCastException} or {@link IllegalArgumentException}.
+     *
+     * @param setter The setter
+     * @return The accessor, taking the object to invoke the setter on and the parameter
+     */
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> createSetter(Method setter) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(setter.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(setter);
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Cannot access \"{}\" by a method handle, using reflection: {}", setter, e.toString());
+            return (object, parameter) -> invokeReflectively(setter, object, parameter);
+        }
+
+        try {
+            MethodType instantiatedType = MethodType.methodType(void.class, setter.getDeclaringClass(),
+                    MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType());
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle, instantiatedType);
+            return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            logger.debug("Cannot generate an accessor for \"{}\", using its method handle: {}", setter, e.toString());
+        }
+
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (object, parameter) -> {
+            try {
+                generic.invokeExact(object, parameter);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    /**
+     * Invoke a setter by reflection, unwrapping the exceptions thrown by it (see {@link #createSetter(Method)}).
+     *
+     * @param setter    The setter
+     * @param object    The object to invoke the setter on
+     * @param parameter The parameter
+     */
+    private static void invokeReflectively(Method setter, Object object, Object parameter) {
+        try {
+            setter.invoke(object, parameter);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access method \"" + setter.getName() + "\" of " + setter.getDeclaringClass().getCanonicalName(), e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-            else {
-                ReflectionHelper.logger.debug("Setter for relation \"" + rel + "\" for object class \"" + objectClass.getCanonicalName() + "\" found: " + m.getName()+" (annotationless mode!)");
+            if (e.getCause() instanceof Error error) {
+                throw error;
             }
-            return m;
+            throw new UndeclaredThrowableException(e.getCause());
         }
-        else {
-            Set<Method> methods = getMethodsAnnotatedWith(objectClass);
-            for (Method m: methods) {
-                if (m.getAnnotation(HALRelation.class).value().equals(rel)) {
-                    if (m.getParameterCount() == 1) {
-                        ReflectionHelper.logger.debug("Setter for relation \""+rel+"\" for object class \""+objectClass.getCanonicalName()+"\" found: "+m.getName());
-                        return m;
-                    }
-                    ReflectionHelper.logger.warn("Method \""+m.getName()+"\" is annotated with \""+HALRelation.class.getName()+"\" and would be a suitable setter candidate for relation \""+rel+"\", but has the wrong number of parameters!");
+    }
+
+    /**
+     * The relation tables by class, created on first use.
+     */
+    private static final ClassValue<RelationTable> relationTables = new ClassValue<>() {
+        @Override
+        protected RelationTable computeValue(Class<?> type) {
+            return new RelationTable(type);
+        }
+    };
+
+    /**
+     * The immutable table of the relations of one class, for both the annotation based and the annotationless mode
+     * (see {@link #searchForSetter(Class, String)}).
+     */
+    private static final class RelationTable {
+
+        /**
+         * The class the table belongs to.
+         */
+        private final Class<?> objectClass;
+
+        /**
+         * The setters of the relations declared by {@link HALRelation} annotations by relation name.
+         */
+        private final Map<String, Method> annotated;
+
+        /**
+         * All setters by the relation names matching them in annotationless mode (e. g. both `parent` and `Parent`
+         * for `setParent`).
+         */
+        private final Map<String, Method> byName;
+
+        /**
+         * The bindings of the setters, created on first use (as most setters found in annotationless mode will never
+         * be used for a relation).
+         */
+        private final Map<Method, RelationBinding> bindings = new ConcurrentHashMap<>();
+
+        /**
+         * Whether there is a field annotated with {@link HALRelation} without a value, in which case every relation
+         * having a setter matching its name is bound (as in annotationless mode), if not declared otherwise.
+         */
+        private final boolean unnamedField;
+
+        /**
+         * The relations no setter has been found for, so that this is only warned about once per relation.
+         */
+        private final Set<String> unbound = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Look up the relations of a class.
+         *
+         * @param objectClass The class
+         */
+        private RelationTable(Class<?> objectClass) {
+            this.objectClass = objectClass;
+
+            // The first matching setter encountered wins (as returned by getMethods()):
+            Map<String, Method> setters = new LinkedHashMap<>();
+            for (Method m : objectClass.getMethods()) {
+                if (m.getName().startsWith("set") && (m.getParameterCount() == 1)) {
+                    setters.putIfAbsent(m.getName(), m);
+                }
+            }
+
+            Map<String, Method> names = new HashMap<>();
+            for (Method m : setters.values()) {
+                String suffix = m.getName().substring(3);
+                if (suffix.isEmpty()) {
+                    continue;
                 }
-                else if (m.getAnnotation(HALRelation.class).value().equals("")) {
-                    if (ReflectionHelper.lcFirst(m.getName().substring(3)).equals(rel)) {
-                        ReflectionHelper.logger.debug("Setter for relation \""+rel+"\" for object class \""+objectClass.getCanonicalName()+"\" found: "+m.getName());
-                        return m;
+                for (String rel : new String[]{suffix, lcFirst(suffix)}) {
+                    if (m.getName().equals("set" + ucFirst(rel))) {
+                        names.putIfAbsent(rel, m);
                     }
                 }
             }
-            //Nothing found up to now, let's go on and search the fields...
-            Set<Field> fields = getFieldsAnnotatedWith(objectClass);
-            for (Field f: fields) {
-                if (f.getAnnotation(HALRelation.class).value().equals(rel)) {
-                    String methodName = "set"+ ReflectionHelper.ucFirst(f.getName());
-                    Method m = searchForSetterByMethodName(objectClass, methodName);
-                    if (m!=null) {
-                        ReflectionHelper.logger.debug("Setter for relation \""+rel+"\" for object class \""+objectClass.getCanonicalName()+"\" found: "+m.getName());
-                        return m;
-                    }
+            this.byName = Map.copyOf(names);
+
+            Map<String, Method> relations = new HashMap<>();
+            for (Method m : objectClass.getMethods()) {
+                HALRelation annotation = m.getAnnotation(HALRelation.class);
+                if (annotation == null) {
+                    continue;
                 }
-                else if (f.getAnnotation(HALRelation.class).value().equals("")) {
-                    String methodName = "set"+ ReflectionHelper.ucFirst(rel);
-                    Method m = searchForSetterByMethodName(objectClass, methodName);
-                    if (m!=null) {
-                        ReflectionHelper.logger.debug("Setter for relation \""+rel+"\" for object class \""+objectClass.getCanonicalName()+"\" found: "+m.getName());
-                        return m;
+                if (m.getParameterCount() != 1) {
+                    logger.warn("Method \"{}\" is annotated with \"{}\" and would be a suitable setter candidate for relation \"{}\", but has the wrong number of parameters!",
+                            m.getName(), HALRelation.class.getName(), annotation.value().isEmpty() ? m.getName() : annotation.value());
+                } else if (!annotation.value().isEmpty()) {
+                    relations.putIfAbsent(annotation.value(), m);
+                } else if (m.getName().length() > 3) {
+                    relations.putIfAbsent(lcFirst(m.getName().substring(3)), m);
+                }
+            }
+
+            boolean unnamed = false;
+            for (Field f : objectClass.getDeclaredFields()) {
+                HALRelation annotation = f.getAnnotation(HALRelation.class);
+                if (annotation == null) {
+                    continue;
+                }
+                if (annotation.value().isEmpty()) {
+                    unnamed = true;
+                } else {
+                    Method m = setters.get("set" + ucFirst(f.getName()));
+                    if (m != null) {
+                        relations.putIfAbsent(annotation.value(), m);
                     }
                 }
             }
-            ReflectionHelper.logger.warn("No setter found for relation \""+rel+"\" in class \""+objectClass.getCanonicalName()+"\"!");
-            return null;
+            this.annotated = Map.copyOf(relations);
+            this.unnamedField = unnamed;
+
+            logger.debug("Relations of class \"{}\": {}", objectClass.getName(), annotated.keySet());
+        }
+
+        /**
+         * Get the binding of a relation.
+         *
+         * @param rel            The name of the relation
+         * @param annotationless Whether the setter is to be searched by its name only (see
+         *                       {@link StoresthalConfiguration#isAnnotationless()})
+         * @return The binding or NULL, if no setter was found
+         */
+        private RelationBinding get(String rel, boolean annotationless) {
+            Method setter = getSetter(rel, annotationless);
+            if (setter == null) {
+                return null;
+            }
+            RelationBinding binding = bindings.get(setter);
+            if (binding == null) {
+                binding = bindings.computeIfAbsent(setter, ReflectionHelper::createBinding);
+            }
+            return binding;
+        }
+
+        /**
+         * Get the setter of a relation.
+         *
+         * @param rel            The name of the relation
+         * @param annotationless Whether the setter is to be searched by its name only (see
+         *                       {@link StoresthalConfiguration#isAnnotationless()})
+         * @return The setter or NULL, if none was found
+         */
+        private Method getSetter(String rel, boolean annotationless) {
+            Method result;
+            if (annotationless) {
+                result = byName.get(rel);
+            } else {
+                result = annotated.get(rel);
+                if ((result == null) && unnamedField) {
+                    result = byName.get(rel);
+                }
+            }
+            if ((result == null) && unbound.add(rel)) {
+                logger.warn("No setter found for relation \"{}\" in class \"{}\"!", rel, objectClass.getCanonicalName());
+            }
+            return result;
         }
     }
 }
@@ -0,0 +1,246 @@
+package com.github.ahuemmer.storesthal.helpers;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Static helper functions for (Java-)serializing cached objects, e. g. for keeping them outside of the Java heap (see
+ * {@link OffHeapTier}) or on disk (see {@link DiskTier}).
+ * <p>
+ * As the serialized objects may come from files (which may have been tampered with), only the classes of cached
+ * objects are deserialized: Classes annotated with {@link Cacheable} along with the classes their fields refer to,
+ * value types of the Java base module (like strings, numbers or dates) and the common collections. The depth of the
+ * object graph, the number of references and the length of arrays are limited as well. Anything else is rejected.
+ */
+public class SerializationHelper {
+
+    /**
+     * The logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(SerializationHelper.class);
+
+    /**
+     * The maximum depth of an object graph deserialized.
+     */
+    static final int MAX_DEPTH = 64;
+
+    /**
+     * The maximum number of object references in an object graph deserialized.
+     */
+    static final int MAX_REFERENCES = 100_000;
+
+    /**
+     * The maximum length of an array deserialized.
+     */
+    static final int MAX_ARRAY_LENGTH = 1_000_000;
+
+    /**
+     * The classes of the Java base module which may be deserialized besides those matched by
+     * {@link #ALLOWED_JDK_CLASS_PREFIXES}.
+     */
+    private static final Set<Class<?>> ALLOWED_JDK_CLASSES = Set.of(
+            String.class, Boolean.class, Character.class, Number.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, Enum.class, URI.class,
+            UUID.class, Date.class, ArrayList.class, LinkedList.class, ArrayDeque.class, CopyOnWriteArrayList.class,
+            HashMap.class, LinkedHashMap.class, TreeMap.class, EnumMap.class, ConcurrentHashMap.class, HashSet.class,
+            LinkedHashSet.class, TreeSet.class, Arrays.asList().getClass());
+
+    /**
+     * Prefixes of the names of further classes of the Java base module which may be deserialized: Date and time
+     * values and the (unmodifiable, empty, singleton, ...) collections created by the factory methods.
+     */
+    private static final String[] ALLOWED_JDK_CLASS_PREFIXES = {
+            "java.time.", "java.util.Collections$", "java.util.ImmutableCollections$", "java.util.CollSer",
+            "java.util.EnumSet$", "java.util.RegularEnumSet", "java.util.JumboEnumSet",
+            "java.util.concurrent.ConcurrentHashMap$Segment"};
+
+    /**
+     * The application classes which may be deserialized: Classes annotated with {@link Cacheable} and the classes
+     * their fields refer to (see {@link #allow(Class)}).
+     */
+    private static final Set<Class<?>> allowedClasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The filter applied to all objects deserialized (see above).
+     */
+    private static final ObjectInputFilter filter = SerializationHelper::checkInput;
+
+    private SerializationHelper() {
+    }
+
+    /**
+     * Serialize an object.
+     *
+     * @param object The object.
+     * @return The serialized object or NULL, if it isn't serializable (not implementing {@link Serializable} itself
+     * or referring to an object not doing so).
+     */
+    public static byte[] serialize(Object object) {
+        if (!(object instanceof Serializable)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        } catch (IOException e) {
+            logger.debug("Object of class \"" + object.getClass().getCanonicalName() + "\" could not be serialized.", e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserialize an object.
+     *
+     * @param data The serialized object.
+     * @return The object or NULL, if it could not be deserialized (e. g. because its class has changed meanwhile or it
+     * has been rejected by the filter, see above).
+     */
+    public static Object deserialize(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(filter);
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("Cached object could not be deserialized.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Check a class (or the size of the object graph) encountered while deserializing.
+     *
+     * @param info The class and the size of the object graph so far.
+     * @return Whether to allow or reject the class.
+     */
+    private static ObjectInputFilter.Status checkInput(ObjectInputFilter.FilterInfo info) {
+        if ((info.depth() > MAX_DEPTH) || (info.references() > MAX_REFERENCES) || (info.arrayLength() > MAX_ARRAY_LENGTH)) {
+            logger.warn("Rejected deserializing an object graph exceeding the limits (depth {}, {} references, array length {}).",
+                    info.depth(), info.references(), info.arrayLength());
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        Class<?> cls = info.serialClass();
+        if (cls == null) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls.isPrimitive() || (cls == Object.class) || cls.isEnum() || isAllowedJdkClass(cls) || allowedClasses.contains(cls)) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        if (cls.getDeclaredAnnotation(Cacheable.class) != null) {
+            allow(cls);
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        logger.warn("Rejected deserializing an object of class \"{}\", as it isn't a cached class.", cls.getName());
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    /**
+     * Return whether a class of the Java base module may be deserialized.
+     *
+     * @param cls The class.
+     * @return true, if the class is a value type or collection allowed (see above).
+     */
+    private static boolean isAllowedJdkClass(Class<?> cls) {
+        if (ALLOWED_JDK_CLASSES.contains(cls)) {
+            return true;
+        }
+        String name = cls.getName();
+        for (String prefix : ALLOWED_JDK_CLASS_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Allow deserializing an application class along with its superclasses and the classes its (serialized) fields
+     * refer to, including the type arguments of generic fields (e. g. the element type of a collection).
+     *
+     * @param cls The class.
+     */
+    static void allow(Class<?> cls) {
+        while ((cls != null) && (cls != Object.class) && !isJdkClass(cls) && allowedClasses.add(cls)) {
+            for (Field field : cls.getDeclaredFields()) {
+                if ((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT)) == 0) {
+                    allow(field.getGenericType());
+                }
+            }
+            cls = cls.getSuperclass();
+        }
+    }
+
+    /**
+     * Allow deserializing the classes a (possibly generic) field type refers to.
+     *
+     * @param type The field type.
+     */
+    private static void allow(Type type) {
+        if (type instanceof Class<?> cls) {
+            while (cls.isArray()) {
+                cls = cls.getComponentType();
+            }
+            if (!cls.isPrimitive()) {
+                allow(cls);
+            }
+        } else if (type instanceof ParameterizedType parameterized) {
+            allow(parameterized.getRawType());
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                allow(argument);
+            }
+        } else if (type instanceof GenericArrayType array) {
+            allow(array.getGenericComponentType());
+        } else if (type instanceof WildcardType wildcard) {
+            for (Type bound : wildcard.getUpperBounds()) {
+                allow(bound);
+            }
+        }
+    }
+
+    /**
+     * Return whether a class belongs to the JDK, so it isn't allowed just because a field refers to it.
+     *
+     * @param cls The class.
+     * @return true, if the class belongs to the JDK.
+     */
+    private static boolean isJdkClass(Class<?> cls) {
+        String name = cls.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+}
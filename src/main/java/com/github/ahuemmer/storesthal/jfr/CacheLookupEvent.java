@@ -0,0 +1,74 @@
+package com.github.ahuemmer.storesthal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.URI;
+
+/**
+ * JFR event of a lookup of an object in its cache (see
+ * {@link com.github.ahuemmer.storesthal.helpers.CacheManager#getObjectFromCache(java.net.URI, Class, String)}).
+ * Lookups happen all the time, so no stack traces are recorded for them.
+ */
+@Name("com.github.ahuemmer.storesthal.CacheLookup")
+@Label("Cache Lookup")
+@Category("Storesthal")
+@Description("A lookup of an object in a Storesthal cache")
+@StackTrace(false)
+public final class CacheLookupEvent extends jdk.jfr.Event {
+
+    /**
+     * The type of this event, telling whether it is enabled in a running recording.
+     */
+    private static final EventType TYPE = EventType.getEventType(CacheLookupEvent.class);
+
+    /**
+     * The name of the cache.
+     */
+    @Label("Cache Name")
+    public String cacheName;
+
+    /**
+     * The URI of the object looked up.
+     */
+    @Label("URI")
+    public String uri;
+
+    /**
+     * Whether the object has been found.
+     */
+    @Label("Hit")
+    public boolean hit;
+
+    /**
+     * Where the object has been found: "heap", "offHeap" or "disk" (or "none" for a miss).
+     */
+    @Label("Tier")
+    public String tier;
+
+    /**
+     * Create and commit an event for a lookup, but only if it is enabled in a running recording, so that lookups
+     * don't allocate an event otherwise.
+     *
+     * @param cacheName The name of the cache.
+     * @param uri       The URI of the object looked up.
+     * @param tier      Where the object has been found or NULL, if it hasn't been found.
+     */
+    public static void commitIfEnabled(String cacheName, URI uri, String tier) {
+        if (!TYPE.isEnabled()) {
+            return;
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.shouldCommit()) {
+            event.cacheName = cacheName;
+            event.uri = uri.toString();
+            event.hit = (tier != null);
+            event.tier = (tier != null) ? tier : "none";
+            event.commit();
+        }
+    }
+}
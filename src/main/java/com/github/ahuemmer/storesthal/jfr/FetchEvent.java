@@ -0,0 +1,58 @@
+package com.github.ahuemmer.storesthal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of an HTTP request made for an object, a collection or a primitive value, lasting from sending the request
+ * until the response has been read.
+ */
+@Name("com.github.ahuemmer.storesthal.Fetch")
+@Label("HTTP Fetch")
+@Category("Storesthal")
+@Description("An HTTP request made by Storesthal")
+public final class FetchEvent extends jdk.jfr.Event {
+
+    /**
+     * The type of this event, telling whether it is enabled in a running recording.
+     */
+    private static final EventType TYPE = EventType.getEventType(FetchEvent.class);
+
+    /**
+     * The URI requested.
+     */
+    @Label("URI")
+    public String uri;
+
+    /**
+     * The HTTP status received (0, if no response has been received or the status isn't known).
+     */
+    @Label("Status")
+    public int status;
+
+    /**
+     * The number of bytes of the response body read.
+     */
+    @Label("Bytes Received")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Create and begin an event for an HTTP request, but only if it is enabled in a running recording, so that
+     * requests don't allocate an event otherwise.
+     *
+     * @return The event or NULL, if it isn't enabled.
+     */
+    public static FetchEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        FetchEvent event = new FetchEvent();
+        event.begin();
+        return event;
+    }
+}
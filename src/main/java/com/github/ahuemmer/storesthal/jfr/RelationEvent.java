@@ -0,0 +1,56 @@
+package com.github.ahuemmer.storesthal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of the resolution of a relation of an object during a sequential retrieval, including the retrieval of
+ * the related object (or collection members) and its own relations.
+ */
+@Name("com.github.ahuemmer.storesthal.Relation")
+@Label("Relation Resolution")
+@Category("Storesthal")
+@Description("The resolution of a relation by Storesthal")
+public final class RelationEvent extends jdk.jfr.Event {
+
+    /**
+     * The type of this event, telling whether it is enabled in a running recording.
+     */
+    private static final EventType TYPE = EventType.getEventType(RelationEvent.class);
+
+    /**
+     * The name of the relation.
+     */
+    @Label("Relation")
+    public String rel;
+
+    /**
+     * The URI the relation points to.
+     */
+    @Label("URI")
+    public String uri;
+
+    /**
+     * The depth of the object having the relation in the object structure (0 for the object requested).
+     */
+    @Label("Depth")
+    public int depth;
+
+    /**
+     * Create and begin an event for the resolution of a relation, but only if it is enabled in a running recording, so that
+     * relations don't allocate an event otherwise.
+     *
+     * @return The event or NULL, if it isn't enabled.
+     */
+    public static RelationEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RelationEvent event = new RelationEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.ahuemmer.storesthal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a retrieval by {@link com.github.ahuemmer.storesthal.Storesthal#getObject(String, Class)} or
+ * {@link com.github.ahuemmer.storesthal.Storesthal#getCollection(String, Class)} (or one of their variants),
+ * lasting until the whole object structure has been resolved.
+ */
+@Name("com.github.ahuemmer.storesthal.Retrieval")
+@Label("Retrieval")
+@Category("Storesthal")
+@Description("A getObject or getCollection call of Storesthal")
+public final class RetrievalEvent extends jdk.jfr.Event {
+
+    /**
+     * The type of this event, telling whether it is enabled in a running recording.
+     */
+    private static final EventType TYPE = EventType.getEventType(RetrievalEvent.class);
+
+    /**
+     * The URL requested.
+     */
+    @Label("URL")
+    public String url;
+
+    /**
+     * The class of the object (or collection items) requested.
+     */
+    @Label("Object Class")
+    public Class<?> objectClass;
+
+    /**
+     * Whether a collection has been requested.
+     */
+    @Label("Collection")
+    public boolean collection;
+
+    /**
+     * The number of objects created from the responses of the service.
+     */
+    @Label("Objects")
+    public int objectCount;
+
+    /**
+     * The number of HTTP requests made (none, if another thread was retrieving the same object already).
+     */
+    @Label("HTTP Calls")
+    public int httpCalls;
+
+    /**
+     * Create and begin an event for a retrieval, but only if it is enabled in a running recording, so that
+     * retrievals don't allocate an event otherwise.
+     *
+     * @return The event or NULL, if it isn't enabled.
+     */
+    public static RetrievalEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RetrievalEvent event = new RetrievalEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.ahuemmer.storesthal.metrics;
+
+import com.github.ahuemmer.storesthal.Storesthal;
+import com.github.ahuemmer.storesthal.StoresthalListener;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.HttpStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the statistics of Storesthal to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ *     <li>{@code storesthal.cache.gets} (tagged {@code result=hit} or {@code result=miss}),
+ *     {@code storesthal.cache.evictions}, {@code storesthal.cache.size} and {@code storesthal.cache.bytes} per
+ *     cache (tagged {@code cache}),</li>
+ *     <li>{@code storesthal.http.requests}, timing the HTTP requests (tagged {@code cache}, {@code host},
+ *     {@code class} and {@code outcome}, with percentiles),</li>
+ *     <li>{@code storesthal.http.requests.active} (see {@link HttpStatistics}),</li>
+ *     <li>{@code storesthal.http.bytes.received}, counting the bytes of the response bodies received by blocking
+ *     requests (tagged {@code host} and {@code class}) and</li>
+ *     <li>{@code storesthal.retrieval.objects}, the number of objects created from the responses per
+ *     {@code getObject} or {@code getCollection} call (tagged {@code class} and {@code operation}).</li>
+ * </ul>
+ * The cache meters and the active requests read the statistics of Storesthal when being polled, the HTTP timers, byte
+ * counters and retrieval summaries are recorded by a {@link StoresthalListener} (and registered once per combination
+ * of tags). So, re-zeroing the statistics (see {@link Storesthal#resetStatistics()}) re-zeroes the cache counters as
+ * well.
+ * <p>
+ * Micrometer is an optional dependency of Storesthal, so it has to be on the class path for using this class.
+ */
+public class StoresthalMetrics implements MeterBinder, AutoCloseable {
+
+    /**
+     * The percentiles published by default for the HTTP requests and the objects per retrieval.
+     */
+    public static final double[] DEFAULT_PERCENTILES = {0.5, 0.95, 0.99};
+
+    /**
+     * The tags added to all meters.
+     */
+    private final Iterable<Tag> tags;
+
+    /**
+     * The percentiles published for the HTTP requests and the objects per retrieval.
+     */
+    private final double[] percentiles;
+
+    /**
+     * The listeners registered by {@link #bindTo(MeterRegistry)}, to be unregistered by {@link #close()}.
+     */
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create a binder publishing the {@link #DEFAULT_PERCENTILES} without any additional tags.
+     */
+    public StoresthalMetrics() {
+        this(Tags.empty());
+    }
+
+    /**
+     * Create a binder publishing the {@link #DEFAULT_PERCENTILES}.
+     *
+     * @param tags The tags to add to all meters.
+     */
+    public StoresthalMetrics(Iterable<Tag> tags) {
+        this(tags, DEFAULT_PERCENTILES);
+    }
+
+    /**
+     * Create a binder.
+     *
+     * @param tags        The tags to add to all meters.
+     * @param percentiles The percentiles to publish for the HTTP requests and the objects per retrieval (between 0
+     *                    and 1).
+     */
+    public StoresthalMetrics(Iterable<Tag> tags, double... percentiles) {
+        this.tags = tags;
+        this.percentiles = percentiles.clone();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("storesthal.http.requests.active", HttpStatistics.class, statistics -> HttpStatistics.getInFlightRequests())
+                .tags(tags)
+                .description("The number of HTTP requests in progress")
+                .register(registry);
+
+        // Register the listener first, so that no cache created in the meantime is missed.
+        MetricsListener listener = new MetricsListener(registry);
+        listeners.add(listener);
+        Storesthal.addListener(listener);
+
+        for (String cacheName : CacheManager.getCacheNames()) {
+            listener.cacheCreated(cacheName);
+        }
+    }
+
+    /**
+     * Stop recording the HTTP requests and retrievals. The meters already registered are kept.
+     */
+    @Override
+    public void close() {
+        for (MetricsListener listener : listeners) {
+            Storesthal.removeListener(listener);
+        }
+        listeners.clear();
+    }
+
+    /**
+     * Listener registering the meters of new caches and recording the HTTP requests and retrievals.
+     */
+    private final class MetricsListener implements StoresthalListener {
+
+        /**
+         * The registry to publish to.
+         */
+        private final MeterRegistry registry;
+
+        /**
+         * The names of the caches whose meters have been registered. The meters only keep weak references to the
+         * names, which are kept alive this way.
+         */
+        private final Set<String> cacheNames = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The timers of the HTTP requests, registered on first use.
+         */
+        private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+
+        /**
+         * The counters of the bytes received, registered on first use.
+         */
+        private final Map<SourceKey, Counter> bytesReceived = new ConcurrentHashMap<>();
+
+        /**
+         * The summaries of the objects per retrieval, registered on first use.
+         */
+        private final Map<RetrievalKey, DistributionSummary> retrievalSummaries = new ConcurrentHashMap<>();
+
+        private MetricsListener(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void cacheCreated(String cacheName) {
+            if (!cacheNames.add(cacheName)) {
+                return;
+            }
+
+            Tags cacheTags = Tags.of(tags).and("cache", cacheName);
+
+            FunctionCounter.builder("storesthal.cache.gets", cacheName, CacheManager::getCacheHitCount)
+                    .tags(cacheTags.and("result", "hit"))
+                    .description("The number of objects found in the cache")
+                    .register(registry);
+
+            FunctionCounter.builder("storesthal.cache.gets", cacheName, CacheManager::getCacheMissCount)
+                    .tags(cacheTags.and("result", "miss"))
+                    .description("The number of objects not found in the cache")
+                    .register(registry);
+
+            FunctionCounter.builder("storesthal.cache.evictions", cacheName, CacheManager::getEvictionCount)
+                    .tags(cacheTags)
+                    .description("The number of objects evicted from the cache")
+                    .register(registry);
+
+            Gauge.builder("storesthal.cache.size", cacheName, CacheManager::getCachedObjectCount)
+                    .tags(cacheTags)
+                    .description("The number of objects in the cache")
+                    .register(registry);
+
+            Gauge.builder("storesthal.cache.bytes", cacheName, CacheManager::getCachedByteCount)
+                    .tags(cacheTags)
+                    .description("The estimated size of the objects in the cache (if it is limited by size)")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+
+        @Override
+        public void requestCompleted(String cacheName, URI uri, Class<?> objectClass, long nanos, long bytes, boolean succeeded) {
+            String host = (uri.getHost() != null) ? uri.getHost() : "none";
+            requestTimers.computeIfAbsent(new RequestKey(cacheName, host, objectClass, succeeded), key ->
+                    Timer.builder("storesthal.http.requests")
+                            .tags(tags)
+                            .tags("cache", key.cacheName(), "host", key.host(), "class", key.objectClass().getName(),
+                                    "outcome", key.succeeded() ? "success" : "failure")
+                            .description("The HTTP requests made for objects, collections and primitive values")
+                            .publishPercentiles(percentiles)
+                            .register(registry)
+            ).record(nanos, TimeUnit.NANOSECONDS);
+
+            if (bytes > 0) {
+                bytesReceived.computeIfAbsent(new SourceKey(host, objectClass), key ->
+                        Counter.builder("storesthal.http.bytes.received")
+                                .tags(tags)
+                                .tags("host", key.host(), "class", key.objectClass().getName())
+                                .description("The number of bytes of the response bodies received")
+                                .baseUnit("bytes")
+                                .register(registry)
+                ).increment(bytes);
+            }
+        }
+
+        @Override
+        public void retrievalCompleted(Class<?> objectClass, boolean collection, int materializedObjects) {
+            retrievalSummaries.computeIfAbsent(new RetrievalKey(objectClass, collection), key ->
+                    DistributionSummary.builder("storesthal.retrieval.objects")
+                            .tags(tags)
+                            .tags("class", key.objectClass().getName(), "operation", key.collection() ? "getCollection" : "getObject")
+                            .description("The number of objects created from the responses per retrieval")
+                            .baseUnit("objects")
+                            .publishPercentiles(percentiles)
+                            .register(registry)
+            ).record(materializedObjects);
+        }
+    }
+
+    /**
+     * The tags of an HTTP request timer.
+     *
+     * @param cacheName   The name of the cache of the objects requested.
+     * @param host        The host requested.
+     * @param objectClass The class of the objects requested.
+     * @param succeeded   Whether the requests succeeded.
+     */
+    private record RequestKey(String cacheName, String host, Class<?> objectClass, boolean succeeded) {
+    }
+
+    /**
+     * The tags of a counter of the bytes received.
+     *
+     * @param host        The host requested.
+     * @param objectClass The class of the objects requested.
+     */
+    private record SourceKey(String host, Class<?> objectClass) {
+    }
+
+    /**
+     * The tags of a summary of the objects per retrieval.
+     *
+     * @param objectClass The class of the object (or collection items) retrieved.
+     * @param collection  Whether collections have been retrieved.
+     */
+    private record RetrievalKey(Class<?> objectClass, boolean collection) {
+    }
+}
@@ -0,0 +1,457 @@
+package com.github.ahuemmer.storesthal.binding;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+import com.github.ahuemmer.storesthal.HALRelation;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor generating an {@link ObjectBinder} for every class using {@link HALRelation} or
+ * {@link Cacheable}, so that Storesthal doesn't need reflection for binding relations (which is faster, speeds up
+ * warming up and plays well with ahead-of-time compilation, e. g. by GraalVM native images).
+ * <p>
+ * The binder of a class is generated into the package of the class, named like the class (nested class names joined
+ * by underscores) with the suffix {@link #BINDER_SUFFIX}. It resolves the relations the same way as
+ * {@link com.github.ahuemmer.storesthal.helpers.ReflectionHelper#searchForSetter(Class, String)} does (when not in
+ * annotationless mode), but at compile time. All binders are registered as services of {@link ObjectBinder}.
+ * <p>
+ * The processor is optional: It is shipped as a separate artifact (classifier {@code processor}), registered as a
+ * service of {@link javax.annotation.processing.Processor} there, so it only runs if put on the annotation processor
+ * path (e. g. using the Gradle configuration {@code annotationProcessor}) - never just because Storesthal is on the
+ * compile classpath.
+ */
+@SupportedAnnotationTypes({"com.github.ahuemmer.storesthal.HALRelation", "com.github.ahuemmer.storesthal.Cacheable"})
+public class BinderProcessor extends AbstractProcessor {
+
+    /**
+     * The suffix of the names of the binders generated.
+     */
+    public static final String BINDER_SUFFIX = "_StoresthalBinder";
+
+    /**
+     * The location of the service registration of the binders.
+     */
+    private static final String SERVICES_FILE = "META-INF/services/" + ObjectBinder.class.getName();
+
+    /**
+     * The names of the binders generated (to be registered as services).
+     */
+    private final Set<String> binders = new TreeSet<>();
+
+    /**
+     * The names of the classes already processed (in an earlier round).
+     */
+    private final Set<String> processed = new HashSet<>();
+
+    private Elements elements;
+
+    private Types types;
+
+    private Messager messager;
+
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
+        filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> classes = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(HALRelation.class)) {
+            if (element.getEnclosingElement() instanceof TypeElement type) {
+                classes.add(type);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Cacheable.class)) {
+            if (element instanceof TypeElement type) {
+                classes.add(type);
+            }
+        }
+
+        for (TypeElement type : classes) {
+            if (processed.add(type.getQualifiedName().toString()) && isBindable(type)) {
+                generateBinder(type);
+            }
+        }
+
+        if (roundEnv.processingOver() && !binders.isEmpty()) {
+            writeServices();
+        }
+
+        // Other processors may be interested in the annotations as well.
+        return false;
+    }
+
+    /**
+     * Return whether a binder can be generated for a class, i. e. it is a (top level or member) class, which is
+     * accessible from its package.
+     *
+     * @param type The class
+     * @return true, if a binder can be generated
+     */
+    private boolean isBindable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        for (Element element = type; element instanceof TypeElement enclosing; element = element.getEnclosingElement()) {
+            if ((enclosing.getNestingKind() != NestingKind.TOP_LEVEL) && (enclosing.getNestingKind() != NestingKind.MEMBER)) {
+                return false;
+            }
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Not generating a binder for private class, using reflection instead.", type);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the binder of a class.
+     *
+     * @param type The class
+     */
+    private void generateBinder(TypeElement type) {
+        PackageElement pkg = elements.getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String binderName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + BINDER_SUFFIX;
+        String qualifiedBinderName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        String className = types.erasure(type.asType()).toString();
+
+        Map<String, ExecutableElement> relations = getRelations(type);
+
+        // One binding per setter (a setter may be bound to several relation names):
+        Map<ExecutableElement, String> bindingNames = new LinkedHashMap<>();
+        for (ExecutableElement setter : relations.values()) {
+            bindingNames.putIfAbsent(setter, "BINDING_" + bindingNames.size());
+        }
+
+        Cacheable cacheable = type.getAnnotation(Cacheable.class);
+
+        try (PrintWriter out = new PrintWriter(filer.createSourceFile(qualifiedBinderName, type).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Binder of {@link " + className + "}, generated by {@link " + BinderProcessor.class.getName() + "}.");
+            out.println(" */");
+            out.println("@javax.annotation.processing.Generated(\"" + BinderProcessor.class.getName() + "\")");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + binderName + " implements " + ObjectBinder.class.getName() + " {");
+
+            for (Map.Entry<ExecutableElement, String> binding : bindingNames.entrySet()) {
+                out.println();
+                out.println("    private static final " + RelationBinding.class.getName() + " " + binding.getValue() + " = " + getBinding(className, binding.getKey()) + ";");
+            }
+
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<?> getObjectClass() {");
+            out.println("        return " + className + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + RelationBinding.class.getName() + " getRelation(String rel) {");
+            out.println("        return switch (rel) {");
+            for (Map.Entry<String, ExecutableElement> relation : relations.entrySet()) {
+                out.println("            case " + elements.getConstantExpression(relation.getKey()) + " -> " + bindingNames.get(relation.getValue()) + ";");
+            }
+            out.println("            default -> null;");
+            out.println("        };");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public String getCacheName() {");
+            out.println("        return " + ((cacheable != null) ? elements.getConstantExpression(cacheable.cacheName()) : "null") + ";");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not generate binder " + qualifiedBinderName + ": " + e.getMessage(), type);
+            return;
+        }
+
+        binders.add(qualifiedBinderName);
+    }
+
+    /**
+     * Get the setters of the relations of a class by relation name, resolved the same way as by
+     * {@link com.github.ahuemmer.storesthal.helpers.ReflectionHelper}.
+     *
+     * @param type The class
+     * @return The setters by relation name
+     */
+    private Map<String, ExecutableElement> getRelations(TypeElement type) {
+        // The public (instance) methods, as found by reflection:
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+                methods.add(method);
+            }
+        }
+
+        Map<String, ExecutableElement> setters = new LinkedHashMap<>();
+        for (ExecutableElement method : methods) {
+            String name = method.getSimpleName().toString();
+            if (name.startsWith("set") && (method.getParameters().size() == 1) && isAccessible(type, method)) {
+                setters.putIfAbsent(name, method);
+            }
+        }
+
+        Map<String, ExecutableElement> relations = new LinkedHashMap<>();
+        for (ExecutableElement method : methods) {
+            HALRelation annotation = method.getAnnotation(HALRelation.class);
+            if (annotation == null) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            if (method.getParameters().size() != 1) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "Method \"" + name + "\" is annotated with \"" + HALRelation.class.getName()
+                        + "\" and would be a suitable setter candidate, but has the wrong number of parameters!", method);
+            } else if (!isAccessible(type, method)) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Parameter type of \"" + name + "\" not accessible, using reflection instead.", method);
+            } else if (!annotation.value().isEmpty()) {
+                relations.putIfAbsent(annotation.value(), method);
+            } else if (name.length() > 3) {
+                relations.putIfAbsent(lcFirst(name.substring(3)), method);
+            }
+        }
+
+        boolean unnamedField = false;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            HALRelation annotation = field.getAnnotation(HALRelation.class);
+            if (annotation == null) {
+                continue;
+            }
+            if (annotation.value().isEmpty()) {
+                unnamedField = true;
+            } else {
+                ExecutableElement setter = setters.get("set" + ucFirst(field.getSimpleName().toString()));
+                if (setter != null) {
+                    relations.putIfAbsent(annotation.value(), setter);
+                } else {
+                    messager.printMessage(Diagnostic.Kind.WARNING, "No setter found for relation \"" + annotation.value() + "\"!", field);
+                }
+            }
+        }
+
+        // A field annotated without a value binds every relation having a setter matching its name:
+        if (unnamedField) {
+            for (ExecutableElement setter : setters.values()) {
+                String name = setter.getSimpleName().toString();
+                String suffix = name.substring(3);
+                if (suffix.isEmpty()) {
+                    continue;
+                }
+                for (String rel : new String[]{suffix, lcFirst(suffix)}) {
+                    if (name.equals("set" + ucFirst(rel))) {
+                        relations.putIfAbsent(rel, setter);
+                    }
+                }
+            }
+        }
+
+        return relations;
+    }
+
+    /**
+     * Return whether the parameter type of a setter can be referred to by the binder of a class.
+     *
+     * @param type   The class
+     * @param setter The setter
+     * @return true, if the parameter type is accessible from the package of the class
+     */
+    private boolean isAccessible(TypeElement type, ExecutableElement setter) {
+        TypeMirror parameterType = types.erasure(setter.getParameters().get(0).asType());
+        if (parameterType.getKind() == TypeKind.ARRAY) {
+            parameterType = types.erasure(((ArrayType) parameterType).getComponentType());
+        }
+        if (!(types.asElement(parameterType) instanceof TypeElement parameterClass)) {
+            return parameterType.getKind().isPrimitive();
+        }
+        for (Element element = parameterClass; element instanceof TypeElement enclosing; element = element.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!enclosing.getModifiers().contains(Modifier.PUBLIC) && !elements.getPackageOf(enclosing).equals(elements.getPackageOf(type))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the source code creating the binding of a setter.
+     *
+     * @param className The name of the class having the setter
+     * @param setter    The setter
+     * @return The expression creating the {@link RelationBinding}
+     */
+    private String getBinding(String className, ExecutableElement setter) {
+        TypeMirror parameterType = setter.getParameters().get(0).asType();
+        String typeName = types.erasure(parameterType).toString();
+        String valueTypeName = parameterType.getKind().isPrimitive()
+                ? types.boxedClass((PrimitiveType) parameterType).getQualifiedName().toString() : typeName;
+
+        TypeMirror collectionType = types.erasure(elements.getTypeElement("java.util.Collection").asType());
+        boolean collection = types.isAssignable(types.erasure(parameterType), collectionType);
+
+        String elementType = "null";
+        if (collection && (parameterType instanceof DeclaredType declaredType) && !declaredType.getTypeArguments().isEmpty()
+                && (declaredType.getTypeArguments().get(0).getKind() == TypeKind.DECLARED)) {
+            elementType = types.erasure(declaredType.getTypeArguments().get(0)).toString() + ".class";
+        }
+
+        String factory = "null";
+        if (collection) {
+            String implementation = getCollectionImplementation(types.erasure(parameterType));
+            if (implementation != null) {
+                factory = "() -> (java.util.Collection) new " + implementation + "()";
+            }
+        }
+
+        return "new " + RelationBinding.class.getName() + "("
+                + elements.getConstantExpression(setter.getSimpleName().toString()) + ", "
+                + typeName + ".class, " + collection + ", " + elementType + ",\n"
+                + "            (object, value) -> ((" + className + ") object)." + setter.getSimpleName() + "((" + valueTypeName + ") value),\n"
+                + "            " + factory + ")";
+    }
+
+    /**
+     * Get the class to instantiate for a collection relation, the same way as
+     * {@link com.github.ahuemmer.storesthal.Storesthal} does by reflection.
+     *
+     * @param collectionType The parameter type of the setter
+     * @return The name of the class to instantiate or NULL, if the collection can't be created by the binder
+     */
+    private String getCollectionImplementation(TypeMirror collectionType) {
+        TypeElement collectionClass = (TypeElement) types.asElement(collectionType);
+        if ((collectionClass.getKind() == ElementKind.INTERFACE) || collectionClass.getModifiers().contains(Modifier.ABSTRACT)) {
+            if (isSubtype(collectionType, "java.util.List")) {
+                return "java.util.LinkedList";
+            } else if (isSubtype(collectionType, "java.util.Set")) {
+                return "java.util.HashSet";
+            } else if (isSubtype(collectionType, "java.util.Queue")) {
+                return "java.util.concurrent.ConcurrentLinkedDeque";
+            }
+            return null;
+        }
+        if (!collectionClass.getModifiers().contains(Modifier.PUBLIC)) {
+            return null;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(collectionClass.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return collectionType.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return whether a type is a subtype of a (raw) class.
+     *
+     * @param type      The type
+     * @param className The qualified name of the class
+     * @return true, if the type is assignable to the class
+     */
+    private boolean isSubtype(TypeMirror type, String className) {
+        return types.isAssignable(type, types.erasure(elements.getTypeElement(className).asType()));
+    }
+
+    /**
+     * Register the binders generated as services, keeping the ones registered by earlier (incremental) compilations.
+     */
+    private void writeServices() {
+        Set<String> services = new TreeSet<>(binders);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        services.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No binders registered yet.
+        }
+
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES_FILE).openWriter()) {
+            for (String service : services) {
+                writer.write(service);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not register binders: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Return the input string with the first character being converted to lower case
+     * @param input The input string
+     * @return The input string with lower case first character
+     */
+    private static String lcFirst(String input) {
+        return input.substring(0, 1).toLowerCase() + input.substring(1);
+    }
+
+    /**
+     * Return the input string with the first character being converted to upper case
+     * @param input The input string
+     * @return The input string with upper case first character
+     */
+    private static String ucFirst(String input) {
+        return input.substring(0, 1).toUpperCase() + input.substring(1);
+    }
+}
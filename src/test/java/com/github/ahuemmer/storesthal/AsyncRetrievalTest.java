@@ -0,0 +1,97 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelation;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren4;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test set for the asynchronous retrieval functions (e. g. {@link Storesthal#getObjectAsync(String, Class)}).
+ */
+public class AsyncRetrievalTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, an object structure with cyclic relations is retrieved asynchronously just like synchronously and
+     * can be combined with other asynchronous retrievals.
+     *
+     * @throws IOException          if the JSON template for the mocked service answer can't be accessed.
+     * @throws ExecutionException   if the asynchronous retrieval fails.
+     * @throws InterruptedException if waiting for the result is interrupted.
+     */
+    @Test
+    public void retrievesObjectsAsynchronously() throws IOException, ExecutionException, InterruptedException {
+        configureServerMockWithResponseFile("/complexObjectsWithMultipleChildren1/1", "complexObjectWithMultipleChildren1.json", Map.of("color", "887766", "comment", "", "categoryId", "12345", "name", "Async parent", "number", "-1", "type", "async", "children", createJsonHrefArray(new String[]{
+                "http://localhost:${port}/complexChildren2/1",
+                "http://localhost:${port}/complexChildren2/2"}
+        ), "parent", ""));
+        configureServerMockWithResponseFile("/complexChildren2/1", "simpleChildObjectWithParentRelation.json", Map.of("childId", "1", "childName", "Async child 1", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        configureServerMockWithResponseFile("/complexChildren2/2", "simpleChildObjectWithParentRelation.json", Map.of("childId", "2", "childName", "Async child 2", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        configureServerMock("/get/an/integer", "42", "text/plain;charset=UTF-8");
+        serverMock.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            CompletableFuture<ComplexObjectWithMultipleChildren4> objectFuture = Storesthal.getObjectAsync("http://localhost:" + serverMock.port() + "/complexObjectsWithMultipleChildren1/1", ComplexObjectWithMultipleChildren4.class, executor);
+            CompletableFuture<Integer> integerFuture = Storesthal.getIntegerAsync("http://localhost:" + serverMock.port() + "/get/an/integer");
+
+            String combined = objectFuture.thenCombine(integerFuture, (object, integer) -> object.getName() + " " + integer).get();
+            assertEquals("Async parent 42", combined);
+
+            ComplexObjectWithMultipleChildren4 test = objectFuture.get();
+            List<ChildObjectWithParentRelation> children = test.getChildren();
+            assertNotNull(children);
+            assertEquals(2, children.size());
+            assertEquals("Async child 1", children.get(0).getChildName());
+            assertEquals("Async child 2", children.get(1).getChildName());
+
+            for (ChildObjectWithParentRelation child : children) {
+                //Use == here --> really the same object!
+                assertSame(test, child.getParent());
+            }
+
+            assertEquals(4, (Integer) Storesthal.getStatistics().get("httpCalls"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Make sure, a failing asynchronous retrieval completes the future exceptionally with a {@link StoresthalException}.
+     */
+    @Test
+    public void completesExceptionallyOnFailure() {
+        configureServerMock("/get/a/faulty/integer", "a", "text/plain;charset=UTF-8");
+        serverMock.start();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> Storesthal.getIntegerAsync("http://localhost:" + serverMock.port() + "/get/a/faulty/integer").get());
+        assertInstanceOf(StoresthalException.class, e.getCause());
+
+        e = assertThrows(ExecutionException.class, () -> Storesthal.getObjectAsync("http://localhost:" + serverMock.port() + "/does/not/exist", ComplexObjectWithMultipleChildren4.class).get());
+        assertInstanceOf(StoresthalException.class, e.getCause());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.binding.BinderProcessor;
+import com.github.ahuemmer.storesthal.binding.ObjectBinder;
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren1;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren2;
+import com.github.ahuemmer.storesthal.helpers.Binders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test suite for the {@link BinderProcessor} and the binders generated by it.
+ */
+public class BinderProcessorTest {
+
+    /**
+     * The sources of the test objects to generate binders for.
+     */
+    private static final String TEST_OBJECTS = "src/test/java/com/github/ahuemmer/storesthal/";
+
+    /**
+     * A temporary directory for the classes compiled.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Compile some test objects using the processor and load the binders generated.
+     *
+     * @return The binders by object class
+     * @throws IOException if the classes compiled can't be loaded
+     */
+    private Map<Class<?>, ObjectBinder> generateBinders() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null,
+                "-proc:full", "-processor", BinderProcessor.class.getName(),
+                "-cp", System.getProperty("java.class.path"), "-d", directory.toString(),
+                TEST_OBJECTS + "complextestobjects/ChildObject.java",
+                TEST_OBJECTS + "complextestobjects/ComplexObjectWithMultipleChildren1.java",
+                TEST_OBJECTS + "complextestobjects/ComplexObjectWithMultipleChildren2.java",
+                TEST_OBJECTS + "cachetestobjects/SmallSizedCacheObject.java");
+        assertEquals(0, result);
+
+        Map<Class<?>, ObjectBinder> binders = new HashMap<>();
+        // The test objects themselves are loaded by the parent class loader, only the binders are new:
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            for (ObjectBinder binder : ServiceLoader.load(ObjectBinder.class, loader)) {
+                binders.put(binder.getObjectClass(), binder);
+            }
+        }
+        return binders;
+    }
+
+    /**
+     * Make sure, binders are generated for the classes using {@link HALRelation} or {@link Cacheable}, binding their
+     * relations the same way as done by reflection.
+     *
+     * @throws IOException if the classes compiled can't be loaded
+     */
+    @Test
+    public void generatesBinders() throws IOException {
+        Map<Class<?>, ObjectBinder> binders = generateBinders();
+
+        assertEquals(3, binders.size());
+        assertFalse(binders.containsKey(ChildObject.class));
+
+        ObjectBinder binder = binders.get(ComplexObjectWithMultipleChildren1.class);
+        RelationBinding binding = binder.getRelation("children");
+        assertEquals("setChildren", binding.setterName());
+        assertEquals(List.class, binding.type());
+        assertTrue(binding.collection());
+        assertEquals(ChildObject.class, binding.elementType());
+        assertInstanceOf(LinkedList.class, binding.collectionFactory().get());
+        assertNull(binder.getRelation("name"));
+        assertNull(binder.getCacheName());
+
+        ComplexObjectWithMultipleChildren1 object = new ComplexObjectWithMultipleChildren1();
+        List<ChildObject> children = List.of(new ChildObject());
+        binding.accessor().accept(object, children);
+        assertSame(children, object.getChildren());
+
+        // A field annotated without a value binds all relations having a matching setter (as done by reflection):
+        binder = binders.get(ComplexObjectWithMultipleChildren2.class);
+        assertEquals(LinkedList.class, binder.getRelation("children").type());
+        assertEquals("setName", binder.getRelation("name").setterName());
+        assertFalse(binder.getRelation("name").collection());
+
+        binder = binders.get(SmallSizedCacheObject.class);
+        assertEquals("com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject", binder.getCacheName());
+        assertNull(binder.getRelation("name"));
+    }
+
+    /**
+     * Make sure, classes without binders are bound by reflection.
+     */
+    @Test
+    public void fallsBackToReflection() {
+        assertNull(Binders.get(ComplexObjectWithMultipleChildren1.class));
+        assertNull(Binders.get(String.class));
+    }
+}
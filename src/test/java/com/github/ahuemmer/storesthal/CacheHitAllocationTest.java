@@ -0,0 +1,61 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark making sure, that looking up an object already cached doesn't allocate any memory.
+ */
+public class CacheHitAllocationTest {
+
+    /**
+     * The number of cache hits per round measured.
+     */
+    private static final int HITS_PER_ROUND = 10_000;
+
+    /**
+     * The maximum number of rounds, giving the JIT compiler the time to compile the hit path.
+     */
+    private static final int MAX_ROUNDS = 200;
+
+    /**
+     * Look up a cached object over and over again, until the JIT compiler has compiled the hit path, and make sure
+     * that no memory has been allocated for a whole round of cache hits then.
+     */
+    @Test
+    public void cacheHitsDontAllocate() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+
+        URI uri = URI.create("http://localhost/smallSizedCacheObjects/1");
+        SmallSizedCacheObject object = new SmallSizedCacheObject();
+        CacheManager.putObjectInCache(uri, object, null);
+
+        long minimumBytes = Long.MAX_VALUE;
+        for (int round = 0; (round < MAX_ROUNDS) && (minimumBytes > 0); round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < HITS_PER_ROUND; i++) {
+                if (CacheManager.getObjectFromCache(uri, SmallSizedCacheObject.class, null) != object) {
+                    throw new AssertionError("Cache miss for " + uri);
+                }
+            }
+            minimumBytes = Math.min(minimumBytes, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        assertEquals(0, minimumBytes);
+        assertSame(object, CacheManager.getObjectFromCache(uri, SmallSizedCacheObject.class, null));
+    }
+}
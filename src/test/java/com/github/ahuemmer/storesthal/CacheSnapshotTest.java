@@ -0,0 +1,173 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SerializableCacheObject;
+import com.github.ahuemmer.storesthal.helpers.CacheSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test set to make sure that the caches can be exported to and imported from a snapshot file (see
+ * {@link CacheSnapshot}).
+ */
+public class CacheSnapshotTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of {@link SerializableCacheObject}.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.SerializableCacheObject";
+
+    /**
+     * A temporary directory for the snapshot files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, exported objects (and validators of primitive values) are imported into empty caches again, so that
+     * they don't have to be retrieved anew.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void canExportAndImportCaches() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            configureServerMockWithResponseFile("/serializableObjects/" + i, "simpleObject2.json", Map.of("objectId", String.valueOf(i), "name", "Test " + i, "tags", "null"));
+        }
+        configureServerMock("/get/an/integer", "4711", "text/plain;charset=UTF-8");
+        serverMock.stubFor(get(urlEqualTo("/get/a/validated/integer"))
+                .atPriority(2)
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "text/plain;charset=UTF-8").withHeader("ETag", "\"42\"").withBody("42")));
+        serverMock.stubFor(get(urlEqualTo("/get/a/validated/integer"))
+                .atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"42\""))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"42\"")));
+        serverMock.start();
+
+        String baseUrl = "http://localhost:" + serverMock.port();
+
+        for (int i = 1; i <= 3; i++) {
+            Storesthal.getObject(baseUrl + "/serializableObjects/" + i, SerializableCacheObject.class);
+        }
+        assertEquals(4711, Storesthal.getInteger(baseUrl + "/get/an/integer", "snapshotIntegers"));
+        assertEquals(42, Storesthal.getInteger(baseUrl + "/get/a/validated/integer", false));
+        assertEquals(5, Storesthal.getStatistics().get("httpCalls"));
+
+        Path snapshot = directory.resolve("caches.snapshot");
+        assertEquals(4, Storesthal.exportCaches(snapshot));
+
+        Storesthal.clearAllCaches(true);
+        assertEquals(0, Storesthal.getCachedObjectCount(CACHE_NAME));
+
+        assertEquals(4, Storesthal.importCaches(snapshot));
+        assertEquals(3, Storesthal.getCachedObjectCount(CACHE_NAME));
+
+        for (int i = 1; i <= 3; i++) {
+            assertEquals("Test " + i, Storesthal.getObject(baseUrl + "/serializableObjects/" + i, SerializableCacheObject.class).getName());
+        }
+        assertEquals(4711, Storesthal.getInteger(baseUrl + "/get/an/integer", "snapshotIntegers"));
+        assertEquals(0, Storesthal.getStatistics().get("httpCalls"));
+
+        assertEquals(42, Storesthal.getInteger(baseUrl + "/get/a/validated/integer", false));
+        assertEquals(1, Storesthal.getStatistics().get("notModifiedResponses"));
+
+        // Objects already cached are not replaced.
+        assertEquals(0, Storesthal.importCaches(snapshot));
+    }
+
+    /**
+     * Make sure, importing a file which isn't a snapshot fails.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void rejectsInvalidSnapshots() throws Exception {
+        Path file = directory.resolve("invalid.snapshot");
+        Files.writeString(file, "This is no snapshot.");
+        assertThrows(StoresthalException.class, () -> Storesthal.importCaches(file));
+    }
+
+    /**
+     * Make sure, neither objects of classes not being cached nor validators of response types not being primitive
+     * classes are imported from a snapshot.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void ignoresForeignClasses() throws Exception {
+        byte[] foreign = serialize(new PriorityQueue<>(List.of(1, 2)));
+
+        Path file = directory.resolve("foreign.snapshot");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(0x53545331);
+            out.writeByte(1);
+            out.writeUTF(CACHE_NAME);
+            out.writeInt(10);
+            out.writeUTF("LRU");
+            for (int i = 0; i < 4; i++) {
+                out.writeLong(0);
+            }
+            out.writeInt(1);
+            out.writeUTF("http://localhost/serializableObjects/1");
+            out.writeLong(0);
+            out.writeInt(foreign.length);
+            out.write(foreign);
+
+            out.writeByte(2);
+            out.writeInt(1);
+            out.writeUTF("http://localhost/get/a/queue");
+            out.writeUTF(PriorityQueue.class.getName());
+            out.writeBoolean(false);
+            out.writeLong(0);
+            out.writeInt(foreign.length);
+            out.write(foreign);
+            out.writeByte(0);
+        }
+
+        assertEquals(0, Storesthal.importCaches(file));
+        assertEquals(0, Storesthal.getCachedObjectCount(CACHE_NAME));
+    }
+
+    /**
+     * Java-serialize an object.
+     *
+     * @param object The object.
+     * @return The serialized object.
+     * @throws IOException if the object can't be serialized.
+     */
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+}
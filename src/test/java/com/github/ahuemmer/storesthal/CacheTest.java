@@ -1,5 +1,6 @@
 package com.github.ahuemmer.storesthal;
 
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
 import com.github.ahuemmer.storesthal.cachetestobjects.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -81,6 +82,10 @@ class CacheTest extends AbstractJsonTemplateBasedTest {
         assertEquals(7, (Integer) ((Map) Storesthal.getStatistics().get("cacheHits")).get(PARENT_CACHE_NAME));
         assertNull(((Map) Storesthal.getStatistics().get("cacheHits")).get(CHILD_CACHE_NAME));
 
+        Double lruHitRatio = (Double) ((Map) Storesthal.getStatistics().get("hitRatios")).get(CachePolicy.LRU);
+        assertNotNull(lruHitRatio);
+        assertTrue(lruHitRatio > 0 && lruHitRatio < 1);
+
     }
 
     /**
@@ -318,4 +323,63 @@ class CacheTest extends AbstractJsonTemplateBasedTest {
         assertSame(test2.getParent(), test3.getParent());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Make sure, a stale object is returned right away while being refreshed in the background (only once), and
+     * the fresh object is returned as soon as the refresh is done.
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void servesStaleObjectWhileRefreshing() throws Exception {
+        configureServerMockWithResponseFile("/refreshingObjects/1", "simpleObject2.json", Map.of("objectId", "1", "name", "Old name", "tags", "null"));
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/refreshingObjects/1";
+
+        RefreshingCacheObject first = Storesthal.getObject(url, RefreshingCacheObject.class);
+        assertEquals("Old name", first.getName());
+
+        configureServerMockWithResponseFile("/refreshingObjects/1", "simpleObject2.json", Map.of("objectId", "1", "name", "New name", "tags", "null"));
+        Thread.sleep(1100);
+
+        //Using == here intentionally: The stale object is returned without waiting for the refresh.
+        assertSame(first, Storesthal.getObject(url, RefreshingCacheObject.class));
+
+        RefreshingCacheObject fresh = first;
+        for (int i = 0; (i < 100) && (fresh == first); i++) {
+            Thread.sleep(50);
+            fresh = Storesthal.getObject(url, RefreshingCacheObject.class);
+        }
+
+        assertEquals("New name", fresh.getName());
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertTrue((Integer) ((Map) Storesthal.getStatistics().get("staleHits")).get("com.github.ahuemmer.storesthal.cachetestobjects.RefreshingCacheObject") >= 1);
+    }
+
+    /**
+     * Make sure, objects are evicted as soon as the (estimated) size of all objects in a cache exceeds its maximum
+     * size in bytes, and the size is reported in the statistics.
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void evictsObjectsExceedingMaxBytes() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            configureServerMockWithResponseFile("/sizeLimitedObjects/" + i, "simpleObject2.json", Map.of("objectId", String.valueOf(i), "name", "Test " + i, "tags", "null"));
+        }
+        serverMock.start();
+
+        for (int i = 1; i <= 5; i++) {
+            SizeLimitedCacheObject test = Storesthal.getObject("http://localhost:" + serverMock.port() + "/sizeLimitedObjects/" + i, SizeLimitedCacheObject.class);
+            assertEquals("Test " + i, test.getName());
+        }
+
+        String cacheName = "com.github.ahuemmer.storesthal.cachetestobjects.SizeLimitedCacheObject";
+        long cacheBytes = (Long) ((Map) Storesthal.getStatistics().get("cacheBytes")).get(cacheName);
+
+        assertTrue(Storesthal.getCachedObjectCount(cacheName) < 5);
+        assertTrue(cacheBytes > 0);
+        assertTrue(cacheBytes <= 200);
+        assertNotNull(Storesthal.getObject("http://localhost:" + serverMock.port() + "/sizeLimitedObjects/5", SizeLimitedCacheObject.class));
+        assertEquals(5, Storesthal.getStatistics().get("httpCalls"));
+    }
+}
@@ -0,0 +1,422 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cache.CachePolicy;
+import com.github.ahuemmer.storesthal.cache.CacheRefresher;
+import com.github.ahuemmer.storesthal.cache.ConcurrentObjectCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the {@link ConcurrentObjectCache}.
+ */
+public class ConcurrentObjectCacheTest {
+
+    /**
+     * The number of threads accessing the cache at the same time.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * The fake clock (in nanoseconds) of the caches testing expiry and refresh, advanced instead of waiting.
+     */
+    private final AtomicLong time = new AtomicLong(1);
+
+    /**
+     * Create a cache measuring its expiry and refresh times by the fake clock {@link #time}.
+     *
+     * @param policy            The eviction policy
+     * @param expireAfterWrite  The time after which an entry expires since it has been put into the cache
+     * @param expireAfterAccess The time after which an entry expires since it has been accessed last
+     * @param refreshAfterWrite The time after which an entry is stale and refreshed since it has been put into the cache
+     * @param refresher         Retrieves fresh values for stale entries
+     * @return The cache
+     */
+    private ConcurrentObjectCache<Integer, Integer> createTimedCache(CachePolicy policy, Duration expireAfterWrite, Duration expireAfterAccess, Duration refreshAfterWrite, CacheRefresher<Integer, Integer> refresher) {
+        return new ConcurrentObjectCache<>("test", 10, policy, expireAfterWrite, expireAfterAccess, refreshAfterWrite, refresher, 0, null, time::get);
+    }
+
+    /**
+     * Advance the fake clock {@link #time}.
+     *
+     * @param millis The number of milliseconds to advance it by
+     */
+    private void advance(long millis) {
+        time.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+
+    /**
+     * Make sure, the cache is empty after creation.
+     */
+    @Test
+    public void cacheStartsEmpty() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 2);
+        assertEquals("test", c.getCacheName());
+        assertEquals(2, c.getCapacity());
+        assertEquals(0, c.size());
+        assertNull(c.get(1));
+    }
+
+    /**
+     * Make sure, values are fetched correctly from cache if they have been inserted before and `null` is returned,
+     * if nothing has been inserted for the specified key.
+     */
+    @Test
+    public void canFetchObjects() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 2);
+        c.put(1, 1);
+        assertEquals(1, c.get(1));
+        assertNull(c.get(2));
+        c.put(2, 4);
+        assertEquals(1, c.get(1));
+        assertEquals(4, c.get(2));
+        c.put(2, 8);
+        assertEquals(8, c.get(2));
+        assertEquals(2, c.size());
+    }
+
+    /**
+     * Make sure, the cache size isn't exceeded.
+     */
+    @Test
+    public void testCapacityReachedOldestRemoved() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 2);
+        c.put(1, 1);
+        c.put(2, 4);
+        c.put(3, 9);
+        assertNull(c.get(1));
+        assertEquals(4, c.get(2));
+        assertEquals(9, c.get(3));
+        assertEquals(2, c.size());
+        assertEquals(1, c.getEvictions());
+        c.resetEvictions();
+        assertEquals(0, c.getEvictions());
+    }
+
+    /**
+     * Make sure, the least <i>accessed</i> element is evicted from cache once it's capacity is reached.
+     */
+    @Test
+    public void testGetRenewsEntry() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 2);
+        c.put(1, 1);
+        c.put(2, 4);
+        assertEquals(1, c.get(1));
+        c.put(3, 9);
+        assertEquals(1, c.get(1));
+        assertNull(c.get(2));
+        assertEquals(9, c.get(3));
+    }
+
+    /**
+     * Make sure, entries can be removed one by one or all at once.
+     */
+    @Test
+    public void canRemoveObjects() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 5);
+        for (int i = 0; i < 5; i++) {
+            c.put(i, i * i);
+        }
+        c.remove(2);
+        assertNull(c.get(2));
+        assertEquals(4, c.size());
+        c.clear();
+        assertEquals(0, c.size());
+        assertNull(c.get(1));
+    }
+
+    /**
+     * Fill a cache with frequently used entries, then "scan" many other entries accessed only once, looking up the
+     * frequently used entries again after every 100 entries scanned.
+     *
+     * @param c The cache to use.
+     * @return The number of frequently used entries found in the cache during the scan.
+     */
+    private static int accessHotEntriesWhileScanning(ConcurrentObjectCache<Integer, Integer> c) {
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (c.get(i) == null) {
+                    c.put(i, i);
+                }
+            }
+        }
+        int hits = 0;
+        for (int i = 1000; i < 11000; i++) {
+            c.put(i, i);
+            if (i % 100 == 99) {
+                for (int j = 0; j < 50; j++) {
+                    if (c.get(j) != null) {
+                        hits++;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Make sure, a scan over many entries accessed only once evicts frequently used entries from a
+     * {@link CachePolicy#LRU} cache...
+     */
+    @Test
+    public void scanEvictsHotEntriesFromLruCache() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 100, CachePolicy.LRU);
+        assertEquals(0, accessHotEntriesWhileScanning(c));
+        assertEquals(100, c.size());
+    }
+
+    /**
+     * ... but doesn't displace them from a {@link CachePolicy#TINY_LFU} cache.
+     */
+    @Test
+    public void scanDoesntEvictHotEntriesFromTinyLfuCache() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 100, CachePolicy.TINY_LFU);
+        assertEquals(CachePolicy.TINY_LFU, c.getPolicy());
+        assertEquals(100 * 50, accessHotEntriesWhileScanning(c));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, c.get(i));
+        }
+        assertEquals(100, c.size());
+    }
+
+    /**
+     * Make sure, entries expire after a fixed time since they have been put into the cache.
+     */
+    @Test
+    public void expiresAfterWrite() {
+        ConcurrentObjectCache<Integer, Integer> c = createTimedCache(CachePolicy.LRU, Duration.ofMillis(300), Duration.ZERO, Duration.ZERO, null);
+        assertTrue(c.expires());
+        c.put(1, 1);
+        advance(299);
+        assertEquals(1, c.get(1));
+        advance(1);
+        assertNull(c.get(1));
+        assertEquals(0, c.size());
+    }
+
+    /**
+     * Make sure, entries are evicted as long as the maximum weight of the cache is exceeded and entries heavier than
+     * the whole cache aren't cached at all.
+     */
+    @Test
+    public void evictsEntriesExceedingMaximumWeight() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 10, CachePolicy.LRU, Duration.ZERO, Duration.ZERO, Duration.ZERO, null, 100, (key, value) -> value);
+        assertTrue(c.weighs());
+        c.put(1, 40);
+        c.put(2, 40);
+        assertEquals(80L, c.getWeightedSize());
+        c.put(3, 40);
+        assertNull(c.get(1));
+        assertEquals(40, c.get(2));
+        assertEquals(40, c.get(3));
+        assertEquals(80L, c.getWeightedSize());
+
+        c.put(4, 200);
+        assertNull(c.get(4));
+        assertEquals(2, c.size());
+
+        c.put(2, 10);
+        assertEquals(50L, c.getWeightedSize());
+
+        c.trimToWeight(20);
+        assertNull(c.get(3));
+        assertEquals(10, c.get(2));
+        assertEquals(10L, c.getWeightedSize());
+
+        c.clear();
+        assertEquals(0L, c.getWeightedSize());
+    }
+
+    /**
+     * Make sure, the snapshot of a cache is ordered from the most to the least recently used entry and contains the
+     * remaining time to live of the entries.
+     */
+    @Test
+    public void snapshotOrdersEntriesByValue() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 3);
+        c.put(1, 1);
+        c.put(2, 4);
+        c.put(3, 9, Duration.ofMinutes(1));
+        c.get(1);
+
+        List<ConcurrentObjectCache.Entry<Integer, Integer>> snapshot = c.snapshot();
+        assertEquals(List.of(1, 3, 2), snapshot.stream().map(ConcurrentObjectCache.Entry::key).toList());
+        assertEquals(1, snapshot.get(0).value());
+        assertNull(snapshot.get(0).timeToLive());
+        assertTrue(snapshot.get(1).timeToLive().compareTo(Duration.ofMinutes(1)) <= 0);
+        assertTrue(snapshot.get(1).timeToLive().compareTo(Duration.ofSeconds(50)) > 0);
+    }
+
+    /**
+     * Make sure, the eviction listener is notified of the entries evicted because of the capacity, but not of the
+     * entries removed.
+     */
+    @Test
+    public void notifiesEvictionListener() {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 2);
+        Map<Integer, Integer> evicted = new HashMap<>();
+        c.setEvictionListener(evicted::put);
+        c.put(1, 1);
+        c.put(2, 4);
+        c.remove(2);
+        assertTrue(evicted.isEmpty());
+        c.put(3, 9);
+        c.put(4, 16);
+        assertEquals(Map.of(1, 1), evicted);
+    }
+
+    /**
+     * Make sure, an entry put with an individual time to live expires after that time, replacing the expiry after
+     * write of the cache for this entry only.
+     */
+    @Test
+    public void expiresAfterIndividualTimeToLive() {
+        ConcurrentObjectCache<Integer, Integer> c = createTimedCache(CachePolicy.LRU, Duration.ofMillis(300), Duration.ZERO, Duration.ZERO, null);
+        c.put(1, 1, Duration.ofMillis(800));
+        c.put(2, 2);
+        c.put(3, 3, Duration.ofMillis(100));
+        advance(100);
+        assertEquals(1, c.get(1));
+        assertEquals(2, c.get(2));
+        assertNull(c.get(3));
+        advance(200);
+        assertEquals(1, c.get(1));
+        assertNull(c.get(2));
+        advance(499);
+        assertEquals(1, c.get(1));
+        advance(1);
+        assertNull(c.get(1));
+
+        ConcurrentObjectCache<Integer, Integer> neverExpiring = createTimedCache(CachePolicy.LRU, Duration.ZERO, Duration.ZERO, Duration.ZERO, null);
+        assertFalse(neverExpiring.expires());
+        neverExpiring.put(1, 1, Duration.ofMillis(100));
+        assertTrue(neverExpiring.expires());
+        advance(100);
+        neverExpiring.cleanUp();
+        assertEquals(0, neverExpiring.size());
+    }
+
+    /**
+     * Make sure, entries expire after a fixed time since they have been accessed last, but not as long as they are
+     * accessed.
+     */
+    @Test
+    public void expiresAfterAccess() {
+        ConcurrentObjectCache<Integer, Integer> c = createTimedCache(CachePolicy.LRU, Duration.ZERO, Duration.ofMillis(400), Duration.ZERO, null);
+        c.put(1, 1);
+        for (int i = 0; i < 5; i++) {
+            advance(399);
+            assertEquals(1, c.get(1));
+        }
+        advance(400);
+        assertNull(c.get(1));
+    }
+
+    /**
+     * Make sure, expired entries are removed by {@link ConcurrentObjectCache#cleanUp()}, even if they aren't accessed.
+     */
+    @Test
+    public void cleanUpRemovesExpiredEntries() {
+        ConcurrentObjectCache<Integer, Integer> c = createTimedCache(CachePolicy.TINY_LFU, Duration.ofMillis(300), Duration.ZERO, Duration.ZERO, null);
+        for (int i = 0; i < 5; i++) {
+            c.put(i, i);
+        }
+        advance(300);
+        c.put(5, 5);
+        c.cleanUp();
+        assertEquals(1, c.size());
+        assertEquals(5, c.get(5));
+    }
+
+    /**
+     * Make sure, a stale entry is returned while being refreshed (only once at a time) and replaced by the fresh value
+     * afterward.
+     */
+    @Test
+    public void servesStaleEntryWhileRefreshing() {
+        AtomicInteger refreshes = new AtomicInteger();
+        CompletableFuture<Integer> freshValue = new CompletableFuture<>();
+        ConcurrentObjectCache<Integer, Integer> c = createTimedCache(CachePolicy.LRU, Duration.ZERO, Duration.ZERO, Duration.ofMillis(200), (key, staleValue) -> {
+            refreshes.incrementAndGet();
+            return freshValue;
+        });
+        assertTrue(c.refreshes());
+
+        c.put(1, 1);
+        assertEquals(1, c.get(1));
+        assertEquals(0, refreshes.get());
+
+        advance(199);
+        assertEquals(1, c.get(1));
+        assertEquals(0, refreshes.get());
+
+        advance(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, c.get(1));
+        }
+        assertEquals(1, refreshes.get());
+        assertEquals(5, c.getStaleHits());
+
+        freshValue.complete(2);
+        assertEquals(2, c.get(1));
+        assertEquals(5, c.getStaleHits());
+    }
+
+    /**
+     * Make sure, the capacity is kept and no values get mixed up when several threads read and write the cache at
+     * the same time.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void staysConsistentUnderConcurrentAccess() throws Exception {
+        ConcurrentObjectCache<Integer, Integer> c = new ConcurrentObjectCache<>("test", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10000; i++) {
+                        int key = (i * THREADS + offset) % 500;
+                        Integer value = c.get(key);
+                        if (value != null) {
+                            assertEquals(key * 2, value);
+                        } else {
+                            c.put(key, key * 2);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(c.size() <= 100);
+    }
+}
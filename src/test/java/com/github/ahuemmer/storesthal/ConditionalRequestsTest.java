@@ -0,0 +1,172 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.ConditionalRequests;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test set to make sure that responses carrying validators are revalidated by conditional requests (see
+ * {@link ConditionalRequests}).
+ */
+public class ConditionalRequestsTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of {@link SmallSizedCacheObject}.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject";
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Configure the mocked service to answer with an "ETag" header and to answer "304 Not Modified" to requests
+     * carrying the matching "If-None-Match" header.
+     *
+     * @param url          The URL to be configured.
+     * @param answerToSend The answer of the mocked service.
+     * @param contentType  The content type of the answer.
+     * @param eTag         The entity tag of the answer.
+     */
+    private void configureValidatingServerMock(String url, String answerToSend, String contentType, String eTag) {
+        serverMock.stubFor(get(urlEqualTo(url))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", contentType)
+                        .withHeader("ETag", eTag)
+                        .withBody(answerToSend)));
+
+        serverMock.stubFor(get(urlEqualTo(url))
+                .atPriority(1)
+                .withHeader("If-None-Match", equalTo(eTag))
+                .willReturn(aResponse()
+                        .withStatus(304)
+                        .withHeader("ETag", eTag)));
+    }
+
+    /**
+     * Make sure, an object no longer cached is revalidated instead of being retrieved anew, reusing the object
+     * received before.
+     *
+     * @throws IOException         if the JSON template cannot be read.
+     * @throws StoresthalException if something goes wrong.
+     */
+    @Test
+    public void reusesObjectNotModified() throws IOException, StoresthalException {
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+        configureValidatingServerMock("/smallSizedCacheObjects/1", getJsonFileContent("simpleObject2.json",
+                Map.of("self", url, "objectId", "1", "name", "Test", "tags", "null")), "application/hal+json;charset=UTF-8", "\"v1\"");
+
+        SmallSizedCacheObject first = Storesthal.getObject(url, SmallSizedCacheObject.class);
+        Storesthal.clearCache(CACHE_NAME, false);
+        SmallSizedCacheObject second = Storesthal.getObject(url, SmallSizedCacheObject.class);
+
+        assertSame(first, second);
+        assertEquals("Test", second.getName());
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertEquals(1, Storesthal.getStatistics().get("notModifiedResponses"));
+        serverMock.verify(1, getRequestedFor(urlEqualTo("/smallSizedCacheObjects/1")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    /**
+     * Make sure, primitive values are revalidated as well.
+     *
+     * @throws StoresthalException if something goes wrong.
+     */
+    @Test
+    public void reusesPrimitiveNotModified() throws StoresthalException {
+        configureValidatingServerMock("/get/an/integer", "4711", "text/plain;charset=UTF-8", "\"4711\"");
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/get/an/integer";
+
+        assertEquals(4711, Storesthal.getInteger(url, false));
+        assertEquals(4711, Storesthal.getInteger(url, false));
+
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertEquals(1, Storesthal.getStatistics().get("notModifiedResponses"));
+    }
+
+    /**
+     * Make sure, responses declared "no-store" aren't revalidated (and replayed) if the response headers are honored.
+     *
+     * @throws StoresthalException if something goes wrong.
+     */
+    @Test
+    public void doesntRevalidateNoStore() throws StoresthalException {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).getConfiguration());
+        serverMock.stubFor(get(urlEqualTo("/get/an/integer"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain;charset=UTF-8")
+                        .withHeader("Cache-Control", "no-store")
+                        .withHeader("ETag", "\"4711\"")
+                        .withBody("4711")));
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/get/an/integer";
+
+        assertEquals(4711, Storesthal.getInteger(url, false));
+        assertEquals(4711, Storesthal.getInteger(url, false));
+
+        assertEquals(0, Storesthal.getStatistics().get("notModifiedResponses"));
+        serverMock.verify(0, getRequestedFor(urlEqualTo("/get/an/integer")).withHeader("If-None-Match", equalTo("\"4711\"")));
+    }
+
+    /**
+     * Make sure, no conditional requests are performed if they are disabled by configuration.
+     *
+     * @throws IOException         if the JSON template cannot be read.
+     * @throws StoresthalException if something goes wrong.
+     */
+    @Test
+    public void canDisableConditionalRequests() throws IOException, StoresthalException {
+        Storesthal.init(new StoreresthalConfigurationFactory().setUseConditionalRequests(false).getConfiguration());
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/2";
+        configureValidatingServerMock("/smallSizedCacheObjects/2", getJsonFileContent("simpleObject2.json",
+                Map.of("self", url, "objectId", "2", "name", "Test", "tags", "null")), "application/hal+json;charset=UTF-8", "\"v1\"");
+
+        SmallSizedCacheObject first = Storesthal.getObject(url, SmallSizedCacheObject.class);
+        Storesthal.clearCache(CACHE_NAME, false);
+        SmallSizedCacheObject second = Storesthal.getObject(url, SmallSizedCacheObject.class);
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(0, Storesthal.getStatistics().get("notModifiedResponses"));
+        serverMock.verify(0, getRequestedFor(urlEqualTo("/smallSizedCacheObjects/2")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+}
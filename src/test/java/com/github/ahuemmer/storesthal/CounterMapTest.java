@@ -0,0 +1,80 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.helpers.CounterMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for the {@link CounterMap}.
+ */
+public class CounterMapTest {
+
+    /**
+     * Make sure, no increments are lost when counting concurrently.
+     *
+     * @throws InterruptedException if waiting for the threads is interrupted.
+     */
+    @Test
+    public void countsConcurrently() throws InterruptedException {
+        CounterMap counters = new CounterMap();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String name = "counter" + (i % 2);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counters.increment(name);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, counters.get("counter0"));
+        assertEquals(40_000, counters.get("counter1"));
+        assertEquals(Map.of("counter0", 40_000, "counter1", 40_000), counters.snapshot());
+    }
+
+    /**
+     * Make sure, the snapshots are immutable and don't change when counting afterward.
+     */
+    @Test
+    public void returnsImmutableSnapshots() {
+        CounterMap counters = new CounterMap();
+        counters.add("bytes", 5_000_000_000L);
+        counters.increment("hits");
+
+        Map<String, Long> snapshot = counters.longSnapshot();
+        counters.increment("hits");
+
+        assertEquals(5_000_000_000L, snapshot.get("bytes"));
+        assertEquals(1L, snapshot.get("hits"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.put("hits", 0L));
+
+        counters.reset("hits");
+        counters.remove("bytes");
+        assertEquals(Map.of("hits", 0), counters.snapshot());
+        assertFalse(counters.snapshot().containsKey("bytes"));
+    }
+
+    /**
+     * Make sure, counts exceeding the range of an integer are reported as {@link Integer#MAX_VALUE} instead of
+     * overflowing.
+     */
+    @Test
+    public void saturatesIntegerSnapshots() {
+        CounterMap counters = new CounterMap();
+        counters.add("hits", 5_000_000_000L);
+        counters.add("misses", 42);
+
+        assertEquals(Map.of("hits", Integer.MAX_VALUE, "misses", 42), counters.snapshot());
+        assertEquals(Integer.MAX_VALUE, CounterMap.saturate(Integer.MAX_VALUE + 1L));
+        assertEquals(0, CounterMap.saturate(0));
+    }
+}
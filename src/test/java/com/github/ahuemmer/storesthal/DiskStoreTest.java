@@ -0,0 +1,151 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cache.DiskStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the {@link DiskStore}.
+ */
+public class DiskStoreTest {
+
+    /**
+     * A temporary directory for the store files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Make sure, entries can be stored, read and removed - and are still there after reopening the store.
+     *
+     * @throws IOException if the store can't be opened.
+     */
+    @Test
+    public void keepsEntriesAcrossRestarts() throws IOException {
+        Path file = directory.resolve("cache.bin");
+
+        try (DiskStore store = new DiskStore(file, 64 * 1024)) {
+            assertNull(store.get("a"));
+            assertTrue(store.put("a", new byte[]{1, 2, 3}, 0));
+            assertTrue(store.put("b", new byte[]{4, 5}, 0));
+            assertTrue(store.put("c", new byte[]{6}, 0));
+            assertTrue(store.put("a", new byte[]{7}, 0));
+            store.remove("b");
+            assertArrayEquals(new byte[]{7}, store.get("a").value());
+            assertNull(store.get("b"));
+            assertEquals(2, store.size());
+        }
+
+        try (DiskStore store = new DiskStore(file, 64 * 1024)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(new byte[]{7}, store.get("a").value());
+            assertNull(store.get("b"));
+            assertArrayEquals(new byte[]{6}, store.get("c").value());
+        }
+
+        // Another capacity means another layout, so the file is started anew.
+        try (DiskStore store = new DiskStore(file, 128 * 1024)) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    /**
+     * Make sure, expired entries aren't returned.
+     *
+     * @throws IOException if the store can't be opened.
+     */
+    @Test
+    public void doesntReturnExpiredEntries() throws IOException {
+        try (DiskStore store = new DiskStore(directory.resolve("cache.bin"), 64 * 1024)) {
+            store.put("expired", new byte[]{1}, System.currentTimeMillis() - 1);
+            store.put("fresh", new byte[]{2}, System.currentTimeMillis() + 60_000);
+            assertNull(store.get("expired"));
+            assertArrayEquals(new byte[]{2}, store.get("fresh").value());
+        }
+    }
+
+    /**
+     * Make sure, a record written incompletely (e. g. because the process crashed) is ignored when reopening the
+     * store, while the records written before are kept.
+     *
+     * @throws IOException if the store can't be opened.
+     */
+    @Test
+    public void ignoresIncompleteRecords() throws IOException {
+        Path file = directory.resolve("cache.bin");
+
+        try (DiskStore store = new DiskStore(file, 64 * 1024)) {
+            store.put("a", new byte[]{1, 2, 3}, 0);
+            store.put("b", new byte[]{4, 5, 6}, 0);
+        }
+
+        // Corrupt the header of the second record (file header: 16, segment header: 16, first record: 36 + 1 + 3)
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(16 + 16 + 40 + 12);
+            raf.writeInt(4711);
+        }
+
+        try (DiskStore store = new DiskStore(file, 64 * 1024)) {
+            assertArrayEquals(new byte[]{1, 2, 3}, store.get("a").value());
+            assertNull(store.get("b"));
+            assertTrue(store.put("c", new byte[]{7}, 0));
+        }
+
+        try (DiskStore store = new DiskStore(file, 64 * 1024)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(new byte[]{7}, store.get("c").value());
+        }
+    }
+
+    /**
+     * Make sure, the oldest entries are evicted once the file is full and entries too large aren't stored at all.
+     *
+     * @throws IOException if the store can't be opened.
+     */
+    @Test
+    public void evictsOldestEntriesWhenFull() throws IOException {
+        Path file = directory.resolve("cache.bin");
+
+        // 8 segments of 4096 bytes each
+        try (DiskStore store = new DiskStore(file, 8 * 4096)) {
+            assertFalse(store.put("huge", new byte[5000], 0));
+
+            for (int i = 0; i < 100; i++) {
+                assertTrue(store.put("key" + i, new byte[1000], 0));
+            }
+            assertNull(store.get("key0"));
+            assertTrue(store.get("key99") != null);
+            assertTrue(store.getUsedBytes() <= 8 * 4096);
+        }
+
+        try (DiskStore store = new DiskStore(file, 8 * 4096)) {
+            assertNull(store.get("key0"));
+            assertTrue(store.get("key99") != null);
+            assertTrue(store.put("key100", new byte[1000], 0));
+        }
+    }
+
+    /**
+     * Make sure, the file can't be used by two stores at the same time.
+     *
+     * @throws IOException if the store can't be opened.
+     */
+    @Test
+    public void locksFile() throws IOException {
+        Path file = directory.resolve("cache.bin");
+        try (DiskStore ignored = new DiskStore(file, 64 * 1024)) {
+            assertThrows(IOException.class, () -> new DiskStore(file, 64 * 1024));
+        }
+    }
+}
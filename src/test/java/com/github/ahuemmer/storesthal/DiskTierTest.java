@@ -0,0 +1,91 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.PersistentCacheObject;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.DiskTier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that cached objects can be kept on disk (see {@link DiskTier}).
+ */
+public class DiskTierTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of {@link PersistentCacheObject}.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.PersistentCacheObject";
+
+    /**
+     * A temporary directory for the disk cache file.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Enable the disk tier, reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.init(new StoreresthalConfigurationFactory().setDiskCacheFile(directory.resolve("storesthal.cache")).setDiskCacheBytes(1024 * 1024).getConfiguration());
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Close the disk cache and switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.clearAllCaches();
+        DiskTier.close();
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Make sure, an object no longer cached in memory is read from disk instead of being retrieved anew - also after
+     * the disk cache has been closed and opened again (like after a restart).
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void readsObjectsFromDisk() throws Exception {
+        for (int i = 1; i <= 2; i++) {
+            configureServerMockWithResponseFile("/persistentObjects/" + i, "simpleObject2.json", Map.of("objectId", String.valueOf(i), "name", "Test " + i, "tags", "null"));
+        }
+        serverMock.start();
+
+        String url1 = "http://localhost:" + serverMock.port() + "/persistentObjects/1";
+        String url2 = "http://localhost:" + serverMock.port() + "/persistentObjects/2";
+
+        PersistentCacheObject first = Storesthal.getObject(url1, PersistentCacheObject.class);
+        Storesthal.getObject(url2, PersistentCacheObject.class);
+
+        assertEquals(1, Storesthal.getCachedObjectCount(CACHE_NAME));
+        assertEquals(2, DiskTier.getObjectCount());
+        assertTrue((Long) Storesthal.getStatistics().get("diskBytes") > 0);
+
+        PersistentCacheObject restored = Storesthal.getObject(url1, PersistentCacheObject.class);
+        assertNotSame(first, restored);
+        assertEquals(first, restored);
+
+        DiskTier.close();
+
+        assertEquals("Test 2", Storesthal.getObject(url2, PersistentCacheObject.class).getName());
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertEquals(2, ((Map) Storesthal.getStatistics().get("diskHits")).get(CACHE_NAME));
+
+        Storesthal.clearCache(CACHE_NAME, false);
+        assertEquals(0, DiskTier.getObjectCount());
+    }
+
+}
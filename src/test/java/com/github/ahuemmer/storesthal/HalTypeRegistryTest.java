@@ -0,0 +1,57 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObject;
+import com.github.ahuemmer.storesthal.helpers.HalTypeRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test suite for the {@link HalTypeRegistry}.
+ */
+public class HalTypeRegistryTest {
+
+    /**
+     * Make sure, types, type references and readers are resolved only once per object class.
+     */
+    @Test
+    public void resolvesTypesOncePerClass() {
+        assertSame(HalTypeRegistry.getEntityModelType(ChildObject.class), HalTypeRegistry.getEntityModelType(ChildObject.class));
+        assertSame(HalTypeRegistry.getEntityModelListType(ChildObject.class), HalTypeRegistry.getEntityModelListType(ChildObject.class));
+        assertSame(HalTypeRegistry.getEntityModelReader(ChildObject.class), HalTypeRegistry.getEntityModelReader(ChildObject.class));
+        assertSame(HalTypeRegistry.getEntityModelListReader(ChildObject.class), HalTypeRegistry.getEntityModelListReader(ChildObject.class));
+        assertSame(HalTypeRegistry.getEntityModelTypeReference(ChildObject.class), HalTypeRegistry.getEntityModelTypeReference(ChildObject.class));
+        assertSame(HalTypeRegistry.getCollectionTypeReference(ChildObject.class), HalTypeRegistry.getCollectionTypeReference(ChildObject.class));
+
+        assertNotSame(HalTypeRegistry.getEntityModelType(ChildObject.class), HalTypeRegistry.getEntityModelType(ComplexObject.class));
+        assertEquals(ChildObject.class, HalTypeRegistry.getEntityModelType(ChildObject.class).containedType(0).getRawClass());
+    }
+
+    /**
+     * Make sure, the readers of the registry are able to deserialize HAL content (including links).
+     *
+     * @throws IOException if the JSON content can't be read.
+     */
+    @Test
+    public void readsHalContent() throws IOException {
+        String json = """
+                [{"_links": {"self": {"href": "http://localhost/children/1"}}, "name": "Child 1", "objectId": 1},
+                 {"_links": {"self": {"href": "http://localhost/children/2"}}, "name": "Child 2", "objectId": 2}]""";
+
+        List<EntityModel<ChildObject>> result = HalTypeRegistry.getEntityModelListReader(ChildObject.class).readValue(json);
+
+        assertEquals(2, result.size());
+        assertEquals("Child 2", result.get(1).getContent().getChildName());
+        assertTrue(result.get(0).getLink("self").isPresent());
+        assertEquals("http://localhost/children/1", result.get(0).getLink("self").get().getHref());
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.HttpCacheControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that the freshness of cached objects can be controlled by the "Cache-Control" and "Expires"
+ * response headers (see {@link HttpCacheControl}).
+ */
+public class HttpCacheControlTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Configure the mocked service to answer with the given "Cache-Control" header.
+     *
+     * @param url          The URL to be configured.
+     * @param cacheControl The "Cache-Control" header of the answer.
+     * @throws IOException if the JSON template cannot be read.
+     */
+    private void configureServerMockWithCacheControl(String url, String cacheControl) throws IOException {
+        serverMock.stubFor(get(urlEqualTo(url))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/hal+json;charset=UTF-8")
+                        .withHeader("Cache-Control", cacheControl)
+                        .withBody(getJsonFileContent("simpleObject2.json", Map.of("self", "http://localhost:" + serverMock.port() + url, "objectId", "1", "name", "Test", "tags", "null")))));
+    }
+
+    /**
+     * Make sure, the time to live is derived correctly from the response headers.
+     */
+    @Test
+    public void derivesTimeToLiveFromHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        assertNull(HttpCacheControl.getTimeToLive(headers));
+
+        headers.setCacheControl("public, max-age=60");
+        assertEquals(Duration.ofSeconds(60), HttpCacheControl.getTimeToLive(headers));
+
+        headers.set(HttpHeaders.AGE, "20");
+        assertEquals(Duration.ofSeconds(40), HttpCacheControl.getTimeToLive(headers));
+
+        headers.setCacheControl("max-age=60, no-store");
+        assertEquals(Duration.ZERO, HttpCacheControl.getTimeToLive(headers));
+        assertFalse(HttpCacheControl.isStorable(headers));
+
+        headers.setCacheControl("private, max-age=60");
+        assertEquals(Duration.ZERO, HttpCacheControl.getTimeToLive(headers));
+        assertFalse(HttpCacheControl.isStorable(headers));
+
+        headers.setCacheControl("max-age=0");
+        assertTrue(HttpCacheControl.isStorable(headers));
+
+        headers = new HttpHeaders();
+        headers.setDate(1_000_000_000_000L);
+        headers.setExpires(1_000_000_030_000L);
+        assertEquals(Duration.ofSeconds(30), HttpCacheControl.getTimeToLive(headers));
+
+        headers.setCacheControl("max-age=10");
+        assertEquals(Duration.ofSeconds(10), HttpCacheControl.getTimeToLive(headers));
+
+        headers = new HttpHeaders();
+        headers.set(HttpHeaders.EXPIRES, "0");
+        assertEquals(Duration.ZERO, HttpCacheControl.getTimeToLive(headers));
+    }
+
+    /**
+     * Make sure, a cached object expires as declared by "max-age", although its cache doesn't expire objects.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void honorsMaxAge() throws Exception {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).getConfiguration());
+        serverMock.start();
+        configureServerMockWithCacheControl("/smallSizedCacheObjects/1", "max-age=1");
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+
+        SmallSizedCacheObject first = Storesthal.getObject(url, SmallSizedCacheObject.class);
+        assertSame(first, Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertEquals(1, Storesthal.getStatistics().get("httpCalls"));
+
+        Thread.sleep(1100);
+
+        assertNotSame(first, Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, objects declared "no-store" aren't cached at all.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void doesntCacheNoStore() throws Exception {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).getConfiguration());
+        serverMock.start();
+        configureServerMockWithCacheControl("/smallSizedCacheObjects/1", "no-store");
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+
+        Storesthal.getObject(url, SmallSizedCacheObject.class);
+        Storesthal.getObject(url, SmallSizedCacheObject.class);
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, objects declared "no-cache" are kept, but revalidated before each reuse.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void revalidatesNoCache() throws Exception {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).getConfiguration());
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/1"))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/hal+json;charset=UTF-8")
+                        .withHeader("Cache-Control", "no-cache")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(getJsonFileContent("simpleObject2.json", Map.of("self", url, "objectId", "1", "name", "Test", "tags", "null")))));
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/1"))
+                .atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse()
+                        .withStatus(304)
+                        .withHeader("Cache-Control", "no-cache")
+                        .withHeader("ETag", "\"v1\"")));
+
+        SmallSizedCacheObject first = Storesthal.getObject(url, SmallSizedCacheObject.class);
+        assertSame(first, Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertEquals(1, Storesthal.getStatistics().get("notModifiedResponses"));
+    }
+
+    /**
+     * Make sure, the freshness declared by a response doesn't outlive a later response from the same URI not declaring
+     * its freshness, so that the settings of the cache apply again.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void forgetsFreshnessNoLongerDeclared() throws Exception {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).getConfiguration());
+        serverMock.start();
+        configureServerMockWithCacheControl("/smallSizedCacheObjects/1", "max-age=1");
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+
+        Storesthal.getObject(url, SmallSizedCacheObject.class);
+        Thread.sleep(1100);
+
+        configureServerMockWithResponseFile("/smallSizedCacheObjects/1", "simpleObject2.json", Map.of("objectId", "1", "name", "Test", "tags", "null"));
+
+        SmallSizedCacheObject second = Storesthal.getObject(url, SmallSizedCacheObject.class);
+        assertSame(second, Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, the response headers are ignored per default.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void ignoresHeadersPerDefault() throws Exception {
+        serverMock.start();
+        configureServerMockWithCacheControl("/smallSizedCacheObjects/1", "no-store");
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+
+        Storesthal.getObject(url, SmallSizedCacheObject.class);
+        Storesthal.getObject(url, SmallSizedCacheObject.class);
+        assertEquals(1, Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, objects of classes not annotated with {@link Cacheable} are kept in the intermediate cache as long as
+     * declared fresh, if configured to.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void appliesHeadersToIntermediateCache() throws Exception {
+        Storesthal.init(new StoreresthalConfigurationFactory().setHonorCacheControl(true).setApplyCacheControlToIntermediateCache(true).getConfiguration());
+        serverMock.start();
+        configureServerMockWithCacheControl("/childObjects/1", "max-age=60");
+        configureServerMockWithCacheControl("/childObjects/2", "no-cache");
+
+        String url = "http://localhost:" + serverMock.port() + "/childObjects/1";
+
+        ChildObject first = Storesthal.getObject(url, ChildObject.class);
+        assertSame(first, Storesthal.getObject(url, ChildObject.class));
+        assertEquals(1, Storesthal.getStatistics().get("httpCalls"));
+
+        String uncachedUrl = "http://localhost:" + serverMock.port() + "/childObjects/2";
+
+        assertNotSame(Storesthal.getObject(uncachedUrl, ChildObject.class), Storesthal.getObject(uncachedUrl, ChildObject.class));
+        assertEquals(3, Storesthal.getStatistics().get("httpCalls"));
+    }
+
+}
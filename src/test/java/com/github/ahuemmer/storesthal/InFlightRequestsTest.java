@@ -0,0 +1,169 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.ChildWithParentRelation;
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.InFlightRequests;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test set to make sure that concurrent requests for the same resource are coalesced (see {@link InFlightRequests}).
+ */
+public class InFlightRequestsTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The number of threads requesting the same resource at the same time.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Configure the mocked service to answer slowly, so that all requests arrive while the first one is in progress.
+     *
+     * @param url          The URL to be configured.
+     * @param answerToSend The answer of the mocked service.
+     * @param contentType  The content type of the answer.
+     */
+    private void configureSlowServerMock(String url, String answerToSend, String contentType) {
+        serverMock.stubFor(get(urlEqualTo(url))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", contentType)
+                        .withBody(answerToSend)
+                        .withFixedDelay(500)));
+    }
+
+    /**
+     * Run the given task in {@link #THREADS} threads, starting all of them at the same time.
+     *
+     * @param task The task to be run.
+     * @param <T>  The result type of the task.
+     * @return The results of all threads.
+     * @throws Exception if a task fails.
+     */
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Make sure, concurrent requests for the same primitive value result in one single HTTP call.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void coalescesConcurrentPrimitiveRequests() throws Exception {
+        configureSlowServerMock("/get/an/integer", "42", "text/plain;charset=UTF-8");
+        serverMock.start();
+
+        List<Integer> results = runConcurrently(() -> Storesthal.getInteger("http://localhost:" + serverMock.port() + "/get/an/integer", true));
+
+        for (Integer result : results) {
+            assertEquals(42, result);
+        }
+
+        assertEquals(1, (Integer) Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, concurrent requests for the same cacheable object result in one single HTTP call and one single
+     * object instance.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void coalescesConcurrentObjectRequests() throws Exception {
+        configureSlowServerMock("/parentObjects/1", getJsonFileContent("simpleObject2.json", Map.of("self", "http://localhost:" + serverMock.port() + "/parentObjects/1", "objectId", "1", "name", "Testparent 1", "tags", "null")), "application/hal+json;charset=UTF-8");
+        serverMock.start();
+
+        Storesthal.init(new StoreresthalConfigurationFactory().setParallelTraversal(true).getConfiguration());
+
+        List<SmallSizedCacheObject> results = runConcurrently(() -> Storesthal.getObject("http://localhost:" + serverMock.port() + "/parentObjects/1", SmallSizedCacheObject.class));
+
+        for (SmallSizedCacheObject result : results) {
+            assertEquals("Testparent 1", result.getName());
+            //Use == here --> really the same object!
+            assertSame(results.get(0), result);
+        }
+
+        assertEquals(1, (Integer) Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, concurrent sequential retrievals of the same cacheable object are coalesced as a whole: Callers
+     * arriving while the relations of the object are still being traversed get the very same, fully populated object
+     * instead of retrieving it again.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void coalescesConcurrentRetrievalsUntilTraversed() throws Exception {
+        configureServerMockWithResponseFile("/complexChildren1/1", "simpleChildObjectWithParentRelation.json", Map.of("childId", "12", "childName", "Testchild 1!", "parent", "/parentObjects/124"));
+        configureSlowServerMock("/parentObjects/124", getJsonFileContent("complexObject1.json", Map.of("port", String.valueOf(serverMock.port()), "self", "http://localhost:" + serverMock.port() + "/parentObjects/124")), "application/hal+json;charset=UTF-8");
+        serverMock.start();
+
+        List<ChildWithParentRelation> results = runConcurrently(() -> Storesthal.getObject("http://localhost:" + serverMock.port() + "/complexChildren1/1", ChildWithParentRelation.class));
+
+        for (ChildWithParentRelation result : results) {
+            assertSame(results.get(0), result);
+            assertNotNull(result.getParent());
+        }
+
+        assertEquals(2, (Integer) Storesthal.getStatistics().get("httpCalls"));
+    }
+
+}
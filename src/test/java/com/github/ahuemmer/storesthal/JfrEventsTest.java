@@ -0,0 +1,99 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithSingleChild;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.jfr.FetchEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that fetches, cache lookups, relation resolutions and retrievals are recorded as JFR events
+ * (see {@link FetchEvent} and its siblings).
+ */
+public class JfrEventsTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The directory to dump the recording to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, all kinds of events are recorded with the expected values.
+     *
+     * @throws IOException if the JSON template cannot be read or the recording cannot be dumped.
+     */
+    @Test
+    public void recordsEvents() throws IOException {
+        configureServerMockWithResponseFile("/complexObjectsWithSingleChildren/1", "complexObjectWithSingleChild1.json");
+        configureServerMockWithResponseFile("/complexChildren/1", "simpleObject1.json", Map.of("name", "Testchild!", "tags", "[]"));
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/complexObjectsWithSingleChildren/1";
+        Path file = directory.resolve("storesthal.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.ahuemmer.storesthal.Fetch");
+            recording.enable("com.github.ahuemmer.storesthal.CacheLookup");
+            recording.enable("com.github.ahuemmer.storesthal.Relation");
+            recording.enable("com.github.ahuemmer.storesthal.Retrieval");
+            recording.start();
+
+            Storesthal.getObject(url, ComplexObjectWithSingleChild.class);
+            CacheManager.getObjectFromCache(URI.create(url), SmallSizedCacheObject.class, null);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> fetches = events.stream().filter(e -> e.getEventType().getName().equals("com.github.ahuemmer.storesthal.Fetch")).toList();
+        assertEquals(2, fetches.size());
+        assertTrue(fetches.stream().anyMatch(e -> url.equals(e.getString("uri"))));
+        assertTrue(fetches.stream().allMatch(e -> (e.getInt("status") == 200) && (e.getLong("bytes") > 0)));
+
+        List<RecordedEvent> relations = events.stream().filter(e -> e.getEventType().getName().equals("com.github.ahuemmer.storesthal.Relation")).toList();
+        assertEquals(1, relations.size());
+        assertEquals("child", relations.get(0).getString("rel"));
+        assertEquals(0, relations.get(0).getInt("depth"));
+
+        List<RecordedEvent> retrievals = events.stream().filter(e -> e.getEventType().getName().equals("com.github.ahuemmer.storesthal.Retrieval")).toList();
+        assertEquals(1, retrievals.size());
+        assertEquals(url, retrievals.get(0).getString("url"));
+        assertEquals(2, retrievals.get(0).getInt("objectCount"));
+        assertEquals(2, retrievals.get(0).getInt("httpCalls"));
+        assertFalse(retrievals.get(0).getBoolean("collection"));
+
+        List<RecordedEvent> lookups = events.stream().filter(e -> e.getEventType().getName().equals("com.github.ahuemmer.storesthal.CacheLookup")).toList();
+        assertEquals(1, lookups.size());
+        assertEquals(CacheManager.getCacheName(SmallSizedCacheObject.class), lookups.get(0).getString("cacheName"));
+        assertFalse(lookups.get(0).getBoolean("hit"));
+        assertEquals("none", lookups.get(0).getString("tier"));
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithSingleChild;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.CacheManager;
+import com.github.ahuemmer.storesthal.helpers.NegativeCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test set to make sure that resources known to be missing are not requested again (see {@link NegativeCache}).
+ */
+public class NegativeCacheTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, a relation pointing to a missing resource is not requested again when retrieving the object
+     * structure once more.
+     *
+     * @throws IOException if the JSON template cannot be read.
+     */
+    @Test
+    public void doesntRequestMissingRelationAgain() throws IOException {
+        configureServerMockWithResponseFile("/complexObjectsWithSingleChildren/1", "complexObjectWithSingleChild1.json");
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/complexObjectsWithSingleChildren/1";
+
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, ComplexObjectWithSingleChild.class));
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, ComplexObjectWithSingleChild.class));
+
+        serverMock.verify(2, getRequestedFor(urlEqualTo("/complexObjectsWithSingleChildren/1")));
+        serverMock.verify(1, getRequestedFor(urlEqualTo("/complexChildren/1")));
+
+        String cacheName = CacheManager.getCacheName(ChildObject.class);
+        assertEquals(1, NegativeCache.getMissingCount(cacheName));
+        assertEquals(1, ((Map) Storesthal.getStatistics().get("negativeHits")).get(cacheName));
+
+        // Once forgotten, the resource is requested again.
+        Storesthal.clearAllCaches();
+        configureServerMockWithResponseFile("/complexChildren/1", "simpleObject1.json", Map.of("name", "Testchild!", "tags", "[]"));
+        assertEquals("Testchild!", Storesthal.getObject(url, ComplexObjectWithSingleChild.class).getChild().getChildName());
+    }
+
+    /**
+     * Make sure, only missing resources are remembered, but not other failures.
+     */
+    @Test
+    public void remembersOnlyMissingResources() {
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/gone")).willReturn(aResponse().withStatus(410)));
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/failing")).willReturn(aResponse().withStatus(500)));
+        serverMock.start();
+
+        String gone = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/gone";
+        String failing = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/failing";
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(StoresthalException.class, () -> Storesthal.getObject(gone, SmallSizedCacheObject.class));
+            assertThrows(StoresthalException.class, () -> Storesthal.getObject(failing, SmallSizedCacheObject.class));
+        }
+
+        serverMock.verify(1, getRequestedFor(urlEqualTo("/smallSizedCacheObjects/gone")));
+        serverMock.verify(3, getRequestedFor(urlEqualTo("/smallSizedCacheObjects/failing")));
+        assertEquals(2, ((Map) Storesthal.getStatistics().get("negativeHits")).get("com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject"));
+    }
+
+    /**
+     * Make sure, missing resources are requested again if they aren't to be remembered.
+     */
+    @Test
+    public void canBeDisabled() {
+        Storesthal.init(new StoreresthalConfigurationFactory().setNegativeCacheSeconds(0).getConfiguration());
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/missing";
+
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+
+        serverMock.verify(2, getRequestedFor(urlEqualTo("/smallSizedCacheObjects/missing")));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.ChildWithParentRelation;
+import com.github.ahuemmer.storesthal.cachetestobjects.ParentObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.helpers.ObjectSizeEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test suite for the {@link ObjectSizeEstimator}.
+ */
+public class ObjectSizeEstimatorTest {
+
+    /**
+     * Make sure, the estimated size grows with the contents of an object.
+     */
+    @Test
+    public void estimatesRetainedSize() {
+        assertEquals(0, ObjectSizeEstimator.estimate(null));
+
+        ChildObject small = new ChildObject();
+        small.setChildName("a");
+
+        ChildObject large = new ChildObject();
+        large.setChildName("a".repeat(1000));
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tags.add("Tag " + i);
+        }
+        large.setTags(tags);
+
+        long smallSize = ObjectSizeEstimator.estimate(small);
+        assertTrue(smallSize >= 24);
+        assertTrue(ObjectSizeEstimator.estimate(large) > smallSize + 1000 + 100 * 24);
+    }
+
+    /**
+     * Make sure, related objects being cached on their own are not counted.
+     */
+    @Test
+    public void skipsOtherCacheableObjects() {
+        ChildWithParentRelation child = new ChildWithParentRelation();
+        child.setChildName("Child");
+        long withoutParent = ObjectSizeEstimator.estimate(child);
+
+        ParentObject parent = new ParentObject();
+        parent.setName("a".repeat(1000));
+        child.setParent(parent);
+
+        assertEquals(withoutParent, ObjectSizeEstimator.estimate(child));
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cache.OffHeapStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the {@link OffHeapStore}.
+ */
+public class OffHeapStoreTest {
+
+    /**
+     * Make sure, entries can be stored, read, taken and removed.
+     */
+    @Test
+    public void canStoreEntries() {
+        OffHeapStore<String> store = new OffHeapStore<>(1000);
+        assertNull(store.get("a"));
+
+        assertTrue(store.put("a", new byte[]{1, 2, 3}));
+        assertTrue(store.put("b", new byte[]{4, 5}));
+        assertArrayEquals(new byte[]{1, 2, 3}, store.get("a"));
+        assertEquals(2, store.size());
+        assertEquals(5, store.getUsedBytes());
+
+        assertTrue(store.put("a", new byte[]{6}));
+        assertArrayEquals(new byte[]{6}, store.get("a"));
+        assertEquals(3, store.getUsedBytes());
+
+        assertArrayEquals(new byte[]{4, 5}, store.take("b"));
+        assertNull(store.get("b"));
+
+        store.remove("a");
+        assertEquals(0, store.size());
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    /**
+     * Make sure, the oldest entries are dropped once the store is full and entries too large aren't stored at all.
+     */
+    @Test
+    public void dropsOldestEntriesWhenFull() {
+        // 8 segments of 10 bytes each
+        OffHeapStore<Integer> store = new OffHeapStore<>(80);
+
+        assertFalse(store.put(0, new byte[11]));
+        assertNull(store.get(0));
+
+        for (int i = 1; i <= 8; i++) {
+            assertTrue(store.put(i, new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+        }
+        assertEquals(8, store.size());
+        assertEquals(80, store.getUsedBytes());
+
+        assertTrue(store.put(9, new byte[]{9}));
+        assertNull(store.get(1));
+        assertEquals(2, store.get(2)[0]);
+        assertEquals(9, store.get(9)[0]);
+        assertEquals(71, store.getUsedBytes());
+    }
+
+    /**
+     * Make sure, entries can be removed selectively and all at once.
+     */
+    @Test
+    public void canRemoveEntries() {
+        OffHeapStore<String> store = new OffHeapStore<>(1000);
+        store.put("a1", new byte[]{1});
+        store.put("a2", new byte[]{2});
+        store.put("b1", new byte[]{3});
+
+        store.removeIf(key -> key.startsWith("a"));
+        assertNull(store.get("a1"));
+        assertNull(store.get("a2"));
+        assertArrayEquals(new byte[]{3}, store.get("b1"));
+        assertEquals(1, store.getUsedBytes());
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertNull(store.get("b1"));
+    }
+
+    /**
+     * Make sure, entries are spread over the stripes of a store, each of them dropping its own oldest entries.
+     */
+    @Test
+    public void spreadsEntriesOverStripes() {
+        // 2 stripes of 8 segments of 10 bytes each
+        OffHeapStore<Integer> store = new OffHeapStore<>(160, 3);
+
+        for (int i = 1; i <= 16; i++) {
+            assertTrue(store.put(i, new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+        }
+        assertEquals(16, store.size());
+        assertEquals(160, store.getUsedBytes());
+
+        // Even and odd keys are stored in different stripes:
+        assertTrue(store.put(18, new byte[]{18}));
+        assertNull(store.get(2));
+        assertEquals(1, store.get(1)[0]);
+        assertEquals(4, store.get(4)[0]);
+        assertEquals(151, store.getUsedBytes());
+
+        store.removeIf(key -> key % 2 == 1);
+        assertEquals(8, store.size());
+        store.clear();
+        assertEquals(0, store.getUsedBytes());
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.OffHeapCacheObject;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.OffHeapTier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that objects evicted from the caches can be kept off-heap (see {@link OffHeapTier}).
+ */
+public class OffHeapTierTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of {@link OffHeapCacheObject}.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.OffHeapCacheObject";
+
+    /**
+     * Enable the off-heap tier, reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.init(new StoreresthalConfigurationFactory().setOffHeapCacheBytes(1024 * 1024).getConfiguration());
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.clearAllCaches();
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Make sure, an evicted object is moved off-heap and back into its cache once it is requested again, without
+     * retrieving it anew.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void restoresEvictedObjectFromOffHeap() throws Exception {
+        for (int i = 1; i <= 2; i++) {
+            configureServerMockWithResponseFile("/offHeapObjects/" + i, "simpleObject2.json", Map.of("objectId", String.valueOf(i), "name", "Test " + i, "tags", "null"));
+        }
+        serverMock.start();
+
+        String url1 = "http://localhost:" + serverMock.port() + "/offHeapObjects/1";
+        String url2 = "http://localhost:" + serverMock.port() + "/offHeapObjects/2";
+
+        OffHeapCacheObject first = Storesthal.getObject(url1, OffHeapCacheObject.class);
+        Storesthal.getObject(url2, OffHeapCacheObject.class);
+        OffHeapTier.flush();
+
+        assertEquals(1, Storesthal.getCachedObjectCount(CACHE_NAME));
+        assertEquals(1, OffHeapTier.getObjectCount());
+        assertTrue((Long) Storesthal.getStatistics().get("offHeapBytes") > 0);
+
+        OffHeapCacheObject restored = Storesthal.getObject(url1, OffHeapCacheObject.class);
+
+        assertNotSame(first, restored);
+        assertEquals(first, restored);
+        assertSame(restored, Storesthal.getObject(url1, OffHeapCacheObject.class));
+        assertEquals(2, Storesthal.getStatistics().get("httpCalls"));
+        assertEquals(1, ((Map) Storesthal.getStatistics().get("offHeapHits")).get(CACHE_NAME));
+
+        // Now the second object has been moved off-heap.
+        OffHeapTier.flush();
+        assertEquals(1, OffHeapTier.getObjectCount());
+        Storesthal.clearCache(CACHE_NAME, false);
+        assertEquals(0, OffHeapTier.getObjectCount());
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelation;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren4;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that parallel traversal (see {@link StoresthalConfiguration#isParallelTraversal()}) creates
+ * the same object structures as sequential traversal.
+ */
+public class ParallelTraversalTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Switch back to the default (sequential) configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Configure the mocked service to answer with a parent object having three children, each of which refers back
+     * to the parent.
+     *
+     * @throws IOException if the JSON template for the mocked service answer can't be accessed.
+     */
+    private void configureParentWithChildren() throws IOException {
+        configureServerMockWithResponseFile("/complexObjectsWithMultipleChildren1/1", "complexObjectWithMultipleChildren1.json", Map.of("color", "887766", "comment", "", "categoryId", "12345", "name", "Parallel parent", "number", "-1", "type", "parallel", "children", createJsonHrefArray(new String[]{
+                "http://localhost:${port}/complexChildren2/1",
+                "http://localhost:${port}/complexChildren2/2",
+                "http://localhost:${port}/complexChildren2/3"}
+        ), "parent", ""));
+        configureServerMockWithResponseFile("/complexChildren2/1", "simpleChildObjectWithParentRelation.json", Map.of("childId", "654321", "childName", "Testchild with parent 1.", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        configureServerMockWithResponseFile("/complexChildren2/2", "simpleChildObjectWithParentRelation.json", Map.of("childId", "158", "childName", "Testchild with parent 2.", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        configureServerMockWithResponseFile("/complexChildren2/3", "simpleChildObjectWithParentRelation.json", Map.of("childId", "1147", "childName", "Testchild with parent 3.", "parent", "/complexObjectsWithMultipleChildren1/1"));
+
+        serverMock.start();
+    }
+
+    /**
+     * Retrieve the parent object configured by {@link #configureParentWithChildren()} and make sure, the children are
+     * in link order, every child refers to the very same parent instance and every object was retrieved only once.
+     *
+     * @throws StoresthalException if something fails.
+     */
+    private void retrieveAndCheckParentWithChildren() throws StoresthalException {
+        ComplexObjectWithMultipleChildren4 test = Storesthal.getObject("http://localhost:" + serverMock.port() + "/complexObjectsWithMultipleChildren1/1", ComplexObjectWithMultipleChildren4.class);
+
+        assertNotNull(test);
+        assertEquals("Parallel parent", test.getName());
+
+        List<ChildObjectWithParentRelation> children = test.getChildren();
+        assertNotNull(children);
+        assertEquals(3, children.size());
+        assertEquals("Testchild with parent 1.", children.get(0).getChildName());
+        assertEquals("Testchild with parent 2.", children.get(1).getChildName());
+        assertEquals("Testchild with parent 3.", children.get(2).getChildName());
+
+        for (ChildObjectWithParentRelation child : children) {
+            //Use == here --> really the same object!
+            assertSame(test, child.getParent());
+        }
+
+        assertEquals(4, (Integer) Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, a cyclic object structure is wired correctly using a bounded pool of platform threads.
+     *
+     * @throws StoresthalException if something fails.
+     * @throws IOException         if the JSON template for the mocked service answer can't be accessed.
+     */
+    @Test
+    public void wiresCyclicRelationsUsingPlatformThreads() throws StoresthalException, IOException {
+        configureParentWithChildren();
+
+        Storesthal.init(new StoreresthalConfigurationFactory().setParallelTraversal(true).setTraversalParallelism(2).getConfiguration());
+
+        retrieveAndCheckParentWithChildren();
+    }
+
+    /**
+     * Make sure, a cyclic object structure is wired correctly using virtual threads.
+     *
+     * @throws StoresthalException if something fails.
+     * @throws IOException         if the JSON template for the mocked service answer can't be accessed.
+     */
+    @Test
+    public void wiresCyclicRelationsUsingVirtualThreads() throws StoresthalException, IOException {
+        configureParentWithChildren();
+
+        Storesthal.init(new StoreresthalConfigurationFactory().setParallelTraversal(true).setUseVirtualThreads(true).getConfiguration());
+
+        retrieveAndCheckParentWithChildren();
+    }
+
+    /**
+     * Make sure, a custom executor is used for parallel traversal, if given.
+     *
+     * @throws StoresthalException if something fails.
+     * @throws IOException         if the JSON template for the mocked service answer can't be accessed.
+     */
+    @Test
+    public void usesCustomExecutor() throws StoresthalException, IOException {
+        configureParentWithChildren();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        AtomicInteger tasks = new AtomicInteger();
+        Executor countingExecutor = task -> {
+            tasks.incrementAndGet();
+            executorService.execute(task);
+        };
+
+        try {
+            Storesthal.init(new StoreresthalConfigurationFactory().setParallelTraversal(true).setCustomTraversalExecutor(countingExecutor).getConfiguration());
+
+            retrieveAndCheckParentWithChildren();
+
+            assertTrue(tasks.get() >= 4);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelation;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren4;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test set for the reactive retrieval functions of {@link ReactiveStoresthal}.
+ */
+public class ReactiveStoresthalTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, an object structure with cyclic relations is retrieved reactively just like synchronously.
+     *
+     * @throws IOException if the JSON template for the mocked service answer can't be accessed.
+     */
+    @Test
+    public void retrievesObjectsReactively() throws IOException {
+        configureServerMockWithResponseFile("/complexObjectsWithMultipleChildren1/1", "complexObjectWithMultipleChildren1.json", Map.of("color", "887766", "comment", "", "categoryId", "12345", "name", "Reactive parent", "number", "-1", "type", "reactive", "children", createJsonHrefArray(new String[]{
+                "http://localhost:${port}/complexChildren2/1",
+                "http://localhost:${port}/complexChildren2/2"}
+        ), "parent", ""));
+        configureServerMockWithResponseFile("/complexChildren2/1", "simpleChildObjectWithParentRelation.json", Map.of("childId", "1", "childName", "Reactive child 1", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        configureServerMockWithResponseFile("/complexChildren2/2", "simpleChildObjectWithParentRelation.json", Map.of("childId", "2", "childName", "Reactive child 2", "parent", "/complexObjectsWithMultipleChildren1/1"));
+        serverMock.start();
+
+        ComplexObjectWithMultipleChildren4 test = ReactiveStoresthal.getObject("http://localhost:" + serverMock.port() + "/complexObjectsWithMultipleChildren1/1", ComplexObjectWithMultipleChildren4.class).block();
+
+        assertNotNull(test);
+        assertEquals("Reactive parent", test.getName());
+
+        List<ChildObjectWithParentRelation> children = test.getChildren();
+        assertNotNull(children);
+        assertEquals(2, children.size());
+        assertEquals("Reactive child 1", children.get(0).getChildName());
+        assertEquals("Reactive child 2", children.get(1).getChildName());
+
+        for (ChildObjectWithParentRelation child : children) {
+            //Use == here --> really the same object!
+            assertSame(test, child.getParent());
+        }
+
+        assertEquals(3, (Integer) Storesthal.getStatistics().get("httpCalls"));
+    }
+
+    /**
+     * Make sure, collection items are emitted in collection order.
+     *
+     * @throws IOException if the JSON template for the mocked service answer can't be accessed.
+     */
+    @Test
+    public void emitsCollectionItemsInOrder() throws IOException {
+        configureServerMockWithResponseFile("/collection/coll", "collection.json");
+        serverMock.start();
+
+        StepVerifier.create(ReactiveStoresthal.getCollection("http://localhost:" + serverMock.port() + "/collection/coll", ChildObject.class))
+                .expectNextCount(2)
+                .expectNextMatches(child -> child.getChildId() == 759034)
+                .expectNextMatches(child -> "collObject673896873".equals(child.getChildName()))
+                .verifyComplete();
+    }
+
+    /**
+     * Make sure, primitives are retrieved reactively and failures are signalled as {@link StoresthalException}.
+     */
+    @Test
+    public void retrievesPrimitivesReactively() {
+        configureServerMock("/get/an/integer", "42", "text/plain;charset=UTF-8");
+        configureServerMock("/get/a/faulty/integer", "a", "text/plain;charset=UTF-8");
+        serverMock.start();
+
+        assertEquals(42, ReactiveStoresthal.getInteger("http://localhost:" + serverMock.port() + "/get/an/integer", true).block());
+        assertEquals(42, ReactiveStoresthal.getInteger("http://localhost:" + serverMock.port() + "/get/an/integer", true).block());
+        assertEquals(1, (Integer) Storesthal.getStatistics().get("httpCalls"));
+
+        StepVerifier.create(ReactiveStoresthal.getInteger("http://localhost:" + serverMock.port() + "/get/a/faulty/integer"))
+                .expectError(StoresthalException.class)
+                .verify();
+    }
+
+}
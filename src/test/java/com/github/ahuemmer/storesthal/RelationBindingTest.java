@@ -0,0 +1,133 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.binding.RelationBinding;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelation;
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelationCollection;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObject;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren1;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren2;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren3;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren4;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren5;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.helpers.ReflectionHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test suite for the relation bindings of the {@link ReflectionHelper}.
+ */
+public class RelationBindingTest {
+
+    /**
+     * Switch back to the default configuration after each test.
+     */
+    @AfterEach
+    public void restoreDefaultConfiguration() {
+        Storesthal.init(StoreresthalConfigurationFactory.DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Make sure, relations declared by annotated setters and fields are bound, including the element type of
+     * collections.
+     *
+     * @throws NoSuchMethodException if a setter doesn't exist
+     */
+    @Test
+    public void bindsAnnotatedRelations() throws NoSuchMethodException {
+        RelationBinding binding = ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren1.class, "children");
+        assertEquals("setChildren", binding.setterName());
+        assertNull(binding.collectionFactory());
+        assertEquals(List.class, binding.type());
+        assertTrue(binding.collection());
+        assertEquals(ChildObject.class, binding.elementType());
+
+        binding = ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren2.class, "children");
+        assertEquals(LinkedList.class, binding.type());
+        assertTrue(binding.collection());
+        assertEquals(ChildObject.class, binding.elementType());
+
+        binding = ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren5.class, "children");
+        assertEquals(ChildObjectWithParentRelationCollection.class, binding.elementType());
+
+        binding = ReflectionHelper.getRelationBinding(ChildObjectWithParentRelation.class, "parent");
+        assertEquals("setParent", binding.setterName());
+        assertFalse(binding.collection());
+        assertNull(binding.elementType());
+
+        binding = ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren3.class, "children");
+        assertFalse(binding.collection());
+        assertTrue(binding.type().isArray());
+
+        assertEquals(ComplexObjectWithMultipleChildren3.class.getMethod("setChildren", ChildObject[].class),
+                ReflectionHelper.searchForSetter(ComplexObjectWithMultipleChildren3.class, "children"));
+    }
+
+    /**
+     * Make sure, relations not declared aren't bound, unless annotationless mode is used.
+     */
+    @Test
+    public void bindsByNameInAnnotationlessMode() {
+        assertNull(ReflectionHelper.getRelationBinding(ComplexObject.class, "name"));
+        assertNull(ReflectionHelper.getRelationBinding(ChildObjectWithParentRelation.class, "childName"));
+        assertNull(ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren1.class, "nothing"));
+
+        Storesthal.init(new StoreresthalConfigurationFactory().setAnnotationless(true).getConfiguration());
+
+        RelationBinding binding = ReflectionHelper.getRelationBinding(ChildObjectWithParentRelation.class, "childName");
+        assertEquals("setChildName", binding.setterName());
+        assertEquals("setChildName", ReflectionHelper.getRelationBinding(ChildObjectWithParentRelation.class, "ChildName").setterName());
+        assertNull(ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren1.class, "nothing"));
+    }
+
+    /**
+     * Make sure, the bindings are looked up only once per class.
+     */
+    @Test
+    public void looksUpBindingsOncePerClass() {
+        assertSame(ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren2.class, "children"),
+                ReflectionHelper.getRelationBinding(ComplexObjectWithMultipleChildren2.class, "children"));
+    }
+
+    /**
+     * Make sure, the accessors created for setters invoke them, whether generated or falling back to reflection.
+     *
+     * @throws NoSuchMethodException if a setter doesn't exist
+     */
+    @Test
+    public void invokesSettersByAccessors() throws NoSuchMethodException {
+        ChildObjectWithParentRelation child = new ChildObjectWithParentRelation();
+        ComplexObjectWithMultipleChildren4 parent = new ComplexObjectWithMultipleChildren4();
+
+        ReflectionHelper.getRelationBinding(ChildObjectWithParentRelation.class, "parent").accessor().accept(child, parent);
+        assertSame(parent, child.getParent());
+
+        BiConsumer<Object, Object> setChildId = ReflectionHelper.createSetter(ChildObjectWithParentRelation.class.getMethod("setChildId", int.class));
+        setChildId.accept(child, 42);
+        assertEquals(42, child.getChildId());
+        assertThrows(ClassCastException.class, () -> setChildId.accept(child, "42"));
+
+        // java.util isn't opened to Storesthal, so this falls back to reflection:
+        ArrayList<Object> list = new ArrayList<>();
+        BiConsumer<Object, Object> add = ReflectionHelper.createSetter(ArrayList.class.getMethod("add", Object.class));
+        add.accept(list, "element");
+        assertEquals(List.of("element"), list);
+        assertThrows(IllegalArgumentException.class, () -> add.accept(new Object(), "element"));
+
+        BiConsumer<Object, Object> remove = ReflectionHelper.createSetter(ArrayList.class.getMethod("remove", int.class));
+        assertThrows(IndexOutOfBoundsException.class, () -> remove.accept(list, 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SerializableCacheObject;
+import com.github.ahuemmer.storesthal.helpers.SerializationHelper;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test class for the {@link SerializationHelper}, especially the filter applied when deserializing.
+ */
+public class SerializationHelperTest {
+
+    /**
+     * A cached class referring to another (not annotated) class.
+     */
+    @Cacheable(cacheName = "com.github.ahuemmer.storesthal.SerializationHelperTest.CachedParent")
+    public static class CachedParent implements Serializable {
+        List<Child> children = new ArrayList<>();
+    }
+
+    /**
+     * A class referred to by a cached class only.
+     */
+    public static class Child implements Serializable {
+        String name;
+    }
+
+    /**
+     * A serializable class, which is neither cached nor referred to by a cached class.
+     */
+    public static class Unrelated implements Serializable {
+        String name;
+    }
+
+    /**
+     * Make sure, cached objects, the objects they refer to, value types and collections are deserialized.
+     */
+    @Test
+    public void deserializesCachedObjects() {
+        SerializableCacheObject object = new SerializableCacheObject();
+        object.setId(1);
+        object.setName("Test");
+        assertEquals(object, SerializationHelper.deserialize(SerializationHelper.serialize(object)));
+
+        CachedParent parent = new CachedParent();
+        Child child = new Child();
+        child.name = "Child";
+        parent.children.add(child);
+        CachedParent deserialized = (CachedParent) SerializationHelper.deserialize(SerializationHelper.serialize(parent));
+        assertNotNull(deserialized);
+        assertEquals("Child", deserialized.children.get(0).name);
+
+        Map<String, Object> values = Map.of("instant", Instant.ofEpochSecond(42), "list", List.of(1, 2.0, true));
+        assertEquals(values, SerializationHelper.deserialize(SerializationHelper.serialize(values)));
+    }
+
+    /**
+     * Make sure, objects of other classes and object graphs exceeding the limits are rejected.
+     */
+    @Test
+    public void rejectsOtherObjects() {
+        Unrelated unrelated = new Unrelated();
+        unrelated.name = "Unrelated";
+        assertNull(SerializationHelper.deserialize(SerializationHelper.serialize(unrelated)));
+        assertNull(SerializationHelper.deserialize(SerializationHelper.serialize(new ArrayList<>(List.of(unrelated)))));
+
+        List<Object> nested = new ArrayList<>();
+        List<Object> current = nested;
+        for (int i = 0; i < 100; i++) {
+            List<Object> next = new ArrayList<>();
+            current.add(next);
+            current = next;
+        }
+        assertNull(SerializationHelper.deserialize(SerializationHelper.serialize(nested)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that the statistics of evictions, loads and the HTTP transport are gathered correctly.
+ */
+public class StatisticsTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of the {@link SmallSizedCacheObject}s.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject";
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, loads, evictions and bytes received are counted.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void countsLoadsAndEvictions() throws Exception {
+        serverMock.start();
+        for (int i = 1; i <= 6; i++) {
+            configureServerMockWithResponseFile("/smallSizedCacheObjects/" + i, "simpleObject2.json", Map.of("objectId", String.valueOf(i), "name", "Test", "tags", "null"));
+        }
+
+        for (int i = 1; i <= 6; i++) {
+            Storesthal.getObject("http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/" + i, SmallSizedCacheObject.class);
+        }
+
+        Map<String, Object> statistics = Storesthal.getStatistics();
+        assertEquals(6, (Integer) statistics.get("httpCalls"));
+        assertEquals(6, ((Map) statistics.get("loads")).get(CACHE_NAME));
+        assertNull(((Map) statistics.get("loadFailures")).get(CACHE_NAME));
+        assertTrue((Long) ((Map) statistics.get("loadTimeNanos")).get(CACHE_NAME) > 0);
+        assertEquals(1, ((Map) statistics.get("evictions")).get(CACHE_NAME));
+        assertTrue((Long) statistics.get("bytesReceived") > 0);
+        assertEquals(0, (Integer) statistics.get("inFlightRequests"));
+
+        Storesthal.resetStatistics();
+        statistics = Storesthal.getStatistics();
+        assertEquals(0L, statistics.get("bytesReceived"));
+        assertTrue(((Map) statistics.get("loads")).isEmpty());
+        assertTrue(((Map) statistics.get("evictions")).isEmpty());
+    }
+
+    /**
+     * Make sure, failed loads are counted as such.
+     */
+    @Test
+    public void countsLoadFailures() {
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/failing")).willReturn(aResponse().withStatus(500)));
+        serverMock.start();
+
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/failing";
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+
+        Map<String, Object> statistics = Storesthal.getStatistics();
+        assertEquals(2, ((Map) statistics.get("loads")).get(CACHE_NAME));
+        assertEquals(2, ((Map) statistics.get("loadFailures")).get(CACHE_NAME));
+        assertEquals(0, (Integer) statistics.get("inFlightRequests"));
+    }
+
+    /**
+     * Make sure, the statistics are an immutable snapshot.
+     */
+    @Test
+    public void returnsImmutableSnapshot() {
+        Map<String, Object> statistics = Storesthal.getStatistics();
+        assertThrows(UnsupportedOperationException.class, () -> statistics.put("httpCalls", 42));
+        assertThrows(UnsupportedOperationException.class, () -> ((Map) statistics.get("cacheHits")).clear());
+    }
+
+}
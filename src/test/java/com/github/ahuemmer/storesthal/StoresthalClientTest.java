@@ -0,0 +1,133 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.complextestobjects.ChildObjectWithParentRelation;
+import com.github.ahuemmer.storesthal.complextestobjects.ComplexObjectWithMultipleChildren4;
+import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
+import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test set for {@link StoresthalClient}, making sure that retrievals running at the same time don't interfere.
+ */
+public class StoresthalClientTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The number of parent objects (and concurrent retrievals).
+     */
+    private static final int PARENTS = 8;
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Configure the mocked service to answer with {@link #PARENTS} parent objects having two children each, all of
+     * which refer back to their parent.
+     *
+     * @throws IOException if the JSON template for the mocked service answer can't be accessed.
+     */
+    private void configureParentsWithChildren() throws IOException {
+        for (int i = 1; i <= PARENTS; i++) {
+            configureServerMockWithResponseFile("/complexObjectsWithMultipleChildren1/" + i, "complexObjectWithMultipleChildren1.json", Map.of("color", "887766", "comment", "", "categoryId", "12345", "name", "Parent " + i, "number", String.valueOf(i), "type", "client", "children", createJsonHrefArray(new String[]{
+                    "http://localhost:${port}/complexChildren2/" + i + "1",
+                    "http://localhost:${port}/complexChildren2/" + i + "2"}
+            ), "parent", ""));
+            configureServerMockWithResponseFile("/complexChildren2/" + i + "1", "simpleChildObjectWithParentRelation.json", Map.of("childId", i + "1", "childName", "Child " + i + ".1", "parent", "/complexObjectsWithMultipleChildren1/" + i));
+            configureServerMockWithResponseFile("/complexChildren2/" + i + "2", "simpleChildObjectWithParentRelation.json", Map.of("childId", i + "2", "childName", "Child " + i + ".2", "parent", "/complexObjectsWithMultipleChildren1/" + i));
+        }
+        serverMock.start();
+    }
+
+    /**
+     * Make sure, several cyclic object structures retrieved by one client at the same time are wired correctly,
+     * each one having its own traversal state.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void retrievesObjectStructuresConcurrently() throws Exception {
+        configureParentsWithChildren();
+
+        StoresthalClient client = Storesthal.getDefaultClient();
+        ExecutorService executor = Executors.newFixedThreadPool(PARENTS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<ComplexObjectWithMultipleChildren4>> futures = new ArrayList<>();
+            for (int i = 1; i <= PARENTS; i++) {
+                String url = "http://localhost:" + serverMock.port() + "/complexObjectsWithMultipleChildren1/" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return client.getObject(url, ComplexObjectWithMultipleChildren4.class);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 1; i <= PARENTS; i++) {
+                ComplexObjectWithMultipleChildren4 parent = futures.get(i - 1).get();
+                assertEquals("Parent " + i, parent.getName());
+
+                List<ChildObjectWithParentRelation> children = parent.getChildren();
+                assertNotNull(children);
+                assertEquals(2, children.size());
+                assertEquals("Child " + i + ".1", children.get(0).getChildName());
+                assertEquals("Child " + i + ".2", children.get(1).getChildName());
+
+                for (ChildObjectWithParentRelation child : children) {
+                    //Use == here --> really the same object!
+                    assertSame(parent, child.getParent());
+                }
+            }
+
+            assertEquals(3 * PARENTS, (Integer) Storesthal.getStatistics().get("httpCalls"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Make sure, a client with its own configuration works independently of the default client.
+     *
+     * @throws Exception if something fails.
+     */
+    @Test
+    public void usesOwnConfiguration() throws Exception {
+        configureParentsWithChildren();
+
+        StoresthalConfiguration configuration = new StoreresthalConfigurationFactory().setParallelTraversal(true).getConfiguration();
+        StoresthalClient client = new StoresthalClient(configuration);
+
+        try {
+            ComplexObjectWithMultipleChildren4 parent = client.getObject("http://localhost:" + serverMock.port() + "/complexObjectsWithMultipleChildren1/1", ComplexObjectWithMultipleChildren4.class);
+
+            assertSame(configuration, client.getConfiguration());
+            assertEquals("Parent 1", parent.getName());
+            assertEquals(2, parent.getChildren().size());
+            for (ChildObjectWithParentRelation child : parent.getChildren()) {
+                assertSame(parent, child.getParent());
+            }
+        } finally {
+            configuration.release();
+        }
+    }
+
+}
@@ -2,9 +2,14 @@ package com.github.ahuemmer.storesthal;
 
 import com.github.ahuemmer.storesthal.configuration.StoreresthalConfigurationFactory;
 import com.github.ahuemmer.storesthal.configuration.StoresthalConfiguration;
+import com.github.ahuemmer.storesthal.helpers.HttpTransport;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.Executor;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -21,6 +26,29 @@ public class StoresthalConfigurationTest {
         assertEquals(StoresthalConfiguration.DEFAULT_DEFAULT_CACHE_SIZE, conf.getDefaultCacheSize());
         assertEquals(StoresthalConfiguration.DEFAULT_ANNOTATIONLESS, conf.isAnnotationless());
         assertEquals(StoresthalConfiguration.DEFAULT_CACHING_DISABLED, conf.isCachingDisabled());
+        assertEquals(StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_TOTAL, conf.getMaxConnectionsTotal());
+        assertEquals(StoresthalConfiguration.DEFAULT_MAX_CONNECTIONS_PER_HOST, conf.getMaxConnectionsPerHost());
+        assertEquals(StoresthalConfiguration.DEFAULT_CONNECTION_KEEP_ALIVE_SECONDS, conf.getConnectionKeepAliveSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_IDLE_CONNECTION_EVICTION_SECONDS, conf.getIdleConnectionEvictionSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_PARALLEL_TRAVERSAL, conf.isParallelTraversal());
+        assertEquals(StoresthalConfiguration.DEFAULT_TRAVERSAL_PARALLELISM, conf.getTraversalParallelism());
+        assertEquals(StoresthalConfiguration.DEFAULT_USE_VIRTUAL_THREADS, conf.isUsingVirtualThreads());
+        assertEquals(StoresthalConfiguration.DEFAULT_REACTIVE_CONCURRENCY, conf.getReactiveConcurrency());
+        assertEquals(StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_WRITE_SECONDS, conf.getDefaultExpireAfterWriteSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_DEFAULT_EXPIRE_AFTER_ACCESS_SECONDS, conf.getDefaultExpireAfterAccessSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_CACHE_CLEANUP_INTERVAL_SECONDS, conf.getCacheCleanupIntervalSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_USE_CONDITIONAL_REQUESTS, conf.isUsingConditionalRequests());
+        assertEquals(StoresthalConfiguration.DEFAULT_VALIDATOR_CACHE_SIZE, conf.getValidatorCacheSize());
+        assertEquals(StoresthalConfiguration.DEFAULT_HONOR_CACHE_CONTROL, conf.isHonoringCacheControl());
+        assertEquals(StoresthalConfiguration.DEFAULT_APPLY_CACHE_CONTROL_TO_INTERMEDIATE_CACHE, conf.isApplyingCacheControlToIntermediateCache());
+        assertEquals(StoresthalConfiguration.DEFAULT_DEFAULT_CACHE_MAX_BYTES, conf.getDefaultCacheMaxBytes());
+        assertEquals(StoresthalConfiguration.DEFAULT_MAX_CACHE_BYTES, conf.getMaxCacheBytes());
+        assertSame(StoresthalConfiguration.DEFAULT_CACHE_WEIGHER, conf.getCacheWeigher());
+        assertEquals(StoresthalConfiguration.DEFAULT_OFF_HEAP_CACHE_BYTES, conf.getOffHeapCacheBytes());
+        assertEquals(StoresthalConfiguration.DEFAULT_DISK_CACHE_FILE, conf.getDiskCacheFile());
+        assertEquals(StoresthalConfiguration.DEFAULT_DISK_CACHE_BYTES, conf.getDiskCacheBytes());
+        assertEquals(StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SECONDS, conf.getNegativeCacheSeconds());
+        assertEquals(StoresthalConfiguration.DEFAULT_NEGATIVE_CACHE_SIZE, conf.getNegativeCacheSize());
     }
 
     /**
@@ -58,4 +86,76 @@ public class StoresthalConfigurationTest {
 
     }
 
+    /**
+     * Make sure, the connection pool settings are taken over and the HTTP transport is created only once per
+     * configuration (and re-created after having been closed).
+     */
+    @Test
+    public void sharesHttpTransportPerConfiguration() {
+        StoresthalConfiguration conf = new StoreresthalConfigurationFactory()
+                .setMaxConnectionsTotal(42)
+                .setMaxConnectionsPerHost(7)
+                .setConnectionKeepAliveSeconds(12)
+                .setIdleConnectionEvictionSeconds(3)
+                .getConfiguration();
+
+        assertEquals(42, conf.getMaxConnectionsTotal());
+        assertEquals(7, conf.getMaxConnectionsPerHost());
+        assertEquals(12, conf.getConnectionKeepAliveSeconds());
+        assertEquals(3, conf.getIdleConnectionEvictionSeconds());
+
+        HttpTransport transport = conf.getHttpTransport();
+        assertSame(transport, conf.getHttpTransport());
+        assertSame(transport.getHalRestTemplate(false), conf.getHttpTransport().getHalRestTemplate(false));
+        assertNotSame(transport.getHalRestTemplate(false), transport.getHalRestTemplate(true));
+
+        conf.closeHttpTransport();
+        assertNotSame(transport, conf.getHttpTransport());
+        conf.closeHttpTransport();
+    }
+
+    /**
+     * Make sure, the traversal executor is created only once per configuration (and re-created after having been
+     * shut down), while a custom executor is always used as it is.
+     */
+    @Test
+    public void sharesTraversalExecutorPerConfiguration() {
+        StoresthalConfiguration conf = new StoreresthalConfigurationFactory()
+                .setParallelTraversal(true)
+                .setTraversalParallelism(3)
+                .getConfiguration();
+
+        assertTrue(conf.isParallelTraversal());
+        assertEquals(3, conf.getTraversalParallelism());
+
+        Executor executor = conf.getTraversalExecutor();
+        assertSame(executor, conf.getTraversalExecutor());
+
+        conf.shutdownTraversalExecutor();
+        assertNotSame(executor, conf.getTraversalExecutor());
+        conf.release();
+
+        Executor customExecutor = Runnable::run;
+        conf = new StoreresthalConfigurationFactory().setCustomTraversalExecutor(customExecutor).getConfiguration();
+        assertSame(customExecutor, conf.getTraversalExecutor());
+        conf.release();
+        assertSame(customExecutor, conf.getTraversalExecutor());
+    }
+
+    /**
+     * Make sure, the expiry settings are taken over by the configuration.
+     */
+    @Test
+    public void setsExpiry() {
+        StoresthalConfiguration conf = new StoreresthalConfigurationFactory()
+                .setDefaultExpireAfterWriteSeconds(600)
+                .setDefaultExpireAfterAccessSeconds(120)
+                .setCacheCleanupIntervalSeconds(5)
+                .getConfiguration();
+
+        assertEquals(600, conf.getDefaultExpireAfterWriteSeconds());
+        assertEquals(120, conf.getDefaultExpireAfterAccessSeconds());
+        assertEquals(5, conf.getCacheCleanupIntervalSeconds());
+    }
+
 }
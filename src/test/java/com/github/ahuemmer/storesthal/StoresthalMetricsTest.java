@@ -0,0 +1,106 @@
+package com.github.ahuemmer.storesthal;
+
+import com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject;
+import com.github.ahuemmer.storesthal.metrics.StoresthalMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test set to make sure that the statistics are published to Micrometer correctly (see {@link StoresthalMetrics}).
+ */
+public class StoresthalMetricsTest extends AbstractJsonTemplateBasedTest {
+
+    /**
+     * The cache name of the {@link SmallSizedCacheObject}s.
+     */
+    private static final String CACHE_NAME = "com.github.ahuemmer.storesthal.cachetestobjects.SmallSizedCacheObject";
+
+    /**
+     * Reset the statistics and empty the caches before each test run.
+     */
+    @BeforeEach
+    public void init() {
+        Storesthal.resetStatistics();
+        Storesthal.clearAllCaches();
+    }
+
+    /**
+     * Make sure, cache accesses, HTTP requests and retrievals are published, tagged as expected.
+     *
+     * @throws IOException if the JSON template cannot be read.
+     */
+    @Test
+    public void publishesCacheAndRequestMetrics() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (StoresthalMetrics metrics = new StoresthalMetrics(Tags.of("application", "test"))) {
+            metrics.bindTo(registry);
+
+            serverMock.start();
+            configureServerMockWithResponseFile("/smallSizedCacheObjects/1", "simpleObject2.json", Map.of("objectId", "1", "name", "Test", "tags", "null"));
+            String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/1";
+
+            Storesthal.getObject(url, SmallSizedCacheObject.class);
+            Storesthal.getObject(url, SmallSizedCacheObject.class);
+
+            assertEquals(1, registry.get("storesthal.http.requests")
+                    .tag("application", "test")
+                    .tag("cache", CACHE_NAME)
+                    .tag("host", "localhost")
+                    .tag("class", SmallSizedCacheObject.class.getName())
+                    .tag("outcome", "success")
+                    .timer().count());
+
+            assertEquals(1.0, registry.get("storesthal.cache.gets").tag("cache", CACHE_NAME).tag("result", "hit").functionCounter().count());
+            assertTrue(registry.get("storesthal.cache.gets").tag("cache", CACHE_NAME).tag("result", "miss").functionCounter().count() >= 1.0);
+            assertEquals(1.0, registry.get("storesthal.cache.size").tag("cache", CACHE_NAME).gauge().value());
+            assertEquals(0.0, registry.get("storesthal.cache.evictions").tag("cache", CACHE_NAME).functionCounter().count());
+            assertTrue(registry.get("storesthal.http.bytes.received")
+                    .tag("host", "localhost")
+                    .tag("class", SmallSizedCacheObject.class.getName())
+                    .counter().count() > 0);
+            assertEquals(0.0, registry.get("storesthal.http.requests.active").gauge().value());
+
+            DistributionSummary objects = registry.get("storesthal.retrieval.objects")
+                    .tag("class", SmallSizedCacheObject.class.getName())
+                    .tag("operation", "getObject")
+                    .summary();
+            assertEquals(2, objects.count());
+            assertEquals(1.0, objects.totalAmount());
+        }
+    }
+
+    /**
+     * Make sure, failed requests are tagged as such and nothing is recorded any more once the binder is closed.
+     */
+    @Test
+    public void recordsFailuresUntilClosed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StoresthalMetrics metrics = new StoresthalMetrics();
+        metrics.bindTo(registry);
+
+        serverMock.stubFor(get(urlEqualTo("/smallSizedCacheObjects/failing")).willReturn(aResponse().withStatus(500)));
+        serverMock.start();
+        String url = "http://localhost:" + serverMock.port() + "/smallSizedCacheObjects/failing";
+
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+        metrics.close();
+        assertThrows(StoresthalException.class, () -> Storesthal.getObject(url, SmallSizedCacheObject.class));
+
+        assertEquals(1, registry.get("storesthal.http.requests").tag("outcome", "failure").timer().count());
+    }
+
+}
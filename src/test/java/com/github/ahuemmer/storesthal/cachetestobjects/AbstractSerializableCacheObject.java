@@ -0,0 +1,52 @@
+package com.github.ahuemmer.storesthal.cachetestobjects;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A simple serializable object with an id and a name. Its subclasses only declare the cache (settings) to be tested.
+ */
+public abstract class AbstractSerializableCacheObject implements Serializable {
+
+    @JsonProperty("objectId")
+    private int id;
+
+    private String name;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AbstractSerializableCacheObject that = (AbstractSerializableCacheObject) o;
+
+        if (id != that.id) return false;
+        return Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id;
+        result = 31 * result + (name != null ? name.hashCode() : 0);
+        return result;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.github.ahuemmer.storesthal.cachetestobjects;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+
+/**
+ * A serializable object using a cache of size 1, so that it can be kept off-heap after being evicted.
+ */
+@Cacheable(cacheName = "com.github.ahuemmer.storesthal.cachetestobjects.OffHeapCacheObject", cacheSize = 1)
+public class OffHeapCacheObject extends AbstractSerializableCacheObject {
+}
@@ -0,0 +1,10 @@
+package com.github.ahuemmer.storesthal.cachetestobjects;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+
+/**
+ * An object using a cache refreshing its objects one second after they have been cached.
+ */
+@Cacheable(cacheName = "com.github.ahuemmer.storesthal.cachetestobjects.RefreshingCacheObject", refreshAfterWriteSeconds = 1)
+public class RefreshingCacheObject extends AbstractSerializableCacheObject {
+}
@@ -0,0 +1,10 @@
+package com.github.ahuemmer.storesthal.cachetestobjects;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+
+/**
+ * A serializable object, so that it can be exported from its cache.
+ */
+@Cacheable(cacheName = "com.github.ahuemmer.storesthal.cachetestobjects.SerializableCacheObject", cacheSize = 10)
+public class SerializableCacheObject extends AbstractSerializableCacheObject {
+}
@@ -0,0 +1,10 @@
+package com.github.ahuemmer.storesthal.cachetestobjects;
+
+import com.github.ahuemmer.storesthal.Cacheable;
+
+/**
+ * An object using a cache limited to an (estimated) size of 200 bytes.
+ */
+@Cacheable(cacheName = "com.github.ahuemmer.storesthal.cachetestobjects.SizeLimitedCacheObject", maxBytes = 200)
+public class SizeLimitedCacheObject extends AbstractSerializableCacheObject {
+}